@@ -1,34 +1,99 @@
 package com.aisentinel.security.ai;
 
+import com.aisentinel.security.ai.rules.DetectionRule;
+import com.aisentinel.security.ai.rules.PayloadSizeDetectionRule;
+import com.aisentinel.security.ai.rules.RequestFeatures;
+import com.aisentinel.security.ai.rules.RuleStatistics;
+import com.aisentinel.security.ai.rules.SignatureDetectionRule;
 import com.aisentinel.security.model.AttackPattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 /**
  * This class simulates an AI security engine.
  * In a real-world scenario, this would be backed by actual machine learning models
  * that analyze patterns, detect anomalies, and classify threats.
- * For this example, it uses simple pattern matching to simulate threat detection.
+ * For this example, it evaluates a set of detection rules to simulate threat detection.
+ *
+ * Rules are declared in order of severity and evaluated cheapest-first based on their declared cost.
+ * When several rules match, the most severe one is reported, so the evaluation order never changes
+ * the verdict: evaluation stops at a hit only once no more severe rule is left to evaluate, and rules
+ * less severe than the current hit are skipped. Per-rule hit and latency counters are kept so the
+ * declared costs can be tuned from production statistics.
  */
 @Component
 public class AiSecurityEngine {
 
     private static final Logger log = LoggerFactory.getLogger(AiSecurityEngine.class);
 
-    // Simulated "known bad patterns" that an AI model might have learned.
-    // This could be a database of attack signatures, anomaly profiles, etc.
-    private final List<AttackPattern> knownThreatPatterns = Arrays.asList(
-        new AttackPattern("SQL_INJECTION", "Highly Critical", "SQL injection attempt detected."),
-        new AttackPattern("XSS_ATTACK", "Critical", "Cross-site scripting payload detected."),
-        new AttackPattern("PATH_TRAVERSAL", "High", "Directory traversal attempt detected."),
-        new AttackPattern("BRUTE_FORCE", "Medium", "Suspicious login pattern indicating brute force."),
-        new AttackPattern("ANOMALOUS_PAYLOAD_SIZE", "Low", "Unusually large request payload detected.")
-    );
+    // Requests whose aggregated data exceeds this length are flagged as anomalous.
+    private static final int MAX_PAYLOAD_LENGTH = 500;
+
+    // A rule paired with its severity rank (its declaration index, 0 being the most severe)
+    // and the counters collected for it.
+    private record EvaluatedRule(DetectionRule rule, int severityRank, RuleStatistics statistics) {
+    }
+
+    // Rules sorted by ascending declared cost. The sort is stable, so rules with equal cost
+    // keep their declaration order.
+    private final List<EvaluatedRule> rules;
+
+    // mostSevereRemaining[i] is the most severe rank among rules[i..]; a hit at least that severe ends the evaluation.
+    private final int[] mostSevereRemaining;
+
+    public AiSecurityEngine() {
+        this(defaultRules());
+    }
+
+    /**
+     * @param detectionRules The detection rules, most severe first.
+     */
+    public AiSecurityEngine(List<DetectionRule> detectionRules) {
+        this.rules = IntStream.range(0, detectionRules.size())
+            .mapToObj(rank -> new EvaluatedRule(detectionRules.get(rank), rank,
+                new RuleStatistics(detectionRules.get(rank).getPattern().getType(), detectionRules.get(rank).getCost())))
+            .sorted(Comparator.comparingInt(entry -> entry.rule().getCost()))
+            .toList();
+        this.mostSevereRemaining = new int[rules.size() + 1];
+        mostSevereRemaining[rules.size()] = Integer.MAX_VALUE;
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            mostSevereRemaining[i] = Math.min(rules.get(i).severityRank(), mostSevereRemaining[i + 1]);
+        }
+        rules.forEach(entry -> log.info("AI Security Engine rule registered: Type='{}', Cost={}, Features={}",
+            entry.rule().getPattern().getType(), entry.rule().getCost(), entry.rule().getRequiredFeatures()));
+    }
+
+    /**
+     * Simulated "known bad patterns" that an AI model might have learned,
+     * each paired with the signatures that identify it.
+     * This could be a database of attack signatures, anomaly profiles, etc.
+     * @return The default detection rules, most severe first.
+     */
+    static List<DetectionRule> defaultRules() {
+        return List.of(
+            new SignatureDetectionRule(
+                new AttackPattern("SQL_INJECTION", "Highly Critical", "SQL injection attempt detected."),
+                List.of("SQL INJECTION"), List.of("select * from", "union all select")),
+            new SignatureDetectionRule(
+                new AttackPattern("XSS_ATTACK", "Critical", "Cross-site scripting payload detected."),
+                List.of("XSS ATTACK"), List.of("<script>")),
+            new SignatureDetectionRule(
+                new AttackPattern("PATH_TRAVERSAL", "High", "Directory traversal attempt detected."),
+                List.of("PATH TRAVERSAL", "../.."), List.of()),
+            new SignatureDetectionRule(
+                new AttackPattern("BRUTE_FORCE", "Medium", "Suspicious login pattern indicating brute force."),
+                List.of("BRUTE FORCE"), List.of()),
+            new PayloadSizeDetectionRule(
+                new AttackPattern("ANOMALOUS_PAYLOAD_SIZE", "Low", "Unusually large request payload detected."),
+                MAX_PAYLOAD_LENGTH)
+        );
+    }
 
     /**
      * Simulates the AI's analysis of a request payload for security threats.
@@ -42,24 +107,43 @@ public class AiSecurityEngine {
             return Optional.empty();
         }
 
-        log.info("AI Security Engine analyzing request payload: {}", requestPayload.length() > 100 ? requestPayload.substring(0, 100) + "..." : requestPayload);
-
-        // Simulate pattern matching based on "learned" threats
-        // In a real AI, this would be a probabilistic classification.
-        for (AttackPattern pattern : knownThreatPatterns) {
-            if (requestPayload.contains(pattern.getType().replace("_", " ")) || // e.g., "SQL INJECTION"
-                requestPayload.toLowerCase().contains("select * from") ||
-                requestPayload.toLowerCase().contains("union all select") ||
-                requestPayload.toLowerCase().contains("<script>") ||
-                requestPayload.toLowerCase().contains("../..") ||
-                (pattern.getType().equals("ANOMALOUS_PAYLOAD_SIZE") && requestPayload.length() > 500) // Simple size anomaly
-            ) {
-                log.warn("Threat detected by AI: Type='{}', Description='{}'", pattern.getType(), pattern.getDescription());
-                return Optional.of(pattern);
+        if (log.isInfoEnabled()) {
+            log.info("AI Security Engine analyzing request payload: {}", requestPayload.length() > 100 ? requestPayload.substring(0, 100) + "..." : requestPayload);
+        }
+
+        // Derived features are computed lazily, so a decisive hit on a cheap rule skips the expensive ones entirely.
+        RequestFeatures features = new RequestFeatures(requestPayload);
+        EvaluatedRule mostSevereHit = null;
+        for (int i = 0; i < rules.size(); i++) {
+            if (mostSevereHit != null && mostSevereHit.severityRank() <= mostSevereRemaining[i]) {
+                break; // No remaining rule could report a more severe threat
+            }
+            EvaluatedRule entry = rules.get(i);
+            if (mostSevereHit != null && entry.severityRank() > mostSevereHit.severityRank()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            boolean hit = entry.rule().matches(features);
+            entry.statistics().record(hit, System.nanoTime() - start);
+            if (hit) {
+                mostSevereHit = entry;
             }
         }
 
-        log.debug("No immediate threats detected by AI for this request.");
-        return Optional.empty();
+        if (mostSevereHit == null) {
+            log.debug("No immediate threats detected by AI for this request.");
+            return Optional.empty();
+        }
+        AttackPattern pattern = mostSevereHit.rule().getPattern();
+        log.warn("Threat detected by AI: Type='{}', Description='{}'", pattern.getType(), pattern.getDescription());
+        return Optional.of(pattern);
+    }
+
+    /**
+     * Returns the evaluation counters for every rule, in evaluation order.
+     * @return A list of RuleStatistics, one per registered rule.
+     */
+    public List<RuleStatistics> getRuleStatistics() {
+        return rules.stream().map(EvaluatedRule::statistics).toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.aisentinel.security.ai.rules;
+
+import com.aisentinel.security.model.AttackPattern;
+
+import java.util.Set;
+
+/**
+ * Contract for a single detector evaluated by the AiSecurityEngine.
+ * Each rule declares what it costs to run and which request features it needs,
+ * so the engine can evaluate the cheapest rules first and stop as soon as the verdict is settled.
+ */
+public interface DetectionRule {
+
+    /**
+     * Returns the attack pattern reported when this rule matches.
+     * @return The AttackPattern associated with this rule.
+     */
+    AttackPattern getPattern();
+
+    /**
+     * Returns the relative cost of evaluating this rule. Lower values are evaluated first.
+     * The unit is arbitrary; it only has to be comparable between rules.
+     * @return The declared evaluation cost.
+     */
+    int getCost();
+
+    /**
+     * Returns the request features this rule reads.
+     * @return The set of RequestFeatures required by this rule.
+     */
+    Set<RequestFeature> getRequiredFeatures();
+
+    /**
+     * Evaluates this rule against a request.
+     * @param features The features of the request being analyzed.
+     * @return true if the request matches this rule's attack pattern.
+     */
+    boolean matches(RequestFeatures features);
+}
@@ -0,0 +1,41 @@
+package com.aisentinel.security.ai.rules;
+
+import com.aisentinel.security.model.AttackPattern;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Flags requests whose aggregated data exceeds a size threshold.
+ * It only needs the payload length, which makes it the cheapest rule in the engine.
+ */
+public class PayloadSizeDetectionRule implements DetectionRule {
+
+    private final AttackPattern pattern;
+    private final int maxPayloadLength;
+
+    public PayloadSizeDetectionRule(AttackPattern pattern, int maxPayloadLength) {
+        this.pattern = pattern;
+        this.maxPayloadLength = maxPayloadLength;
+    }
+
+    @Override
+    public AttackPattern getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public int getCost() {
+        return 1;
+    }
+
+    @Override
+    public Set<RequestFeature> getRequiredFeatures() {
+        return EnumSet.of(RequestFeature.PAYLOAD_LENGTH);
+    }
+
+    @Override
+    public boolean matches(RequestFeatures features) {
+        return features.getPayloadLength() > maxPayloadLength;
+    }
+}
@@ -0,0 +1,12 @@
+package com.aisentinel.security.ai.rules;
+
+/**
+ * The request features a DetectionRule can depend on.
+ * Features are listed roughly in order of the work needed to derive them from the raw payload,
+ * which lets the engine reason about what a rule will cost before running it.
+ */
+public enum RequestFeature {
+    PAYLOAD_LENGTH,    // Length of the aggregated request data, available in O(1)
+    RAW_PAYLOAD,       // The aggregated request data as received (case-sensitive scans)
+    LOWERCASE_PAYLOAD  // A lower-cased copy of the request data, derived once per request on first use
+}
@@ -0,0 +1,34 @@
+package com.aisentinel.security.ai.rules;
+
+import java.util.Locale;
+
+/**
+ * Holds the features of a single request that detection rules evaluate against.
+ * Derived features (such as the lower-cased payload) are computed lazily and at most once,
+ * so cheap rules that run first never pay for features only expensive rules need.
+ * Instances are created per request and are not shared between threads.
+ */
+public class RequestFeatures {
+
+    private final String payload;
+    private String lowerCasePayload; // Computed on first access
+
+    public RequestFeatures(String payload) {
+        this.payload = payload;
+    }
+
+    public int getPayloadLength() {
+        return payload.length();
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public String getLowerCasePayload() {
+        if (lowerCasePayload == null) {
+            lowerCasePayload = payload.toLowerCase(Locale.ROOT);
+        }
+        return lowerCasePayload;
+    }
+}
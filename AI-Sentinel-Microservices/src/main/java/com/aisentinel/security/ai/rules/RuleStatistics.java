@@ -0,0 +1,79 @@
+package com.aisentinel.security.ai.rules;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-rule evaluation counters maintained by the AiSecurityEngine.
+ * Counters use LongAdder so concurrent requests do not contend on a single field.
+ * The getters expose a point-in-time view suitable for JSON serialization, which
+ * operators can use to tune the declared rule costs from production traffic.
+ */
+public class RuleStatistics {
+
+    private final String ruleType;
+    private final int declaredCost;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public RuleStatistics(String ruleType, int declaredCost) {
+        this.ruleType = ruleType;
+        this.declaredCost = declaredCost;
+    }
+
+    /**
+     * Records a single evaluation of the rule.
+     * @param hit Whether the rule matched.
+     * @param elapsedNanos Time spent evaluating the rule.
+     */
+    public void record(boolean hit, long elapsedNanos) {
+        evaluations.increment();
+        totalNanos.add(elapsedNanos);
+        if (hit) {
+            hits.increment();
+        }
+    }
+
+    // --- Getters ---
+
+    public String getRuleType() {
+        return ruleType;
+    }
+
+    public int getDeclaredCost() {
+        return declaredCost;
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public double getAverageNanos() {
+        long count = evaluations.sum();
+        return count == 0 ? 0.0 : (double) totalNanos.sum() / count;
+    }
+
+    public double getHitRate() {
+        long count = evaluations.sum();
+        return count == 0 ? 0.0 : (double) hits.sum() / count;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleStatistics{" +
+               "ruleType='" + ruleType + '\'' +
+               ", declaredCost=" + declaredCost +
+               ", evaluations=" + getEvaluations() +
+               ", hits=" + getHits() +
+               ", averageNanos=" + getAverageNanos() +
+               '}';
+    }
+}
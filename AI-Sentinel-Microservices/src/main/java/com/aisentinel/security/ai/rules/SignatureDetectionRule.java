@@ -0,0 +1,73 @@
+package com.aisentinel.security.ai.rules;
+
+import com.aisentinel.security.model.AttackPattern;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Flags requests that contain one of a set of known attack signatures.
+ * Case-sensitive signatures are matched against the raw payload; case-insensitive ones
+ * against the lower-cased payload, which is only derived if such a signature exists.
+ * The cost grows with the number of scans and with the lower-casing step.
+ */
+public class SignatureDetectionRule implements DetectionRule {
+
+    private static final int COST_PER_SCAN = 10;
+    private static final int LOWERCASE_COST = 20;
+
+    private final AttackPattern pattern;
+    private final List<String> caseSensitiveSignatures;
+    private final List<String> caseInsensitiveSignatures; // Stored lower-cased
+
+    public SignatureDetectionRule(AttackPattern pattern, List<String> caseSensitiveSignatures, List<String> caseInsensitiveSignatures) {
+        this.pattern = pattern;
+        this.caseSensitiveSignatures = List.copyOf(caseSensitiveSignatures);
+        this.caseInsensitiveSignatures = caseInsensitiveSignatures.stream()
+            .map(signature -> signature.toLowerCase(Locale.ROOT))
+            .toList();
+    }
+
+    @Override
+    public AttackPattern getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public int getCost() {
+        int scans = caseSensitiveSignatures.size() + caseInsensitiveSignatures.size();
+        return scans * COST_PER_SCAN + (caseInsensitiveSignatures.isEmpty() ? 0 : LOWERCASE_COST);
+    }
+
+    @Override
+    public Set<RequestFeature> getRequiredFeatures() {
+        Set<RequestFeature> features = EnumSet.noneOf(RequestFeature.class);
+        if (!caseSensitiveSignatures.isEmpty()) {
+            features.add(RequestFeature.RAW_PAYLOAD);
+        }
+        if (!caseInsensitiveSignatures.isEmpty()) {
+            features.add(RequestFeature.LOWERCASE_PAYLOAD);
+        }
+        return features;
+    }
+
+    @Override
+    public boolean matches(RequestFeatures features) {
+        for (String signature : caseSensitiveSignatures) {
+            if (features.getPayload().contains(signature)) {
+                return true;
+            }
+        }
+        if (!caseInsensitiveSignatures.isEmpty()) {
+            String lowerCasePayload = features.getLowerCasePayload();
+            for (String signature : caseInsensitiveSignatures) {
+                if (lowerCasePayload.contains(signature)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,134 @@
+package com.aisentinel.security.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, short-lived cache of recently verified credentials.
+ * It lets repeat HTTP Basic requests skip the (deliberately slow) BCrypt verification.
+ *
+ * Passwords are never stored. Each entry holds an HMAC-SHA256 digest of the username and password,
+ * keyed with a random secret generated at startup and kept only in memory, so a heap dump of the
+ * cache cannot be used for offline password guessing. Digests are compared in constant time.
+ * Each entry also remembers the encoded password it was verified against, so a hit can be rejected once the
+ * stored password has changed. Entries expire after a short TTL, the least recently used entry is evicted
+ * once the cache is full, and callers should invalidate a user's entry whenever that user changes.
+ */
+@Component
+public class AuthenticationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationCache.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    // A verified credential digest and the encoded password it was verified against.
+    private record Entry(byte[] digest, String encodedPassword, long expiresAtNanos) {
+    }
+
+    private final SecretKeySpec key;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries; // Keyed by username, guarded by 'this'
+
+    // Mac instances are not thread-safe, so each thread keeps its own.
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public AuthenticationCache(@Value("${ai.sentinel.auth-cache.max-entries:10000}") int maxEntries,
+                               @Value("${ai.sentinel.auth-cache.ttl:PT1M}") Duration ttl) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.ttlNanos = ttl.toNanos();
+        // Access-ordered LinkedHashMap gives us LRU eviction once maxEntries is exceeded.
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        log.info("Authentication cache initialized: maxEntries={}, ttl={}", maxEntries, ttl);
+    }
+
+    /**
+     * Looks up a previously verified credential.
+     * @param username The username presented by the client.
+     * @param password The raw password presented by the client.
+     * @return The encoded password the same credentials were verified against within the TTL, otherwise empty.
+     */
+    public Optional<String> get(String username, String password) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(username);
+            if (entry != null && System.nanoTime() - entry.expiresAtNanos() >= 0) {
+                entries.remove(username);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            return Optional.empty();
+        }
+        // A mismatching digest (wrong password) is a plain miss; the caller falls back to full verification.
+        return MessageDigest.isEqual(entry.digest(), digest(username, password)) ? Optional.of(entry.encodedPassword()) : Optional.empty();
+    }
+
+    /**
+     * Records credentials that have just been verified by the delegate authentication provider.
+     * @param username The verified username.
+     * @param password The verified raw password.
+     * @param user The UserDetails loaded during verification; its password must not have been erased yet.
+     */
+    public void put(String username, String password, UserDetails user) {
+        if (user.getPassword() == null) {
+            return; // Nothing to check a later hit against
+        }
+        Entry entry = new Entry(digest(username, password), user.getPassword(), System.nanoTime() + ttlNanos);
+        synchronized (this) {
+            entries.put(username, entry);
+        }
+    }
+
+    /**
+     * Removes any cached credential for a user. Must be called when the user is updated or deleted.
+     * @param username The user whose entry should be dropped.
+     */
+    public synchronized void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    /**
+     * Removes all cached credentials.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    private byte[] digest(String username, String password) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0); // Separator so ("ab", "c") and ("a", "bc") produce different digests
+        return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + HMAC_ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.aisentinel.security.auth;
+
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+/**
+ * AuthenticationProvider that consults the AuthenticationCache before delegating to the
+ * BCrypt-backed provider. Only successful verifications are cached; failed attempts always
+ * go through the delegate, so brute-force attempts still pay the full BCrypt cost.
+ *
+ * A cache hit only skips the password hash comparison. The user is still loaded on every request
+ * and checked like the delegate would (locked, disabled, expired account or credentials), so account
+ * state changes take effect immediately even when they bypass the cache-invalidating manager.
+ * If the stored password changed since the credentials were cached, the request is fully verified again.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final UserDetailsService userDetailsService;
+    private final AuthenticationCache cache;
+    private final UserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, UserDetailsService userDetailsService,
+                                         AuthenticationCache cache) {
+        this.delegate = delegate;
+        this.userDetailsService = userDetailsService;
+        this.cache = cache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || !(credentials instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        Optional<String> verifiedEncodedPassword = cache.get(username, password);
+        if (verifiedEncodedPassword.isPresent()) {
+            UserDetails user = loadCurrentUser(username, verifiedEncodedPassword.get());
+            if (user != null) {
+                try {
+                    accountStatusChecker.check(user);
+                } catch (AuthenticationException e) {
+                    cache.invalidate(username);
+                    throw e;
+                }
+                UsernamePasswordAuthenticationToken result =
+                    UsernamePasswordAuthenticationToken.authenticated(user, password, user.getAuthorities());
+                result.setDetails(authentication.getDetails());
+                return result;
+            }
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated() && result.getPrincipal() instanceof UserDetails user) {
+            cache.put(username, password, user);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the user behind a cache hit.
+     * @return The current UserDetails, or null if the user is gone or its password changed since it was cached.
+     */
+    private UserDetails loadCurrentUser(String username, String verifiedEncodedPassword) {
+        try {
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            if (user != null && verifiedEncodedPassword.equals(user.getPassword())) {
+                return user;
+            }
+        } catch (UsernameNotFoundException e) {
+            // Fall through: the delegate reports the failure as it normally would
+        }
+        cache.invalidate(username);
+        return null;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
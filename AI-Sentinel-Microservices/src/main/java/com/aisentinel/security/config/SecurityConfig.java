@@ -1,8 +1,13 @@
 package com.aisentinel.security.config;
 
+import com.aisentinel.security.auth.AuthenticationCache;
+import com.aisentinel.security.auth.CacheInvalidatingUserDetailsManager;
+import com.aisentinel.security.auth.CachingAuthenticationProvider;
 import com.aisentinel.security.interceptor.AiSecurityInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
@@ -11,6 +16,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -53,10 +59,11 @@ public class SecurityConfig implements WebMvcConfigurer { // Implements WebMvcCo
     /**
      * Configures an in-memory user details service for demonstration purposes.
      * In a real application, this would be replaced with a database-backed or external identity provider.
-     * @return An InMemoryUserDetailsManager instance.
+     * The manager is wrapped so that any change to a user evicts that user's cached credentials.
+     * @return An InMemoryUserDetailsManager instance wrapped for cache invalidation.
      */
     @Bean
-    public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
+    public UserDetailsManager userDetailsService(PasswordEncoder passwordEncoder, AuthenticationCache authenticationCache) {
         UserDetails user = User.builder()
             .username("user")
             .password(passwordEncoder.encode("password")) // Encode the password
@@ -67,7 +74,22 @@ public class SecurityConfig implements WebMvcConfigurer { // Implements WebMvcCo
             .password(passwordEncoder.encode("adminpass"))
             .roles("ADMIN", "USER") // Assign multiple roles
             .build();
-        return new InMemoryUserDetailsManager(user, admin);
+        return new CacheInvalidatingUserDetailsManager(new InMemoryUserDetailsManager(user, admin), authenticationCache);
+    }
+
+    /**
+     * Provides the authentication provider used by HTTP Basic authentication.
+     * BCrypt verification is deliberately slow, so successfully verified credentials are remembered
+     * in the AuthenticationCache and repeat requests with the same credentials skip BCrypt.
+     * Account status checks still run on every request.
+     * @return A DaoAuthenticationProvider wrapped with the credential cache.
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                                         AuthenticationCache authenticationCache) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider(passwordEncoder);
+        daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        return new CachingAuthenticationProvider(daoAuthenticationProvider, userDetailsService, authenticationCache);
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.aisentinel.security.controller;
 
+import com.aisentinel.security.ai.AiSecurityEngine;
+import com.aisentinel.security.ai.rules.RuleStatistics;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -7,6 +9,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * A simple REST controller demonstrating a secured resource.
  * All endpoints in this controller are subject to both Spring Security authentication
@@ -16,6 +20,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/secure") // Base path for all endpoints in this controller
 public class SecureResourceController {
 
+    private final AiSecurityEngine aiSecurityEngine;
+
+    // Constructor injection for the AI engine, used to expose its rule statistics
+    public SecureResourceController(AiSecurityEngine aiSecurityEngine) {
+        this.aiSecurityEngine = aiSecurityEngine;
+    }
+
     /**
      * An example endpoint that returns a secure message.
      * This endpoint will be protected by Spring Security and our AI security interceptor.
@@ -56,4 +67,14 @@ public class SecureResourceController {
     public ResponseEntity<String> getPublicStatus() {
         return ResponseEntity.ok("Public status check. AI Guardian still observing.");
     }
+
+    /**
+     * Exposes the AI Guardian's per-rule evaluation counters (evaluations, hits, average latency),
+     * listed in the order the rules are evaluated.
+     * @return The current statistics for every detection rule.
+     */
+    @GetMapping("/guardian/rules")
+    public ResponseEntity<List<RuleStatistics>> getRuleStatistics() {
+        return ResponseEntity.ok(aiSecurityEngine.getRuleStatistics());
+    }
 }
\ No newline at end of file
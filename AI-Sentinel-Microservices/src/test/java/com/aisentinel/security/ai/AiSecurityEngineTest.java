@@ -0,0 +1,63 @@
+package com.aisentinel.security.ai;
+
+import com.aisentinel.security.ai.rules.RuleStatistics;
+import com.aisentinel.security.model.AttackPattern;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the AiSecurityEngine: cheapest-first evaluation must never change which threat is reported.
+ */
+class AiSecurityEngineTest {
+
+    private final AiSecurityEngine engine = new AiSecurityEngine();
+
+    @Test
+    @DisplayName("A large payload that also carries a SQL injection is reported as SQL injection")
+    void largePayloadWithSqlInjection() {
+        String payload = "q=1 UNION ALL SELECT password FROM users;" + "x".repeat(600);
+
+        Optional<AttackPattern> threat = engine.analyzeRequest(payload);
+
+        assertTrue(threat.isPresent());
+        assertEquals("SQL_INJECTION", threat.get().getType());
+        assertEquals("Highly Critical", threat.get().getSeverity());
+    }
+
+    @Test
+    @DisplayName("A large payload without signatures is reported as an anomalous payload size")
+    void largePayloadOnly() {
+        Optional<AttackPattern> threat = engine.analyzeRequest("x".repeat(600));
+
+        assertEquals("ANOMALOUS_PAYLOAD_SIZE", threat.map(AttackPattern::getType).orElse(null));
+    }
+
+    @Test
+    @DisplayName("The most severe of several matching signatures is reported")
+    void mostSevereSignatureWins() {
+        Optional<AttackPattern> threat = engine.analyzeRequest("BRUTE FORCE <script>alert(1)</script>");
+
+        assertEquals("XSS_ATTACK", threat.map(AttackPattern::getType).orElse(null));
+    }
+
+    @Test
+    @DisplayName("A hit on the most severe rule ends the evaluation")
+    void mostSevereHitStopsEvaluation() {
+        engine.analyzeRequest("select * from users");
+
+        // SQL_INJECTION is the most expensive rule, so every other rule was evaluated once before it
+        for (RuleStatistics statistics : engine.getRuleStatistics()) {
+            assertEquals(1, statistics.getEvaluations(), statistics.getRuleType());
+        }
+    }
+
+    @Test
+    @DisplayName("A clean request raises no threat")
+    void cleanRequest() {
+        assertTrue(engine.analyzeRequest("GET /api/resource?id=42").isEmpty());
+    }
+}
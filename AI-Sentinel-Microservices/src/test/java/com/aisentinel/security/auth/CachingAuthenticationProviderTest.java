@@ -0,0 +1,108 @@
+package com.aisentinel.security.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CachingAuthenticationProvider: a cache hit skips password verification,
+ * but never the account status checks.
+ */
+class CachingAuthenticationProviderTest {
+
+    private final AtomicInteger passwordChecks = new AtomicInteger();
+    private InMemoryUserDetailsManager users; // Changed directly, bypassing the cache-invalidating manager
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        // Plain-text encoder that counts verifications, standing in for BCrypt
+        PasswordEncoder encoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return "{test}" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                passwordChecks.incrementAndGet();
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        users = new InMemoryUserDetailsManager(user(encoder.encode("password")).build());
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(encoder);
+        dao.setUserDetailsService(users);
+        provider = new CachingAuthenticationProvider(dao, users, new AuthenticationCache(100, Duration.ofMinutes(1)));
+    }
+
+    private static User.UserBuilder user(String encodedPassword) {
+        return User.withUsername("user").password(encodedPassword).roles("USER");
+    }
+
+    private Authentication login(String password) {
+        return provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", password));
+    }
+
+    @Test
+    @DisplayName("Repeat requests with verified credentials skip password verification")
+    void cacheHitSkipsPasswordCheck() {
+        assertTrue(login("password").isAuthenticated());
+        assertTrue(login("password").isAuthenticated());
+
+        assertEquals(1, passwordChecks.get());
+    }
+
+    @Test
+    @DisplayName("A user locked after being cached is rejected on the next request")
+    void lockedAfterCaching() {
+        login("password");
+        users.updateUser(user("{test}password").accountLocked(true).build());
+
+        assertThrows(LockedException.class, () -> login("password"));
+    }
+
+    @Test
+    @DisplayName("A user disabled after being cached is rejected on the next request")
+    void disabledAfterCaching() {
+        login("password");
+        users.updateUser(user("{test}password").disabled(true).build());
+
+        assertThrows(DisabledException.class, () -> login("password"));
+    }
+
+    @Test
+    @DisplayName("A password changed after caching invalidates the cached credentials")
+    void passwordChangedAfterCaching() {
+        login("password");
+        users.updateUser(user("{test}new-password").build());
+
+        assertThrows(BadCredentialsException.class, () -> login("password"));
+        assertTrue(login("new-password").isAuthenticated());
+    }
+
+    @Test
+    @DisplayName("Roles changed after caching are reflected in the authentication")
+    void rolesChangedAfterCaching() {
+        login("password");
+        users.updateUser(user("{test}password").roles("USER", "ADMIN").build());
+
+        UserDetails principal = (UserDetails) login("password").getPrincipal();
+        assertEquals(2, principal.getAuthorities().size());
+        assertEquals(1, passwordChecks.get());
+    }
+}
@@ -0,0 +1,141 @@
+package com.genai.chatops.bot;
+
+import discord4j.core.object.entity.Message;
+import discord4j.core.object.entity.channel.MessageChannel;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Relays the output of one deployment to Discord as a single live message instead of one message per line.
+ * <p>
+ * Lines are buffered as they arrive and the message is edited with the newest lines at most once per flush interval,
+ * which keeps a chatty script within Discord's rate limits. Only the tail that fits into one message is shown;
+ * older lines, and lines dropped because the buffer was full, are summarized as a count. Accepting a line never
+ * blocks the deployment.
+ */
+@Slf4j
+public final class DeploymentLogRelay {
+
+    private static final int MAX_LINE_CHARS = 300;
+
+    private final MessageChannel channel;
+    private final String title;
+    private final Duration flushInterval;
+    private final int maxMessageChars;
+    private final int maxBufferedLines;
+
+    private final Deque<String> tail = new ArrayDeque<>(); // Newest lines, bounded by maxBufferedLines
+    private long totalLines;
+    private boolean dirty;                                 // Whether lines arrived since the last edit
+    private final Sinks.One<Boolean> finished = Sinks.one();
+
+    /**
+     * @param title Shown above the output, e.g. "Deploying `v1.2.3` to `staging`".
+     * @param flushInterval Minimum time between two edits of the message.
+     * @param maxMessageChars Maximum length of the message; Discord allows 2000 characters.
+     * @param maxBufferedLines Maximum number of lines kept for display; older ones are only counted.
+     */
+    public DeploymentLogRelay(MessageChannel channel, String title, Duration flushInterval, int maxMessageChars, int maxBufferedLines) {
+        this.channel = channel;
+        this.title = title;
+        this.flushInterval = flushInterval;
+        this.maxMessageChars = maxMessageChars;
+        this.maxBufferedLines = maxBufferedLines;
+    }
+
+    /**
+     * Adds an output line. Thread-safe and non-blocking; may be called from the deployment's reader threads.
+     */
+    public synchronized void accept(String line) {
+        totalLines++;
+        tail.addLast(line.length() > MAX_LINE_CHARS ? line.substring(0, MAX_LINE_CHARS) + "..." : line);
+        if (tail.size() > maxBufferedLines) {
+            tail.removeFirst();
+        }
+        dirty = true;
+    }
+
+    /**
+     * Signals that no more lines will arrive; the relay makes a final edit and completes.
+     */
+    public void complete() {
+        finished.tryEmitValue(true);
+    }
+
+    /**
+     * Posts the live message and keeps it updated until {@link #complete()} is called.
+     * Edits run one at a time; ticks that arrive while an edit is still in flight are skipped.
+     */
+    public Mono<Void> relay() {
+        return Mono.defer(() -> channel.createMessage(render(snapshot(true))))
+                .flatMap(message -> Flux.interval(flushInterval)
+                        .takeUntilOther(finished.asMono())
+                        .onBackpressureDrop()
+                        .concatMap(tick -> update(message), 1)
+                        .then(Mono.defer(() -> update(message))))
+                .onErrorResume(e -> {
+                    log.warn("Failed to relay deployment output: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> update(Message message) {
+        Snapshot snapshot = snapshot(false);
+        if (snapshot == null) {
+            return Mono.empty(); // Nothing new since the last edit
+        }
+        return message.edit().withContentOrNull(render(snapshot))
+                .doOnError(e -> log.warn("Failed to update deployment output message: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Takes the lines to display, or returns null if nothing changed since the last call and {@code always} is false.
+     */
+    private synchronized Snapshot snapshot(boolean always) {
+        if (!dirty && !always) {
+            return null;
+        }
+        dirty = false;
+        return new Snapshot(new ArrayList<>(tail), totalLines);
+    }
+
+    private String render(Snapshot snapshot) {
+        String header = "**" + title + "** (" + snapshot.totalLines() + " lines)\n";
+        int budget = maxMessageChars - header.length() - 64; // Room for the code fences and the omission note
+        List<String> lines = snapshot.lines();
+        int first = lines.size();
+        int chars = 0;
+        while (first > 0 && chars + lines.get(first - 1).length() + 1 <= budget) {
+            chars += lines.get(--first).length() + 1;
+        }
+
+        StringBuilder content = new StringBuilder(header);
+        long hidden = snapshot.totalLines() - (lines.size() - first);
+        if (hidden > 0) {
+            content.append("... ").append(hidden).append(" earlier lines not shown\n");
+        }
+        content.append("```\n");
+        for (int i = first; i < lines.size(); i++) {
+            // Keep script output from closing the code block
+            content.append(lines.get(i).replace("```", "'''")).append('\n');
+        }
+        if (first == lines.size()) {
+            content.append("(waiting for output)\n");
+        }
+        return content.append("```").toString();
+    }
+
+    private record Snapshot(List<String> lines, long totalLines) {
+    }
+}
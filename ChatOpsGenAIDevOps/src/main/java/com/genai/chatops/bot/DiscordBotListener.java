@@ -1,6 +1,7 @@
 package com.genai.chatops.bot;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.genai.chatops.service.ConversationContextStore;
 import com.genai.chatops.service.DeploymentService;
 import com.genai.chatops.service.OpenAIService;
 import discord4j.core.GatewayDiscordClient;
@@ -9,15 +10,31 @@ import discord4j.core.event.domain.message.MessageCreateEvent;
 import discord4j.core.object.entity.Message;
 import discord4j.core.object.entity.User;
 import discord4j.core.object.entity.channel.MessageChannel;
-import discord4j.discordjson.json.gateway.ReadyDispatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Handles Discord messages addressed to the bot.
+ * The whole message path is a non-blocking reactive chain: Discord lookups are composed instead of blocked on,
+ * and OpenAI calls and deployments run off the Discord4J event threads, so a slow LLM response or a long
+ * deployment in one channel never delays events from other channels.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -27,9 +44,31 @@ public class DiscordBotListener {
     private final DeploymentService deploymentService;
     private final GatewayDiscordClient client;
 
-    private Long botId; // To store the bot's own user ID for mentions
+    @Value("${chatops.deploy-log.flush-interval:PT1.5S}")
+    private Duration logFlushInterval;
+
+    @Value("${chatops.deploy-log.max-message-chars:1900}")
+    private int logMaxMessageChars;
+
+    @Value("${chatops.deploy-log.max-buffered-lines:200}")
+    private int logMaxBufferedLines;
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+    private volatile long botId; // The bot's own user ID, to detect mentions
+
+    @PostConstruct
+    public void subscribe() {
+        this.botId = client.getSelfId().asLong();
+        subscriptions.add(client.on(ReadyEvent.class).subscribe(this::onReady));
+        // Each event gets its own inner chain; errors are handled per message so the subscription stays alive.
+        subscriptions.add(client.on(MessageCreateEvent.class, this::onMessage).subscribe());
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        subscriptions.dispose();
+    }
 
-    @EventListener
     public void onReady(ReadyEvent event) {
         User self = event.getSelf();
         this.botId = self.getId().asLong(); // Store bot's ID
@@ -37,7 +76,6 @@ public class DiscordBotListener {
         log.info("Bot is ready. My ID is: {}", botId);
     }
 
-    @EventListener
     public Mono<Void> onMessage(MessageCreateEvent event) {
         Message message = event.getMessage();
         String content = message.getContent();
@@ -47,61 +85,168 @@ public class DiscordBotListener {
             return Mono.empty();
         }
 
-        // Check if the bot is mentioned or if it's a direct message to the bot
-        boolean isMentioned = message.getUserMentions().any(user -> user.getId().asLong() == botId).blockOptional().orElse(false);
-        boolean isDirectMessage = message.getChannel().block() instanceof discord4j.core.object.entity.channel.PrivateChannel;
-
+        // Check if the bot is mentioned or if it's a direct message to the bot (no guild).
+        // Both are answered from the event itself, without a REST call.
+        boolean isMentioned = message.getUserMentionIds().stream().anyMatch(id -> id.asLong() == botId);
+        boolean isDirectMessage = event.getGuildId().isEmpty();
         if (!isMentioned && !isDirectMessage) {
             return Mono.empty(); // Ignore messages not directed at the bot
         }
 
-        log.info("Received message: '{}' from user: {}", content, message.getAuthor().get().getUsername());
+        log.info("Received message: '{}' from user: {}", content,
+                message.getAuthor().map(User::getUsername).orElse("unknown"));
+
+        // Follow-ups such as "now do staging" are resolved per user and channel
+        String conversationId = ConversationContextStore.conversationId(message.getChannelId().asString(),
+                message.getAuthor().map(user -> user.getId().asString()).orElse("unknown"));
+
+        return message.getChannel()
+                .flatMap(channel -> {
+                    channel.type().onErrorResume(e -> Mono.empty()).subscribe(); // Show typing indicator
+                    return openAIService.getStructuredCommandFromQueryAsync(content, botId, conversationId)
+                            .flatMap(command -> handleCommand(channel, command))
+                            .onErrorResume(e -> reportError(channel, e));
+                })
+                .doOnError(e -> log.error("Failed to handle message '{}': {}", content, e.getMessage()))
+                .onErrorResume(e -> Mono.empty());
+    }
 
-        // Get the channel to send responses
-        MessageChannel channel = message.getChannel().block();
-        if (channel == null) {
-            log.warn("Could not retrieve channel for message.");
-            return Mono.empty();
+    private Mono<Void> handleCommand(MessageChannel channel, Optional<JsonNode> parsed) {
+        if (parsed.isEmpty()) {
+            return channel.createMessage("Sorry, I couldn't understand that. Try `help` to see what I can do.").then();
+        }
+        JsonNode jsonNode = parsed.get();
+
+        // Check for 'suggestions' field first, indicating LLM couldn't parse a command
+        if (jsonNode.has("suggestions") && jsonNode.get("suggestions").isArray()) {
+            StringBuilder suggestions = new StringBuilder("I couldn't fully understand that. Perhaps you meant one of these?\n");
+            jsonNode.get("suggestions").forEach(s -> suggestions.append("- `").append(s.asText()).append("`\n"));
+            return channel.createMessage(suggestions.toString()).then();
+        }
+
+        // Parse command and parameters from the LLM's JSON response
+        String command = jsonNode.has("command") ? jsonNode.get("command").asText() : "";
+        String environment = jsonNode.has("environment") && !jsonNode.get("environment").isNull() ? jsonNode.get("environment").asText() : null;
+        String version = jsonNode.has("version") && !jsonNode.get("version").isNull() ? jsonNode.get("version").asText() : null;
+
+        log.info("Parsed command: {}, env: {}, ver: {}", command, environment, version);
+
+        switch (command) {
+            case "deploy":
+                return deploy(channel,
+                        environment != null ? environment : "dev", // Default to dev if not specified
+                        version != null ? version : "latest");     // Default to latest if not specified
+            case "status":
+                if (environment == null) {
+                    return channel.createMessage("Which environment? Try `status dev`, `status staging` or `status production`.").then();
+                }
+                // Answered from the deployment ledger as is; an LLM summary would only add latency and could misstate versions
+                return channel.createMessage(deploymentService.getDeploymentStatus(environment)).then();
+            case "rollback":
+                if (environment == null) {
+                    return channel.createMessage("Which environment should I roll back? Try `rollback staging` or `rollback staging v1.2.3`.").then();
+                }
+                return rollback(channel, environment, version);
+            case "cancel":
+                if (environment == null) {
+                    return channel.createMessage("Which deployment should I cancel? Try `cancel staging`.").then();
+                }
+                int cancelled = deploymentService.cancelDeployment(environment);
+                return channel.createMessage(cancelled > 0
+                        ? String.format("Cancelling %d deployment(s) to `%s`...", cancelled, environment)
+                        : String.format("No deployment to `%s` is running or queued.", environment)).then();
+            case "queue":
+                return channel.createMessage(formatQueue(deploymentService.getQueue(environment), environment)).then();
+            case "help":
+                return reply(channel, "Explain briefly what you can do: deploy an application to dev, staging or production "
+                        + "(optionally with a version), check the status of an environment, roll an environment back to its previous or a given version, "
+                        + "cancel a running deployment, and list the running and queued deployments.");
+            default:
+                return channel.createMessage("Sorry, I don't know the command `" + command + "`. Try `help`.").then();
         }
+    }
 
-        // Use the LLM to interpret the command
-        return Mono.defer(() -> {
-            channel.type().subscribe(); // Show typing indicator
-
-            return openAIService.getStructuredCommandFromQuery(content, botId)
-                    .map(jsonNode -> {
-                        // Check for 'suggestions' field first, indicating LLM couldn't parse a command
-                        if (jsonNode.has("suggestions") && jsonNode.get("suggestions").isArray()) {
-                            StringBuilder suggestions = new StringBuilder("I couldn't fully understand that. Perhaps you meant one of these?\n");
-                            jsonNode.get("suggestions").forEach(s -> suggestions.append("- `").append(s.asText()).append("`\n"));
-                            return channel.createMessage(suggestions.toString());
-                        }
-
-                        // Parse command and parameters from the LLM's JSON response
-                        String command = jsonNode.has("command") ? jsonNode.get("command").asText() : null;
-                        String environment = jsonNode.has("environment") && !jsonNode.get("environment").isNull() ? jsonNode.get("environment").asText() : null;
-                        String version = jsonNode.has("version") && !jsonNode.get("version").isNull() ? jsonNode.get("version").asText() : null;
-
-                        log.info("Parsed command: {}, env: {}, ver: {}", command, environment, version);
-
-                        switch (command) {
-                            case "deploy":
-                                if (environment == null) environment = "dev"; // Default to dev if not specified
-                                if (version == null) version = "latest"; // Default to latest if not specified
-
-                                String finalEnvironment = environment;
-                                String finalVersion = version;
-
-                                // Send initial message to Discord
-                                return channel.createMessage(
-                                        openAIService.getConversationalResponse(
-                                                String.format("You asked me to deploy the application. " +
-                                                        "Confirming deployment request for environment `%s` with version `%s`. " +
-                                                        "Initiating deployment process...", finalEnvironment, finalVersion)
-                                        )
-                                ).then(Mono.defer(() -> {
-                                    // Asynchronously run the deployment script
-                                    CompletableFuture<Boolean> deploymentFuture = deploymentService.deployApplication(
-                                            finalEnvironment, finalVersion,
-                                            // Consumer for real-time script output
-                                            scriptOutput -> channel.createMessage("
\ No newline at end of file
+    private Mono<Void> deploy(MessageChannel channel, String environment, String version) {
+        // Prompts are passed as template and parameters so their responses can be cached (see ConversationalResponseCache)
+        String confirmation = "You asked me to deploy the application. " +
+                "Confirming deployment request for environment `%s` with version `%s`. " +
+                "Initiating deployment process...";
+
+        return openAIService.getConversationalResponseAsync(confirmation, environment, version)
+                .flatMap(channel::createMessage)
+                .then(relayDeployment(channel, String.format("Deploying `%s` to `%s`", version, environment),
+                        output -> deploymentService.deployApplication(environment, version, output)))
+                .flatMap(success -> success
+                        ? reply(channel, "The deployment of version `%s` to `%s` succeeded. Congratulate the team briefly.", version, environment)
+                        : reply(channel, "The deployment of version `%s` to `%s` failed. Suggest checking the script output above.", version, environment));
+    }
+
+    /**
+     * Rolls back to the given version, or to the previous version recorded in the deployment ledger.
+     * Rollbacks are urgent, so the target is resolved and confirmed without asking the LLM.
+     */
+    private Mono<Void> rollback(MessageChannel channel, String environment, String requestedVersion) {
+        Optional<String> target = Optional.ofNullable(requestedVersion).or(() -> deploymentService.getRollbackVersion(environment));
+        if (target.isEmpty()) {
+            return channel.createMessage(String.format("I have no earlier successful deployment to `%s` on record. "
+                    + "Tell me the version to roll back to, e.g. `rollback %s v1.2.3`.", environment, environment)).then();
+        }
+        String version = target.get();
+        return channel.createMessage(String.format("Rolling `%s` back to version `%s`...", environment, version))
+                .then(relayDeployment(channel, String.format("Rolling `%s` back to `%s`", environment, version),
+                        output -> deploymentService.rollbackDeployment(environment, version, output)))
+                .flatMap(success -> channel.createMessage(success
+                        ? String.format("Rolled `%s` back to version `%s`.", environment, version)
+                        : String.format("The rollback of `%s` to version `%s` failed; see the script output above.", environment, version)))
+                .then();
+    }
+
+    /**
+     * Runs a deployment and shows its script output in one live message that is edited periodically,
+     * not as a message per line.
+     *
+     * @return Whether the deployment succeeded, once both the deployment and the relay are done.
+     */
+    private Mono<Boolean> relayDeployment(MessageChannel channel, String title,
+                                          Function<Consumer<String>, CompletableFuture<Boolean>> start) {
+        DeploymentLogRelay output = new DeploymentLogRelay(channel, title, logFlushInterval, logMaxMessageChars, logMaxBufferedLines);
+        Mono<Boolean> relay = output.relay().thenReturn(true);
+        Mono<Boolean> deployment = Mono.fromFuture(() -> start.apply(output::accept))
+                .doFinally(signal -> output.complete());
+        return Mono.zip(deployment, relay).map(result -> result.getT1());
+    }
+
+    private static String formatQueue(List<DeploymentService.QueuedDeployment> deployments, String environment) {
+        if (deployments.isEmpty()) {
+            return environment != null
+                    ? String.format("No deployments to `%s` are running or queued.", environment)
+                    : "No deployments are running or queued.";
+        }
+        Instant now = Instant.now();
+        StringBuilder message = new StringBuilder("**Deployments**\n");
+        for (DeploymentService.QueuedDeployment deployment : deployments) {
+            message.append(String.format("- `%s` to `%s`: ", deployment.version(), deployment.environment()));
+            if (deployment.running()) {
+                message.append("running for ").append(Duration.between(deployment.startedAt(), now).toSeconds()).append("s\n");
+            } else {
+                message.append("queued for ").append(Duration.between(deployment.requestedAt(), now).toSeconds()).append("s\n");
+            }
+        }
+        return message.toString();
+    }
+
+    private Mono<Void> reply(MessageChannel channel, String template, Object... params) {
+        return openAIService.getConversationalResponseAsync(template, params)
+                .flatMap(channel::createMessage)
+                .then();
+    }
+
+    private Mono<Void> reportError(MessageChannel channel, Throwable error) {
+        if (error instanceof RejectedExecutionException) {
+            log.warn("Request queue is full, rejecting message");
+            return channel.createMessage("I'm handling too many requests right now. Please try again in a moment.").then();
+        }
+        log.error("Error while handling command: {}", error.getMessage(), error);
+        return channel.createMessage("Something went wrong while handling that command: " + error.getMessage()).then();
+    }
+}
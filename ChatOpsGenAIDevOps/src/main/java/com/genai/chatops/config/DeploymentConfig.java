@@ -0,0 +1,33 @@
+package com.genai.chatops.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Slf4j
+public class DeploymentConfig {
+
+    @Value("${deployment.max-concurrent:8}")
+    private int maxConcurrentDeployments;
+
+    @Value("${deployment.max-queued:32}")
+    private int maxQueuedDeployments;
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService deploymentExecutor() {
+        log.info("Deployments limited to {} concurrent, {} queued", maxConcurrentDeployments, maxQueuedDeployments);
+        // Deployments block on their script for minutes, so they get their own bounded pool instead of the
+        // common ForkJoinPool. Requests beyond the queue limit are rejected with a RejectedExecutionException.
+        return new ThreadPoolExecutor(maxConcurrentDeployments, maxConcurrentDeployments, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedDeployments), new CustomizableThreadFactory("deployment-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
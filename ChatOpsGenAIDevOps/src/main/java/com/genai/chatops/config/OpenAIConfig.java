@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 
@@ -15,6 +17,12 @@ public class OpenAIConfig {
     @Value("${openai.api.key}")
     private String openAiApiKey;
 
+    @Value("${openai.max-concurrent-requests:8}")
+    private int maxConcurrentRequests;
+
+    @Value("${openai.max-queued-requests:100}")
+    private int maxQueuedRequests;
+
     @Bean
     public OpenAiService openAiService() {
         log.info("Initializing OpenAI Service...");
@@ -22,4 +30,12 @@ public class OpenAIConfig {
         // The default timeout might be too short for some LLM responses.
         return new OpenAiService(openAiApiKey, Duration.ofSeconds(60)); // 60-second timeout
     }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler llmScheduler() {
+        log.info("OpenAI calls limited to {} concurrent, {} queued", maxConcurrentRequests, maxQueuedRequests);
+        // The OpenAI client blocks, so its calls get their own bounded thread pool instead of running on
+        // Discord4J's event loop. Calls beyond the queue limit are rejected rather than piling up.
+        return Schedulers.newBoundedElastic(maxConcurrentRequests, maxQueuedRequests, "openai");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.genai.chatops.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Remembers recent commands per conversation (a user in a channel), so follow-ups such as "now do staging" can be
+ * resolved against what was asked before.
+ * <p>
+ * Each conversation keeps a sliding window of turns (the user's message and the command it was resolved to),
+ * trimmed oldest first to a turn limit and an estimated token budget, so prompts that include the history stay
+ * small however long a conversation runs. The last resolved command is kept separately as a compact summary and
+ * survives trimming. Conversations expire when idle and are evicted least recently used beyond a count limit.
+ */
+@Component
+@Slf4j
+public class ConversationContextStore {
+
+    private static final int MAX_MESSAGE_CHARS = 500;
+
+    private final int maxConversations;
+    private final int maxTurns;
+    private final int maxHistoryTokens;
+    private final long idleTimeoutMillis;
+    private final Map<String, Conversation> conversations;
+
+    public ConversationContextStore(@Value("${chatops.conversation.max-conversations:1000}") int maxConversations,
+                                    @Value("${chatops.conversation.max-turns:6}") int maxTurns,
+                                    @Value("${chatops.conversation.max-history-tokens:300}") int maxHistoryTokens,
+                                    @Value("${chatops.conversation.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.maxConversations = maxConversations;
+        this.maxTurns = maxTurns;
+        this.maxHistoryTokens = maxHistoryTokens;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        // Access-ordered, so the eldest entry is the least recently active conversation
+        this.conversations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Conversation> eldest) {
+                return size() > ConversationContextStore.this.maxConversations;
+            }
+        };
+        log.info("Conversation context: maxConversations={}, maxTurns={}, maxHistoryTokens={}, idleTimeout={}",
+                maxConversations, maxTurns, maxHistoryTokens, idleTimeout);
+    }
+
+    /**
+     * Identifies a conversation: one user in one channel.
+     */
+    public static String conversationId(String channelId, String userId) {
+        return channelId + ':' + userId;
+    }
+
+    /**
+     * Roughly estimates the tokens of a chat message: about four characters per token for English text, plus the
+     * per-message overhead of the chat format. Close enough for budgeting without a tokenizer.
+     */
+    public static int estimateTokens(String text) {
+        return text.length() / 4 + 4;
+    }
+
+    /**
+     * @return The turns of a conversation within the token budget, oldest first; empty if it is unknown or expired.
+     */
+    public synchronized List<Turn> history(String conversationId) {
+        Conversation conversation = live(conversationId);
+        return conversation != null ? List.copyOf(conversation.turns) : List.of();
+    }
+
+    /**
+     * @return The last command the conversation was resolved to, if it has not expired.
+     */
+    public synchronized Optional<JsonNode> lastCommand(String conversationId) {
+        Conversation conversation = live(conversationId);
+        return conversation != null ? Optional.ofNullable(conversation.lastCommand) : Optional.empty();
+    }
+
+    /**
+     * Records a turn: a user message and the JSON it was resolved to.
+     */
+    public synchronized void record(String conversationId, String message, JsonNode response) {
+        Conversation conversation = live(conversationId);
+        if (conversation == null) {
+            conversation = new Conversation();
+            conversations.put(conversationId, conversation);
+        }
+        String text = message.length() > MAX_MESSAGE_CHARS ? message.substring(0, MAX_MESSAGE_CHARS) : message;
+        Turn turn = new Turn(text, response.toString());
+        conversation.turns.addLast(turn);
+        conversation.tokens += turn.tokens();
+        // Sliding window: drop the oldest turns until the history fits, but always keep the newest one
+        while (conversation.turns.size() > 1
+                && (conversation.turns.size() > maxTurns || conversation.tokens > maxHistoryTokens)) {
+            conversation.tokens -= conversation.turns.removeFirst().tokens();
+        }
+        if (response.hasNonNull("command")) {
+            conversation.lastCommand = response;
+        }
+        conversation.lastActive = System.currentTimeMillis();
+    }
+
+    private Conversation live(String conversationId) {
+        Conversation conversation = conversations.get(conversationId);
+        if (conversation != null && System.currentTimeMillis() - conversation.lastActive > idleTimeoutMillis) {
+            conversations.remove(conversationId);
+            return null;
+        }
+        return conversation;
+    }
+
+    /**
+     * One exchange: what the user wrote and the JSON it was resolved to.
+     */
+    public record Turn(String message, String response) {
+
+        public int tokens() {
+            return estimateTokens(message) + estimateTokens(response);
+        }
+    }
+
+    private static final class Conversation {
+        private final Deque<Turn> turns = new ArrayDeque<>();
+        private int tokens;
+        private JsonNode lastCommand;
+        private long lastActive;
+    }
+}
@@ -0,0 +1,82 @@
+package com.genai.chatops.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Caches LLM conversational responses by prompt template and parameters.
+ * Each entry holds a small pool of variants generated in a single completion call, and a random one is served on
+ * every hit, so repeated confirmations still read naturally but cost no API call. Size-bounded with LRU eviction
+ * and a time-to-live per entry.
+ */
+@Component
+@Slf4j
+public class ConversationalResponseCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public ConversationalResponseCache(@Value("${openai.response-cache.max-entries:500}") int maxEntries,
+                                       @Value("${openai.response-cache.ttl:PT6H}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        // Access-ordered, so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ConversationalResponseCache.this.maxEntries;
+            }
+        };
+        log.info("Conversational response cache: maxEntries={}, ttl={}", maxEntries, ttl);
+    }
+
+    /**
+     * Builds the cache key of a prompt: its template with whitespace collapsed, plus its parameters, case-insensitively.
+     */
+    public String key(String template, Object... params) {
+        String normalizedTemplate = template.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (params.length == 0) {
+            return normalizedTemplate;
+        }
+        return normalizedTemplate + '\u0000' + Arrays.stream(params)
+                .map(p -> String.valueOf(p).strip().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("\u0000"));
+    }
+
+    /**
+     * @return A random cached variant for the key, or empty if there is none or it has expired.
+     */
+    public synchronized Optional<String> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - entry.createdAt() > ttlMillis) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        List<String> variants = entry.variants();
+        return Optional.of(variants.get(ThreadLocalRandom.current().nextInt(variants.size())));
+    }
+
+    public synchronized void put(String key, List<String> variants) {
+        if (maxEntries > 0 && !variants.isEmpty()) {
+            entries.put(key, new Entry(List.copyOf(variants), System.currentTimeMillis()));
+        }
+    }
+
+    private record Entry(List<String> variants, long createdAt) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.genai.chatops.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records every deployment run: environment, version, start and end time, exit code and the file holding its output.
+ * <p>
+ * Records are appended to a JSON-lines file and replayed on startup. In memory, only the latest run and a bounded
+ * stack of successfully deployed versions are kept per environment, so status and rollback questions are answered
+ * in constant time regardless of how long the ledger grows.
+ * <p>
+ * The stack holds distinct versions, newest on top. Deploying a version that is already on the stack returns to it
+ * and drops the versions deployed after it, so repeated rollbacks step further back instead of toggling between
+ * the last two versions. Only pinned versions go on the stack: a {@value #UNPINNED_VERSION} deployment names no
+ * particular build, so deploying it again would roll forward rather than back.
+ */
+@Component
+@Slf4j
+public class DeploymentLedger {
+
+    private static final int MAX_DEPLOYED_VERSIONS = 20; // Per environment; the oldest is forgotten beyond it
+    private static final String UNPINNED_VERSION = "latest"; // Resolved by the deployment script to the newest build
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final Map<String, EnvironmentHistory> environments = new ConcurrentHashMap<>(); // By lower-case environment name
+    private volatile long lastId;
+
+    @Value("${deployment.ledger.path:./data/deployment-ledger.jsonl}")
+    private Path ledgerPath;
+
+    @Value("${deployment.log-dir:./logs/deployments}")
+    private Path logDir;
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (!Files.exists(ledgerPath)) {
+            log.info("No deployment ledger at {}, starting empty", ledgerPath);
+            return;
+        }
+        int records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(ledgerPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    apply(objectMapper.readValue(line, DeploymentRecord.class));
+                    records++;
+                } catch (IOException e) {
+                    // A crash while appending can leave a partial last line; skip it rather than refusing to start
+                    log.warn("Skipping unreadable deployment ledger entry: {}", e.getMessage());
+                }
+            }
+        }
+        log.info("Loaded {} deployment records from {}", records, ledgerPath);
+    }
+
+    /**
+     * The highest deployment ID in the ledger, so IDs stay unique across restarts.
+     */
+    public long lastId() {
+        return lastId;
+    }
+
+    /**
+     * The file a deployment's output is written to.
+     */
+    public Path logFile(long id, String environment, String version) {
+        String name = String.format("%d-%s-%s.log", id, environment, version).replaceAll("[^A-Za-z0-9._-]", "_");
+        return logDir.resolve(name);
+    }
+
+    /**
+     * Appends a finished deployment to the ledger file and updates the in-memory view.
+     */
+    public synchronized void record(DeploymentRecord deployment) {
+        apply(deployment);
+        try {
+            Files.createDirectories(ledgerPath.toAbsolutePath().getParent());
+            Files.writeString(ledgerPath, objectMapper.writeValueAsString(deployment) + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // The in-memory view stays correct; only the history after a restart is affected
+            log.error("Failed to write deployment #{} to the ledger {}: {}", deployment.id(), ledgerPath, e.getMessage());
+        }
+    }
+
+    /**
+     * The most recent deployment run to an environment, successful or not.
+     */
+    public Optional<DeploymentRecord> latest(String environment) {
+        return history(environment).map(history -> history.latest);
+    }
+
+    /**
+     * The most recent successful deployment to an environment, i.e. the version that should be running there.
+     */
+    public Optional<DeploymentRecord> current(String environment) {
+        return history(environment).map(history -> history.current);
+    }
+
+    /**
+     * The successful deployment the current one replaced, i.e. the rollback target. After a rollback it is the
+     * version deployed before the one rolled back to. Always a pinned version: if the current deployment is
+     * {@value #UNPINNED_VERSION}, it is the last pinned version deployed.
+     */
+    public Optional<DeploymentRecord> previous(String environment) {
+        return history(environment).map(history -> history.previous);
+    }
+
+    private Optional<EnvironmentHistory> history(String environment) {
+        return Optional.ofNullable(environments.get(environment.toLowerCase(Locale.ROOT)));
+    }
+
+    private void apply(DeploymentRecord deployment) {
+        lastId = Math.max(lastId, deployment.id());
+        EnvironmentHistory history = environments.computeIfAbsent(deployment.environment().toLowerCase(Locale.ROOT),
+                key -> new EnvironmentHistory());
+        synchronized (history) {
+            history.latest = deployment;
+            if (deployment.outcome() == Outcome.SUCCEEDED) {
+                Deque<DeploymentRecord> deployed = history.deployed;
+                boolean pinned = isPinned(deployment.version());
+                if (pinned) {
+                    if (deployed.stream().anyMatch(record -> record.version().equals(deployment.version()))) {
+                        // Back to an earlier (or the same) version: the versions deployed after it are undone
+                        DeploymentRecord undone;
+                        do {
+                            undone = deployed.removeLast();
+                        } while (!undone.version().equals(deployment.version()));
+                    }
+                    deployed.addLast(deployment);
+                    if (deployed.size() > MAX_DEPLOYED_VERSIONS) {
+                        deployed.removeFirst();
+                    }
+                }
+                Iterator<DeploymentRecord> newestFirst = deployed.descendingIterator();
+                if (pinned) {
+                    newestFirst.next(); // The current deployment itself
+                }
+                history.current = deployment;
+                history.previous = newestFirst.hasNext() ? newestFirst.next() : null;
+            }
+        }
+    }
+
+    private static boolean isPinned(String version) {
+        return !version.equalsIgnoreCase(UNPINNED_VERSION);
+    }
+
+    public enum Outcome {
+        SUCCEEDED, FAILED, TIMED_OUT, CANCELLED
+    }
+
+    /**
+     * One deployment run.
+     *
+     * @param exitCode The script's exit code, or null if it did not start or was stopped.
+     * @param logFile The file holding the script output.
+     */
+    public record DeploymentRecord(long id, String environment, String version, Instant startedAt, Instant finishedAt,
+                                   Integer exitCode, Outcome outcome, String logFile) {
+    }
+
+    /** Guarded by its own monitor; readers see whole records since the fields are volatile. */
+    private static final class EnvironmentHistory {
+        private volatile DeploymentRecord latest;
+        private volatile DeploymentRecord current;   // The latest successful deployment, pinned or not
+        private volatile DeploymentRecord previous;  // The newest entry of the deployed stack other than current
+        private final Deque<DeploymentRecord> deployed = new ArrayDeque<>(); // Distinct successful pinned versions, newest last
+    }
+}
@@ -1,136 +1,454 @@
 package com.genai.chatops.service;
 
+import com.genai.chatops.service.DeploymentLedger.DeploymentRecord;
+import com.genai.chatops.service.DeploymentLedger.Outcome;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class DeploymentService {
 
+    private final ExecutorService deploymentExecutor; // Bounded pool for deployment scripts, see DeploymentConfig
+    private final ProcessSupervisor processSupervisor;
+    private final DeploymentLedger deploymentLedger;
+
+    private final AtomicLong deploymentIds = new AtomicLong();
+    private final Map<String, EnvironmentQueue> queues = new ConcurrentHashMap<>(); // By lower-case environment name
+
     @Value("${deployment.script.path}")
     private String deploymentScriptPath;
 
+    @Value("${deployment.timeout:PT15M}")
+    private Duration deploymentTimeout;
+
+    @Value("${deployment.max-pending-per-environment:10}")
+    private int maxPendingPerEnvironment;
+
     /**
      * Simulates the deployment of a Java application to a specified environment and version.
      * Executes an external shell script and provides real-time output via a consumer.
+     * <p>
+     * Deployments are queued per environment: deployments to one environment run one at a time, in request order,
+     * while deployments to different environments run in parallel on the deployment executor. A request identical
+     * to one that is still pending joins it instead of queuing a second run. Scripts are stopped when they exceed
+     * the deployment timeout or are cancelled with {@link #cancelDeployment(String)}.
      *
      * @param environment The target environment (e.g., "dev", "staging", "production").
      * @param version The application version (e.g., "latest", "v1.0.0").
-     * @param outputConsumer A consumer to handle real-time output lines from the script.
+     * @param outputConsumer A consumer to handle real-time output lines from the script. Called from two threads at once.
      * @return A CompletableFuture that completes with true if the deployment script exits successfully, false otherwise.
+     *         Fails with a RejectedExecutionException if too many deployments are already queued.
      */
     public CompletableFuture<Boolean> deployApplication(String environment, String version, Consumer<String> outputConsumer) {
         log.info("Attempting to deploy application: env={}, version={}", environment, version);
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                File scriptFile = new File(deploymentScriptPath);
-                if (!scriptFile.exists()) {
-                    String errorMessage = "Deployment script not found at: " + deploymentScriptPath;
-                    outputConsumer.accept("ERROR: " + errorMessage);
-                    log.error(errorMessage);
-                    return false;
-                }
-                // Make sure the script is executable on Unix-like systems
-                if (!scriptFile.canExecute()) {
-                    boolean success = scriptFile.setExecutable(true);
-                    if (!success) {
-                        String errorMessage = "Failed to make deployment script executable: " + deploymentScriptPath;
-                        outputConsumer.accept("ERROR: " + errorMessage);
-                        log.error(errorMessage);
-                        return false;
-                    }
-                    log.info("Made deployment script executable: {}", deploymentScriptPath);
+        EnvironmentQueue queue = queues.computeIfAbsent(environment.toLowerCase(Locale.ROOT), key -> new EnvironmentQueue());
+        synchronized (queue) {
+            for (DeploymentJob pending : queue.pending) {
+                if (pending.version.equals(version)) {
+                    log.info("Deployment of version {} to {} is already queued, joining it", version, environment);
+                    outputConsumer.accept("An identical deployment is already queued; you will see its progress and result.");
+                    pending.outputConsumers.add(outputConsumer);
+                    return pending.result.copy();
                 }
+            }
+            if (queue.pending.size() >= maxPendingPerEnvironment) {
+                log.warn("Deployment to {} rejected, {} deployments already queued", environment, queue.pending.size());
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Too many deployments queued for " + environment));
+            }
 
-                // Build the process command based on OS
-                ProcessBuilder processBuilder;
-                if (System.getProperty("os.name").toLowerCase().contains("win")) {
-                    // For Windows, execute .bat or .cmd files directly, or use cmd /c for shell scripts
-                    // Assuming deploy_java_app.sh would be renamed to .bat or cmd on Windows for this example.
-                    // Or, if Git Bash is installed, you could try "bash.exe deploy_java_app.sh"
-                    outputConsumer.accept("Starting deployment on Windows...");
-                    processBuilder = new ProcessBuilder("cmd.exe", "/c", deploymentScriptPath, environment, version);
-                } else {
-                    // For Linux/macOS
-                    outputConsumer.accept("Starting deployment on Unix-like system...");
-                    processBuilder = new ProcessBuilder("bash", deploymentScriptPath, environment, version);
+            // IDs continue after the highest one in the ledger, so they stay unique across restarts
+            long id = deploymentIds.updateAndGet(last -> Math.max(last, deploymentLedger.lastId()) + 1);
+            DeploymentJob job = new DeploymentJob(id, environment, version, outputConsumer);
+            if (queue.active != null) {
+                outputConsumer.accept(String.format("Queued behind %d deployment(s) to %s.", queue.pending.size() + 1, environment));
+            }
+            queue.pending.add(job);
+            startNext(queue);
+            return job.result.copy();
+        }
+    }
+
+    /**
+     * Cancels the running and pending deployments to an environment. Returns immediately; a running script is stopped
+     * in the background.
+     *
+     * @return The number of deployments that were cancelled.
+     */
+    public int cancelDeployment(String environment) {
+        EnvironmentQueue queue = queues.get(environment.toLowerCase(Locale.ROOT));
+        if (queue == null) {
+            return 0;
+        }
+        List<DeploymentJob> dropped;
+        int cancelled;
+        synchronized (queue) {
+            dropped = new ArrayList<>(queue.pending);
+            queue.pending.clear();
+            cancelled = dropped.size();
+            DeploymentJob active = queue.active;
+            if (active != null) {
+                log.info("Cancelling deployment of version {} to {}", active.version, environment);
+                active.cancel();
+                cancelled++;
+            }
+        }
+        for (DeploymentJob job : dropped) {
+            log.info("Dropping queued deployment of version {} to {}", job.version, environment);
+            job.output("Deployment was cancelled before it started.");
+            job.result.complete(false);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Lists the running and pending deployments, running ones first, then in queue order.
+     *
+     * @param environment Only deployments to this environment, or null for all environments.
+     */
+    public List<QueuedDeployment> getQueue(String environment) {
+        List<QueuedDeployment> deployments = new ArrayList<>();
+        queues.forEach((key, queue) -> {
+            if (environment != null && !key.equalsIgnoreCase(environment)) {
+                return;
+            }
+            synchronized (queue) {
+                if (queue.active != null) {
+                    deployments.add(queue.active.describe());
                 }
+                queue.pending.forEach(job -> deployments.add(job.describe()));
+            }
+        });
+        deployments.sort(Comparator.comparing((QueuedDeployment d) -> !d.running()).thenComparing(QueuedDeployment::requestedAt));
+        return deployments;
+    }
+
+    /**
+     * Hands the next pending job of an environment to the deployment executor if none is active. The job may still
+     * wait there for a free thread; it only counts as running once {@link #runDeployment(DeploymentJob)} begins.
+     * Called with the queue's lock held.
+     */
+    private void startNext(EnvironmentQueue queue) {
+        while (queue.active == null && !queue.pending.isEmpty()) {
+            DeploymentJob job = queue.pending.poll();
+            queue.active = job;
+            try {
+                CompletableFuture.supplyAsync(() -> runDeployment(job), deploymentExecutor)
+                        .whenComplete((success, error) -> finish(queue, job, success, error));
+            } catch (RejectedExecutionException e) {
+                log.warn("Deployment to {} rejected, too many deployments running", job.environment);
+                queue.active = null;
+                job.result.completeExceptionally(e);
+            }
+        }
+    }
 
-                Process process = processBuilder.start();
+    private void finish(EnvironmentQueue queue, DeploymentJob job, Boolean success, Throwable error) {
+        synchronized (queue) {
+            if (queue.active == job) {
+                queue.active = null;
+            }
+            startNext(queue);
+        }
+        if (error != null) {
+            job.result.completeExceptionally(error);
+        } else {
+            job.result.complete(success);
+        }
+    }
 
-                // Read output from the script in real-time
-                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    outputConsumer.accept(line);
-                    log.info("[SCRIPT OUTPUT] {}", line); // Log script output to application logs
+    /**
+     * Runs a job's script, writes its output to the deployment's log file and records the run in the ledger.
+     */
+    private boolean runDeployment(DeploymentJob job) {
+        job.startedAt = Instant.now();
+        if (job.cancelled) {
+            job.output("Deployment was cancelled before it started.");
+            return false;
+        }
+        log.info("Starting deployment #{}: env={}, version={}", job.id, job.environment, job.version);
+        Path logFile = deploymentLedger.logFile(job.id, job.environment, job.version);
+        BufferedWriter logWriter = openLog(logFile);
+        Consumer<String> output = line -> {
+            job.output(line);
+            if (logWriter != null) {
+                synchronized (logWriter) { // stdout and stderr arrive on different threads
+                    try {
+                        logWriter.write(line);
+                        logWriter.newLine();
+                    } catch (IOException e) {
+                        log.debug("Failed to write deployment log {}: {}", logFile, e.getMessage());
+                    }
                 }
+            }
+        };
 
-                // Read error output
-                BufferedReader errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-                while ((line = errorReader.readLine()) != null) {
-                    outputConsumer.accept("[ERROR] " + line);
-                    log.error("[SCRIPT ERROR] {}", line); // Log script errors to application logs
+        Outcome outcome = Outcome.FAILED;
+        try {
+            outcome = execute(job, output);
+        } finally {
+            if (logWriter != null) {
+                try {
+                    logWriter.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close deployment log {}: {}", logFile, e.getMessage());
                 }
+            }
+            deploymentLedger.record(new DeploymentRecord(job.id, job.environment, job.version, job.startedAt, Instant.now(),
+                    job.exitCode, outcome, logWriter != null ? logFile.toString() : null));
+        }
+        return outcome == Outcome.SUCCEEDED;
+    }
 
-                int exitCode = process.waitFor();
-                if (exitCode == 0) {
-                    outputConsumer.accept("Deployment script finished successfully! Exit Code: " + exitCode);
-                    log.info("Deployment script for env {} version {} completed successfully.", environment, version);
-                    return true;
-                } else {
-                    outputConsumer.accept("Deployment script failed with Exit Code: " + exitCode);
-                    log.error("Deployment script for env {} version {} failed with Exit Code: {}", environment, version, exitCode);
-                    return false;
+    private static BufferedWriter openLog(Path logFile) {
+        try {
+            Files.createDirectories(logFile.toAbsolutePath().getParent());
+            return Files.newBufferedWriter(logFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Cannot write deployment log {}, output is only relayed: {}", logFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private Outcome execute(DeploymentJob job, Consumer<String> outputConsumer) {
+        String environment = job.environment;
+        String version = job.version;
+        try {
+            File scriptFile = new File(deploymentScriptPath);
+            if (!scriptFile.exists()) {
+                String errorMessage = "Deployment script not found at: " + deploymentScriptPath;
+                outputConsumer.accept("ERROR: " + errorMessage);
+                log.error(errorMessage);
+                return Outcome.FAILED;
+            }
+            // Make sure the script is executable on Unix-like systems
+            if (!scriptFile.canExecute()) {
+                boolean success = scriptFile.setExecutable(true);
+                if (!success) {
+                    String errorMessage = "Failed to make deployment script executable: " + deploymentScriptPath;
+                    outputConsumer.accept("ERROR: " + errorMessage);
+                    log.error(errorMessage);
+                    return Outcome.FAILED;
                 }
-            } catch (Exception e) {
-                String errorMessage = "Exception during deployment: " + e.getMessage();
-                outputConsumer.accept("EXCEPTION: " + errorMessage);
-                log.error(errorMessage, e);
-                return false;
+                log.info("Made deployment script executable: {}", deploymentScriptPath);
             }
-        });
+
+            // Build the process command based on OS
+            ProcessBuilder processBuilder;
+            if (System.getProperty("os.name").toLowerCase().contains("win")) {
+                // For Windows, execute .bat or .cmd files directly, or use cmd /c for shell scripts
+                // Assuming deploy_java_app.sh would be renamed to .bat or cmd on Windows for this example.
+                // Or, if Git Bash is installed, you could try "bash.exe deploy_java_app.sh"
+                outputConsumer.accept("Starting deployment on Windows...");
+                processBuilder = new ProcessBuilder("cmd.exe", "/c", deploymentScriptPath, environment, version);
+            } else {
+                // For Linux/macOS
+                outputConsumer.accept("Starting deployment on Unix-like system...");
+                processBuilder = new ProcessBuilder("bash", deploymentScriptPath, environment, version);
+            }
+
+            // Read stdout and stderr concurrently, so a script filling either pipe cannot stall
+            ProcessSupervisor.SupervisedProcess process = processSupervisor.start(processBuilder,
+                    line -> {
+                        outputConsumer.accept(line);
+                        log.info("[SCRIPT OUTPUT] {}", line); // Log script output to application logs
+                    },
+                    line -> {
+                        outputConsumer.accept("[ERROR] " + line);
+                        log.error("[SCRIPT ERROR] {}", line); // Log script errors to application logs
+                    });
+            job.attach(process);
+
+            int exitCode = process.await(deploymentTimeout);
+            if (!process.isCancelled() && !process.isTimedOut()) {
+                job.exitCode = exitCode;
+            }
+            if (process.isCancelled()) {
+                outputConsumer.accept("Deployment was cancelled.");
+                log.warn("Deployment script for env {} version {} was cancelled.", environment, version);
+                return Outcome.CANCELLED;
+            } else if (process.isTimedOut()) {
+                outputConsumer.accept("Deployment timed out after " + deploymentTimeout.toString().substring(2).toLowerCase() + " and was stopped.");
+                log.error("Deployment script for env {} version {} timed out after {}.", environment, version, deploymentTimeout);
+                return Outcome.TIMED_OUT;
+            } else if (exitCode == 0) {
+                outputConsumer.accept("Deployment script finished successfully! Exit Code: " + exitCode);
+                log.info("Deployment script for env {} version {} completed successfully.", environment, version);
+                return Outcome.SUCCEEDED;
+            } else {
+                outputConsumer.accept("Deployment script failed with Exit Code: " + exitCode);
+                log.error("Deployment script for env {} version {} failed with Exit Code: {}", environment, version, exitCode);
+                return Outcome.FAILED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outputConsumer.accept("Deployment was interrupted.");
+            log.warn("Deployment to {} interrupted", environment);
+            return Outcome.FAILED;
+        } catch (Exception e) {
+            String errorMessage = "Exception during deployment: " + e.getMessage();
+            outputConsumer.accept("EXCEPTION: " + errorMessage);
+            log.error(errorMessage, e);
+            return Outcome.FAILED;
+        }
     }
 
     /**
-     * Simulates fetching the deployment status for a given environment.
-     * In a real scenario, this would query a monitoring system or CI/CD tool.
+     * Describes the deployment status of an environment from the deployment ledger and the queue: the version that
+     * was last deployed successfully, the outcome of the latest run if it failed, and a deployment in progress.
      *
      * @param environment The environment to check status for.
-     * @return A string indicating the simulated status.
+     * @return A human-readable status.
      */
     public String getDeploymentStatus(String environment) {
-        log.info("Checking simulated deployment status for environment: {}", environment);
-        // Simulate different statuses based on environment for demo purposes
-        if ("production".equalsIgnoreCase(environment)) {
-            return "Production environment is stable and running version 1.5.0.";
-        } else if ("staging".equalsIgnoreCase(environment)) {
-            return "Staging environment is active with the latest build, currently undergoing QA checks.";
-        } else if ("dev".equalsIgnoreCase(environment)) {
-            return "Development environment is highly active with frequent changes. Last deployed: 5 minutes ago.";
-        } else {
-            return "Status for environment '" + environment + "' is unknown. Please specify 'dev', 'staging', or 'production'.";
+        log.info("Checking deployment status for environment: {}", environment);
+        StringBuilder status = new StringBuilder();
+        Optional<DeploymentRecord> current = deploymentLedger.current(environment);
+        Optional<DeploymentRecord> latest = deploymentLedger.latest(environment);
+
+        current.ifPresentOrElse(
+                deployment -> status.append(String.format("`%s` is running version `%s`, deployed at %s (deployment #%d).",
+                        environment, deployment.version(), deployment.finishedAt(), deployment.id())),
+                () -> status.append(String.format("No successful deployment to `%s` has been recorded.", environment)));
+        latest.filter(deployment -> deployment.outcome() != Outcome.SUCCEEDED).ifPresent(deployment ->
+                status.append(String.format(" The latest deployment #%d of version `%s` at %s %s.", deployment.id(),
+                        deployment.version(), deployment.finishedAt(), describe(deployment))));
+
+        EnvironmentQueue queue = queues.get(environment.toLowerCase(Locale.ROOT));
+        if (queue != null) {
+            synchronized (queue) {
+                DeploymentJob active = queue.active;
+                if (active != null && active.startedAt != null) {
+                    status.append(String.format(" Deployment #%d of version `%s` is in progress since %s.",
+                            active.id, active.version, active.startedAt));
+                } else if (active != null) {
+                    status.append(String.format(" Deployment #%d of version `%s` is waiting for a free deployment slot.",
+                            active.id, active.version));
+                }
+                if (!queue.pending.isEmpty()) {
+                    status.append(String.format(" %d more deployment(s) are queued.", queue.pending.size()));
+                }
+            }
         }
+        return status.toString();
+    }
+
+    private static String describe(DeploymentRecord deployment) {
+        String outcome = switch (deployment.outcome()) {
+            case SUCCEEDED -> "succeeded";
+            case FAILED -> deployment.exitCode() != null ? "failed with exit code " + deployment.exitCode() : "failed to run";
+            case TIMED_OUT -> "timed out";
+            case CANCELLED -> "was cancelled";
+        };
+        return deployment.logFile() != null ? outcome + "; its output is in `" + deployment.logFile() + "`" : outcome;
     }
 
     /**
-     * Simulates rolling back a deployment.
+     * The version a rollback of an environment returns to: the last successfully deployed version before the
+     * current one, according to the deployment ledger. Never "latest", which would redeploy the newest build.
+     */
+    public Optional<String> getRollbackVersion(String environment) {
+        return deploymentLedger.previous(environment).map(DeploymentRecord::version);
+    }
+
+    /**
+     * Rolls an environment back by re-running the deployment script for an earlier version.
+     * The rollback is queued like any other deployment to the environment.
+     *
+     * @param environment The environment to roll back.
+     * @param version The version to roll back to, typically {@link #getRollbackVersion(String)}.
+     * @param outputConsumer Receives the script output, see {@link #deployApplication(String, String, Consumer)}.
+     */
+    public CompletableFuture<Boolean> rollbackDeployment(String environment, String version, Consumer<String> outputConsumer) {
+        log.info("Rolling back environment {} to version {}", environment, version);
+        return deployApplication(environment, version, outputConsumer);
+    }
+
+    /**
+     * A running or pending deployment, as reported by {@link #getQueue(String)}.
      *
-     * @param environment The environment to rollback.
-     * @param version The version to rollback to.
-     * @return A string indicating the simulated rollback status.
+     * @param running Whether the script has started; a deployment waiting for a free executor thread is not running yet.
+     * @param startedAt When the script was started, or null if the deployment is not running yet.
      */
-    public String rollbackDeployment(String environment, String version) {
-        log.info("Initiating simulated rollback for environment: {} to version: {}", environment, version);
-        // In a real scenario, this would trigger a rollback mechanism in your CI/CD.
-        return String.format("Simulated rollback initiated for %s to version %s. Please monitor logs for completion.", environment, version);
+    public record QueuedDeployment(String environment, String version, boolean running, Instant requestedAt, Instant startedAt) {
+    }
+
+    /** The active deployment and the pending ones of an environment, guarded by the queue's monitor. */
+    private static final class EnvironmentQueue {
+        private DeploymentJob active; // Handed to the deployment executor, running or waiting for a thread
+        private final Deque<DeploymentJob> pending = new ArrayDeque<>();
+    }
+
+    private static final class DeploymentJob {
+        private final long id;
+        private final String environment;
+        private final String version;
+        private final Instant requestedAt = Instant.now();
+        private final List<Consumer<String>> outputConsumers = new CopyOnWriteArrayList<>(); // Identical requests share the job
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private volatile Instant startedAt; // Set when the script is about to run, not when the job is handed to the executor
+        private volatile ProcessSupervisor.SupervisedProcess process;
+        private volatile boolean cancelled;
+        private volatile Integer exitCode; // Null unless the script exited by itself
+
+        private DeploymentJob(long id, String environment, String version, Consumer<String> outputConsumer) {
+            this.id = id;
+            this.environment = environment;
+            this.version = version;
+            this.outputConsumers.add(outputConsumer);
+        }
+
+        private void output(String line) {
+            outputConsumers.forEach(consumer -> consumer.accept(line));
+        }
+
+        private void attach(ProcessSupervisor.SupervisedProcess process) {
+            this.process = process;
+            if (cancelled) {
+                process.cancel(); // Cancelled while the script was being started
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            ProcessSupervisor.SupervisedProcess current = process;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private QueuedDeployment describe() {
+            Instant started = startedAt;
+            return new QueuedDeployment(environment, version, started != null, requestedAt, started);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.genai.chatops.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic parser for the bot's command grammar: deploy, status, rollback, cancel, queue and help, with environment and
+ * version extraction. It answers plain commands such as "deploy staging v1.2.3" or "check status of production"
+ * in microseconds, without an OpenAI round trip.
+ * <p>
+ * The parser is deliberately conservative: every word must be a command verb, an environment, a version or a known
+ * filler word, and each may appear only once. Anything else (negations, questions, a second environment, ...) is
+ * left to the LLM. A question mark alone does not make a word unknown, so questions about deploy, rollback or cancel
+ * ("deploy production?") are rejected explicitly rather than run; read-only commands may still be asked as questions.
+ * The result has the same shape as the LLM's JSON answer.
+ * <p>
+ * Given the previous command of the conversation, a follow-up without a command verb ("now do staging") repeats
+ * that command with the new environment or version, keeping the parameters that were not mentioned.
+ */
+@Component
+@Slf4j
+public class LocalIntentParser {
+
+    private static final Pattern MENTION = Pattern.compile("<@!?\\d+>");
+    private static final Pattern ROLL_BACK = Pattern.compile("\\broll\\s+back\\b");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s,!?:;`'\"]+");
+    private static final Pattern VERSION = Pattern.compile("v?\\d+(\\.\\d+){0,3}([-+][0-9a-z][0-9a-z.-]*)?");
+
+    private static final Map<String, String> COMMANDS = Map.ofEntries(
+            Map.entry("deploy", "deploy"), Map.entry("release", "deploy"), Map.entry("ship", "deploy"),
+            Map.entry("status", "status"), Map.entry("state", "status"), Map.entry("health", "status"),
+            Map.entry("rollback", "rollback"), Map.entry("revert", "rollback"),
+            Map.entry("cancel", "cancel"), Map.entry("abort", "cancel"), Map.entry("stop", "cancel"),
+            Map.entry("queue", "queue"), Map.entry("pending", "queue"), Map.entry("queued", "queue"),
+            Map.entry("help", "help"), Map.entry("commands", "help"));
+
+    private static final Map<String, String> ENVIRONMENTS = Map.of(
+            "dev", "dev", "development", "dev",
+            "staging", "staging", "stage", "staging", "stg", "staging",
+            "production", "production", "prod", "production", "prd", "production");
+
+    private static final Set<String> FILLER = Set.of(
+            "please", "pls", "the", "a", "an", "app", "application", "service", "to", "of", "on", "in", "for", "into",
+            "version", "ver", "env", "environment", "deployment", "deployments", "running", "check", "show", "get", "me", "current", "now",
+            "and", "do");
+
+    // Commands that change something, which a question must never trigger
+    private static final Set<String> MUTATING_COMMANDS = Set.of("deploy", "rollback", "cancel");
+
+    // Words that mark a message as a follow-up to the previous command, e.g. "now do staging" or "same for production"
+    private static final Set<String> FOLLOW_UP = Set.of("now", "do", "same", "also", "too", "again", "then");
+
+    @Value("${chatops.local-intent-parser.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Parses a chat message addressed to the bot.
+     *
+     * @param message The raw message; bot mentions are ignored.
+     * @return The command as {@code {"command", "environment", "version"}} (absent parameters are null),
+     *         or empty if the message is not an unambiguous command and should go to the LLM.
+     */
+    public Optional<JsonNode> parse(String message) {
+        return parse(message, Optional.empty());
+    }
+
+    /**
+     * Parses a chat message addressed to the bot, resolving follow-ups against the previous command.
+     *
+     * @param previous The last command of the conversation, see {@link ConversationContextStore#lastCommand(String)}.
+     */
+    public Optional<JsonNode> parse(String message, Optional<JsonNode> previous) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String text = MENTION.matcher(message.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        text = ROLL_BACK.matcher(text).replaceAll("rollback");
+
+        String command = null;
+        String environment = null;
+        String version = null;
+        boolean followUp = false;
+        for (String token : SEPARATORS.split(text.strip())) {
+            if (FOLLOW_UP.contains(token)) {
+                followUp = true;
+                continue;
+            }
+            if (token.isEmpty() || FILLER.contains(token)) {
+                continue;
+            }
+            String word = token.endsWith(".") && !VERSION.matcher(token).matches() ? token.substring(0, token.length() - 1) : token;
+            if (COMMANDS.containsKey(word)) {
+                if (command != null) {
+                    return Optional.empty(); // Two commands, e.g. "deploy and rollback"
+                }
+                command = COMMANDS.get(word);
+            } else if (ENVIRONMENTS.containsKey(word)) {
+                if (environment != null) {
+                    return Optional.empty();
+                }
+                environment = ENVIRONMENTS.get(word);
+            } else if (word.equals("latest") || VERSION.matcher(word).matches()) {
+                if (version != null) {
+                    return Optional.empty();
+                }
+                version = word;
+            } else if (!FILLER.contains(word)) {
+                return Optional.empty(); // Unknown word: let the LLM interpret the sentence
+            }
+        }
+        if (command == null && followUp && (environment != null || version != null) && previous.isPresent()) {
+            JsonNode last = previous.get();
+            command = last.path("command").asText(null);
+            if (environment == null) {
+                environment = last.path("environment").asText(null);
+            }
+            if (version == null && ("deploy".equals(command) || "rollback".equals(command))) {
+                version = last.path("version").asText(null);
+            }
+        }
+        if (command == null || (command.equals("help") && (environment != null || version != null))) {
+            return Optional.empty();
+        }
+        if (text.indexOf('?') >= 0 && MUTATING_COMMANDS.contains(command)) {
+            return Optional.empty(); // "deploy production?" asks whether to deploy; it is not an order
+        }
+
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        result.put("command", command);
+        result.put("environment", environment);
+        result.put("version", version);
+        log.debug("Parsed '{}' locally as {}", message, result);
+        return Optional.of(result);
+    }
+}
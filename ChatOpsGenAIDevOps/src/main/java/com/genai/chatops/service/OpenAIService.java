@@ -11,7 +11,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,11 +25,56 @@ import java.util.Optional;
 public class OpenAIService {
 
     private final OpenAiService openAiService;
+    private final Scheduler llmScheduler; // Bounded scheduler for the blocking OpenAI client, see OpenAIConfig
+    private final LocalIntentParser localIntentParser;
+    private final ConversationalResponseCache responseCache;
+    private final ConversationContextStore conversationContext;
     private final ObjectMapper objectMapper = new ObjectMapper(); // For JSON parsing
 
     @Value("${openai.model.name}")
     private String openAiModelName;
 
+    @Value("${openai.response-cache.variants:3}")
+    private int responseVariants; // Variants generated per conversational prompt, served at random from the cache
+
+    /**
+     * Non-blocking variant of {@link #getStructuredCommandFromQuery}. Plain commands are answered right away by the
+     * LocalIntentParser; only ambiguous messages go to OpenAI, on the bounded LLM scheduler and never on the caller's
+     * (e.g. Discord event) thread. Fails with a RejectedExecutionException when too many calls are queued.
+     * <p>
+     * Follow-ups are resolved against the conversation's recent commands (see ConversationContextStore): locally
+     * from the last command, or by sending the token-budgeted history along to OpenAI. The result is recorded
+     * as the conversation's next turn.
+     *
+     * @param conversationId Identifies the conversation, see {@link ConversationContextStore#conversationId}.
+     */
+    public Mono<Optional<JsonNode>> getStructuredCommandFromQueryAsync(String userQuery, long botMentionId, String conversationId) {
+        String cleanedQuery = userQuery.replace("<@" + botMentionId + ">", "").trim();
+        Optional<JsonNode> localCommand = localIntentParser.parse(userQuery, conversationContext.lastCommand(conversationId));
+        if (localCommand.isPresent()) {
+            log.info("Parsed command locally: {}", localCommand.get());
+            conversationContext.record(conversationId, cleanedQuery, localCommand.get());
+            return Mono.just(localCommand);
+        }
+        List<ConversationContextStore.Turn> history = conversationContext.history(conversationId);
+        return Mono.fromCallable(() -> getStructuredCommandFromQuery(userQuery, botMentionId, history))
+                .subscribeOn(llmScheduler)
+                .doOnNext(command -> command.ifPresent(json -> conversationContext.record(conversationId, cleanedQuery, json)));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getConversationalResponse(String, Object...)}. Cached responses are returned
+     * right away; otherwise the OpenAI call runs on the bounded LLM scheduler.
+     */
+    public Mono<String> getConversationalResponseAsync(String template, Object... params) {
+        Optional<String> cached = responseCache.get(responseCache.key(template, params));
+        if (cached.isPresent()) {
+            return Mono.just(cached.get());
+        }
+        return Mono.fromCallable(() -> getConversationalResponse(template, params))
+                .subscribeOn(llmScheduler);
+    }
+
     /**
      * Sends a natural language query to the OpenAI LLM and attempts to get a structured JSON response
      * representing a command and its parameters.
@@ -36,30 +84,45 @@ public class OpenAIService {
      * @return An Optional containing a JsonNode if a valid command structure is parsed, otherwise empty.
      */
     public Optional<JsonNode> getStructuredCommandFromQuery(String userQuery, long botMentionId) {
+        return getStructuredCommandFromQuery(userQuery, botMentionId, List.of());
+    }
+
+    /**
+     * Like {@link #getStructuredCommandFromQuery(String, long)}, with the earlier turns of the conversation sent
+     * along so the LLM can resolve follow-ups such as "now do staging".
+     *
+     * @param history Earlier turns, oldest first, already trimmed to the token budget.
+     */
+    public Optional<JsonNode> getStructuredCommandFromQuery(String userQuery, long botMentionId, List<ConversationContextStore.Turn> history) {
         // Clean the query by removing the bot's mention
         String cleanedQuery = userQuery.replace("<@" + botMentionId + ">", "").trim();
         log.info("Cleaned query for LLM: '{}'", cleanedQuery);
 
         // Define the expected structure for LLM output (JSON schema)
         String systemPrompt = "You are a ChatOps assistant for Java DevOps. Your primary task is to interpret " +
-                "user requests related to application deployments, status checks, and rollbacks. " +
+                "user requests related to application deployments, status checks, rollbacks, cancelling deployments and listing queued deployments. " +
                 "Respond ONLY with a JSON object. If you understand the command, use the following structure:\n" +
                 "{\n" +
-                "  \"command\": \"deploy\" | \"status\" | \"rollback\" | \"help\",\n" +
+                "  \"command\": \"deploy\" | \"status\" | \"rollback\" | \"cancel\" | \"queue\" | \"help\",\n" +
                 "  \"environment\": \"dev\" | \"staging\" | \"production\" | null,\n" +
                 "  \"version\": \"latest\" | \"<version_number>\" | null\n" +
                 "}\n" +
-                "For 'help' command, 'environment' and 'version' should be null. " +
+                "For 'help' command, 'environment' and 'version' should be null; for 'queue', 'environment' may be null to list all environments; for 'rollback', 'version' may be null to roll back to the previous version. " +
                 "If the request is ambiguous or cannot be mapped to a command, provide a 'suggestions' field " +
                 "with an array of relevant commands. For example: `{\"suggestions\": [\"deploy <env> <version>\", \"status <env>\", \"rollback <env> <version>\"]}`. " +
                 "Ensure version is extracted correctly if present (e.g., 'v1.0.0', '1.2.3'). Use 'latest' if no specific version is mentioned for deployment. " +
                 "If no environment is mentioned for deployment, default to 'dev'. " +
+                "Earlier messages of the conversation may precede the request; resolve follow-ups such as 'now do staging' " +
+                "against them, keeping the command and parameters the user did not change. " +
                 "Strictly adhere to the JSON format. Do not include any other text outside the JSON.";
 
-        List<ChatMessage> messages = Arrays.asList(
-                new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt),
-                new ChatMessage(ChatMessageRole.USER.value(), cleanedQuery)
-        );
+        List<ChatMessage> messages = new ArrayList<>(2 + 2 * history.size());
+        messages.add(new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt));
+        for (ConversationContextStore.Turn turn : history) {
+            messages.add(new ChatMessage(ChatMessageRole.USER.value(), turn.message()));
+            messages.add(new ChatMessage(ChatMessageRole.ASSISTANT.value(), turn.response()));
+        }
+        messages.add(new ChatMessage(ChatMessageRole.USER.value(), cleanedQuery));
 
         ChatCompletionRequest chatCompletionRequest = ChatCompletionRequest.builder()
                 .model(openAiModelName)
@@ -95,6 +158,27 @@ public class OpenAIService {
      * @return The generated text response from the LLM.
      */
     public String getConversationalResponse(String prompt) {
+        return getConversationalResponse(prompt, new Object[0]);
+    }
+
+    /**
+     * Generates a conversational response for a prompt built from a template and its parameters (as for String.format).
+     * Responses are cached by template and parameters: a miss asks the LLM for several variants in one call, and
+     * later calls with the same template and parameters are answered from the cache without an API call.
+     *
+     * @param template The prompt template, e.g. "Confirming deployment request for environment `%s`...".
+     * @param params The template parameters.
+     * @return The generated text response from the LLM.
+     */
+    public String getConversationalResponse(String template, Object... params) {
+        String cacheKey = responseCache.key(template, params);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.debug("Conversational response served from cache");
+            return cached.get();
+        }
+        String prompt = params.length == 0 ? template : String.format(template, params);
+
         List<ChatMessage> messages = Arrays.asList(
                 new ChatMessage(ChatMessageRole.SYSTEM.value(), "You are a helpful and friendly ChatOps assistant for Java DevOps. " +
                         "Provide concise and clear responses. Be encouraging for successful operations and " +
@@ -107,13 +191,21 @@ public class OpenAIService {
                 .messages(messages)
                 .maxTokens(250) // Adjust as needed
                 .temperature(0.7) // Allow for more creative/human-like responses
+                .n(Math.max(1, responseVariants)) // Several variants from one call, to vary cached answers
                 .build();
 
         try {
-            String llmResponseContent = openAiService.createChatCompletion(chatCompletionRequest)
-                    .getChoices().get(0).getMessage().getContent();
-            log.debug("LLM Conversational Response: {}", llmResponseContent);
-            return llmResponseContent;
+            List<String> variants = openAiService.createChatCompletion(chatCompletionRequest)
+                    .getChoices().stream()
+                    .map(choice -> choice.getMessage().getContent())
+                    .filter(content -> content != null && !content.isBlank())
+                    .toList();
+            if (variants.isEmpty()) {
+                throw new IllegalStateException("OpenAI returned no response");
+            }
+            log.debug("LLM Conversational Response: {}", variants.get(0));
+            responseCache.put(cacheKey, variants);
+            return variants.get(0);
         } catch (Exception e) {
             log.error("Error getting conversational response from OpenAI: {}", e.getMessage());
             return "Apologies, I'm having trouble connecting to my brain (OpenAI API) right now. Please try again later.";
@@ -0,0 +1,179 @@
+package com.genai.chatops.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Starts and supervises external processes such as the deployment script.
+ * <p>
+ * stdout and stderr are drained concurrently on dedicated reader threads, so a script that fills one pipe while
+ * the other is being read cannot deadlock. Waiting is bounded by a timeout, and a supervised process can be cancelled
+ * from another thread; in both cases the process and its children are terminated, forcibly after a grace period.
+ * <p>
+ * A background child that outlives the process keeps its output pipes open. Once the process is gone and its output
+ * has not ended within the grace period, the supervisor stops waiting and closes the pipes, so the readers stop
+ * forwarding output and end as soon as their pending read returns. Reader threads are not pooled to a fixed size,
+ * so readers still blocked on such a pipe can never hold up the output of later processes.
+ */
+@Component
+@Slf4j
+public class ProcessSupervisor {
+
+    private static final long POLL_MILLIS = 200;
+
+    private final ExecutorService streamReaders;
+    private final Duration killGracePeriod;
+
+    public ProcessSupervisor(@Value("${deployment.kill-grace-period:PT10S}") Duration killGracePeriod) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("process-io-");
+        threadFactory.setDaemon(true);
+        // Two readers per process; the number of processes is bounded by the deployment executor
+        this.streamReaders = Executors.newCachedThreadPool(threadFactory);
+        this.killGracePeriod = killGracePeriod;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamReaders.shutdownNow();
+    }
+
+    /**
+     * Starts a process and begins draining its output streams.
+     *
+     * @param stdout Receives each stdout line, on a reader thread.
+     * @param stderr Receives each stderr line, on another reader thread, concurrently with stdout.
+     */
+    public SupervisedProcess start(ProcessBuilder builder, Consumer<String> stdout, Consumer<String> stderr) throws IOException {
+        Process process = builder.start();
+        Future<?> stdoutReader = streamReaders.submit(() -> drain(process.getInputStream(), stdout));
+        Future<?> stderrReader = streamReaders.submit(() -> drain(process.getErrorStream(), stderr));
+        return new SupervisedProcess(process, stdoutReader, stderrReader);
+    }
+
+    private static void drain(InputStream stream, Consumer<String> consumer) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                consumer.accept(line);
+            }
+        } catch (IOException e) {
+            log.debug("Process stream closed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A running process under supervision.
+     */
+    public final class SupervisedProcess {
+
+        private final Process process;
+        private final Future<?> stdoutReader;
+        private final Future<?> stderrReader;
+        private volatile boolean cancelRequested;
+        private volatile boolean timedOut;
+
+        private SupervisedProcess(Process process, Future<?> stdoutReader, Future<?> stderrReader) {
+            this.process = process;
+            this.stdoutReader = stdoutReader;
+            this.stderrReader = stderrReader;
+        }
+
+        /**
+         * Waits for the process to exit and its output to be drained. If the timeout passes or the process is
+         * cancelled first, the process and its children are terminated.
+         *
+         * @return The exit code of the process.
+         */
+        public int await(Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            try {
+                while (!process.waitFor(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (cancelRequested) {
+                        terminate();
+                        break;
+                    }
+                    if (System.nanoTime() - deadline > 0) {
+                        timedOut = true;
+                        terminate();
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                terminate();
+                throw e;
+            }
+            awaitReader(stdoutReader, process.getInputStream());
+            awaitReader(stderrReader, process.getErrorStream());
+            return process.waitFor();
+        }
+
+        /**
+         * Requests cancellation; returns immediately. The waiting thread terminates the process.
+         */
+        public void cancel() {
+            cancelRequested = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelRequested;
+        }
+
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        public long pid() {
+            return process.pid();
+        }
+
+        private void terminate() throws InterruptedException {
+            log.warn("Terminating process {} ({})", process.pid(), timedOut ? "timed out" : "cancelled");
+            // Children are collected first, since they are re-parented once the process itself is gone
+            List<ProcessHandle> children = process.descendants().toList();
+            process.destroy();
+            children.forEach(ProcessHandle::destroy);
+            if (!process.waitFor(killGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Process {} did not stop within {}, killing it", process.pid(), killGracePeriod);
+                process.destroyForcibly();
+            }
+            children.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+        }
+
+        private void awaitReader(Future<?> reader, InputStream stream) throws InterruptedException {
+            try {
+                // Readers end at EOF; an orphaned child still holding the pipe must not stall the caller
+                reader.get(killGracePeriod.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Output of process {} was not fully drained", process.pid());
+                // Neither interrupting nor closing wakes a blocked pipe read, but after the close the reader ends
+                // at the child's next write or exit instead of forwarding its output
+                try {
+                    stream.close();
+                } catch (IOException closeFailure) {
+                    log.debug("Failed to close output of process {}: {}", process.pid(), closeFailure.getMessage());
+                }
+                reader.cancel(true);
+            } catch (ExecutionException e) {
+                log.warn("Failed to read output of process {}: {}", process.pid(), e.getCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.genai.chatops.service;
+
+import com.genai.chatops.service.DeploymentLedger.DeploymentRecord;
+import com.genai.chatops.service.DeploymentLedger.Outcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeploymentLedgerTest {
+
+    @TempDir
+    Path directory;
+
+    private long nextId;
+
+    private DeploymentLedger newLedger() throws Exception {
+        DeploymentLedger ledger = new DeploymentLedger();
+        ReflectionTestUtils.setField(ledger, "ledgerPath", directory.resolve("ledger.jsonl"));
+        ReflectionTestUtils.setField(ledger, "logDir", directory.resolve("logs"));
+        ledger.load();
+        return ledger;
+    }
+
+    private void deploy(DeploymentLedger ledger, String version, Outcome outcome) {
+        Instant now = Instant.now();
+        ledger.record(new DeploymentRecord(++nextId, "production", version, now, now,
+                outcome == Outcome.SUCCEEDED ? 0 : 1, outcome, null));
+    }
+
+    private static Optional<String> rollbackTarget(DeploymentLedger ledger) {
+        return ledger.previous("production").map(DeploymentRecord::version);
+    }
+
+    @Test
+    void rollbackTargetIsTheVersionBeforeTheCurrentOne() throws Exception {
+        DeploymentLedger ledger = newLedger();
+        deploy(ledger, "v1", Outcome.SUCCEEDED);
+        deploy(ledger, "v2", Outcome.SUCCEEDED);
+        deploy(ledger, "v2", Outcome.SUCCEEDED); // A redeploy is not a new version
+        deploy(ledger, "v3", Outcome.FAILED);
+
+        assertEquals("v2", ledger.current("production").orElseThrow().version());
+        assertEquals(Optional.of("v1"), rollbackTarget(ledger));
+        assertEquals("v3", ledger.latest("PRODUCTION").orElseThrow().version());
+    }
+
+    @Test
+    void repeatedRollbacksStepFurtherBack() throws Exception {
+        DeploymentLedger ledger = newLedger();
+        deploy(ledger, "v1", Outcome.SUCCEEDED);
+        deploy(ledger, "v2", Outcome.SUCCEEDED);
+        deploy(ledger, "v3", Outcome.SUCCEEDED);
+
+        deploy(ledger, rollbackTarget(ledger).orElseThrow(), Outcome.SUCCEEDED);
+        assertEquals(Optional.of("v1"), rollbackTarget(ledger));
+
+        deploy(ledger, rollbackTarget(ledger).orElseThrow(), Outcome.SUCCEEDED);
+        assertEquals("v1", ledger.current("production").orElseThrow().version());
+        assertEquals(Optional.empty(), rollbackTarget(ledger));
+    }
+
+    @Test
+    void unpinnedDeploymentsAreNeverARollbackTarget() throws Exception {
+        DeploymentLedger ledger = newLedger();
+        deploy(ledger, "latest", Outcome.SUCCEEDED);
+        assertEquals(Optional.empty(), rollbackTarget(ledger));
+
+        deploy(ledger, "v1", Outcome.SUCCEEDED);
+        deploy(ledger, "latest", Outcome.SUCCEEDED);
+        deploy(ledger, "v2", Outcome.SUCCEEDED);
+        deploy(ledger, "latest", Outcome.SUCCEEDED);
+        deploy(ledger, "latest", Outcome.SUCCEEDED);
+
+        // The newest build is running; rolling back returns to the last pinned version
+        assertEquals("latest", ledger.current("production").orElseThrow().version());
+        assertEquals(Optional.of("v2"), rollbackTarget(ledger));
+
+        deploy(ledger, rollbackTarget(ledger).orElseThrow(), Outcome.SUCCEEDED);
+        assertEquals(Optional.of("v1"), rollbackTarget(ledger));
+        assertEquals(Optional.of("v1"), rollbackTarget(newLedger()));
+    }
+
+    @Test
+    void replayRestoresTheDeployedVersions() throws Exception {
+        DeploymentLedger ledger = newLedger();
+        deploy(ledger, "v1", Outcome.SUCCEEDED);
+        deploy(ledger, "v2", Outcome.SUCCEEDED);
+        deploy(ledger, "v3", Outcome.SUCCEEDED);
+        deploy(ledger, "v2", Outcome.SUCCEEDED);
+
+        DeploymentLedger replayed = newLedger();
+        assertEquals("v2", replayed.current("production").orElseThrow().version());
+        assertEquals(Optional.of("v1"), rollbackTarget(replayed));
+        assertEquals(nextId, replayed.lastId());
+    }
+}
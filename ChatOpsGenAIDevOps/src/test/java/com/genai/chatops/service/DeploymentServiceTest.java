@@ -0,0 +1,182 @@
+package com.genai.chatops.service;
+
+import com.genai.chatops.service.DeploymentLedger.Outcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the service against a stub deployment script that records each run and waits until its environment is released.
+ */
+class DeploymentServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final ProcessSupervisor processSupervisor = new ProcessSupervisor(Duration.ofMillis(500));
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(4));
+    private final List<String> output = new CopyOnWriteArrayList<>();
+    private DeploymentLedger ledger;
+    private DeploymentService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path script = directory.resolve("deploy.sh");
+        Files.writeString(script, String.join("\n",
+                "echo \"$1 $2\" >> '" + directory.resolve("runs.log") + "'",
+                "echo \"Deploying $2 to $1\"",
+                "while [ ! -e '" + directory + "/release-'\"$1\" ]; do sleep 0.05; done",
+                ""), StandardCharsets.UTF_8);
+
+        ledger = new DeploymentLedger();
+        ReflectionTestUtils.setField(ledger, "ledgerPath", directory.resolve("ledger.jsonl"));
+        ReflectionTestUtils.setField(ledger, "logDir", directory.resolve("logs"));
+        service = new DeploymentService(executor, processSupervisor, ledger);
+        ReflectionTestUtils.setField(service, "deploymentScriptPath", script.toString());
+        ReflectionTestUtils.setField(service, "deploymentTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(service, "maxPendingPerEnvironment", 10);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release("production");
+        release("staging");
+        release("dev");
+        executor.shutdownNow();
+        processSupervisor.shutdown();
+    }
+
+    private CompletableFuture<Boolean> deploy(String environment, String version) {
+        return service.deployApplication(environment, version, output::add);
+    }
+
+    private void release(String environment) throws IOException {
+        Path release = directory.resolve("release-" + environment);
+        if (!Files.exists(release)) {
+            Files.createFile(release);
+        }
+    }
+
+    private List<String> runs() throws IOException {
+        Path runs = directory.resolve("runs.log");
+        return Files.exists(runs) ? Files.readAllLines(runs, StandardCharsets.UTF_8) : List.of();
+    }
+
+    private void awaitRuns(int count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (runs().size() < count) {
+            assertTrue(System.nanoTime() < deadline, "Expected " + count + " runs, got " + runs());
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void deploymentsToOneEnvironmentRunOneAtATime() throws Exception {
+        CompletableFuture<Boolean> first = deploy("production", "v1");
+        CompletableFuture<Boolean> second = deploy("production", "v2");
+        awaitRuns(1);
+        Thread.sleep(200);
+
+        assertEquals(List.of("production v1"), runs());
+        List<DeploymentService.QueuedDeployment> queue = service.getQueue("production");
+        assertEquals(2, queue.size());
+        assertTrue(queue.get(0).running());
+        assertFalse(queue.get(1).running());
+
+        release("production");
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("production v1", "production v2"), runs());
+        assertEquals("v2", ledger.current("production").orElseThrow().version());
+    }
+
+    @Test
+    void deploymentsToDifferentEnvironmentsRunInParallel() throws Exception {
+        CompletableFuture<Boolean> production = deploy("production", "v1");
+        CompletableFuture<Boolean> staging = deploy("staging", "v1");
+
+        awaitRuns(2); // Both scripts are waiting for their release at once
+
+        release("staging");
+        assertTrue(staging.get(10, TimeUnit.SECONDS));
+        assertFalse(production.isDone());
+        release("production");
+        assertTrue(production.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void deploymentWaitingForAnExecutorThreadIsNotReportedAsRunning() throws Exception {
+        CompletableFuture<Boolean> production = deploy("production", "v1");
+        CompletableFuture<Boolean> staging = deploy("staging", "v1");
+        CompletableFuture<Boolean> dev = deploy("dev", "v1"); // Both executor threads are taken
+        awaitRuns(2);
+
+        DeploymentService.QueuedDeployment waiting = service.getQueue("dev").get(0);
+        assertFalse(waiting.running());
+        assertNull(waiting.startedAt());
+        assertFalse(service.getDeploymentStatus("dev").contains("in progress"));
+
+        release("production");
+        assertTrue(production.get(10, TimeUnit.SECONDS));
+        awaitRuns(3);
+        assertTrue(service.getQueue("dev").get(0).running());
+        assertTrue(service.getDeploymentStatus("dev").contains("in progress"));
+
+        release("staging");
+        release("dev");
+        assertTrue(staging.get(10, TimeUnit.SECONDS));
+        assertTrue(dev.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void identicalPendingRequestJoinsTheQueuedDeployment() throws Exception {
+        CompletableFuture<Boolean> running = deploy("production", "v1");
+        CompletableFuture<Boolean> queued = deploy("production", "v2");
+        List<String> joinedOutput = new CopyOnWriteArrayList<>();
+        CompletableFuture<Boolean> joined = service.deployApplication("production", "v2", joinedOutput::add);
+
+        assertEquals(2, service.getQueue("production").size());
+
+        release("production");
+        assertTrue(running.get(10, TimeUnit.SECONDS));
+        assertTrue(queued.get(10, TimeUnit.SECONDS));
+        assertTrue(joined.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("production v1", "production v2"), runs());
+        assertTrue(joinedOutput.contains("Deploying v2 to production"));
+    }
+
+    @Test
+    void cancellingDropsQueuedDeploymentsAndStopsTheRunningOne() throws Exception {
+        CompletableFuture<Boolean> running = deploy("production", "v1");
+        CompletableFuture<Boolean> queued = deploy("production", "v2");
+        awaitRuns(1);
+
+        assertEquals(2, service.cancelDeployment("production"));
+
+        assertFalse(queued.get(10, TimeUnit.SECONDS));
+        assertFalse(running.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("production v1"), runs());
+        assertEquals(Outcome.CANCELLED, ledger.latest("production").orElseThrow().outcome());
+        assertTrue(service.getQueue("production").isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package com.genai.chatops.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalIntentParserTest {
+
+    private final LocalIntentParser parser = new LocalIntentParser();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(parser, "enabled", true);
+    }
+
+    private JsonNode parsed(String message) {
+        return parser.parse(message).orElseThrow(() -> new AssertionError("not parsed: " + message));
+    }
+
+    @Test
+    void parsesPlainCommands() {
+        JsonNode deploy = parsed("<@123> please deploy v1.2.3 to staging!");
+        assertEquals("deploy", deploy.path("command").asText());
+        assertEquals("staging", deploy.path("environment").asText());
+        assertEquals("v1.2.3", deploy.path("version").asText());
+
+        assertEquals("rollback", parsed("roll back prod").path("command").asText());
+        assertEquals("status", parsed("check status of production").path("command").asText());
+    }
+
+    @Test
+    void leavesQuestionsAboutChangesToTheLlm() {
+        assertTrue(parser.parse("deploy production?").isEmpty());
+        assertTrue(parser.parse("rollback prod v1.2.2?").isEmpty());
+        assertTrue(parser.parse("cancel the deployment?").isEmpty());
+        assertTrue(parser.parse("now staging?", Optional.of(parsed("deploy production v2"))).isEmpty());
+    }
+
+    @Test
+    void answersReadOnlyQuestions() {
+        assertEquals("status", parsed("status of production?").path("command").asText());
+        assertEquals("queue", parsed("queue?").path("command").asText());
+    }
+
+    @Test
+    void leavesUnknownWordsToTheLlm() {
+        assertTrue(parser.parse("don't deploy production").isEmpty());
+        assertTrue(parser.parse("deploy staging and production").isEmpty());
+    }
+
+    @Test
+    void followUpRepeatsThePreviousCommand() {
+        JsonNode followUp = parser.parse("now do staging", Optional.of(parsed("deploy production v2.0.0"))).orElseThrow();
+
+        assertEquals("deploy", followUp.path("command").asText());
+        assertEquals("staging", followUp.path("environment").asText());
+        assertEquals("v2.0.0", followUp.path("version").asText());
+    }
+}
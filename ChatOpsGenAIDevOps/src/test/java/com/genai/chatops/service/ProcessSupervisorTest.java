@@ -0,0 +1,64 @@
+package com.genai.chatops.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessSupervisorTest {
+
+    private final ProcessSupervisor supervisor = new ProcessSupervisor(Duration.ofMillis(500));
+
+    @AfterEach
+    void tearDown() {
+        supervisor.shutdown();
+    }
+
+    private static ProcessBuilder shell(String script) {
+        return new ProcessBuilder("sh", "-c", script);
+    }
+
+    @Test
+    void drainsStdoutAndStderr() throws Exception {
+        List<String> out = new CopyOnWriteArrayList<>();
+        List<String> err = new CopyOnWriteArrayList<>();
+
+        int exitCode = supervisor.start(shell("echo out; echo err >&2; exit 3"), out::add, err::add).await(Duration.ofSeconds(10));
+
+        assertEquals(3, exitCode);
+        assertEquals(List.of("out"), out);
+        assertEquals(List.of("err"), err);
+    }
+
+    @Test
+    void terminatesProcessesThatTimeOut() throws Exception {
+        ProcessSupervisor.SupervisedProcess process = supervisor.start(shell("sleep 30"), line -> { }, line -> { });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> process.await(Duration.ofMillis(200)));
+        assertTrue(process.isTimedOut());
+    }
+
+    @Test
+    void orphanedChildrenHoldingThePipesDoNotStallLaterProcesses() throws Exception {
+        // Each script exits at once but leaves a background child holding stdout and stderr open;
+        // more of them than a fixed pool of two readers per process could serve
+        List<Long> orphans = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ProcessSupervisor.SupervisedProcess process = supervisor.start(shell("sleep 5 & echo $!"),
+                line -> orphans.add(Long.parseLong(line.trim())), line -> { });
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> process.await(Duration.ofSeconds(10)));
+        }
+
+        List<String> out = new CopyOnWriteArrayList<>();
+        supervisor.start(shell("echo hello"), out::add, line -> { }).await(Duration.ofSeconds(10));
+        assertEquals(List.of("hello"), out);
+
+        orphans.forEach(pid -> ProcessHandle.of(pid).ifPresent(ProcessHandle::destroyForcibly));
+    }
+}
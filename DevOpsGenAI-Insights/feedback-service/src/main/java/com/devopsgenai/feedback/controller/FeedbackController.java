@@ -1,14 +1,25 @@
 package com.devopsgenai.feedback.controller;
 
+import com.devopsgenai.feedback.model.AnalysisStatus;
 import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.DailyBuildStats;
 import com.devopsgenai.feedback.model.FullBuildDetails;
 import com.devopsgenai.feedback.service.TelemetryService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller; // Use @Controller for MVC (returning view names)
 import org.springframework.ui.Model; // For passing data to Thymeleaf templates
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody; // For returning JSON responses
+import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +31,8 @@ import org.slf4j.LoggerFactory;
  * 1. POST requests to `/api/telemetry/build` for ingesting build reports.
  * 2. GET requests to `/dashboard` for displaying the web-based feedback dashboard.
  * 3. GET requests to `/api/reports` for programmatic access to the reports.
+ * 4. GET requests to `/api/projects/{projectId}/builds/{buildId}` to poll a build's analysis status.
+ * 5. GET requests to `/api/projects/{projectId}/build-stats` for daily build statistics.
  */
 @Controller // Indicates that this class is a Spring MVC controller
 public class FeedbackController {
@@ -27,28 +40,56 @@ public class FeedbackController {
     private static final Logger logger = LoggerFactory.getLogger(FeedbackController.class);
 
     private final TelemetryService telemetryService;
+    private final int dashboardBuilds; // Number of most recent builds rendered on the dashboard
 
     /**
      * Constructor for FeedbackController, injecting the TelemetryService dependency.
      * @param telemetryService The service responsible for processing telemetry.
+     * @param dashboardBuilds The number of most recent builds shown on the dashboard.
      */
-    public FeedbackController(TelemetryService telemetryService) {
+    public FeedbackController(TelemetryService telemetryService, @Value("${feedback.dashboard.max-builds:50}") int dashboardBuilds) {
         this.telemetryService = telemetryService;
+        this.dashboardBuilds = dashboardBuilds;
     }
 
     /**
      * REST API endpoint for receiving build telemetry reports.
      * This method accepts a POST request with a JSON payload representing a BuildReport.
+     * It responds with 202 Accepted as soon as the report is durably queued; the AI analysis runs in the
+     * background and its progress can be polled at `/api/projects/{projectId}/builds/{buildId}`.
      *
      * @param report The BuildReport object automatically converted from the JSON request body.
      * @return A simple confirmation message string.
      */
     @PostMapping("/api/telemetry/build")
     @ResponseBody // Indicates that the return value should be bound directly to the web response body
-    public String receiveBuildTelemetry(@RequestBody BuildReport report) {
-        logger.info("API: Received build report for project: {} (Build ID: {})", report.getProjectId(), report.getBuildId());
-        telemetryService.processBuildReport(report); // Process the report using the service
-        return "Build report received and processed.";
+    public ResponseEntity<String> receiveBuildTelemetry(@RequestBody BuildReport report) {
+        try {
+            telemetryService.processBuildReport(report); // Queue the report for analysis
+        } catch (RejectedExecutionException e) {
+            logger.warn("API: Rejected build report for project: {} (Build ID: {}): {}", report.getProjectId(), report.getBuildId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("Too many build reports awaiting analysis, please retry later.");
+        } catch (IOException e) {
+            logger.error("API: Failed to queue build report for project: {} (Build ID: {}): {}", report.getProjectId(), report.getBuildId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Build report could not be stored.");
+        }
+        logger.info("API: Accepted build report for project: {} (Build ID: {})", report.getProjectId(), report.getBuildId());
+        return ResponseEntity.accepted().body("Build report received; AI analysis queued.");
+    }
+
+    /**
+     * REST API endpoint to poll a single build, including the status of its AI analysis.
+     *
+     * @param projectId The project, as sent in the build report.
+     * @param buildId The build ID, as sent in the build report.
+     * @return The build's details; 404 if the build is unknown or no longer held in memory.
+     */
+    @GetMapping("/api/projects/{projectId}/builds/{buildId}")
+    @ResponseBody
+    public FullBuildDetails getBuild(@PathVariable String projectId, @PathVariable long buildId) {
+        return telemetryService.findBuild(projectId, buildId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown build"));
     }
 
     /**
@@ -61,8 +102,10 @@ public class FeedbackController {
     @GetMapping("/dashboard")
     public String showDashboard(Model model) {
         // Retrieve the history of build reports and AI analysis
-        List<FullBuildDetails> buildHistory = telemetryService.getBuildHistory();
+        List<FullBuildDetails> buildHistory = telemetryService.getBuildHistory(dashboardBuilds);
         model.addAttribute("builds", buildHistory); // Add the list to the model, accessible in Thymeleaf as `builds`
+        model.addAttribute("analysisPending", buildHistory.stream().anyMatch(build ->
+                build.getAnalysisStatus() == AnalysisStatus.PENDING || build.getAnalysisStatus() == AnalysisStatus.ANALYZING));
         logger.info("Web: Displaying dashboard with {} build reports.", buildHistory.size());
         return "dashboard"; // Refers to src/main/resources/templates/dashboard.html
     }
@@ -78,4 +121,29 @@ public class FeedbackController {
     public List<FullBuildDetails> getAllReports() {
         return telemetryService.getBuildHistory();
     }
-}
\ No newline at end of file
+
+    /**
+     * REST API endpoint for daily build statistics of a project, e.g. the p95 build time per day over 90 days.
+     * Served from the persistent columnar metrics store, so it covers far more than the builds held in memory.
+     *
+     * @param projectId The project, as sent in its build reports.
+     * @param days The number of days to cover, ending today (UTC).
+     * @param percentile The build time percentile to compute.
+     * @return The statistics per day with builds, oldest first.
+     */
+    @GetMapping("/api/projects/{projectId}/build-stats")
+    @ResponseBody
+    public List<DailyBuildStats> getBuildStats(@PathVariable String projectId,
+                                               @RequestParam(defaultValue = "90") int days,
+                                               @RequestParam(defaultValue = "95") double percentile) {
+        if (days < 1 || days > 3660 || percentile <= 0 || percentile > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be 1..3660 and percentile in (0, 100]");
+        }
+        try {
+            return telemetryService.getDailyBuildStats(projectId, days, percentile);
+        } catch (IOException e) {
+            logger.error("Failed to read build statistics of project {}: {}", projectId, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Build statistics are unavailable");
+        }
+    }
+}
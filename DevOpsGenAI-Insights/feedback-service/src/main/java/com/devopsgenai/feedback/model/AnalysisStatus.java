@@ -0,0 +1,12 @@
+package com.devopsgenai.feedback.model;
+
+/**
+ * Progress of the AI analysis of a build report. Reports are acknowledged before they are analyzed,
+ * so clients poll this status (or the dashboard refreshes) until the analysis is attached.
+ */
+public enum AnalysisStatus {
+    PENDING,     // Queued, waiting for a free analysis worker
+    ANALYZING,   // An analysis attempt is running
+    COMPLETED,   // The analysis is attached to the build
+    FAILED       // All attempts failed; the build is shown without analysis
+}
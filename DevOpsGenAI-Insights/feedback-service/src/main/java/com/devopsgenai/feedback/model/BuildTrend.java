@@ -0,0 +1,29 @@
+package com.devopsgenai.feedback.model;
+
+import lombok.Data; // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+import java.util.List;
+
+/**
+ * A snapshot of a project's build trends, taken when one of its build reports arrived.
+ * Computed incrementally by the `BuildTrendTracker` and used by the `AIService` to call out regressions
+ * that a single report cannot show, such as build times creeping up over weeks.
+ */
+@Data
+public class BuildTrend {
+    private long buildsObserved;                // Number of reports of the project seen so far (since startup)
+    private double buildTimeEwmaSeconds;        // Exponentially weighted moving average of the build time
+    private double baselineBuildTimeSeconds;    // Typical build time of the current regime, used to detect shifts
+
+    // Set only on the report that confirmed a build time regression
+    private boolean buildTimeRegression;
+    private Long changePointBuildId;            // First build of the slower regime
+    private double previousBuildTimeSeconds;    // Typical build time before the change point
+    private double regressedBuildTimeSeconds;   // Average build time since the change point
+
+    private int failureWindow;                  // Number of recent builds the failure rate covers
+    private double recentFailureRate;           // Failure rate over the last `failureWindow` builds
+    private double longTermFailureRate;         // Exponentially weighted failure rate over all builds
+    private boolean failureRateSpike;           // Whether the recent failure rate is well above the long-term one
+
+    private List<String> flakyErrorSignatures;  // Errors of this build that keep recurring after green builds, most frequent first
+}
@@ -0,0 +1,19 @@
+package com.devopsgenai.feedback.model;
+
+import lombok.AllArgsConstructor; // Lombok annotation to generate a constructor with all fields
+import lombok.Data; // Lombok annotation to generate getters, setters, equals, hashCode, and toString methods
+import java.time.LocalDate;
+
+/**
+ * Aggregated build statistics of one project on one day (UTC), computed by the `BuildMetricsStore`.
+ */
+@Data
+@AllArgsConstructor
+public class DailyBuildStats {
+    private LocalDate date;                     // The day the builds were received
+    private int builds;                         // Number of builds reported that day
+    private int failedBuilds;                   // Number of builds with status "FAILURE"
+    private double medianBuildTimeSeconds;      // Median build time
+    private double percentileBuildTimeSeconds;  // Build time at the requested percentile (e.g., p95)
+    private double maxBuildTimeSeconds;         // Slowest build of the day
+}
@@ -6,18 +6,34 @@ import java.time.LocalDateTime; // To record when the report was received
 /**
  * A composite model combining the raw BuildReport with its AI-generated analysis.
  * This is what will be stored in memory and displayed on the dashboard.
+ * The analysis is attached asynchronously; `analysisStatus` tells whether it is available yet.
  */
 @Data // Automatically generates getters, setters, equals, hashCode, and toString
 public class FullBuildDetails {
     private BuildReport buildReport;    // The original build telemetry
-    private AIAnalysis aiAnalysis;      // The AI's insights for this build
-    private LocalDateTime timestamp;    // When this report was received and processed
+    // Analysis runs asynchronously after the report is acknowledged; these two are updated by the analysis worker
+    private volatile AIAnalysis aiAnalysis;         // The AI's insights for this build, null until COMPLETED
+    private volatile AnalysisStatus analysisStatus; // Progress of the AI analysis
+    private LocalDateTime timestamp;    // When this report was received
+    private BuildTrend buildTrend;      // The project's trends as of this build, null for builds recovered after a restart
 
     public FullBuildDetails(BuildReport buildReport, AIAnalysis aiAnalysis) {
         this.buildReport = buildReport;
         this.aiAnalysis = aiAnalysis;
+        this.analysisStatus = AnalysisStatus.COMPLETED;
         this.timestamp = LocalDateTime.now(); // Set the current time upon creation
     }
 
+    /**
+     * Creates the details of a report whose analysis is still pending.
+     *
+     * @param timestamp When the report was received.
+     */
+    public FullBuildDetails(BuildReport buildReport, LocalDateTime timestamp) {
+        this.buildReport = buildReport;
+        this.analysisStatus = AnalysisStatus.PENDING;
+        this.timestamp = timestamp;
+    }
+
     // Lombok's @Data handles the rest of the standard methods.
 }
\ No newline at end of file
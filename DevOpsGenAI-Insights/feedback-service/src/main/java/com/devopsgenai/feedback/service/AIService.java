@@ -2,6 +2,7 @@ package com.devopsgenai.feedback.service;
 
 import com.devopsgenai.feedback.model.AIAnalysis;
 import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.BuildTrend;
 import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +23,18 @@ public class AIService {
      * @return An AIAnalysis object containing summary, suggested fixes, and confidence.
      */
     public AIAnalysis analyzeBuildReport(BuildReport report) {
+        return analyzeBuildReport(report, null);
+    }
+
+    /**
+     * Analyzes a given build report in the context of its project's recent builds, calling out
+     * build time regressions, failure rate spikes and flaky tests that a single report cannot show.
+     *
+     * @param report The BuildReport to analyze.
+     * @param trend The project's trends as of this build (see BuildTrendTracker), or null if unknown.
+     * @return An AIAnalysis object containing summary, suggested fixes, and confidence.
+     */
+    public AIAnalysis analyzeBuildReport(BuildReport report, BuildTrend trend) {
         AIAnalysis analysis = new AIAnalysis();
         List<String> suggestedFixes = new ArrayList<>();
         String summary;
@@ -71,6 +84,10 @@ public class AIService {
             }
         }
 
+        if (trend != null) {
+            summary += analyzeTrend(trend, suggestedFixes);
+        }
+
         analysis.setAnalysisSummary(summary);
         analysis.setSuggestedFixes(suggestedFixes);
         analysis.setConfidenceScore(confidence);
@@ -78,4 +95,30 @@ public class AIService {
 
         return analysis;
     }
-}
\ No newline at end of file
+
+    /**
+     * Describes the regressions visible in the project's trends and adds the matching suggestions.
+     *
+     * @return The sentences to append to the summary, empty if the trends look normal.
+     */
+    private String analyzeTrend(BuildTrend trend, List<String> suggestedFixes) {
+        StringBuilder findings = new StringBuilder();
+        if (trend.isBuildTimeRegression()) {
+            double increase = (trend.getRegressedBuildTimeSeconds() / trend.getPreviousBuildTimeSeconds() - 1) * 100;
+            findings.append(String.format(" Build time regression: since build %d, builds take %.0fs on average instead of %.0fs (+%.0f%%).",
+                    trend.getChangePointBuildId(), trend.getRegressedBuildTimeSeconds(), trend.getPreviousBuildTimeSeconds(), increase));
+            suggestedFixes.add("Review the changes merged just before build " + trend.getChangePointBuildId()
+                    + " (new or slower tests, dependency or build plugin upgrades, disabled caches) for the build time increase.");
+        }
+        if (trend.isFailureRateSpike()) {
+            findings.append(String.format(" %.0f%% of the last %d builds failed, against %.0f%% over the project's history.",
+                    trend.getRecentFailureRate() * 100, trend.getFailureWindow(), trend.getLongTermFailureRate() * 100));
+            suggestedFixes.add("Failures are piling up: stabilize the main branch before merging further changes.");
+        }
+        if (trend.getFlakyErrorSignatures() != null && !trend.getFlakyErrorSignatures().isEmpty()) {
+            findings.append(" Likely flaky: ").append(String.join("; ", trend.getFlakyErrorSignatures())).append('.');
+            suggestedFixes.add("Quarantine or stabilize the tests behind these recurring errors; look for timing, ordering or shared state dependencies.");
+        }
+        return findings.toString();
+    }
+}
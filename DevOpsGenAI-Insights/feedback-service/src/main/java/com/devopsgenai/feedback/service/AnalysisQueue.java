@@ -0,0 +1,327 @@
+package com.devopsgenai.feedback.service;
+
+import com.devopsgenai.feedback.model.AIAnalysis;
+import com.devopsgenai.feedback.model.AnalysisStatus;
+import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.FullBuildDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs the AI analysis of build reports in the background, so telemetry POSTs are acknowledged right away.
+ * <p>
+ * A report is first appended to a journal file and flushed to disk; only then is it acknowledged. Flushes are
+ * group-committed: one flush covers every report appended before it, and concurrent POSTs wait for it without
+ * holding the queue's monitor. Analyses run on a fixed pool of workers and failed attempts are retried with
+ * exponential backoff. When an analysis finishes, it is attached to the build's details and a completion entry is
+ * journaled; on startup, reports without one are analyzed again. Once the journal outgrows its threshold, it is
+ * rewritten with just the unfinished reports, busy or not. The number of pending analyses is bounded, and reports
+ * beyond it are rejected.
+ */
+@Service
+public class AnalysisQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisQueue.class);
+
+    private static final String ENQUEUED = "enqueued";
+    private static final String DONE = "done";
+
+    private final AIService aiService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledThreadPoolExecutor workers;
+    private final Path journalPath;
+    private final int maxPending;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long compactThresholdBytes;
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, JournalEntry> unfinished = new LinkedHashMap<>(); // Journaled, not completed; guarded by this
+    private FileChannel journal;                                             // Guarded by this
+    private long appendedLines;                                              // Guarded by this
+    private long compactAtBytes;                                             // Guarded by this
+    private boolean closed;                                                  // Guarded by this
+    private final Object forceLock = new Object();                           // Held by the thread flushing the journal
+    private final AtomicLong durableLines = new AtomicLong();                // Appended lines known to be on disk
+
+    public AnalysisQueue(AIService aiService,
+                         @Value("${feedback.analysis.workers:4}") int workerCount,
+                         @Value("${feedback.analysis.max-pending:1000}") int maxPending,
+                         @Value("${feedback.analysis.max-attempts:3}") int maxAttempts,
+                         @Value("${feedback.analysis.retry-backoff-ms:1000}") long retryBackoffMillis,
+                         @Value("${feedback.analysis.journal:./data/analysis-queue.jsonl}") Path journalPath,
+                         @Value("${feedback.analysis.journal-compact-bytes:1048576}") long compactThresholdBytes) {
+        this.aiService = aiService;
+        this.maxPending = maxPending;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.journalPath = journalPath;
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.compactAtBytes = compactThresholdBytes;
+        this.workers = new ScheduledThreadPoolExecutor(workerCount, new CustomizableThreadFactory("analysis-"));
+        logger.info("AI analysis: {} workers, at most {} pending, {} attempts, journal {}", workerCount, maxPending, maxAttempts, journalPath);
+    }
+
+    /**
+     * Reads the journal left by a previous run and queues the reports whose analysis never finished.
+     * Rewrites the journal to contain only those reports.
+     *
+     * @return The recovered builds, oldest first, with their analysis pending.
+     */
+    public synchronized List<FullBuildDetails> recover() throws IOException {
+        if (Files.exists(journalPath)) {
+            // Decoded leniently, since a partial last line may end in the middle of a character
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(journalPath), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        JournalEntry entry = objectMapper.readValue(line, JournalEntry.class);
+                        if (ENQUEUED.equals(entry.type())) {
+                            unfinished.put(entry.id(), entry);
+                        } else {
+                            unfinished.remove(entry.id());
+                        }
+                    } catch (IOException e) {
+                        // A crash while appending can leave a partial last line; that report was never acknowledged
+                        logger.warn("Skipping unreadable analysis journal entry: {}", e.getMessage());
+                    }
+                }
+            }
+        }
+
+        Files.createDirectories(journalPath.toAbsolutePath().getParent());
+        rewriteJournal();
+        List<FullBuildDetails> recovered = new ArrayList<>();
+        for (JournalEntry entry : unfinished.values()) {
+            ids.set(Math.max(ids.get(), entry.id()));
+            FullBuildDetails details = new FullBuildDetails(entry.report(), LocalDateTime.parse(entry.receivedAt()));
+            schedule(entry.id(), details, 1, 0);
+            recovered.add(details);
+        }
+        if (!recovered.isEmpty()) {
+            logger.info("Recovered {} build reports awaiting analysis", recovered.size());
+        }
+        return recovered;
+    }
+
+    /**
+     * Durably queues a build for analysis: returns once the report is on disk. The analysis result is attached to
+     * the given details when it is ready.
+     *
+     * @param accepted Called with the details once the report is on disk and before its analysis starts; not called
+     *                 for a refused report, whose sender retries it.
+     * @throws RejectedExecutionException If too many analyses are pending.
+     * @throws IOException If the report could not be written to the journal.
+     */
+    public void enqueue(FullBuildDetails details, Consumer<FullBuildDetails> accepted) throws IOException {
+        long id = ids.incrementAndGet();
+        JournalEntry entry = new JournalEntry(ENQUEUED, id, details.getBuildReport(), details.getTimestamp().toString());
+        byte[] line = toLine(entry); // Serialized outside the monitor
+        long lineNumber;
+        synchronized (this) {
+            if (unfinished.size() >= maxPending) {
+                throw new RejectedExecutionException("Too many build reports awaiting analysis (" + unfinished.size() + ")");
+            }
+            lineNumber = append(line);
+            unfinished.put(id, entry);
+        }
+        try {
+            awaitDurable(lineNumber);
+        } catch (IOException e) {
+            complete(id); // Not acknowledged, so the sender retries it
+            throw e;
+        }
+        accepted.accept(details);
+        schedule(id, details, 1, 0);
+    }
+
+    public synchronized int pendingCount() {
+        return unfinished.size();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        // Unfinished analyses stay in the journal and are resumed on the next start
+        workers.shutdownNow();
+        closed = true;
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    private void schedule(long id, FullBuildDetails details, int attempt, long delayMillis) {
+        workers.schedule(() -> analyze(id, details, attempt), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void analyze(long id, FullBuildDetails details, int attempt) {
+        BuildReport report = details.getBuildReport();
+        details.setAnalysisStatus(AnalysisStatus.ANALYZING);
+        try {
+            AIAnalysis analysis = aiService.analyzeBuildReport(report, details.getBuildTrend());
+            details.setAiAnalysis(analysis);
+            details.setAnalysisStatus(AnalysisStatus.COMPLETED); // After the analysis, so readers never see COMPLETED without it
+            complete(id);
+            logFeedback(report, analysis);
+        } catch (RuntimeException e) {
+            if (attempt < maxAttempts) {
+                long backoff = retryBackoffMillis << (attempt - 1);
+                logger.warn("Analysis of build {} (project {}) failed on attempt {}, retrying in {} ms: {}",
+                        report.getBuildId(), report.getProjectId(), attempt, backoff, e.getMessage());
+                details.setAnalysisStatus(AnalysisStatus.PENDING);
+                schedule(id, details, attempt + 1, backoff);
+            } else {
+                logger.error("Analysis of build {} (project {}) failed after {} attempts: {}",
+                        report.getBuildId(), report.getProjectId(), attempt, e.getMessage());
+                details.setAnalysisStatus(AnalysisStatus.FAILED);
+                complete(id);
+            }
+        }
+    }
+
+    private synchronized void complete(long id) {
+        unfinished.remove(id);
+        try {
+            // Not forced to disk: if it is lost, the build is merely analyzed again after a restart
+            append(toLine(new JournalEntry(DONE, id, null, null)));
+            if (journal.size() > compactAtBytes) {
+                rewriteJournal();
+                // With many reports pending the rewritten journal can itself be large; let it double before the next rewrite
+                compactAtBytes = Math.max(compactThresholdBytes, 2 * journal.size());
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to journal the completed analysis {}: {}", id, e.getMessage());
+        }
+    }
+
+    private byte[] toLine(JournalEntry entry) throws IOException {
+        return (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends a line to the journal without flushing it; the caller holds the monitor.
+     *
+     * @return The number of the line, for {@link #awaitDurable}.
+     */
+    private long append(byte[] line) throws IOException {
+        if (closed) {
+            throw new IOException("Analysis queue is shut down");
+        }
+        if (journal == null || !journal.isOpen()) {
+            journal = openJournal(); // Also after an interrupted flush closed the channel
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        return ++appendedLines;
+    }
+
+    /**
+     * Returns once the given journal line is on disk. Group commit: the thread holding the force lock flushes every
+     * line appended so far, and threads waiting behind it usually find their line already covered.
+     */
+    private void awaitDurable(long lineNumber) throws IOException {
+        synchronized (forceLock) {
+            while (durableLines.get() < lineNumber) {
+                long appended;
+                FileChannel channel;
+                synchronized (this) {
+                    if (closed) {
+                        throw new IOException("Analysis queue is shut down");
+                    }
+                    if (!journal.isOpen()) {
+                        journal = openJournal();
+                    }
+                    appended = appendedLines;
+                    channel = journal;
+                }
+                try {
+                    channel.force(false);
+                    durableLines.accumulateAndGet(appended, Math::max);
+                } catch (ClosedByInterruptException e) {
+                    throw e;
+                } catch (ClosedChannelException e) {
+                    // Rewritten or closed meanwhile; a rewrite leaves every appended line on disk, which the loop sees
+                }
+            }
+        }
+    }
+
+    // Replaces the journal with the unfinished reports only; the caller holds the monitor.
+    private void rewriteJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+        Path temporary = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (JournalEntry entry : unfinished.values()) {
+                ByteBuffer line = ByteBuffer.wrap(toLine(entry));
+                while (line.hasRemaining()) {
+                    channel.write(line);
+                }
+            }
+            // Forced, since it may hold reports whose own flush has not happened yet
+            channel.force(false);
+        }
+        Files.move(temporary, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = openJournal();
+        durableLines.accumulateAndGet(appendedLines, Math::max);
+    }
+
+    private FileChannel openJournal() {
+        try {
+            return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open analysis journal " + journalPath, e);
+        }
+    }
+
+    /**
+     * Simulates real-time feedback (e.g., to a bot) once the analysis is ready.
+     */
+    private static void logFeedback(BuildReport report, AIAnalysis analysis) {
+        logger.info("AI feedback for build {} (project {}): {} Suggested fixes: {}. Confidence: {} (AI Model: {})",
+                report.getBuildId(), report.getProjectId(), analysis.getAnalysisSummary(),
+                String.join(" | ", analysis.getSuggestedFixes()), analysis.getConfidenceScore(), analysis.getAiModelUsed());
+    }
+
+    /**
+     * A journal line: a report queued for analysis, or the completion of one (without the report).
+     */
+    private record JournalEntry(String type, long id, BuildReport report, String receivedAt) {
+    }
+}
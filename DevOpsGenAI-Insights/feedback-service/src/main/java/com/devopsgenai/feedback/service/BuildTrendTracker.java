@@ -0,0 +1,284 @@
+package com.devopsgenai.feedback.service;
+
+import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.BuildTrend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains streaming statistics per project, updated in constant time and memory per build report:
+ * <ul>
+ *     <li>an EWMA of the build time, and a one-sided CUSUM detector that confirms when the build time has shifted
+ *     upwards and locates the change point, whether it jumped or crept up over many builds;</li>
+ *     <li>the failure rate over a window of recent builds next to a long-term, exponentially weighted one;</li>
+ *     <li>how often each error signature recurs after green builds, a sign of a flaky test.</li>
+ * </ul>
+ * The statistics live in memory and are rebuilt from new reports after a restart.
+ */
+@Service
+public class BuildTrendTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildTrendTracker.class);
+
+    private static final int WARM_UP_BUILDS = 10;        // Builds used to learn the baseline before detecting shifts
+    private static final int MAX_CANDIDATE_BUILDS = 128; // Builds kept to locate a change point
+    private static final double BASELINE_ALPHA = 0.01;   // Slow, so a creep outpaces the baseline and accumulates in the CUSUM
+    private static final double CUSUM_SLACK = 0.5;       // Shifts below half a standard deviation are ignored
+    private static final double MIN_REGRESSION = 0.10;   // Confirmed shifts smaller than this (relative) are not reported
+    private static final double LONG_TERM_FAILURE_ALPHA = 0.02;
+    private static final int MAX_SIGNATURES = 100;       // Error signatures tracked per project, least recently seen evicted
+    private static final int MAX_SIGNATURE_CHARS = 120;
+    private static final int FLAKY_RECURRENCES = 2;      // Recurrences after a green build that mark a signature as flaky
+
+    private static final Pattern HEX = Pattern.compile("0x[0-9a-fA-F]+|@[0-9a-fA-F]{4,}");
+    private static final Pattern NUMBERS = Pattern.compile("\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final double ewmaAlpha;
+    private final int failureWindow;
+    private final double cusumThreshold;
+    private final Map<String, ProjectTrend> projects = new ConcurrentHashMap<>();
+
+    /**
+     * @param ewmaAlpha Weight of the newest build time in the EWMA.
+     * @param failureWindow Number of recent builds the recent failure rate covers.
+     * @param cusumThreshold Accumulated deviation, in standard deviations, that confirms a build time regression.
+     */
+    public BuildTrendTracker(@Value("${feedback.trends.ewma-alpha:0.2}") double ewmaAlpha,
+                             @Value("${feedback.trends.failure-window:20}") int failureWindow,
+                             @Value("${feedback.trends.cusum-threshold:8}") double cusumThreshold) {
+        this.ewmaAlpha = ewmaAlpha;
+        this.failureWindow = failureWindow;
+        this.cusumThreshold = cusumThreshold;
+    }
+
+    /**
+     * Updates the project's statistics with a build report. Call once per report, in arrival order.
+     *
+     * @return The project's trends including this build.
+     */
+    public BuildTrend observe(BuildReport report) {
+        ProjectTrend trend = projects.computeIfAbsent(report.getProjectId(), projectId -> new ProjectTrend(failureWindow));
+        synchronized (trend) {
+            BuildTrend snapshot = new BuildTrend();
+            trend.observeBuildTime(report, snapshot);
+            trend.observeOutcome(report, snapshot);
+            trend.observeErrors(report, snapshot);
+            snapshot.setBuildsObserved(trend.builds);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Reduces an error message to a signature shared by its recurrences: numbers, addresses and whitespace
+     * differences (line numbers, durations, object IDs) are normalized away.
+     */
+    static String signature(String errorMessage) {
+        String signature = HEX.matcher(errorMessage).replaceAll("#");
+        signature = NUMBERS.matcher(signature).replaceAll("#");
+        signature = WHITESPACE.matcher(signature).replaceAll(" ").strip();
+        return signature.length() > MAX_SIGNATURE_CHARS ? signature.substring(0, MAX_SIGNATURE_CHARS) : signature;
+    }
+
+    /** Statistics of one project; guarded by its own monitor. */
+    private final class ProjectTrend {
+        private long builds;
+
+        // Build time: EWMA, baseline mean and variance of the in-control regime, and the CUSUM statistic
+        private double ewma;
+        private int baselineBuilds;         // Builds the baseline was learned from; below WARM_UP_BUILDS, no shift is detected
+        private double baselineMean;
+        private double baselineVariance;
+        private double cusum;
+        // Builds since the CUSUM last left zero, oldest first in a ring: the change point lies among them if confirmed
+        private final long[] candidateBuildIds = new long[MAX_CANDIDATE_BUILDS];
+        private final double[] candidateSeconds = new double[MAX_CANDIDATE_BUILDS];
+        private int candidateStart;
+        private int candidateCount;
+
+        // Failures: a ring of recent outcomes with its running count, and a long-term EWMA
+        private final boolean[] recentFailures;
+        private int recentCount;
+        private int recentFailureCount;
+        private double longTermFailureRate;
+        private long lastSuccess = -1;      // Build index of the last green build
+
+        // Error signatures, access-ordered so the least recently seen is evicted first
+        private final Map<String, SignatureStats> signatures = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SignatureStats> eldest) {
+                return size() > MAX_SIGNATURES;
+            }
+        };
+
+        private ProjectTrend(int failureWindow) {
+            this.recentFailures = new boolean[failureWindow];
+        }
+
+        private void observeBuildTime(BuildReport report, BuildTrend snapshot) {
+            double seconds = report.getBuildTimeSeconds();
+            builds++;
+            ewma = builds == 1 ? seconds : ewma + ewmaAlpha * (seconds - ewma);
+
+            if (baselineBuilds < WARM_UP_BUILDS) {
+                learnBaseline(seconds);
+            } else {
+                // One-sided CUSUM on the standardized build time; the floor keeps a very steady build from
+                // turning a few seconds of noise into a regression
+                double sigma = Math.max(Math.sqrt(baselineVariance), Math.max(0.05 * baselineMean, 1.0));
+                double z = (seconds - baselineMean) / sigma;
+                if (cusum == 0) {
+                    candidateCount = 0;
+                }
+                cusum = Math.max(0, cusum + z - CUSUM_SLACK);
+                if (cusum > 0) {
+                    addCandidate(report.getBuildId(), seconds);
+                }
+
+                if (cusum > cusumThreshold) {
+                    confirmShift(report, snapshot);
+                } else {
+                    double delta = seconds - baselineMean;
+                    baselineMean += BASELINE_ALPHA * delta;
+                    baselineVariance = (1 - BASELINE_ALPHA) * (baselineVariance + BASELINE_ALPHA * delta * delta);
+                }
+            }
+            snapshot.setBuildTimeEwmaSeconds(ewma);
+            snapshot.setBaselineBuildTimeSeconds(baselineMean);
+        }
+
+        // Learns the baseline with a plain running mean and variance (Welford)
+        private void learnBaseline(double seconds) {
+            baselineBuilds++;
+            double delta = seconds - baselineMean;
+            baselineMean += delta / baselineBuilds;
+            baselineVariance += (delta * (seconds - baselineMean) - baselineVariance) / baselineBuilds;
+        }
+
+        private void addCandidate(long buildId, double seconds) {
+            if (candidateCount == MAX_CANDIDATE_BUILDS) {
+                candidateStart = (candidateStart + 1) % MAX_CANDIDATE_BUILDS;
+                candidateCount--;
+            }
+            int slot = (candidateStart + candidateCount++) % MAX_CANDIDATE_BUILDS;
+            candidateBuildIds[slot] = buildId;
+            candidateSeconds[slot] = seconds;
+        }
+
+        private double candidateSeconds(int i) {
+            return candidateSeconds[(candidateStart + i) % MAX_CANDIDATE_BUILDS];
+        }
+
+        /**
+         * Handles a CUSUM alarm. The CUSUM often leaves zero on noise a few builds before the actual shift, so the
+         * change point is the start of the most likely raised suffix of the candidates: the one maximizing the squared
+         * sum of its deviations from the baseline over its length. The new level is the mean of that suffix only.
+         * A reported regression's baseline is then learned again from the new regime, and no shift is detected until it
+         * has been.
+         */
+        private void confirmShift(BuildReport report, BuildTrend snapshot) {
+            int changePoint = candidateCount - 1;
+            double bestScore = 0;
+            double deviation = 0;
+            for (int i = candidateCount - 1; i >= 0; i--) {
+                deviation += candidateSeconds(i) - baselineMean;
+                double score = deviation > 0 ? deviation * deviation / (candidateCount - i) : 0;
+                if (score > bestScore) {
+                    bestScore = score;
+                    changePoint = i;
+                }
+            }
+            double sum = 0;
+            for (int i = changePoint; i < candidateCount; i++) {
+                sum += candidateSeconds(i);
+            }
+            double regressed = sum / (candidateCount - changePoint);
+            long changePointBuildId = candidateBuildIds[(candidateStart + changePoint) % MAX_CANDIDATE_BUILDS];
+
+            if (regressed >= baselineMean * (1 + MIN_REGRESSION)) {
+                snapshot.setBuildTimeRegression(true);
+                snapshot.setChangePointBuildId(changePointBuildId);
+                snapshot.setPreviousBuildTimeSeconds(baselineMean);
+                snapshot.setRegressedBuildTimeSeconds(regressed);
+                logger.info("Build time regression in project {}: {}s -> {}s since build {}", report.getProjectId(),
+                        String.format("%.1f", baselineMean), String.format("%.1f", regressed), changePointBuildId);
+                // The slower regime becomes the new baseline, so it is reported once rather than on every build
+                baselineBuilds = 0;
+                baselineMean = 0;
+                baselineVariance = 0;
+                for (int i = changePoint; i < candidateCount; i++) {
+                    learnBaseline(candidateSeconds(i));
+                }
+            }
+            // A smaller shift keeps the baseline, so a creep accumulates until it is large enough to report
+            cusum = 0;
+            candidateCount = 0;
+        }
+
+        private void observeOutcome(BuildReport report, BuildTrend snapshot) {
+            boolean failed = "FAILURE".equalsIgnoreCase(report.getStatus());
+            int slot = (int) ((builds - 1) % recentFailures.length);
+            if (recentCount == recentFailures.length) {
+                recentFailureCount -= recentFailures[slot] ? 1 : 0; // Drop the outcome leaving the window
+            } else {
+                recentCount++;
+            }
+            recentFailures[slot] = failed;
+            recentFailureCount += failed ? 1 : 0;
+            longTermFailureRate = builds == 1 ? (failed ? 1 : 0)
+                    : longTermFailureRate + LONG_TERM_FAILURE_ALPHA * ((failed ? 1 : 0) - longTermFailureRate);
+            if (!failed) {
+                lastSuccess = builds;
+            }
+
+            double recentRate = (double) recentFailureCount / recentCount;
+            snapshot.setFailureWindow(recentCount);
+            snapshot.setRecentFailureRate(recentRate);
+            snapshot.setLongTermFailureRate(longTermFailureRate);
+            snapshot.setFailureRateSpike(recentCount >= recentFailures.length / 2 && recentFailureCount >= 3
+                    && recentRate >= longTermFailureRate + 0.25);
+        }
+
+        private void observeErrors(BuildReport report, BuildTrend snapshot) {
+            List<Map.Entry<String, SignatureStats>> flaky = new ArrayList<>();
+            if (report.getErrorMessages() != null && "FAILURE".equalsIgnoreCase(report.getStatus())) {
+                for (String errorMessage : report.getErrorMessages()) {
+                    String signature = signature(errorMessage);
+                    SignatureStats stats = signatures.computeIfAbsent(signature, key -> new SignatureStats());
+                    if (stats.lastSeen == builds) {
+                        continue; // Same signature twice in one build
+                    }
+                    stats.occurrences++;
+                    if (stats.lastSeen >= 0 && lastSuccess > stats.lastSeen) {
+                        stats.recurrencesAfterGreen++; // It went away for a green build, then came back
+                    }
+                    stats.lastSeen = builds;
+                    if (stats.recurrencesAfterGreen >= FLAKY_RECURRENCES) {
+                        flaky.add(Map.entry(signature, stats));
+                    }
+                }
+            }
+            flaky.sort(Comparator.comparingInt((Map.Entry<String, SignatureStats> entry) -> entry.getValue().recurrencesAfterGreen).reversed());
+            snapshot.setFlakyErrorSignatures(flaky.stream()
+                    .map(entry -> String.format("%s (failed %d times, returned after a green build %d times)", entry.getKey(),
+                            entry.getValue().occurrences, entry.getValue().recurrencesAfterGreen))
+                    .toList());
+        }
+    }
+
+    private static final class SignatureStats {
+        private int occurrences;            // Failed builds with this signature
+        private int recurrencesAfterGreen;  // Occurrences preceded by a green build since the previous occurrence
+        private long lastSeen = -1;         // Build index of the last occurrence
+    }
+}
@@ -0,0 +1,89 @@
+package com.devopsgenai.feedback.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed-capacity, lock-free ring buffer that keeps the most recently appended elements.
+ * Once full, each append overwrites the oldest element.
+ * <p>
+ * Appending claims a sequence number with a single atomic increment and publishes the element into its slot, so
+ * concurrent writers never wait on each other or on readers. Readers take snapshots without locking: every slot
+ * remembers the sequence number it was written for, which lets a reader skip slots that are still being written
+ * and stop at slots that were already overwritten by newer elements.
+ *
+ * @param <T> The element type.
+ */
+public final class RingBuffer<T> {
+
+    private final int capacity;
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Appends an element, overwriting the oldest one if the buffer is full. Lock-free.
+     */
+    public void append(T element) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = index(sequence);
+        Slot<T> slot = new Slot<>(sequence, element);
+        while (true) {
+            Slot<T> current = slots.get(index);
+            if (current != null && current.sequence() > sequence) {
+                return; // A writer a full lap ahead got here first; this element is already outdated
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Up to {@code limit} of the most recent elements, newest first, as an unmodifiable copy.
+     */
+    public List<T> snapshot(int limit) {
+        long newest = nextSequence.get() - 1;
+        long oldest = Math.max(0, newest - Math.min(limit, capacity) + 1);
+        List<T> elements = new ArrayList<>((int) Math.max(0, newest - oldest + 1));
+        for (long sequence = newest; sequence >= oldest; sequence--) {
+            Slot<T> slot = slots.get(index(sequence));
+            if (slot == null || slot.sequence() < sequence) {
+                continue; // Claimed by a writer that has not published yet
+            }
+            if (slot.sequence() > sequence) {
+                break; // Overwritten by newer appends; the older slots are too
+            }
+            elements.add(slot.element());
+        }
+        return Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * @return All retained elements, newest first, as an unmodifiable copy.
+     */
+    public List<T> snapshot() {
+        return snapshot(capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private record Slot<T>(long sequence, T element) {
+    }
+}
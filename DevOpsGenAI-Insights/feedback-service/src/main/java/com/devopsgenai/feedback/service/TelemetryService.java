@@ -1,19 +1,26 @@
 package com.devopsgenai.feedback.service;
 
-import com.devopsgenai.feedback.model.AIAnalysis;
 import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.DailyBuildStats;
 import com.devopsgenai.feedback.model.FullBuildDetails;
+import com.devopsgenai.feedback.store.BuildMetricsStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Service responsible for processing incoming build telemetry.
- * It coordinates with the AIService to get insights and stores the
- * full build details for display on the dashboard.
+ * It queues reports for AI analysis (see AnalysisQueue) and stores the
+ * full build details for display on the dashboard; the analysis is attached when ready.
  * In a real application, data would be persisted to a database.
  */
 @Service
@@ -21,57 +28,105 @@ public class TelemetryService {
 
     private static final Logger logger = LoggerFactory.getLogger(TelemetryService.class);
 
-    private final AIService aiService;
+    private final AnalysisQueue analysisQueue;
+    private final BuildMetricsStore metricsStore; // Persistent build metrics for trend queries
+    private final BuildTrendTracker trendTracker; // Streaming per-project statistics fed to the analysis
     // In-memory storage for demo purposes. In production, use a database (e.g., PostgreSQL, MongoDB).
-    private final List<FullBuildDetails> buildHistory = Collections.synchronizedList(new ArrayList<>());
+    // A lock-free ring buffer, so concurrent telemetry posts and dashboard reads never contend on a monitor.
+    private final RingBuffer<FullBuildDetails> buildHistory;
 
     /**
-     * Constructor for TelemetryService, injecting the AIService dependency.
-     * @param aiService The AI service to use for analysis.
+     * Constructor for TelemetryService, injecting the AnalysisQueue dependency.
+     * @param analysisQueue The queue that runs the AI analysis of each report in the background.
+     * @param metricsStore The store that persists the metrics of every build.
+     * @param trendTracker The tracker of build time, failure rate and flaky test trends per project.
+     * @param historyCapacity The number of most recent builds kept in memory.
      */
-    public TelemetryService(AIService aiService) {
-        this.aiService = aiService;
+    public TelemetryService(AnalysisQueue analysisQueue, BuildMetricsStore metricsStore, BuildTrendTracker trendTracker,
+                            @Value("${feedback.history.capacity:1000}") int historyCapacity) {
+        this.analysisQueue = analysisQueue;
+        this.metricsStore = metricsStore;
+        this.trendTracker = trendTracker;
+        this.buildHistory = new RingBuffer<>(historyCapacity);
+        logger.info("Keeping the last {} builds in memory", historyCapacity);
+    }
+
+    /**
+     * Puts the builds whose analysis was still pending at the last shutdown back into the history.
+     */
+    @PostConstruct
+    public void recoverPendingAnalyses() throws IOException {
+        analysisQueue.recover().forEach(buildHistory::append);
     }
 
     /**
      * Processes an incoming build report:
-     * 1. Logs the report.
-     * 2. Calls the AI service for analysis.
-     * 3. Stores the combined report and analysis.
-     * 4. Simulates sending feedback (e.g., to a bot).
+     * 1. Durably queues the report for AI analysis, which runs in the background.
+     * 2. Once it is queued, updates the project's trends, so the analysis can compare the build with its predecessors.
+     *    A report refused by the queue is retried by its sender and must not be counted twice.
+     * 3. Stores the build details, with the analysis pending, and persists the build metrics.
+     * The analysis result (and the simulated bot feedback) follows once a worker has analyzed the report.
      *
      * @param report The BuildReport received from the CI/CD pipeline.
+     * @return The stored build details; poll their analysisStatus to see when the analysis is attached.
+     * @throws java.util.concurrent.RejectedExecutionException If too many reports are awaiting analysis.
+     * @throws IOException If the report could not be queued durably.
      */
-    public void processBuildReport(BuildReport report) {
-        logger.info("Received Build Report: ProjectId={}, BuildId={}, Status={}, FailedTests={}",
-                report.getProjectId(), report.getBuildId(), report.getStatus(), report.getFailedTests());
-
-        // 1. Perform AI analysis on the build report
-        AIAnalysis aiAnalysis = aiService.analyzeBuildReport(report);
-
-        // 2. Store the full details (report + analysis)
-        FullBuildDetails fullDetails = new FullBuildDetails(report, aiAnalysis);
-        buildHistory.add(0, fullDetails); // Add to the beginning to show latest first
-        // Keep history size manageable for demo
-        if (buildHistory.size() > 10) {
-            buildHistory.remove(buildHistory.size() - 1);
+    public FullBuildDetails processBuildReport(BuildReport report) throws IOException {
+        FullBuildDetails fullDetails = new FullBuildDetails(report, LocalDateTime.now());
+        // Observed before the analysis is scheduled, so a worker never sees the details without their trend
+        analysisQueue.enqueue(fullDetails, details -> details.setBuildTrend(trendTracker.observe(report)));
+        buildHistory.append(fullDetails); // Overwrites the oldest build once the buffer is full
+        try {
+            metricsStore.append(report, Instant.now());
+        } catch (IOException e) {
+            // The report is still analyzed and shown; only its contribution to long-term trends is lost
+            logger.error("Failed to persist metrics of build {} (project {}): {}", report.getBuildId(), report.getProjectId(), e.getMessage());
         }
+        return fullDetails;
+    }
 
-        // 3. Simulate real-time feedback (e.g., to a bot, dashboard update)
-        logger.info("--- AI Feedback for Build ID {} (Project: {}) ---", report.getBuildId(), report.getProjectId());
-        logger.info("Summary: {}", aiAnalysis.getAnalysisSummary());
-        logger.info("Suggested Fixes:");
-        aiAnalysis.getSuggestedFixes().forEach(fix -> logger.info("  - {}", fix));
-        logger.info("Confidence: {} (AI Model: {})", aiAnalysis.getConfidenceScore(), aiAnalysis.getAiModelUsed());
-        logger.info("-----------------------------------------------------");
+    /**
+     * Finds a build among those held in memory.
+     *
+     * @return The most recent build with the given project and build ID, or empty if it is not (or no longer) held.
+     */
+    public Optional<FullBuildDetails> findBuild(String projectId, long buildId) {
+        return buildHistory.snapshot().stream()
+                .filter(build -> build.getBuildReport().getBuildId() == buildId
+                        && build.getBuildReport().getProjectId().equals(projectId))
+                .findFirst();
     }
 
     /**
-     * Retrieves the history of all processed build details.
+     * Retrieves the history of all processed build details still held in memory.
      *
-     * @return An unmodifiable list of FullBuildDetails, ordered from newest to oldest.
+     * @return An unmodifiable snapshot of FullBuildDetails, ordered from newest to oldest.
      */
     public List<FullBuildDetails> getBuildHistory() {
-        return Collections.unmodifiableList(buildHistory);
+        return buildHistory.snapshot();
+    }
+
+    /**
+     * Retrieves the most recent processed build details.
+     *
+     * @param limit The maximum number of builds to return.
+     * @return An unmodifiable snapshot of FullBuildDetails, ordered from newest to oldest.
+     */
+    public List<FullBuildDetails> getBuildHistory(int limit) {
+        return buildHistory.snapshot(limit);
+    }
+
+    /**
+     * Computes daily build statistics of a project from the persistent metrics store.
+     *
+     * @param projectId The project.
+     * @param days The number of days to cover, ending today (UTC).
+     * @param percentile The build time percentile to compute, e.g. 95.
+     * @return The statistics per day with builds, oldest first.
+     */
+    public List<DailyBuildStats> getDailyBuildStats(String projectId, int days, double percentile) throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return metricsStore.dailyStats(projectId, today.minusDays(days - 1L), today, percentile);
     }
-}
\ No newline at end of file
+}
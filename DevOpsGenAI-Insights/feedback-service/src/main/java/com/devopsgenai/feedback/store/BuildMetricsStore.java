@@ -0,0 +1,273 @@
+package com.devopsgenai.feedback.store;
+
+import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.DailyBuildStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded columnar store for build telemetry, persisted on disk so build history survives restarts.
+ * <p>
+ * Builds are partitioned by project and bucketed by day (UTC). The current day of a project is kept in memory and
+ * appended to a row log as builds arrive; once a build for a later day arrives, or on startup, the previous day is
+ * sealed into a compressed columnar segment file (see {@link Segment}). Queries such as "p95 build time per day over
+ * the last 90 days" therefore read only the status and build time columns of one small file per day, never raw JSON.
+ * Statistics of sealed days never change and are cached.
+ */
+@Component
+public class BuildMetricsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildMetricsStore.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String ROW_LOG_SUFFIX = ".rows";
+
+    private final Path directory;
+    private final int maxCachedStats;
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final Map<String, DailyBuildStats> sealedStats; // Access-ordered, guarded by itself
+
+    /**
+     * @param directory The directory holding one sub-directory per project.
+     * @param maxCachedStats The number of computed daily statistics of sealed days kept in memory.
+     */
+    public BuildMetricsStore(@Value("${feedback.metrics.dir:./data/build-metrics}") Path directory,
+                             @Value("${feedback.metrics.stats-cache-entries:10000}") int maxCachedStats) {
+        this.directory = directory;
+        this.maxCachedStats = maxCachedStats;
+        this.sealedStats = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DailyBuildStats> eldest) {
+                return size() > BuildMetricsStore.this.maxCachedStats;
+            }
+        };
+        logger.info("Build metrics are stored in {}", directory.toAbsolutePath());
+    }
+
+    /**
+     * Records a build report.
+     *
+     * @param report The build report.
+     * @param receivedAt When the report was received; determines the day it is bucketed into.
+     */
+    public void append(BuildReport report, Instant receivedAt) throws IOException {
+        LocalDate day = LocalDate.ofInstant(receivedAt, ZoneOffset.UTC);
+        Partition partition = partitions.computeIfAbsent(report.getProjectId(), projectId -> openPartition(projectId, true));
+        synchronized (partition) {
+            if (partition.openDay != null && day.isAfter(partition.openDay)) {
+                seal(partition);
+            }
+            if (partition.open == null) {
+                partition.openDay = day;
+                partition.open = new Segment();
+                partition.rowLog = openRowLog(partition.directory.resolve(day + ROW_LOG_SUFFIX));
+            }
+            // A late report for an already sealed day goes into the open day, so sealed segments never change
+            partition.open.add(receivedAt.toEpochMilli(), report.getBuildId(), statusCode(report.getStatus()),
+                    report.getTotalTests(), report.getPassedTests(), report.getFailedTests(),
+                    Math.round(report.getBuildTimeSeconds() * 1000));
+            partition.open.appendLastRow(partition.rowLog);
+        }
+    }
+
+    /**
+     * Computes daily build statistics of a project. Days without builds are omitted.
+     *
+     * @param projectId The project.
+     * @param from The first day (UTC), inclusive.
+     * @param to The last day (UTC), inclusive.
+     * @param percentile The build time percentile to compute, e.g. 95.
+     * @return The statistics per day, oldest first.
+     */
+    public List<DailyBuildStats> dailyStats(String projectId, LocalDate from, LocalDate to, double percentile) throws IOException {
+        Partition partition = existingPartition(projectId);
+        List<DailyBuildStats> stats = new ArrayList<>();
+        if (partition == null) {
+            return stats;
+        }
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailyBuildStats dayStats = null;
+            synchronized (partition) {
+                if (day.equals(partition.openDay)) {
+                    dayStats = compute(day, partition.open, percentile);
+                }
+            }
+            if (dayStats == null) {
+                dayStats = sealedDayStats(projectId, partition, day, percentile);
+            }
+            if (dayStats != null) {
+                stats.add(dayStats);
+            }
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        partitions.values().forEach(partition -> {
+            synchronized (partition) {
+                closeRowLog(partition);
+            }
+        });
+    }
+
+    private DailyBuildStats sealedDayStats(String projectId, Partition partition, LocalDate day, double percentile) throws IOException {
+        String key = projectId + '\u0000' + day + '\u0000' + percentile;
+        synchronized (sealedStats) {
+            DailyBuildStats cached = sealedStats.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Path segmentFile = partition.directory.resolve(day + SEGMENT_SUFFIX);
+        if (!Files.exists(segmentFile)) {
+            return null;
+        }
+        Segment segment = Segment.readSealed(segmentFile, EnumSet.of(Segment.Column.STATUS, Segment.Column.BUILD_MILLIS));
+        DailyBuildStats stats = compute(day, segment, percentile);
+        synchronized (sealedStats) {
+            sealedStats.put(key, stats);
+        }
+        return stats;
+    }
+
+    private static DailyBuildStats compute(LocalDate day, Segment segment, double percentile) {
+        int builds = segment.size;
+        if (builds == 0) {
+            return null;
+        }
+        long[] sorted = Arrays.copyOf(segment.buildMillis, builds);
+        Arrays.sort(sorted);
+        int failed = 0;
+        for (int i = 0; i < builds; i++) {
+            if (segment.statuses[i] == Segment.STATUS_FAILURE) {
+                failed++;
+            }
+        }
+        return new DailyBuildStats(day, builds, failed, rank(sorted, 50) / 1000.0, rank(sorted, percentile) / 1000.0,
+                sorted[builds - 1] / 1000.0);
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long rank(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private Partition existingPartition(String projectId) {
+        Partition partition = partitions.get(projectId);
+        if (partition == null && Files.isDirectory(partitionDirectory(projectId))) {
+            partition = partitions.computeIfAbsent(projectId, id -> openPartition(id, false));
+        }
+        return partition;
+    }
+
+    /**
+     * Opens a project's partition: seals row logs of past days left by a previous run, and resumes today's.
+     */
+    private Partition openPartition(String projectId, boolean create) {
+        Path partitionDirectory = partitionDirectory(projectId);
+        Partition partition = new Partition(partitionDirectory);
+        try {
+            if (create) {
+                Files.createDirectories(partitionDirectory);
+            }
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            try (DirectoryStream<Path> rowLogs = Files.newDirectoryStream(partitionDirectory, "*" + ROW_LOG_SUFFIX)) {
+                for (Path rowLog : rowLogs) {
+                    String name = rowLog.getFileName().toString();
+                    LocalDate day = LocalDate.parse(name.substring(0, name.length() - ROW_LOG_SUFFIX.length()));
+                    Path segmentFile = partitionDirectory.resolve(day + SEGMENT_SUFFIX);
+                    if (Files.exists(segmentFile)) {
+                        Files.delete(rowLog); // Sealed before a crash that prevented the row log's removal
+                    } else if (day.isBefore(today) || partition.openDay != null) {
+                        Segment.readRowLog(rowLog).writeSealed(segmentFile);
+                        Files.delete(rowLog);
+                        logger.info("Sealed build metrics of project {} for {}", projectId, day);
+                    } else {
+                        partition.openDay = day;
+                        partition.open = Segment.readRowLog(rowLog);
+                        partition.rowLog = openRowLog(rowLog);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open build metrics of project " + projectId, e);
+        }
+        return partition;
+    }
+
+    private void seal(Partition partition) throws IOException {
+        closeRowLog(partition);
+        Path rowLog = partition.directory.resolve(partition.openDay + ROW_LOG_SUFFIX);
+        partition.open.writeSealed(partition.directory.resolve(partition.openDay + SEGMENT_SUFFIX));
+        Files.delete(rowLog);
+        logger.info("Sealed build metrics in {} for {} ({} builds)", partition.directory, partition.openDay, partition.open.size);
+        partition.open = null;
+        partition.openDay = null;
+    }
+
+    private static void closeRowLog(Partition partition) {
+        if (partition.rowLog != null) {
+            try {
+                partition.rowLog.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close row log in {}: {}", partition.directory, e.getMessage());
+            }
+            partition.rowLog = null;
+        }
+    }
+
+    private static FileChannel openRowLog(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path partitionDirectory(String projectId) {
+        // Encoded, so any project ID is a safe directory name; dots are encoded too to rule out "." and ".."
+        return directory.resolve(URLEncoder.encode(projectId, StandardCharsets.UTF_8).replace(".", "%2E"));
+    }
+
+    private static byte statusCode(String status) {
+        if ("SUCCESS".equalsIgnoreCase(status)) {
+            return Segment.STATUS_SUCCESS;
+        }
+        return "FAILURE".equalsIgnoreCase(status) ? Segment.STATUS_FAILURE : Segment.STATUS_OTHER;
+    }
+
+    /** A project's builds; the open day's fields are guarded by the partition's monitor. */
+    private static final class Partition {
+        private final Path directory;
+        private LocalDate openDay;
+        private Segment open;
+        private FileChannel rowLog;
+
+        private Partition(Path directory) {
+            this.directory = directory;
+        }
+    }
+}
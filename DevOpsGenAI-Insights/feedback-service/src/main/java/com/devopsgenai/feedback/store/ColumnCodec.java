@@ -0,0 +1,113 @@
+package com.devopsgenai.feedback.store;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes the columns of a segment. Numeric columns are delta-encoded where values grow (timestamps, build IDs),
+ * zigzag-mapped so small negative numbers stay small, and written as variable-length integers; every column is then
+ * deflated on its own, so a query decompresses only the columns it reads.
+ */
+final class ColumnCodec {
+
+    private ColumnCodec() {
+    }
+
+    static byte[] encodeLongs(long[] values, int count, boolean delta) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count * 2);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long value = delta ? values[i] - previous : values[i];
+            previous = values[i];
+            writeVarLong(out, (value << 1) ^ (value >> 63)); // Zigzag
+        }
+        return out.toByteArray();
+    }
+
+    static long[] decodeLongs(byte[] data, int count, boolean delta) {
+        long[] values = new long[count];
+        int[] position = {0};
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long zigzag = readVarLong(data, position);
+            long value = (zigzag >>> 1) ^ -(zigzag & 1);
+            values[i] = delta ? previous + value : value;
+            previous = values[i];
+        }
+        return values;
+    }
+
+    static byte[] encodeInts(int[] values, int count) {
+        long[] widened = new long[count];
+        for (int i = 0; i < count; i++) {
+            widened[i] = values[i];
+        }
+        return encodeLongs(widened, count, false);
+    }
+
+    static int[] decodeInts(byte[] data, int count) {
+        long[] widened = decodeLongs(data, count, false);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = (int) widened[i];
+        }
+        return values;
+    }
+
+    static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] decompress(byte[] data, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated column data");
+                }
+                length += inflated;
+            }
+            return raw;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
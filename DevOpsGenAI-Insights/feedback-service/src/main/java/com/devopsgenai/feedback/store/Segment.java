@@ -0,0 +1,190 @@
+package com.devopsgenai.feedback.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+
+/**
+ * The builds of one project on one day, stored column by column.
+ * <p>
+ * A segment is filled in memory while its day is open, backed by a row log that each build is appended to, and
+ * sealed into a compressed columnar file once the day is over. A sealed file starts with a header listing each
+ * column's position, so a query reads and decompresses only the columns it needs.
+ */
+final class Segment {
+
+    enum Column {
+        TIMESTAMP, BUILD_ID, STATUS, TOTAL_TESTS, PASSED_TESTS, FAILED_TESTS, BUILD_MILLIS
+    }
+
+    static final byte STATUS_SUCCESS = 0;
+    static final byte STATUS_FAILURE = 1;
+    static final byte STATUS_OTHER = 2;
+
+    private static final int MAGIC = 0x42534547; // "BSEG"
+    private static final byte VERSION = 1;
+    private static final int ROW_BYTES = 8 + 8 + 1 + 4 + 4 + 4 + 8;
+
+    long[] timestamps = new long[16];   // Epoch milliseconds when the build was received
+    long[] buildIds = new long[16];
+    byte[] statuses = new byte[16];
+    int[] totalTests = new int[16];
+    int[] passedTests = new int[16];
+    int[] failedTests = new int[16];
+    long[] buildMillis = new long[16];  // Build time, in milliseconds
+    int size;
+
+    void add(long timestamp, long buildId, byte status, int total, int passed, int failed, long millis) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            buildIds = Arrays.copyOf(buildIds, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            totalTests = Arrays.copyOf(totalTests, capacity);
+            passedTests = Arrays.copyOf(passedTests, capacity);
+            failedTests = Arrays.copyOf(failedTests, capacity);
+            buildMillis = Arrays.copyOf(buildMillis, capacity);
+        }
+        timestamps[size] = timestamp;
+        buildIds[size] = buildId;
+        statuses[size] = status;
+        totalTests[size] = total;
+        passedTests[size] = passed;
+        failedTests[size] = failed;
+        buildMillis[size] = millis;
+        size++;
+    }
+
+    /**
+     * Appends the last added row to a row log.
+     */
+    void appendLastRow(FileChannel rowLog) throws IOException {
+        int i = size - 1;
+        ByteBuffer row = ByteBuffer.allocate(ROW_BYTES)
+                .putLong(timestamps[i]).putLong(buildIds[i]).put(statuses[i])
+                .putInt(totalTests[i]).putInt(passedTests[i]).putInt(failedTests[i]).putLong(buildMillis[i])
+                .flip();
+        while (row.hasRemaining()) {
+            rowLog.write(row);
+        }
+    }
+
+    /**
+     * Reads a row log. A partial last row, left by a crash while appending, is ignored.
+     */
+    static Segment readRowLog(Path path) throws IOException {
+        ByteBuffer rows = ByteBuffer.wrap(Files.readAllBytes(path));
+        Segment segment = new Segment();
+        while (rows.remaining() >= ROW_BYTES) {
+            segment.add(rows.getLong(), rows.getLong(), rows.get(), rows.getInt(), rows.getInt(), rows.getInt(), rows.getLong());
+        }
+        return segment;
+    }
+
+    /**
+     * Writes the segment as a compressed columnar file, atomically replacing any existing file.
+     */
+    void writeSealed(Path path) throws IOException {
+        byte[][] raw = {
+                ColumnCodec.encodeLongs(timestamps, size, true),
+                ColumnCodec.encodeLongs(buildIds, size, true),
+                Arrays.copyOf(statuses, size),
+                ColumnCodec.encodeInts(totalTests, size),
+                ColumnCodec.encodeInts(passedTests, size),
+                ColumnCodec.encodeInts(failedTests, size),
+                ColumnCodec.encodeLongs(buildMillis, size, false)
+        };
+        byte[][] compressed = new byte[raw.length][];
+        int dataLength = 0;
+        for (int c = 0; c < raw.length; c++) {
+            compressed[c] = ColumnCodec.compress(raw[c]);
+            dataLength += compressed[c].length;
+        }
+
+        ByteBuffer file = ByteBuffer.allocate(headerLength(raw.length) + dataLength);
+        file.putInt(MAGIC).put(VERSION).putInt(size).put((byte) raw.length);
+        for (int c = 0; c < raw.length; c++) {
+            file.putInt(raw[c].length).putInt(compressed[c].length);
+        }
+        for (byte[] column : compressed) {
+            file.put(column);
+        }
+        file.flip();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (file.hasRemaining()) {
+                channel.write(file);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the given columns of a sealed segment file; the other columns are left empty.
+     */
+    static Segment readSealed(Path path, Set<Column> columns) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(headerLength(0));
+            readFully(channel, header, 0);
+            if (header.getInt() != MAGIC || header.get() != VERSION) {
+                throw new IOException("Not a segment file: " + path);
+            }
+            int rows = header.getInt();
+            int columnCount = header.get();
+            ByteBuffer lengths = ByteBuffer.allocate(columnCount * 8);
+            readFully(channel, lengths, headerLength(0));
+
+            Segment segment = new Segment();
+            segment.size = rows;
+            long position = headerLength(columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                int rawLength = lengths.getInt();
+                int compressedLength = lengths.getInt();
+                if (c < Column.values().length && columns.contains(Column.values()[c])) {
+                    ByteBuffer data = ByteBuffer.allocate(compressedLength);
+                    readFully(channel, data, position);
+                    segment.setColumn(Column.values()[c], ColumnCodec.decompress(data.array(), rawLength), rows);
+                }
+                position += compressedLength;
+            }
+            return segment;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt segment file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void setColumn(Column column, byte[] data, int rows) {
+        switch (column) {
+            case TIMESTAMP -> timestamps = ColumnCodec.decodeLongs(data, rows, true);
+            case BUILD_ID -> buildIds = ColumnCodec.decodeLongs(data, rows, true);
+            case STATUS -> statuses = data;
+            case TOTAL_TESTS -> totalTests = ColumnCodec.decodeInts(data, rows);
+            case PASSED_TESTS -> passedTests = ColumnCodec.decodeInts(data, rows);
+            case FAILED_TESTS -> failedTests = ColumnCodec.decodeInts(data, rows);
+            case BUILD_MILLIS -> buildMillis = ColumnCodec.decodeLongs(data, rows, false);
+        }
+    }
+
+    private static int headerLength(int columnCount) {
+        return 4 + 1 + 4 + 1 + columnCount * 8;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment file");
+            }
+        }
+        buffer.flip();
+    }
+}
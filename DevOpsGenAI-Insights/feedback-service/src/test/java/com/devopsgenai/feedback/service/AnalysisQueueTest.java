@@ -0,0 +1,226 @@
+package com.devopsgenai.feedback.service;
+
+import com.devopsgenai.feedback.model.AIAnalysis;
+import com.devopsgenai.feedback.model.AnalysisStatus;
+import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.FullBuildDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalysisQueueTest {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private final AIService aiService = mock(AIService.class);
+    private final List<AnalysisQueue> queues = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (AnalysisQueue queue : queues) {
+            queue.shutdown();
+        }
+    }
+
+    private AnalysisQueue queue(int maxPending, int maxAttempts, long retryBackoffMillis, long compactThresholdBytes) {
+        AnalysisQueue queue = new AnalysisQueue(aiService, 2, maxPending, maxAttempts, retryBackoffMillis,
+                directory.resolve("analysis-queue.jsonl"), compactThresholdBytes);
+        queues.add(queue);
+        return queue;
+    }
+
+    private static FullBuildDetails build(long buildId) {
+        BuildReport report = new BuildReport();
+        report.setProjectId("web-app");
+        report.setBuildId(buildId);
+        report.setStatus("FAILURE");
+        report.setErrorMessages(List.of("OrderTest timed out"));
+        return new FullBuildDetails(report, LocalDateTime.now());
+    }
+
+    private static AIAnalysis analysis() {
+        AIAnalysis analysis = new AIAnalysis();
+        analysis.setSuggestedFixes(List.of());
+        return analysis;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void reportsEnqueuedWithoutCompletionAreRecoveredAndAPartialLastLineIsSkipped() throws Exception {
+        // Build 2 keeps failing and waits a minute for its retry, so it is still pending at shutdown
+        when(aiService.analyzeBuildReport(argThat(report -> report != null && report.getBuildId() == 1), any())).thenReturn(analysis());
+        when(aiService.analyzeBuildReport(argThat(report -> report != null && report.getBuildId() == 2), any()))
+                .thenThrow(new IllegalStateException("model unavailable"));
+        AnalysisQueue first = queue(10, 3, 60_000, MEGABYTE);
+        first.recover();
+        FullBuildDetails completed = build(1);
+        first.enqueue(completed, details -> { });
+        first.enqueue(build(2), details -> { });
+        awaitTrue(() -> completed.getAnalysisStatus() == AnalysisStatus.COMPLETED && first.pendingCount() == 1);
+        first.shutdown();
+        // A crash while appending leaves a partial line behind, cut in the middle of a character
+        byte[] partial = "{\"type\":\"enqueued\",\"id\":3,\"report\":{\"projectId\":\"caf\u00e9".getBytes(StandardCharsets.UTF_8);
+        Files.write(directory.resolve("analysis-queue.jsonl"), Arrays.copyOf(partial, partial.length - 1),
+                StandardOpenOption.APPEND);
+
+        when(aiService.analyzeBuildReport(argThat(report -> report != null && report.getBuildId() == 2), any())).thenReturn(analysis());
+        AnalysisQueue second = queue(10, 3, 60_000, MEGABYTE);
+        List<FullBuildDetails> recovered = second.recover();
+
+        assertEquals(1, recovered.size());
+        FullBuildDetails resumed = recovered.get(0);
+        assertEquals(2, resumed.getBuildReport().getBuildId());
+        assertEquals(List.of("OrderTest timed out"), resumed.getBuildReport().getErrorMessages());
+        awaitTrue(() -> resumed.getAnalysisStatus() == AnalysisStatus.COMPLETED);
+        assertNotNull(resumed.getAiAnalysis());
+        awaitTrue(() -> second.pendingCount() == 0);
+        // Nothing is left to recover once the journal says it is done
+        assertEquals(List.of(), queue(10, 3, 60_000, MEGABYTE).recover());
+    }
+
+    @Test
+    void failedAnalysesAreRetriedWithBackoffUntilTheyFail() throws Exception {
+        List<Long> attemptNanos = new ArrayList<>();
+        when(aiService.analyzeBuildReport(any(), any())).thenAnswer(invocation -> {
+            synchronized (attemptNanos) {
+                attemptNanos.add(System.nanoTime());
+            }
+            throw new IllegalStateException("model unavailable");
+        });
+        AnalysisQueue queue = queue(10, 3, 50, MEGABYTE);
+        queue.recover();
+        FullBuildDetails details = build(1);
+
+        queue.enqueue(details, accepted -> { });
+
+        awaitTrue(() -> details.getAnalysisStatus() == AnalysisStatus.FAILED);
+        verify(aiService, times(3)).analyzeBuildReport(any(), any());
+        synchronized (attemptNanos) {
+            assertTrue(attemptNanos.get(1) - attemptNanos.get(0) >= TimeUnit.MILLISECONDS.toNanos(50));
+            assertTrue(attemptNanos.get(2) - attemptNanos.get(1) >= TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertEquals(0, queue.pendingCount());
+        assertEquals(List.of(), queue(10, 3, 50, MEGABYTE).recover());
+    }
+
+    @Test
+    void reportsBeyondMaxPendingAreRejectedWithoutBeingAccepted() throws Exception {
+        CountDownLatch analysisBlocked = new CountDownLatch(1);
+        when(aiService.analyzeBuildReport(any(), any())).thenAnswer(invocation -> {
+            analysisBlocked.await();
+            return analysis();
+        });
+        AnalysisQueue queue = queue(2, 1, 10, MEGABYTE);
+        queue.recover();
+        AtomicInteger accepted = new AtomicInteger();
+        queue.enqueue(build(1), details -> accepted.incrementAndGet());
+        queue.enqueue(build(2), details -> accepted.incrementAndGet());
+
+        assertThrows(RejectedExecutionException.class, () -> queue.enqueue(build(3), details -> accepted.incrementAndGet()));
+
+        assertEquals(2, accepted.get());
+        analysisBlocked.countDown();
+        awaitTrue(() -> queue.pendingCount() == 0);
+        queue.enqueue(build(3), details -> accepted.incrementAndGet());
+        assertEquals(3, accepted.get());
+    }
+
+    @Test
+    void journalIsCompactedWhileAnalysesArePending() throws Exception {
+        CountDownLatch firstBlocked = new CountDownLatch(1);
+        when(aiService.analyzeBuildReport(any(), any())).thenAnswer(invocation -> {
+            BuildReport report = invocation.getArgument(0);
+            if (report.getBuildId() == 0) {
+                firstBlocked.await(); // Keeps one analysis pending throughout
+            }
+            return analysis();
+        });
+        AnalysisQueue queue = queue(10, 1, 10, 4096);
+        queue.recover();
+        queue.enqueue(build(0), details -> { });
+
+        for (int i = 1; i <= 300; i++) {
+            FullBuildDetails details = build(i);
+            queue.enqueue(details, accepted -> { });
+            awaitTrue(() -> details.getAnalysisStatus() == AnalysisStatus.COMPLETED);
+        }
+
+        assertTrue(Files.size(directory.resolve("analysis-queue.jsonl")) < 2 * 4096,
+                "journal of " + Files.size(directory.resolve("analysis-queue.jsonl")) + " bytes");
+        firstBlocked.countDown();
+    }
+
+    @Test
+    void concurrentReportsAreAllJournaled() throws Exception {
+        when(aiService.analyzeBuildReport(any(), any())).thenReturn(analysis());
+        AnalysisQueue queue = queue(1000, 1, 10, MEGABYTE);
+        queue.recover();
+        ExecutorService posters = Executors.newFixedThreadPool(8);
+        List<FullBuildDetails> builds = new ArrayList<>();
+        List<Future<?>> posts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 400; i++) {
+                FullBuildDetails details = build(i);
+                builds.add(details);
+                posts.add(posters.submit(() -> {
+                    queue.enqueue(details, accepted -> { });
+                    return null;
+                }));
+            }
+            for (Future<?> post : posts) {
+                post.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            posters.shutdown();
+        }
+
+        for (FullBuildDetails details : builds) {
+            awaitTrue(() -> details.getAnalysisStatus() == AnalysisStatus.COMPLETED);
+        }
+        awaitTrue(() -> queue.pendingCount() == 0);
+        long enqueuedLines;
+        try (var lines = Files.lines(directory.resolve("analysis-queue.jsonl"))) {
+            enqueuedLines = lines.filter(line -> line.contains("\"enqueued\"")).count();
+        }
+        assertEquals(400, enqueuedLines);
+    }
+}
@@ -0,0 +1,116 @@
+package com.devopsgenai.feedback.service;
+
+import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.BuildTrend;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BuildTrendTrackerTest {
+
+    private final BuildTrendTracker tracker = new BuildTrendTracker(0.2, 20, 8);
+    private final Random random = new Random(42);
+    private long nextBuildId = 1;
+
+    private BuildTrend build(double seconds, String status, String... errorMessages) {
+        BuildReport report = new BuildReport();
+        report.setProjectId("web-app");
+        report.setBuildId(nextBuildId++);
+        report.setStatus(status);
+        report.setBuildTimeSeconds(seconds);
+        report.setErrorMessages(List.of(errorMessages));
+        return tracker.observe(report);
+    }
+
+    private List<BuildTrend> regressions(List<BuildTrend> trends) {
+        return trends.stream().filter(BuildTrend::isBuildTimeRegression).toList();
+    }
+
+    @Test
+    void steadyNoiseRaisesNoRegression() {
+        List<BuildTrend> trends = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            trends.add(build(90 + 8 * random.nextGaussian(), "SUCCESS"));
+        }
+
+        assertEquals(List.of(), regressions(trends));
+        assertEquals(90, trends.get(499).getBaselineBuildTimeSeconds(), 3);
+    }
+
+    @Test
+    void stepIsReportedOnceWithItsChangePointAndNewLevel() {
+        List<BuildTrend> trends = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            trends.add(build((i <= 100 ? 90 : 120) + 8 * random.nextGaussian(), "SUCCESS"));
+        }
+
+        List<BuildTrend> regressions = regressions(trends);
+        assertEquals(1, regressions.size());
+        BuildTrend regression = regressions.get(0);
+        assertEquals(101, regression.getChangePointBuildId(), 2);
+        assertEquals(90, regression.getPreviousBuildTimeSeconds(), 3);
+        assertEquals(120, regression.getRegressedBuildTimeSeconds(), 12); // Estimated from the few builds up to the alarm
+        // The slower regime becomes the baseline
+        assertEquals(120, trends.get(299).getBaselineBuildTimeSeconds(), 3);
+    }
+
+    @Test
+    void slowCreepIsReported() {
+        List<BuildTrend> trends = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            double creep = i <= 100 ? 0 : 0.3 * (i - 100);
+            trends.add(build(90 + creep + 2 * random.nextGaussian(), "SUCCESS"));
+        }
+
+        List<BuildTrend> regressions = regressions(trends);
+        assertFalse(regressions.isEmpty());
+        BuildTrend first = regressions.get(0);
+        assertTrue(first.getChangePointBuildId() > 100, "change point " + first.getChangePointBuildId());
+        assertTrue(first.getRegressedBuildTimeSeconds() >= 1.1 * first.getPreviousBuildTimeSeconds());
+    }
+
+    @Test
+    void burstOfFailuresIsASpike() {
+        for (int i = 0; i < 60; i++) {
+            BuildTrend trend = build(90, i % 20 == 19 ? "FAILURE" : "SUCCESS");
+            assertFalse(trend.isFailureRateSpike());
+        }
+
+        BuildTrend trend = null;
+        for (int i = 0; i < 10; i++) {
+            trend = build(90, "FAILURE");
+        }
+
+        assertTrue(trend.isFailureRateSpike());
+        assertEquals(20, trend.getFailureWindow());
+        assertTrue(trend.getRecentFailureRate() > trend.getLongTermFailureRate() + 0.25);
+    }
+
+    @Test
+    void errorReturningAfterGreenBuildsIsFlaky() {
+        assertEquals(List.of(), build(90, "FAILURE", "OrderTest timed out after 1203 ms").getFlakyErrorSignatures());
+        build(90, "SUCCESS");
+        assertEquals(List.of(), build(90, "FAILURE", "OrderTest timed out after 987 ms").getFlakyErrorSignatures());
+        build(90, "SUCCESS");
+
+        List<String> flaky = build(90, "FAILURE", "OrderTest timed out after 1544 ms", "Unrelated failure").getFlakyErrorSignatures();
+
+        assertEquals(List.of("OrderTest timed out after # ms (failed 3 times, returned after a green build 2 times)"), flaky);
+    }
+
+    @Test
+    void errorFailingEveryBuildIsNotFlaky() {
+        List<String> flaky = List.of();
+        for (int i = 0; i < 5; i++) {
+            flaky = build(90, "FAILURE", "Compilation failed in Main.java:" + i).getFlakyErrorSignatures();
+        }
+
+        assertEquals(List.of(), flaky);
+    }
+}
@@ -0,0 +1,119 @@
+package com.devopsgenai.feedback.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void keepsTheNewestElementsNewestFirst() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertEquals(List.of(), buffer.snapshot());
+
+        IntStream.range(0, 5).forEach(buffer::append);
+
+        assertEquals(List.of(4, 3, 2), buffer.snapshot());
+        assertEquals(List.of(4, 3), buffer.snapshot(2));
+        assertEquals(List.of(4, 3, 2), buffer.snapshot(10));
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(0));
+    }
+
+    @Test
+    void concurrentWritersAndReadersSeeConsistentSnapshots() throws InterruptedException {
+        int capacity = 64;
+        int writers = 4;
+        int appendsPerWriter = 200_000;
+        RingBuffer<Long> buffer = new RingBuffer<>(capacity);
+        AtomicLongArray completed = new AtomicLongArray(writers); // Appends each writer has finished
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> violation = new AtomicReference<>();
+        AtomicInteger snapshots = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads.add(new Thread(() -> {
+                for (int counter = 0; counter < appendsPerWriter; counter++) {
+                    buffer.append(((long) writer << 32) | counter);
+                    completed.set(writer, counter + 1);
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            while (writing.get() && violation.get() == null) {
+                long[] completedBefore = new long[writers];
+                for (int w = 0; w < writers; w++) {
+                    completedBefore[w] = completed.get(w);
+                }
+                String problem = check(buffer.snapshot(), capacity, completedBefore);
+                if (problem != null) {
+                    violation.compareAndSet(null, problem);
+                }
+                snapshots.incrementAndGet();
+            }
+        });
+
+        reader.start();
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        assertNull(violation.get());
+        assertTrue(snapshots.get() > 0);
+
+        // Once the writers are done, the snapshot is exactly the last appends: per writer, its newest elements
+        List<Long> last = buffer.snapshot();
+        assertEquals(capacity, last.size());
+        assertNull(check(last, capacity, new long[] {appendsPerWriter, appendsPerWriter, appendsPerWriter, appendsPerWriter}));
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            List<Integer> counters = last.stream().filter(e -> (e >>> 32) == writer).map(e -> (int) (long) e).toList();
+            for (int i = 0; i < counters.size(); i++) {
+                assertEquals(appendsPerWriter - 1 - i, counters.get(i));
+            }
+        }
+    }
+
+    // Checks a snapshot: each writer's elements newest first without duplicates, and none that was followed by
+    // a full capacity of later appends before the snapshot started
+    private static String check(List<Long> snapshot, int capacity, long[] completedBefore) {
+        if (snapshot.size() > capacity) {
+            return "snapshot of " + snapshot.size() + " elements exceeds the capacity";
+        }
+        long[] previous = new long[completedBefore.length];
+        Arrays.fill(previous, Long.MAX_VALUE);
+        for (long element : snapshot) {
+            int writer = (int) (element >>> 32);
+            long counter = element & 0xFFFFFFFFL;
+            if (counter >= previous[writer]) {
+                return "writer " + writer + ": " + counter + " after " + previous[writer] + " in " + snapshot;
+            }
+            if (counter < completedBefore[writer] - capacity) {
+                return "writer " + writer + ": " + counter + " is older than the capacity, "
+                    + completedBefore[writer] + " appends were complete";
+            }
+            previous[writer] = counter;
+        }
+        return null;
+    }
+}
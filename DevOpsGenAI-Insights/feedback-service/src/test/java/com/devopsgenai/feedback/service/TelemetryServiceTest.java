@@ -0,0 +1,69 @@
+package com.devopsgenai.feedback.service;
+
+import com.devopsgenai.feedback.model.AIAnalysis;
+import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.FullBuildDetails;
+import com.devopsgenai.feedback.store.BuildMetricsStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TelemetryServiceTest {
+
+    private final CountDownLatch analysisBlocked = new CountDownLatch(1);
+    private AnalysisQueue analysisQueue;
+    private BuildMetricsStore metricsStore;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        analysisBlocked.countDown();
+        analysisQueue.shutdown();
+        metricsStore.close();
+    }
+
+    @Test
+    void reportRefusedByTheQueueIsObservedOnlyWhenItsRetryIsQueued(@TempDir Path directory) throws Exception {
+        AIService aiService = mock(AIService.class);
+        when(aiService.analyzeBuildReport(any(), any())).thenAnswer(invocation -> {
+            analysisBlocked.await();
+            AIAnalysis analysis = new AIAnalysis();
+            analysis.setSuggestedFixes(List.of());
+            return analysis;
+        });
+        analysisQueue = new AnalysisQueue(aiService, 1, 1, 1, 10, directory.resolve("queue.jsonl"), 1024 * 1024);
+        metricsStore = new BuildMetricsStore(directory.resolve("metrics"), 10);
+        TelemetryService service = new TelemetryService(analysisQueue, metricsStore, new BuildTrendTracker(0.2, 20, 8), 10);
+
+        assertEquals(1, service.processBuildReport(report(1)).getBuildTrend().getBuildsObserved());
+        assertThrows(RejectedExecutionException.class, () -> service.processBuildReport(report(2)));
+
+        analysisBlocked.countDown();
+        while (analysisQueue.pendingCount() > 0) {
+            Thread.sleep(10);
+        }
+        FullBuildDetails retried = service.processBuildReport(report(2));
+
+        assertEquals(2, retried.getBuildTrend().getBuildsObserved());
+    }
+
+    private static BuildReport report(long buildId) {
+        BuildReport report = new BuildReport();
+        report.setProjectId("web-app");
+        report.setBuildId(buildId);
+        report.setStatus("SUCCESS");
+        report.setBuildTimeSeconds(90);
+        return report;
+    }
+}
@@ -0,0 +1,84 @@
+package com.devopsgenai.feedback.store;
+
+import com.devopsgenai.feedback.model.BuildReport;
+import com.devopsgenai.feedback.model.DailyBuildStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BuildMetricsStoreTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 3, 1);
+    private static final LocalDate SECOND_DAY = FIRST_DAY.plusDays(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sealedAndOpenDaysSurviveAReopen() throws IOException {
+        BuildMetricsStore store = new BuildMetricsStore(directory, 100);
+        for (int i = 0; i < 10; i++) {
+            store.append(report(i, i < 3 ? "FAILURE" : "SUCCESS", 60 + i), at(FIRST_DAY, i));
+        }
+        // The first report of the next day seals the previous one
+        store.append(report(10, "SUCCESS", 120), at(SECOND_DAY, 0));
+        store.append(report(11, "FAILURE", 30), at(SECOND_DAY, 1));
+        Path partition = directory.resolve("web-app");
+        assertTrue(Files.exists(partition.resolve(FIRST_DAY + ".seg")));
+        assertFalse(Files.exists(partition.resolve(FIRST_DAY + ".rows")));
+        List<DailyBuildStats> before = store.dailyStats("web-app", FIRST_DAY, SECOND_DAY, 95);
+        store.close();
+
+        // The second day's row log is from the past, so it is sealed on reopen
+        BuildMetricsStore reopened = new BuildMetricsStore(directory, 100);
+        List<DailyBuildStats> after = reopened.dailyStats("web-app", FIRST_DAY, SECOND_DAY, 95);
+        reopened.close();
+
+        assertEquals(before, after);
+        assertEquals(2, after.size());
+        DailyBuildStats first = after.get(0);
+        assertEquals(FIRST_DAY, first.getDate());
+        assertEquals(10, first.getBuilds());
+        assertEquals(3, first.getFailedBuilds());
+        assertEquals(69.0, first.getMaxBuildTimeSeconds());
+        DailyBuildStats second = after.get(1);
+        assertEquals(2, second.getBuilds());
+        assertEquals(1, second.getFailedBuilds());
+        assertTrue(Files.exists(partition.resolve(SECOND_DAY + ".seg")));
+        assertFalse(Files.exists(partition.resolve(SECOND_DAY + ".rows")));
+    }
+
+    @Test
+    void unknownProjectHasNoStats() throws IOException {
+        BuildMetricsStore store = new BuildMetricsStore(directory, 100);
+
+        assertEquals(List.of(), store.dailyStats("unknown", FIRST_DAY, SECOND_DAY, 95));
+    }
+
+    private static BuildReport report(long buildId, String status, double seconds) {
+        BuildReport report = new BuildReport();
+        report.setProjectId("web-app");
+        report.setBuildId(buildId);
+        report.setStatus(status);
+        report.setTotalTests(10);
+        report.setPassedTests("FAILURE".equals(status) ? 8 : 10);
+        report.setFailedTests("FAILURE".equals(status) ? 2 : 0);
+        report.setBuildTimeSeconds(seconds);
+        return report;
+    }
+
+    private static Instant at(LocalDate day, int minute) {
+        return day.atStartOfDay(ZoneOffset.UTC).plusMinutes(minute).toInstant();
+    }
+}
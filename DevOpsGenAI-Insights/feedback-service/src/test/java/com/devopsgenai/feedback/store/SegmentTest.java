@@ -0,0 +1,175 @@
+package com.devopsgenai.feedback.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void longColumnsRoundTripWithAndWithoutDelta() {
+        long[] values = {1_700_000_000_000L, 1_700_000_000_250L, 1_699_999_999_000L, 0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 42};
+
+        for (boolean delta : new boolean[]{true, false}) {
+            byte[] encoded = ColumnCodec.encodeLongs(values, values.length, delta);
+            assertArrayEquals(values, ColumnCodec.decodeLongs(encoded, values.length, delta));
+        }
+        // Only the first count values are encoded
+        byte[] prefix = ColumnCodec.encodeLongs(values, 3, true);
+        assertArrayEquals(Arrays.copyOf(values, 3), ColumnCodec.decodeLongs(prefix, 3, true));
+    }
+
+    @Test
+    void intColumnsRoundTrip() {
+        int[] values = {0, 1, 127, 128, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 500};
+
+        byte[] encoded = ColumnCodec.encodeInts(values, values.length);
+
+        assertArrayEquals(values, ColumnCodec.decodeInts(encoded, values.length));
+    }
+
+    @Test
+    void compressedColumnsRoundTripAndTruncationIsDetected() throws DataFormatException {
+        long[] timestamps = new long[1000];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = 1_700_000_000_000L + i * 1000L;
+        }
+        byte[] raw = ColumnCodec.encodeLongs(timestamps, timestamps.length, true);
+
+        byte[] compressed = ColumnCodec.compress(raw);
+
+        assertArrayEquals(raw, ColumnCodec.decompress(compressed, raw.length));
+        assertArrayEquals(new byte[0], ColumnCodec.decompress(ColumnCodec.compress(new byte[0]), 0));
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        assertThrows(DataFormatException.class, () -> ColumnCodec.decompress(truncated, raw.length));
+    }
+
+    @Test
+    void rowLogIsReadBackAndAPartialLastRowIgnored() throws IOException {
+        Path rowLog = directory.resolve("2024-01-01.rows");
+        Segment written = sample(40);
+        try (FileChannel channel = FileChannel.open(rowLog, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            Segment appending = new Segment();
+            for (int i = 0; i < written.size; i++) {
+                appending.add(written.timestamps[i], written.buildIds[i], written.statuses[i], written.totalTests[i],
+                        written.passedTests[i], written.failedTests[i], written.buildMillis[i]);
+                appending.appendLastRow(channel);
+            }
+        }
+        assertRows(written, Segment.readRowLog(rowLog), EnumSet.allOf(Segment.Column.class));
+
+        // A crash while appending leaves part of a row behind
+        Files.write(rowLog, new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        assertRows(written, Segment.readRowLog(rowLog), EnumSet.allOf(Segment.Column.class));
+    }
+
+    @Test
+    void sealedSegmentReopensWithAllColumns() throws IOException {
+        Path file = directory.resolve("2024-01-01.seg");
+        Segment written = sample(100);
+
+        written.writeSealed(file);
+
+        EnumSet<Segment.Column> all = EnumSet.allOf(Segment.Column.class);
+        assertRows(written, Segment.readSealed(file, all), all);
+        assertEquals(100, Segment.readSealed(file, EnumSet.noneOf(Segment.Column.class)).size);
+    }
+
+    @Test
+    void sealedSegmentReopensWithRequestedColumnsOnly() throws IOException {
+        Path file = directory.resolve("2024-01-01.seg");
+        Segment written = sample(100);
+        written.writeSealed(file);
+
+        EnumSet<Segment.Column> requested = EnumSet.of(Segment.Column.STATUS, Segment.Column.BUILD_MILLIS);
+        Segment read = Segment.readSealed(file, requested);
+
+        assertRows(written, read, requested);
+        assertArrayEquals(new long[16], read.timestamps);
+        assertArrayEquals(new int[16], read.totalTests);
+    }
+
+    @Test
+    void resealingReplacesTheFile() throws IOException {
+        Path file = directory.resolve("2024-01-01.seg");
+        sample(100).writeSealed(file);
+        Segment smaller = sample(3);
+
+        smaller.writeSealed(file);
+
+        EnumSet<Segment.Column> all = EnumSet.allOf(Segment.Column.class);
+        assertRows(smaller, Segment.readSealed(file, all), all);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void emptySegmentRoundTrips() throws IOException {
+        Path file = directory.resolve("2024-01-01.seg");
+
+        new Segment().writeSealed(file);
+
+        assertEquals(0, Segment.readSealed(file, EnumSet.allOf(Segment.Column.class)).size);
+    }
+
+    @Test
+    void foreignOrTruncatedFilesAreRejected() throws IOException {
+        Path foreign = directory.resolve("foreign.seg");
+        Files.write(foreign, "definitely not a segment".getBytes());
+        assertThrows(IOException.class, () -> Segment.readSealed(foreign, EnumSet.allOf(Segment.Column.class)));
+
+        Path truncated = directory.resolve("truncated.seg");
+        sample(100).writeSealed(truncated);
+        byte[] content = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(content, content.length - 10));
+        assertThrows(IOException.class, () -> Segment.readSealed(truncated, EnumSet.allOf(Segment.Column.class)));
+    }
+
+    // More rows than the initial capacity, with out-of-order timestamps and extreme values
+    private static Segment sample(int rows) {
+        Segment segment = new Segment();
+        for (int i = 0; i < rows; i++) {
+            byte status = i % 7 == 0 ? Segment.STATUS_FAILURE : i % 11 == 0 ? Segment.STATUS_OTHER : Segment.STATUS_SUCCESS;
+            long timestamp = 1_700_000_000_000L + i * 60_000L - (i % 5 == 0 ? 300_000L : 0);
+            int failed = status == Segment.STATUS_FAILURE ? i % 4 + 1 : 0;
+            long millis = i == rows - 1 ? Long.MAX_VALUE : 30_000L + i * 17L;
+            segment.add(timestamp, 1000 + i, status, 200 + i, 200 + i - failed, failed, millis);
+        }
+        return segment;
+    }
+
+    private static void assertRows(Segment expected, Segment actual, EnumSet<Segment.Column> columns) {
+        int rows = expected.size;
+        assertEquals(rows, actual.size);
+        for (Segment.Column column : columns) {
+            switch (column) {
+                case TIMESTAMP -> assertArrayEquals(Arrays.copyOf(expected.timestamps, rows), Arrays.copyOf(actual.timestamps, rows));
+                case BUILD_ID -> assertArrayEquals(Arrays.copyOf(expected.buildIds, rows), Arrays.copyOf(actual.buildIds, rows));
+                case STATUS -> assertArrayEquals(Arrays.copyOf(expected.statuses, rows), Arrays.copyOf(actual.statuses, rows));
+                case TOTAL_TESTS -> assertArrayEquals(Arrays.copyOf(expected.totalTests, rows), Arrays.copyOf(actual.totalTests, rows));
+                case PASSED_TESTS -> assertArrayEquals(Arrays.copyOf(expected.passedTests, rows), Arrays.copyOf(actual.passedTests, rows));
+                case FAILED_TESTS -> assertArrayEquals(Arrays.copyOf(expected.failedTests, rows), Arrays.copyOf(actual.failedTests, rows));
+                case BUILD_MILLIS -> assertArrayEquals(Arrays.copyOf(expected.buildMillis, rows), Arrays.copyOf(actual.buildMillis, rows));
+            }
+        }
+    }
+}
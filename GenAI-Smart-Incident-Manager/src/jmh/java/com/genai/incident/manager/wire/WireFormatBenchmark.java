@@ -0,0 +1,98 @@
+package com.genai.incident.manager.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.genai.incident.manager.model.LogEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a batch of log entries from NDJSON with Jackson (the /api/logs/stream path) against
+ * decoding the same entries from the binary log frame format (the /api/logs/binary path).
+ * Both produce LogEntry objects; scores are per entry.
+ *
+ * The NDJSON side does what the application does: it reads the body line by line and parses each line
+ * with readValue, using an ObjectMapper configured like Spring Boot's (ISO-8601 dates, unknown properties ignored).
+ *
+ * Run with: mvn -Pjmh compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int ENTRIES = 10_000;
+    private static final String[] LEVELS = {"DEBUG", "INFO", "INFO", "INFO", "WARN", "ERROR"};
+
+    private byte[] ndjson;
+    private byte[] frames;
+    private ObjectMapper objectMapper;
+    private BufferPool bufferPool;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Spring Boot's defaults: the builder's settings and modules, plus dates written as ISO-8601 strings
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        bufferPool = new BufferPool(65536, 4);
+
+        Random random = new Random(42);
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        LogFrameEncoder encoder = new LogFrameEncoder(binary, bufferPool.getBufferSize());
+        for (int i = 0; i < ENTRIES; i++) {
+            LogEntry entry = new LogEntry(start.plusNanos(i * 1_234_567L), "service-" + random.nextInt(50),
+                LEVELS[random.nextInt(LEVELS.length)],
+                "Request " + random.nextInt(1_000_000) + " for user " + random.nextInt(10_000) + " completed in " + random.nextInt(500) + " ms");
+            json.write(objectMapper.writeValueAsBytes(entry));
+            json.write('\n');
+            encoder.write(entry);
+        }
+        ndjson = json.toByteArray();
+        frames = binary.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public void jacksonNdjson(Blackhole blackhole) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(ndjson), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                blackhole.consume(objectMapper.readValue(line, LogEntry.class));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public void binaryFrames(Blackhole blackhole) throws IOException, InterruptedException {
+        new LogFrameDecoder(bufferPool).decode(new ByteArrayInputStream(frames), blackhole::consume);
+    }
+}
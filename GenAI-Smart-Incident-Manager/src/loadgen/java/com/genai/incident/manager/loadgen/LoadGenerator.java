@@ -0,0 +1,140 @@
+package com.genai.incident.manager.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+/**
+ * Command line load generator for capacity planning of a running Incident Manager instance.
+ * Replays a recorded NDJSON corpus, or a synthetic one, against /api/logs (or /api/logs/stream with --batch)
+ * at a controlled open-loop rate and reports a latency histogram for each run.
+ * <p>
+ * With --search it steps the offered rate up by --search-factor until a step misses the SLO (p99 latency,
+ * error ratio or achieved rate, see LoadOptions), then bisects between the last passing and the first failing
+ * rate. The saturation throughput is the achieved rate of the highest passing step.
+ *
+ * Run with: mvn -Ploadgen compile exec:exec -Dloadgen.args="--search --duration 20s"
+ */
+public final class LoadGenerator {
+
+    private static final long SYNTHETIC_SEED = 42;
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.out.print(LoadOptions.USAGE);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        LogCorpus corpus = options.corpus != null
+            ? LogCorpus.recorded(options.corpus, options.keepTimestamps, objectMapper)
+            : LogCorpus.synthetic(options.services, options.errorRatio, SYNTHETIC_SEED, objectMapper);
+        OpenLoopRunner runner = new OpenLoopRunner(options, corpus, objectMapper);
+        PrintStream out = System.out;
+        out.printf("Target %s, %s corpus of %d entries, %d line(s) per request, %s arrivals%n", options.url,
+                   options.corpus != null ? options.corpus : "synthetic", corpus.size(), options.batch,
+                   options.poisson ? "poisson" : "uniform");
+
+        RunResult result = options.search ? search(options, runner, out) : single(options, runner, out);
+        if (result != null && options.histogramOut != null) {
+            writeHistogram(options, result);
+            out.println("Latency distribution written to " + options.histogramOut);
+        }
+    }
+
+    private static RunResult single(LoadOptions options, OpenLoopRunner runner, PrintStream out) throws InterruptedException {
+        RunResult result = runner.run(options.rate);
+        RunResult.printHeader(out);
+        result.print(out);
+        warnIfClientBound(result, out);
+        return result;
+    }
+
+    /**
+     * Steps the offered rate up geometrically until a step fails, then bisects between the last passing and the
+     * first failing rate.
+     *
+     * @return The highest passing step, or null if even the first step failed.
+     */
+    private static RunResult search(LoadOptions options, OpenLoopRunner runner, PrintStream out) throws InterruptedException {
+        out.printf("Searching for saturation: p99 <= %d ms, error ratio <= %.3f, achieved >= %.0f%% of sent rate%n",
+                   options.sloP99.toMillis(), options.maxErrorRatio, options.minAchieved * 100);
+        RunResult.printHeader(out);
+
+        RunResult best = null;
+        double passed = 0;
+        double failed = 0;
+        for (double rate = options.searchStart; rate <= options.searchMax; rate *= options.searchFactor) {
+            RunResult result = step(options, runner, rate, out);
+            if (!passes(options, result)) {
+                failed = rate;
+                break;
+            }
+            best = result;
+            passed = rate;
+        }
+        for (int i = 0; i < options.searchRefine && passed > 0 && failed > 0; i++) {
+            double rate = (passed + failed) / 2;
+            RunResult result = step(options, runner, rate, out);
+            if (passes(options, result)) {
+                best = result;
+                passed = rate;
+            } else {
+                failed = rate;
+            }
+        }
+
+        if (best == null) {
+            out.printf("No step met the SLO; saturation is below %.0f lines/s%n", options.searchStart);
+        } else {
+            out.printf("Saturation throughput: %.0f lines/s (offered %.0f lines/s, p99 %.2f ms)%s%n",
+                       best.achievedRate(), best.offeredRate(), best.percentileMillis(99),
+                       failed == 0 ? ", the search reached --search-max before saturating" : "");
+            warnIfClientBound(best, out);
+        }
+        return best;
+    }
+
+    private static RunResult step(LoadOptions options, OpenLoopRunner runner, double rate, PrintStream out) throws InterruptedException {
+        RunResult result = runner.run(rate);
+        result.print(out);
+        // Let the server drain its queues so the next step starts from the same state.
+        Thread.sleep(options.cooldown.toMillis());
+        return result;
+    }
+
+    private static boolean passes(LoadOptions options, RunResult result) {
+        return result.percentileMillis(99) <= options.sloP99.toMillis()
+            && result.errorRatio() <= options.maxErrorRatio
+            // Compared with what was actually sent, which for Poisson arrivals varies around the offered rate.
+            && result.achievedRate() >= result.sent() / (options.duration.toMillis() / 1000.0) * options.minAchieved;
+    }
+
+    private static void warnIfClientBound(RunResult result, PrintStream out) {
+        if (result.maxSendLagMillis() > 100) {
+            out.printf("Note: the generator fell up to %d ms behind its schedule (latencies include it); "
+                       + "raise --max-in-flight or use --batch if the server was not saturated%n", result.maxSendLagMillis());
+        }
+    }
+
+    private static void writeHistogram(LoadOptions options, RunResult result) throws IOException {
+        try (PrintStream file = new PrintStream(Files.newOutputStream(options.histogramOut))) {
+            // Microseconds scaled to milliseconds, in the .hgrm format understood by HdrHistogram's plotter.
+            result.latency().outputPercentileDistribution(file, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.genai.incident.manager.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options of the LoadGenerator, given as {@code --name value} pairs.
+ * Durations are written like {@code 30s}, {@code 500ms} or {@code 2m} (or as ISO-8601, e.g. {@code PT30S}).
+ */
+final class LoadOptions {
+
+    static final String USAGE = """
+        Usage: LoadGenerator [options]
+          --url <url>               Base URL of the Incident Manager (default http://localhost:8080)
+          --corpus <file>           NDJSON file of recorded log entries to replay; synthetic entries if omitted
+          --keep-timestamps         Send recorded timestamps as they are instead of the send time
+          --services <n>            Number of services in the synthetic corpus (default 20)
+          --error-ratio <r>         Fraction of ERROR entries in the synthetic corpus (default 0.02)
+          --batch <n>               Log lines per request; 1 posts to /api/logs, more posts NDJSON to /api/logs/stream (default 1)
+          --arrival <a>             Arrival process: uniform or poisson (default uniform)
+          --rate <lines/s>          Offered load of a single run (default 1000)
+          --duration <d>            Measured duration of a run or search step (default 30s)
+          --warmup <d>              Unmeasured lead-in at the same rate before each run or step (default 5s)
+          --timeout <d>             Request timeout (default 30s)
+          --max-in-flight <n>       Maximum outstanding requests (default 2048)
+          --histogram-out <file>    Write the latency percentile distribution (.hgrm) of the run or saturation step
+          --search                  Search for the saturation throughput instead of a single run
+          --search-start <lines/s>  First rate of the search (default 500)
+          --search-factor <f>       Rate multiplier between search steps (default 1.5)
+          --search-max <lines/s>    Highest rate the search will offer (default 1000000)
+          --search-refine <n>       Bisection steps between the last passing and the first failing rate (default 3)
+          --cooldown <d>            Pause between search steps so server queues drain (default 5s)
+          --slo-p99 <d>             A step passes only if its p99 latency is at most this (default 250ms)
+          --max-error-ratio <r>     ...and at most this fraction of lines was rejected, shed or failed (default 0.01)
+          --min-achieved <r>        ...and the achieved rate was at least this fraction of the send rate (default 0.95)
+        """;
+
+    private static final Set<String> FLAGS = Set.of("search", "keep-timestamps", "help");
+
+    URI url = URI.create("http://localhost:8080");
+    Path corpus;
+    boolean keepTimestamps;
+    int services = 20;
+    double errorRatio = 0.02;
+    int batch = 1;
+    boolean poisson;
+    double rate = 1000;
+    Duration duration = Duration.ofSeconds(30);
+    Duration warmup = Duration.ofSeconds(5);
+    Duration timeout = Duration.ofSeconds(30);
+    int maxInFlight = 2048;
+    Path histogramOut;
+    boolean search;
+    double searchStart = 500;
+    double searchFactor = 1.5;
+    double searchMax = 1_000_000;
+    int searchRefine = 3;
+    Duration cooldown = Duration.ofSeconds(5);
+    Duration sloP99 = Duration.ofMillis(250);
+    double maxErrorRatio = 0.01;
+    double minAchieved = 0.95;
+    boolean help;
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument '" + args[i] + "'");
+            }
+            String name = args[i].substring(2);
+            if (FLAGS.contains(name)) {
+                values.put(name, "true");
+            } else if (i + 1 < args.length) {
+                values.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+        }
+
+        LoadOptions options = new LoadOptions();
+        for (Map.Entry<String, String> option : values.entrySet()) {
+            String value = option.getValue();
+            switch (option.getKey()) {
+                case "url" -> options.url = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+                case "corpus" -> options.corpus = Path.of(value);
+                case "keep-timestamps" -> options.keepTimestamps = true;
+                case "services" -> options.services = positive(option.getKey(), Integer.parseInt(value));
+                case "error-ratio" -> options.errorRatio = ratio(option.getKey(), Double.parseDouble(value));
+                case "batch" -> options.batch = positive(option.getKey(), Integer.parseInt(value));
+                case "arrival" -> options.poisson = switch (value.toLowerCase(Locale.ROOT)) {
+                    case "uniform" -> false;
+                    case "poisson" -> true;
+                    default -> throw new IllegalArgumentException("--arrival must be uniform or poisson");
+                };
+                case "rate" -> options.rate = positive(option.getKey(), Double.parseDouble(value));
+                case "duration" -> options.duration = duration(value);
+                case "warmup" -> options.warmup = duration(value);
+                case "timeout" -> options.timeout = duration(value);
+                case "max-in-flight" -> options.maxInFlight = positive(option.getKey(), Integer.parseInt(value));
+                case "histogram-out" -> options.histogramOut = Path.of(value);
+                case "search" -> options.search = true;
+                case "search-start" -> options.searchStart = positive(option.getKey(), Double.parseDouble(value));
+                case "search-factor" -> options.searchFactor = Double.parseDouble(value);
+                case "search-max" -> options.searchMax = positive(option.getKey(), Double.parseDouble(value));
+                case "search-refine" -> options.searchRefine = Integer.parseInt(value);
+                case "cooldown" -> options.cooldown = duration(value);
+                case "slo-p99" -> options.sloP99 = duration(value);
+                case "max-error-ratio" -> options.maxErrorRatio = ratio(option.getKey(), Double.parseDouble(value));
+                case "min-achieved" -> options.minAchieved = ratio(option.getKey(), Double.parseDouble(value));
+                case "help" -> options.help = true;
+                default -> throw new IllegalArgumentException("Unknown option --" + option.getKey());
+            }
+        }
+        if (options.searchFactor <= 1) {
+            throw new IllegalArgumentException("--search-factor must be greater than 1");
+        }
+        if (options.duration.isZero() || options.duration.isNegative()) {
+            throw new IllegalArgumentException("--duration must be positive");
+        }
+        return options;
+    }
+
+    /** Parses {@code 250ms}, {@code 30s}, {@code 2m}, {@code 1h} or an ISO-8601 duration. */
+    static Duration duration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        if (text.startsWith("pt")) {
+            return Duration.parse(text);
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Invalid duration '" + value + "'");
+        };
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return value;
+    }
+
+    private static double positive(String name, double value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return value;
+    }
+
+    private static double ratio(String name, double value) {
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException("--" + name + " must be between 0 and 1");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,143 @@
+package com.genai.incident.manager.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The log entries a load run sends, cycled through in order.
+ * Entries are serialized once up front, without their timestamp; {@link #next()} only prepends the send time,
+ * so building a request costs next to nothing compared to the request itself and does not skew the schedule.
+ */
+final class LogCorpus {
+
+    private static final int SYNTHETIC_ENTRIES = 10_000;
+
+    // Roughly the mix of a busy service: mostly routine lines, some warnings and a few errors of known and unknown kinds.
+    private static final String[] ROUTINE = {
+        "User u%d logged in successfully",
+        "GET /api/orders/%d completed in %d ms",
+        "Cache refreshed with %d entries in %d ms",
+        "Scheduled job %d finished",
+    };
+    private static final String[] WARNINGS = {
+        "Slow response from inventory service: %d ms",
+        "Retrying request %d after %d ms backoff",
+        "Connection pool usage at %d percent",
+    };
+    private static final String[] ERRORS = {
+        "java.lang.OutOfMemoryError: Java heap space",
+        "Database connection timed out after %d ms",
+        "java.lang.NullPointerException at com.example.OrderService.place(OrderService.java:%d)",
+        "Failed to write block %d to replica %d",
+        "Payment provider returned HTTP 503 for transaction %d",
+    };
+
+    private final List<String> entries;     // Serialized entries; a timestamped entry is "{\"timestamp\":...," + rest
+    private final boolean stamped;          // Whether entries still need their timestamp prepended
+    private int position;
+
+    private LogCorpus(List<String> entries, boolean stamped) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("The log corpus is empty");
+        }
+        this.entries = entries;
+        this.stamped = stamped;
+    }
+
+    /**
+     * Loads recorded log entries from an NDJSON file (one entry per line, blank lines ignored).
+     *
+     * @param file The corpus file.
+     * @param keepTimestamps Whether to send the recorded timestamps instead of the send time.
+     */
+    static LogCorpus recorded(Path file, boolean keepTimestamps, ObjectMapper objectMapper) throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (keepTimestamps) {
+                    entries.add(line.strip());
+                    continue;
+                }
+                JsonNode entry = objectMapper.readTree(line);
+                if (!(entry instanceof ObjectNode object)) {
+                    throw new IOException("Corpus line " + (entries.size() + 1) + " is not a JSON object");
+                }
+                object.remove("timestamp");
+                entries.add(unstamped(objectMapper.writeValueAsString(object)));
+            }
+        }
+        return new LogCorpus(entries, !keepTimestamps);
+    }
+
+    /**
+     * Generates a synthetic corpus spread over the given number of services.
+     *
+     * @param errorRatio Fraction of ERROR entries; about twice as many WARN entries are generated.
+     */
+    static LogCorpus synthetic(int services, double errorRatio, long seed, ObjectMapper objectMapper) throws IOException {
+        Random random = new Random(seed);
+        List<String> entries = new ArrayList<>(SYNTHETIC_ENTRIES);
+        for (int i = 0; i < SYNTHETIC_ENTRIES; i++) {
+            double roll = random.nextDouble();
+            String level;
+            String[] messages;
+            if (roll < errorRatio) {
+                level = "ERROR";
+                messages = ERRORS;
+            } else if (roll < errorRatio * 3) {
+                level = "WARN";
+                messages = WARNINGS;
+            } else {
+                level = random.nextInt(10) == 0 ? "DEBUG" : "INFO";
+                messages = ROUTINE;
+            }
+            String message = String.format(messages[random.nextInt(messages.length)],
+                                           random.nextInt(100_000), random.nextInt(5_000));
+            Map<String, String> entry = new LinkedHashMap<>();
+            entry.put("serviceName", "service-" + random.nextInt(services));
+            entry.put("level", level);
+            entry.put("message", message);
+            entries.add(unstamped(objectMapper.writeValueAsString(entry)));
+        }
+        return new LogCorpus(entries, true);
+    }
+
+    /** Returns the next entry as a single line of JSON. Not thread-safe; called from the scheduling thread only. */
+    String next() {
+        String entry = entries.get(position);
+        position = position + 1 == entries.size() ? 0 : position + 1;
+        if (!stamped) {
+            return entry;
+        }
+        if (entry.isEmpty()) {
+            return "{\"timestamp\":\"" + Instant.now() + "\"}";
+        }
+        return "{\"timestamp\":\"" + Instant.now() + "\"," + entry;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /** Strips the opening brace so the timestamp can be prepended; an empty object becomes an empty string. */
+    private static String unstamped(String json) {
+        return json.equals("{}") ? "" : json.substring(1);
+    }
+}
@@ -0,0 +1,158 @@
+package com.genai.incident.manager.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends log entries at a fixed offered rate, open loop: requests are scheduled in advance (evenly spaced or as a
+ * Poisson process) and sent on schedule whether or not earlier requests have completed.
+ * <p>
+ * Latency is measured from a request's scheduled send time, not from when it was actually sent. A closed-loop
+ * client that waits for responses stops sending while the server stalls and so never records the requests that
+ * would have queued up behind the stall ("coordinated omission"); measuring from the schedule counts that waiting.
+ * The same holds when the generator has to wait for one of its {@code max-in-flight} slots.
+ */
+final class OpenLoopRunner {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final LoadOptions options;
+    private final LogCorpus corpus;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI endpoint;
+
+    OpenLoopRunner(LoadOptions options, LogCorpus corpus, ObjectMapper objectMapper) {
+        this.options = options;
+        this.corpus = corpus;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.endpoint = options.url.resolve(options.batch == 1 ? "/api/logs" : "/api/logs/stream");
+    }
+
+    /**
+     * Runs for the warmup plus the measured duration at the given rate, then waits for outstanding requests.
+     *
+     * @param rate Offered load in log lines per second.
+     */
+    RunResult run(double rate) throws InterruptedException {
+        Run run = new Run();
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) * options.batch / rate;
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        double offset = 0;
+        long maxLag = 0;
+        while (true) {
+            long scheduled = start + (long) offset;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            maxLag = Math.max(maxLag, System.nanoTime() - scheduled);
+            send(run, scheduled, scheduled >= measureFrom, inFlight);
+            offset += options.poisson ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos : intervalNanos;
+        }
+
+        long drainMillis = options.timeout.toMillis() + 5_000;
+        if (!inFlight.tryAcquire(options.maxInFlight, drainMillis, TimeUnit.MILLISECONDS)) {
+            System.err.println("Warning: requests still outstanding " + drainMillis + " ms after the run ended");
+        }
+
+        long elapsed = Math.max(run.lastCompletion.get() - measureFrom, options.duration.toNanos());
+        long ok = run.ok.sum();
+        return new RunResult(rate, ok * 1e9 / elapsed, run.sent.sum(), ok, run.shed.sum(), run.rejected.sum(),
+                             run.failed.sum(), TimeUnit.NANOSECONDS.toMillis(maxLag), run.latency.getIntervalHistogram());
+    }
+
+    private void send(Run run, long scheduled, boolean measured, Semaphore inFlight) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint).timeout(options.timeout);
+        if (options.batch == 1) {
+            request.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpus.next()));
+        } else {
+            StringBuilder body = new StringBuilder(options.batch * 160);
+            for (int i = 0; i < options.batch; i++) {
+                body.append(corpus.next()).append('\n');
+            }
+            request.header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        }
+        if (measured) {
+            run.sent.add(options.batch);
+        }
+        httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            long now = System.nanoTime();
+            try {
+                if (measured) {
+                    run.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(now - scheduled), HIGHEST_LATENCY_MICROS));
+                    run.lastCompletion.accumulateAndGet(now, Math::max);
+                    if (error != null) {
+                        run.failed.add(options.batch);
+                    } else {
+                        count(run, response);
+                    }
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void count(Run run, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status == 200) {
+            long shed = options.batch == 1 ? 0 : field(response.body(), "shed");
+            run.shed.add(shed);
+            run.ok.add(options.batch - shed);
+        } else if (status == 429) {
+            // A stream request that ran into a full pipeline still had its first 'accepted' lines analyzed.
+            long accepted = options.batch == 1 ? 0 : field(response.body(), "accepted");
+            run.ok.add(accepted);
+            run.rejected.add(options.batch - accepted);
+        } else {
+            run.failed.add(options.batch);
+        }
+    }
+
+    private long field(String body, String name) {
+        try {
+            return objectMapper.readTree(body).path(name).asLong();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /** Counters of one run, updated from the HTTP client's completion threads. */
+    private static final class Run {
+        final Recorder latency = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        final LongAdder sent = new LongAdder();
+        final LongAdder ok = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final AtomicLong lastCompletion = new AtomicLong();
+    }
+}
@@ -0,0 +1,43 @@
+package com.genai.incident.manager.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+
+/**
+ * Outcome of one open-loop run at a fixed offered rate. Counts are in log lines and cover the measured
+ * part of the run only; latencies are in microseconds, measured from each request's scheduled send time.
+ *
+ * @param offeredRate Log lines per second the run was scheduled to send.
+ * @param achievedRate Log lines per second the server accepted and analyzed, over the measured part of the run.
+ * @param sent Lines sent.
+ * @param ok Lines accepted and analyzed.
+ * @param shed Lines accepted but shed by the pipeline under load.
+ * @param rejected Lines rejected with 429 Too Many Requests.
+ * @param failed Lines of requests that failed otherwise (other status codes, timeouts, connection errors).
+ * @param maxSendLagMillis How far the generator itself fell behind its schedule; large values mean the client was the bottleneck.
+ * @param latency Request latency histogram.
+ */
+record RunResult(double offeredRate, double achievedRate, long sent, long ok, long shed, long rejected, long failed,
+                 long maxSendLagMillis, Histogram latency) {
+
+    /** Fraction of sent lines that were rejected, shed or failed. */
+    double errorRatio() {
+        return sent == 0 ? 0 : (double) (shed + rejected + failed) / sent;
+    }
+
+    double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%10s %10s %9s %8s %8s %8s %9s %9s %9s %9s %9s%n",
+                   "offered/s", "achieved/s", "sent", "shed", "429", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    void print(PrintStream out) {
+        out.printf("%10.0f %10.0f %9d %8d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                   offeredRate, achievedRate, sent, shed, rejected, failed, percentileMillis(50), percentileMillis(90),
+                   percentileMillis(99), percentileMillis(99.9), latency.getMaxValue() / 1000.0);
+    }
+}
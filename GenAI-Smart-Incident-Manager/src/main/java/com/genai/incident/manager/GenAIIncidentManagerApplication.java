@@ -2,14 +2,17 @@ package com.genai.incident.manager;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the GenAI Smart Incident Manager application.
  * This class uses Spring Boot's @SpringBootApplication annotation, which
  * combines @Configuration, @EnableAutoConfiguration, and @ComponentScan.
  * It sets up the Spring context and starts the embedded Tomcat server.
+ * Scheduling is enabled for background maintenance such as incident store compaction.
  */
 @SpringBootApplication
+@EnableScheduling
 public class GenAIIncidentManagerApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,322 @@
+package com.genai.incident.manager.anomaly;
+
+import com.genai.incident.manager.classifier.IncidentRules;
+import com.genai.incident.manager.classifier.IncidentTemplate;
+import com.genai.incident.manager.correlation.CorrelatedIncident;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import com.genai.incident.manager.service.IncidentAnalysisService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams per-service log counts by level and raises an incident when a service's error ratio or
+ * log volume departs from its own recent baseline, whether or not any single message looks alarming.
+ *
+ * Counts live in one preallocated int array: a ring of time buckets per service slot, with one counter
+ * per level group, so memory is fixed at max-services x buckets x 4 ints however many entries arrive.
+ * Each bucket boundary clears the oldest bucket, switches writers to it and evaluates the bucket just
+ * closed against the ones before it:
+ * - error ratio: binomial z-score of the closed bucket's error count against the baseline ratio;
+ * - volume: Poisson z-score of the closed bucket's entry count against the baseline mean, in both directions.
+ * Slots of services that logged nothing for a whole window are recycled.
+ */
+@Service
+public class ServiceRateMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceRateMonitor.class);
+
+    // Level groups, one counter each per bucket
+    private static final int DEBUG = 0;
+    private static final int INFO = 1;
+    private static final int WARN = 2;
+    private static final int ERROR = 3;
+    private static final int LEVELS = 4;
+    private static final String[] LEVEL_NAMES = {"DEBUG", "INFO", "WARN", "ERROR"};
+
+    private static final String UNKNOWN_SERVICE = "UnknownService";
+
+    private record Anomaly(String serviceName, IncidentTemplate template, String message) {
+    }
+
+    private final IncidentAnalysisService analysisService;
+    private final boolean enabled;
+    private final Duration bucketWidth;
+    private final int buckets;
+    private final int maxServices;
+    private final int minBaselineBuckets;
+    private final double zThreshold;
+    private final int minErrors;
+    private final double ratioFactor;
+    private final int minVolume;
+    private final double volumeFactor;
+
+    private final AtomicIntegerArray counts;
+    private final Map<String, Integer> slotsByService = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> servicesBySlot;
+    private final ConcurrentLinkedQueue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final LongAdder untracked = new LongAdder();
+    private volatile int currentBucket;
+
+    public ServiceRateMonitor(IncidentAnalysisService analysisService,
+                              @Value("${incident.anomaly.enabled:true}") boolean enabled,
+                              @Value("${incident.anomaly.bucket:PT10S}") Duration bucketWidth,
+                              @Value("${incident.anomaly.buckets:30}") int buckets,
+                              @Value("${incident.anomaly.max-services:20000}") int maxServices,
+                              @Value("${incident.anomaly.min-baseline-buckets:12}") int minBaselineBuckets,
+                              @Value("${incident.anomaly.z-threshold:4.0}") double zThreshold,
+                              @Value("${incident.anomaly.min-errors:10}") int minErrors,
+                              @Value("${incident.anomaly.ratio-factor:3.0}") double ratioFactor,
+                              @Value("${incident.anomaly.min-volume:50}") int minVolume,
+                              @Value("${incident.anomaly.volume-factor:3.0}") double volumeFactor) {
+        if (buckets < 3) {
+            throw new IllegalArgumentException("incident.anomaly.buckets must be at least 3");
+        }
+        this.analysisService = analysisService;
+        this.enabled = enabled;
+        this.bucketWidth = bucketWidth;
+        this.buckets = buckets;
+        this.maxServices = maxServices;
+        this.minBaselineBuckets = Math.min(minBaselineBuckets, buckets - 2);
+        this.zThreshold = zThreshold;
+        this.minErrors = minErrors;
+        this.ratioFactor = ratioFactor;
+        this.minVolume = minVolume;
+        this.volumeFactor = volumeFactor;
+        this.counts = new AtomicIntegerArray(enabled ? maxServices * buckets * LEVELS : 0);
+        this.servicesBySlot = new AtomicReferenceArray<>(enabled ? maxServices : 0);
+        log.info("Service rate monitor {}: maxServices={}, {} buckets of {}, {} KB of counters",
+                 enabled ? "enabled" : "disabled", maxServices, buckets, bucketWidth, (long) counts.length() * 4 / 1024);
+    }
+
+    /**
+     * Counts a log entry against its service's current bucket.
+     * Called once for every admitted entry, including ones shed, so load shedding does not distort rates.
+     * Entries refused for a retry are not counted until the retry is admitted.
+     *
+     * @param logEntry The log entry.
+     */
+    public void record(LogEntry logEntry) {
+        if (!enabled) {
+            return;
+        }
+        int slot = slotFor(logEntry.getServiceName() != null ? logEntry.getServiceName() : UNKNOWN_SERVICE);
+        if (slot < 0) {
+            untracked.increment();
+            return;
+        }
+        counts.incrementAndGet(index(slot, currentBucket, levelOf(logEntry.getLevel())));
+    }
+
+    /**
+     * Returns a service's counts by level for each bucket in the window, oldest first.
+     * The last bucket is still filling.
+     *
+     * @param serviceName The service name.
+     * @return The service's rates, or empty if the service is not tracked.
+     */
+    public Optional<ServiceRates> getRates(String serviceName) {
+        Integer slot = slotsByService.get(serviceName);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        int current = currentBucket;
+        Map<String, int[]> byLevel = new LinkedHashMap<>();
+        for (int level = 0; level < LEVELS; level++) {
+            int[] series = new int[buckets];
+            for (int i = 0; i < buckets; i++) {
+                int bucket = (current + 1 + i) % buckets;
+                series[i] = counts.get(index(slot, bucket, level));
+            }
+            byLevel.put(LEVEL_NAMES[level], series);
+        }
+        return Optional.of(new ServiceRates(serviceName, bucketWidth, byLevel));
+    }
+
+    /**
+     * Closes the current bucket: clears the oldest bucket and moves writers to it, then checks the
+     * closed bucket of every tracked service against its baseline and raises incidents for anomalies.
+     */
+    @Scheduled(fixedRateString = "${incident.anomaly.bucket:PT10S}", initialDelayString = "${incident.anomaly.bucket:PT10S}")
+    public void rotate() {
+        if (!enabled) {
+            return;
+        }
+        int closed = currentBucket;
+        int next = (closed + 1) % buckets;
+        int slots = Math.min(nextSlot.get(), maxServices);
+        for (int slot = 0; slot < slots; slot++) {
+            for (int level = 0; level < LEVELS; level++) {
+                counts.set(index(slot, next, level), 0);
+            }
+        }
+        currentBucket = next;
+
+        List<Anomaly> anomalies = new ArrayList<>();
+        for (int slot = 0; slot < slots; slot++) {
+            String serviceName = servicesBySlot.get(slot);
+            if (serviceName != null) {
+                evaluate(slot, serviceName, closed, anomalies);
+            }
+        }
+        for (Anomaly anomaly : anomalies) {
+            raise(anomaly);
+        }
+        log.debug("Service rate bucket closed: {} services tracked, {} entries untracked, {} anomalies",
+                  slotsByService.size(), untracked.sum(), anomalies.size());
+    }
+
+    // Compares one service's closed bucket with the buckets before it (excluding the one just cleared).
+    private void evaluate(int slot, String serviceName, int closed, List<Anomaly> anomalies) {
+        long total = 0;
+        long errors = 0;
+        for (int level = 0; level < LEVELS; level++) {
+            int count = counts.get(index(slot, closed, level));
+            total += count;
+            if (level == ERROR) {
+                errors = count;
+            }
+        }
+
+        long baselineTotal = 0;
+        long baselineErrors = 0;
+        int activeBuckets = 0;
+        for (int i = 1; i <= buckets - 2; i++) {
+            int bucket = Math.floorMod(closed - i, buckets);
+            long bucketTotal = 0;
+            for (int level = 0; level < LEVELS; level++) {
+                bucketTotal += counts.get(index(slot, bucket, level));
+            }
+            if (bucketTotal > 0) {
+                activeBuckets++;
+            }
+            baselineTotal += bucketTotal;
+            baselineErrors += counts.get(index(slot, bucket, ERROR));
+        }
+
+        if (total == 0 && baselineTotal == 0) {
+            if (!hasCounts(slot, (closed + 1) % buckets)) {
+                recycle(slot, serviceName);
+            }
+            return;
+        }
+        if (activeBuckets < minBaselineBuckets) {
+            return; // Not enough history to judge
+        }
+
+        // Error ratio: smoothed baseline ratio, so a clean baseline still yields a finite z-score
+        double baselineRatio = (baselineErrors + 1.0) / (baselineTotal + 2.0);
+        if (errors >= minErrors && total > 0) {
+            double ratio = (double) errors / total;
+            double expected = total * baselineRatio;
+            double z = (errors - expected) / Math.sqrt(expected * (1 - baselineRatio));
+            if (z >= zThreshold && ratio >= ratioFactor * baselineRatio) {
+                anomalies.add(new Anomaly(serviceName, IncidentRules.ERROR_RATE_ANOMALY, String.format(Locale.ROOT,
+                    "Error ratio rose to %.2f%% (%d of %d entries in %ds) from a baseline of %.2f%%",
+                    100 * ratio, errors, total, bucketWidth.toSeconds(), 100 * baselineRatio)));
+            }
+        }
+
+        // Volume: Poisson deviation from the mean bucket volume, in either direction
+        double mean = (double) baselineTotal / (buckets - 2);
+        double volumeZ = (total - mean) / Math.sqrt(Math.max(mean, 1.0));
+        if (total >= minVolume && total >= volumeFactor * mean && volumeZ >= zThreshold) {
+            anomalies.add(new Anomaly(serviceName, IncidentRules.VOLUME_ANOMALY, String.format(Locale.ROOT,
+                "Log volume surged to %d entries in %ds from a baseline of %.1f", total, bucketWidth.toSeconds(), mean)));
+        } else if (mean >= minVolume && total * volumeFactor <= mean && volumeZ <= -zThreshold) {
+            anomalies.add(new Anomaly(serviceName, IncidentRules.VOLUME_ANOMALY, String.format(Locale.ROOT,
+                "Log volume dropped to %d entries in %ds from a baseline of %.1f", total, bucketWidth.toSeconds(), mean)));
+        }
+    }
+
+    // Anomalies go through the same correlation and storage as classified incidents, so a persisting
+    // anomaly becomes one incident with a growing occurrence count.
+    private void raise(Anomaly anomaly) {
+        Instant now = Instant.now();
+        LogEntry logEntry = new LogEntry(now, anomaly.serviceName(), "ERROR", anomaly.message());
+        IncidentReport report = anomaly.template().toReport(UUID.randomUUID().toString(), now, anomaly.serviceName());
+        report.setDescription(report.getDescription() + " " + anomaly.message() + ".");
+        CorrelatedIncident incident = analysisService.correlate(logEntry, report);
+        analysisService.persist(logEntry, incident);
+        log.warn("{} for service {}: {}", anomaly.template().type(), anomaly.serviceName(), anomaly.message());
+    }
+
+    private int slotFor(String serviceName) {
+        Integer slot = slotsByService.get(serviceName);
+        if (slot == null) {
+            slot = slotsByService.computeIfAbsent(serviceName, this::allocate);
+        }
+        return slot != null ? slot : -1;
+    }
+
+    // Returns null when all slots are taken, which leaves the service unmapped.
+    private Integer allocate(String serviceName) {
+        Integer slot = freeSlots.poll();
+        if (slot == null) {
+            if (nextSlot.get() >= maxServices) {
+                return null;
+            }
+            int allocated = nextSlot.getAndIncrement();
+            if (allocated >= maxServices) {
+                return null;
+            }
+            slot = allocated;
+        }
+        servicesBySlot.set(slot, serviceName);
+        return slot;
+    }
+
+    // Frees the slot of a service that was silent for the whole window. A writer that looked up the slot
+    // just before may still count one entry into it; that is accepted rather than locking the hot path.
+    private void recycle(int slot, String serviceName) {
+        if (slotsByService.remove(serviceName, slot)) {
+            servicesBySlot.set(slot, null);
+            freeSlots.add(slot);
+        }
+    }
+
+    private boolean hasCounts(int slot, int bucket) {
+        for (int level = 0; level < LEVELS; level++) {
+            if (counts.get(index(slot, bucket, level)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int index(int slot, int bucket, int level) {
+        return (slot * buckets + bucket) * LEVELS + level;
+    }
+
+    private static int levelOf(String level) {
+        if (level == null) {
+            return INFO;
+        }
+        return switch (level.toUpperCase(Locale.ROOT)) {
+            case "TRACE", "DEBUG" -> DEBUG;
+            case "WARN", "WARNING" -> WARN;
+            case "ERROR", "FATAL", "SEVERE" -> ERROR;
+            default -> INFO;
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.genai.incident.manager.anomaly;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Recent log counts of one service.
+ *
+ * @param serviceName The service name.
+ * @param bucketWidth The time span of each bucket.
+ * @param countsByLevel Entry counts per bucket, oldest first, keyed by level group (DEBUG, INFO, WARN, ERROR).
+ *                      The last bucket is still filling.
+ */
+public record ServiceRates(String serviceName, Duration bucketWidth, Map<String, int[]> countsByLevel) {
+}
@@ -0,0 +1,201 @@
+package com.genai.incident.manager.assembly;
+
+import com.genai.incident.manager.model.LogEntry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reassembles log events that shippers split into one entry per line, such as Java stack traces,
+ * for one ingestion stream.
+ *
+ * Lines are kept apart per service. An entry that could start a multi-line event (anything above INFO,
+ * or with no level) is held back; following lines of the same service that are stack trace lines, or
+ * carry no level, are appended to it. The event is released when the next regular line of the service
+ * arrives, when it has been idle for the flush timeout, or when the stream ends. Routine entries pass
+ * straight through. Memory is bounded by a line limit per event and a limit on services held at once.
+ *
+ * Released events carry the exception class and top frames of their stack trace. Instances are
+ * thread-safe; a stream's lines must be added in order.
+ */
+public final class MultilineAssembler {
+
+    private static final String TRUNCATED = "\n\t... (truncated)";
+
+    // An event being assembled
+    private static final class PendingEvent {
+        final LogEntry first;
+        final StringBuilder message;
+        int lines = 1;
+        boolean truncated;
+        long lastLineNanos;
+
+        PendingEvent(LogEntry first, long nowNanos) {
+            this.first = first;
+            this.message = new StringBuilder(first.getMessage() != null ? first.getMessage() : "");
+            this.lastLineNanos = nowNanos;
+        }
+    }
+
+    private final int maxLines;
+    private final int maxFrames;
+    private final long flushTimeoutNanos;
+    private final int maxStreams;
+    private final Map<String, PendingEvent> pending = new LinkedHashMap<>(); // By service, oldest first
+
+    // What the last add changed, so it can be undone if the events it released cannot be handed on
+    private LogEntry lastAdded;
+    private PendingEvent lastReleased;    // The stream's event released by the line
+    private PendingEvent lastEvicted;     // Another stream's event released to stay within maxStreams
+
+    /**
+     * @param maxLines Maximum lines kept per event; further lines are dropped.
+     * @param maxFrames Number of top frames extracted into the event.
+     * @param flushTimeoutNanos Idle time after which a held event is released.
+     * @param maxStreams Maximum number of services with a held event; the oldest is released beyond it.
+     */
+    public MultilineAssembler(int maxLines, int maxFrames, long flushTimeoutNanos, int maxStreams) {
+        this.maxLines = maxLines;
+        this.maxFrames = maxFrames;
+        this.flushTimeoutNanos = flushTimeoutNanos;
+        this.maxStreams = maxStreams;
+    }
+
+    /**
+     * Adds the next line of the stream.
+     *
+     * @param entry The log entry for the line.
+     * @param ready Receives the events released by this line, in order.
+     * @return True if the line was merged into a held event and produces no event of its own.
+     */
+    public synchronized boolean add(LogEntry entry, List<LogEntry> ready) {
+        long now = System.nanoTime();
+        String stream = streamOf(entry);
+        PendingEvent event = pending.get(stream);
+        lastAdded = null;
+        if (event != null && isContinuation(entry)) {
+            if (event.lines < maxLines) {
+                event.message.append('\n').append(entry.getMessage());
+                event.lines++;
+            } else {
+                event.truncated = true;
+            }
+            event.lastLineNanos = now;
+            return true;
+        }
+
+        lastAdded = entry;
+        lastReleased = event;
+        lastEvicted = null;
+        if (event != null) {
+            pending.remove(stream);
+            ready.add(release(event));
+        }
+        if (canStartEvent(entry)) {
+            pending.put(stream, new PendingEvent(entry, now));
+            if (pending.size() > maxStreams) {
+                Iterator<PendingEvent> oldest = pending.values().iterator();
+                lastEvicted = oldest.next();
+                ready.add(release(lastEvicted));
+                oldest.remove();
+            }
+        } else {
+            ready.add(entry);
+        }
+        return false;
+    }
+
+    /**
+     * Undoes the last add, when none of the events it released could be handed on and the producer will
+     * send the line again: the released events are held again and the line is forgotten. Lines merged into
+     * a held event release nothing and cannot be undone.
+     *
+     * @param entry The log entry passed to the last add.
+     */
+    public synchronized void undoAdd(LogEntry entry) {
+        if (entry != lastAdded) {
+            return;
+        }
+        String stream = streamOf(entry);
+        PendingEvent held = pending.get(stream);
+        if (held != null && held.first == entry) {
+            pending.remove(stream);
+        }
+        if (lastReleased != null) {
+            pending.putIfAbsent(stream, lastReleased);
+        }
+        if (lastEvicted != null) {
+            pending.putIfAbsent(streamOf(lastEvicted.first), lastEvicted);
+        }
+        lastAdded = null;
+        lastReleased = null;
+        lastEvicted = null;
+    }
+
+    /**
+     * Releases held events that have been idle for the flush timeout.
+     *
+     * @param ready Receives the released events.
+     */
+    public synchronized void flushExpired(List<LogEntry> ready) {
+        long now = System.nanoTime();
+        Iterator<PendingEvent> events = pending.values().iterator();
+        while (events.hasNext()) {
+            PendingEvent event = events.next();
+            if (now - event.lastLineNanos >= flushTimeoutNanos) {
+                ready.add(release(event));
+                events.remove();
+            }
+        }
+    }
+
+    /**
+     * @return The number of events currently held back, waiting for further lines.
+     */
+    public synchronized int heldEvents() {
+        return pending.size();
+    }
+
+    /**
+     * Releases all held events, at the end of the stream.
+     *
+     * @param ready Receives the released events.
+     */
+    public synchronized void flushAll(List<LogEntry> ready) {
+        for (PendingEvent event : pending.values()) {
+            ready.add(release(event));
+        }
+        pending.clear();
+    }
+
+    private LogEntry release(PendingEvent event) {
+        if (event.lines == 1) {
+            LogEntry entry = event.first;
+            entry.setExceptionClass(entry.getMessage() != null ? StackTraces.exceptionClass(entry.getMessage()) : null);
+            return entry;
+        }
+        // Leaves the event unchanged, so an undone release can be released again
+        String message = event.truncated ? event.message + TRUNCATED : event.message.toString();
+        LogEntry entry = new LogEntry(event.first.getTimestamp(), event.first.getServiceName(), event.first.getLevel(), message);
+        entry.setExceptionClass(StackTraces.exceptionClass(message));
+        entry.setStackFrames(StackTraces.topFrames(message, maxFrames));
+        return entry;
+    }
+
+    private static String streamOf(LogEntry entry) {
+        return entry.getServiceName() != null ? entry.getServiceName() : "";
+    }
+
+    private static boolean isContinuation(LogEntry entry) {
+        return entry.getMessage() != null
+            && (entry.getLevel() == null || entry.getLevel().isBlank() || StackTraces.isTraceLine(entry.getMessage()));
+    }
+
+    private static boolean canStartEvent(LogEntry entry) {
+        String level = entry.getLevel();
+        return level == null
+            || !(level.equalsIgnoreCase("INFO") || level.equalsIgnoreCase("DEBUG") || level.equalsIgnoreCase("TRACE"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.genai.incident.manager.assembly;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recognizes the lines of a Java stack trace and extracts its structure.
+ */
+public final class StackTraces {
+
+    // "\tat com.example.Foo.bar(Foo.java:42)"
+    private static final Pattern FRAME = Pattern.compile("^\\s+at\\s+(\\S+)");
+    // "Caused by: ...", "\tSuppressed: ...", "\t... 12 more"
+    private static final Pattern TRACE_LINE = Pattern.compile("^(?:Caused by: |\\s+Suppressed: |\\s+\\.\\.\\. \\d+ (?:more|common frames omitted))");
+    // A fully qualified throwable class name, e.g. java.lang.IllegalStateException or com.acme.FooError
+    private static final Pattern EXCEPTION_CLASS =
+        Pattern.compile("\\b((?:[a-zA-Z_$][\\w$]*\\.)+[A-Z][\\w$]*(?:Exception|Error|Throwable))\\b");
+
+    private StackTraces() {
+    }
+
+    /**
+     * @param line One line of log output.
+     * @return True if the line can only be part of a stack trace: a frame, a "Caused by:" or "Suppressed:" line, or "... n more".
+     */
+    public static boolean isTraceLine(String line) {
+        return line != null && (FRAME.matcher(line).find() || TRACE_LINE.matcher(line).find());
+    }
+
+    /**
+     * Finds the outermost exception class named in a message: the first throwable class name
+     * in the lines before the first frame.
+     *
+     * @param message A (possibly multi-line) log message.
+     * @return The fully qualified exception class, or null if none is named.
+     */
+    public static String exceptionClass(String message) {
+        for (String line : message.split("\n")) {
+            if (FRAME.matcher(line).find()) {
+                return null;
+            }
+            Matcher matcher = EXCEPTION_CLASS.matcher(line);
+            if (matcher.find()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Extracts the top frames of the outermost exception.
+     *
+     * @param message A multi-line log message containing a stack trace.
+     * @param maxFrames Maximum number of frames to return.
+     * @return The frames without the leading "at", e.g. "com.example.Foo.bar(Foo.java:42)"; empty if there are none.
+     */
+    public static List<String> topFrames(String message, int maxFrames) {
+        List<String> frames = new ArrayList<>(maxFrames);
+        for (String line : message.split("\n")) {
+            Matcher matcher = FRAME.matcher(line);
+            if (matcher.find()) {
+                frames.add(matcher.group(1));
+                if (frames.size() == maxFrames) {
+                    break;
+                }
+            } else if (!frames.isEmpty()) {
+                break; // "Caused by:" or "... n more" ends the outermost exception's frames
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * @param message A (possibly multi-line) log message, possibly null.
+     * @return The message's first line, or null for a null message.
+     */
+    public static String firstLine(String message) {
+        if (message == null) {
+            return null;
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+}
@@ -0,0 +1,50 @@
+package com.genai.incident.manager.classifier;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Classifies log messages against a rule table compiled into a single KeywordMatcher.
+ * A message is scanned once for the keywords of all rules; rules whose level condition
+ * cannot match are masked out before the scan, and the scan stops as soon as the
+ * highest-priority eligible rule has matched.
+ */
+@Component
+public class IncidentClassifier {
+
+    private final List<IncidentRule> rules;
+    private final KeywordMatcher matcher;
+
+    public IncidentClassifier() {
+        this(IncidentRules.DEFAULT_RULES);
+    }
+
+    public IncidentClassifier(List<IncidentRule> rules) {
+        this.rules = List.copyOf(rules);
+        this.matcher = KeywordMatcher.compile(this.rules.stream().map(IncidentRule::keywords).toList());
+    }
+
+    /**
+     * Finds the template for a log entry.
+     * @param message The log message, possibly null.
+     * @param level The log level, possibly null.
+     * @return The template of the first matching rule, or IncidentRules.NO_INCIDENT.
+     */
+    public IncidentTemplate classify(String message, String level) {
+        if (message == null || message.isEmpty()) {
+            return IncidentRules.NO_INCIDENT;
+        }
+        long eligible = 0L;
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).acceptsLevel(level)) {
+                eligible |= 1L << i;
+            }
+        }
+        if (eligible == 0L) {
+            return IncidentRules.NO_INCIDENT;
+        }
+        long found = matcher.scan(message, eligible, Long.lowestOneBit(eligible));
+        return found == 0L ? IncidentRules.NO_INCIDENT : rules.get(Long.numberOfTrailingZeros(found)).template();
+    }
+}
@@ -0,0 +1,27 @@
+package com.genai.incident.manager.classifier;
+
+import java.util.List;
+
+/**
+ * One row of the classification table: if a log message contains any of the keywords
+ * (case-insensitively) and the log level is accepted, the entry is reported using the template.
+ * When several rules match, the one listed first in the table wins.
+ *
+ * @param keywords Keywords to look for; must be ASCII.
+ * @param requiredLevel Log level the entry must have (case-insensitive), or null for any level.
+ * @param template The report template used when this rule matches.
+ */
+public record IncidentRule(List<String> keywords, String requiredLevel, IncidentTemplate template) {
+
+    public IncidentRule {
+        keywords = List.copyOf(keywords);
+    }
+
+    /**
+     * @param level The log level of an entry, possibly null.
+     * @return true if this rule may match an entry with the given level.
+     */
+    public boolean acceptsLevel(String level) {
+        return requiredLevel == null || requiredLevel.equalsIgnoreCase(level);
+    }
+}
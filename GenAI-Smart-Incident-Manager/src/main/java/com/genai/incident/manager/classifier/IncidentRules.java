@@ -0,0 +1,120 @@
+package com.genai.incident.manager.classifier;
+
+import java.util.List;
+
+/**
+ * The default classification table used by the simulated GenAI model.
+ * Rules are listed in priority order: when a message matches several rules, the first one wins.
+ * All report text lives here as constants, so it is shared by every report rather than rebuilt.
+ */
+public final class IncidentRules {
+
+    /** Template used for entries that match no rule. */
+    public static final IncidentTemplate NO_INCIDENT = new IncidentTemplate(
+        false,
+        "No Incident",
+        false,
+        "No critical incident detected based on current log analysis.",
+        "The log entry appears to be routine or informational.",
+        "Continue monitoring system logs and metrics."
+    );
+
+    public static final IncidentTemplate MEMORY_EXHAUSTION = new IncidentTemplate(
+        true,
+        "Memory Leak/Exhaustion",
+        true,
+        "is experiencing OutOfMemoryError, likely due to heap exhaustion.",
+        "A 'java.lang.OutOfMemoryError' indicates that the Java Virtual Machine (JVM) has run out of memory. This can be caused by a memory leak (objects not being garbage collected), excessive object creation, or an undersized heap for the application's workload.",
+        "1. Analyze heap dump to identify memory leaks (e.g., using jmap and Eclipse MAT).\n" +
+        "2. Increase JVM heap size (-Xmx parameter).\n" +
+        "3. Review recent code changes for memory-intensive operations.\n" +
+        "4. Check for unclosed resources (e.g., database connections, file streams)."
+    );
+
+    public static final IncidentTemplate NULL_POINTER = new IncidentTemplate(
+        true,
+        "Application Error: Null Pointer",
+        true,
+        "encountered a NullPointerException, indicating a programming error.",
+        "A 'NullPointerException' occurs when an application attempts to use an object reference that has not been initialized (i.e., it's null). This is a common runtime error in Java and usually points to a logical flaw in the code.",
+        "1. Identify the exact line of code from the stack trace provided in the log.\n" +
+        "2. Debug the code to understand why the object reference is null at that point.\n" +
+        "3. Add null checks where necessary or ensure proper object initialization.\n" +
+        "4. Deploy a fix and monitor for recurrence."
+    );
+
+    public static final IncidentTemplate CONNECTIVITY = new IncidentTemplate(
+        true,
+        "External Service/Network Issue",
+        true,
+        "is experiencing connectivity or timeout issues with an external dependency.",
+        "Timeouts or connection refused errors often indicate problems communicating with external services (databases, APIs, message queues) or underlying network infrastructure issues. This can lead to degraded performance or service unavailability.",
+        "1. Verify the status of the external service/dependency.\n" +
+        "2. Check network connectivity between the application and the dependency.\n" +
+        "3. Review firewall rules or security group configurations.\n" +
+        "4. Examine application configuration for correct service endpoints and credentials.\n" +
+        "5. Consider implementing retry mechanisms with exponential backoff."
+    );
+
+    public static final IncidentTemplate GENERIC_ERROR = new IncidentTemplate(
+        true,
+        "Generic Application Error",
+        true,
+        "reported a general error that requires investigation.",
+        "An 'ERROR' level log indicates an issue that prevents normal operation. Further context is needed to pinpoint the exact cause.",
+        "1. Review surrounding log entries for more context.\n" +
+        "2. Check application health and resource utilization (CPU, memory, disk I/O).\n" +
+        "3. Consult monitoring dashboards for anomalies around the time of the error.\n" +
+        "4. If recurring, consider enabling more verbose logging for the affected component."
+    );
+
+    /** Template for ERROR-level entries that no rule recognizes; the mined log template identifies the error family. */
+    public static final IncidentTemplate UNRECOGNIZED_ERROR = new IncidentTemplate(
+        true,
+        "Unrecognized Error Pattern",
+        true,
+        "reported an error that matches no known incident pattern.",
+        "The log entry was logged at an error level but matches none of the known incident signatures. It has been grouped with similar messages by log template mining; see the log template for the shape of this error family.",
+        "1. Review the log template and its most recent occurrences to understand the failure.\n" +
+        "2. Check whether the error family appeared after a recent deployment or configuration change.\n" +
+        "3. If the error is significant, add a classification rule for it so future occurrences are typed precisely."
+    );
+
+    /** Template for a service whose error ratio rose well above its recent baseline (see ServiceRateMonitor). */
+    public static final IncidentTemplate ERROR_RATE_ANOMALY = new IncidentTemplate(
+        true,
+        "Error Rate Anomaly",
+        true,
+        "is logging errors at a much higher rate than its recent baseline.",
+        "The share of error-level entries the service logs rose significantly above its baseline, even though individual messages may not match any known incident signature. Rate shifts like this typically follow a deployment, a configuration change or a degraded dependency.",
+        "1. Check for deployments or configuration changes to the service around the start of the anomaly.\n" +
+        "2. Review the service's recent error-level log templates to find the failing operation.\n" +
+        "3. Check the health of the service's dependencies.\n" +
+        "4. Roll back the most recent change if the error rate does not recover."
+    );
+
+    /** Template for a service whose log volume jumped or collapsed relative to its recent baseline (see ServiceRateMonitor). */
+    public static final IncidentTemplate VOLUME_ANOMALY = new IncidentTemplate(
+        true,
+        "Log Volume Anomaly",
+        true,
+        "is logging at a volume far from its recent baseline.",
+        "A sudden surge in log volume often indicates retry storms, crash loops or a traffic spike; a sudden drop often means instances stopped, traffic was cut off, or log shipping broke.",
+        "1. Check the service's instance count, restarts and incoming traffic.\n" +
+        "2. For a surge, look for retry loops and the log templates that grew the most.\n" +
+        "3. For a drop, verify the service is running and its log shipper is healthy.\n" +
+        "4. Correlate with recent deployments and upstream traffic changes."
+    );
+
+    /** The classification table, in priority order. */
+    public static final List<IncidentRule> DEFAULT_RULES = List.of(
+        new IncidentRule(List.of("outofmemoryerror"), null, MEMORY_EXHAUSTION),
+        new IncidentRule(List.of("nullpointerexception"), null, NULL_POINTER),
+        new IncidentRule(List.of("timeout", "timed out", "connection refused"), null, CONNECTIVITY),
+        // Generic error handling if specific patterns are not matched
+        new IncidentRule(List.of("error"), "ERROR", GENERIC_ERROR)
+    );
+
+    private IncidentRules() {
+    }
+}
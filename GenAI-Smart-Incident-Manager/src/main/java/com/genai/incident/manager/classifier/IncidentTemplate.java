@@ -0,0 +1,42 @@
+package com.genai.incident.manager.classifier;
+
+import com.genai.incident.manager.model.IncidentReport;
+
+import java.time.Instant;
+
+/**
+ * The fixed text of an incident report for one kind of incident.
+ * Templates are created once and shared: every report produced from a template references
+ * the same explanation and resolution strings instead of rebuilding them per log entry.
+ * Only the description of a service-scoped template, which names the affected service,
+ * is assembled per report.
+ *
+ * @param isIncident Whether reports built from this template describe an incident.
+ * @param type The incident type.
+ * @param serviceScoped If true, the description is prefixed with "Application &lt;serviceName&gt; ".
+ * @param description The description, or its service-independent tail if serviceScoped.
+ * @param explanation The shared root-cause explanation.
+ * @param resolutionSteps The shared resolution steps.
+ */
+public record IncidentTemplate(boolean isIncident,
+                               String type,
+                               boolean serviceScoped,
+                               String description,
+                               String explanation,
+                               String resolutionSteps) {
+
+    /**
+     * Creates a report from this template.
+     * @param id The report ID.
+     * @param timestamp When the report was produced.
+     * @param serviceName The service the report is about.
+     * @return A new IncidentReport sharing this template's text.
+     */
+    public IncidentReport toReport(String id, Instant timestamp, String serviceName) {
+        String reportDescription = serviceScoped ? "Application " + serviceName + " " + description : description;
+        IncidentReport report = new IncidentReport(id, timestamp, isIncident, type, reportDescription, explanation, resolutionSteps);
+        report.setServiceName(serviceName);
+        report.setAnalysisSource(IncidentReport.SOURCE_RULES);
+        return report;
+    }
+}
@@ -0,0 +1,138 @@
+package com.genai.incident.manager.classifier;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+/**
+ * Multi-keyword matcher compiled into a deterministic automaton (Aho-Corasick).
+ * A message is scanned once, character by character, regardless of how many keywords there are.
+ * Case folding happens during the scan, so messages are never copied or lower-cased up front.
+ *
+ * Each keyword belongs to a group (a rule index, 0-63). A scan reports the set of groups
+ * whose keywords occur in the message as a bitmask.
+ */
+public final class KeywordMatcher {
+
+    private static final int ALPHABET = 128; // Keywords are ASCII; any other character resets the automaton
+    public static final int MAX_GROUPS = Long.SIZE;
+
+    private final int[][] transitions; // transitions[state][char] -> next state, complete for every ASCII char
+    private final long[] matches;      // Groups of all keywords ending in a state, including via failure links
+
+    private KeywordMatcher(int[][] transitions, long[] matches) {
+        this.transitions = transitions;
+        this.matches = matches;
+    }
+
+    /**
+     * Compiles a matcher.
+     * @param keywordGroups keywordGroups.get(i) holds the keywords of group i.
+     * @return The compiled matcher.
+     * @throws IllegalArgumentException If there are more than 64 groups, or a keyword is empty or not ASCII.
+     */
+    public static KeywordMatcher compile(List<List<String>> keywordGroups) {
+        if (keywordGroups.size() > MAX_GROUPS) {
+            throw new IllegalArgumentException("At most " + MAX_GROUPS + " keyword groups are supported");
+        }
+
+        // 1. Build the trie.
+        List<int[]> trie = new ArrayList<>();
+        List<Long> output = new ArrayList<>();
+        trie.add(newState());
+        output.add(0L);
+        for (int group = 0; group < keywordGroups.size(); group++) {
+            for (String keyword : keywordGroups.get(group)) {
+                if (keyword.isEmpty()) {
+                    throw new IllegalArgumentException("Keywords must not be empty");
+                }
+                int state = 0;
+                for (char c : keyword.toLowerCase(Locale.ROOT).toCharArray()) {
+                    if (c >= ALPHABET) {
+                        throw new IllegalArgumentException("Keyword is not ASCII: " + keyword);
+                    }
+                    if (trie.get(state)[c] < 0) {
+                        trie.get(state)[c] = trie.size();
+                        trie.add(newState());
+                        output.add(0L);
+                    }
+                    state = trie.get(state)[c];
+                }
+                output.set(state, output.get(state) | (1L << group));
+            }
+        }
+
+        // 2. Breadth-first pass: resolve failure links into direct transitions and merge outputs.
+        int[][] transitions = trie.toArray(new int[0][]);
+        long[] matches = output.stream().mapToLong(Long::longValue).toArray();
+        int[] failure = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = transitions[0][c];
+            if (next < 0) {
+                transitions[0][c] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches[state] |= matches[failure[state]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = transitions[state][c];
+                if (next < 0) {
+                    transitions[state][c] = transitions[failure[state]][c];
+                } else {
+                    failure[next] = transitions[failure[state]][c];
+                    queue.add(next);
+                }
+            }
+        }
+        return new KeywordMatcher(transitions, matches);
+    }
+
+    /**
+     * Scans a message and returns the groups whose keywords it contains.
+     * The scan stops early once every group in stopMask has been found.
+     *
+     * @param text The text to scan.
+     * @param groupMask Only groups in this mask are reported.
+     * @param stopMask The scan stops as soon as any of these groups is found.
+     * @return A bitmask of matched groups (restricted to groupMask).
+     */
+    public long scan(CharSequence text, long groupMask, long stopMask) {
+        long found = 0L;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            } else if (c >= ALPHABET) {
+                c = Character.toLowerCase(c);
+                if (c >= ALPHABET) {
+                    state = 0;
+                    continue;
+                }
+            }
+            state = transitions[state][c];
+            long hit = matches[state] & groupMask;
+            if (hit != 0L) {
+                found |= hit;
+                if ((found & stopMask) != 0L) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+}
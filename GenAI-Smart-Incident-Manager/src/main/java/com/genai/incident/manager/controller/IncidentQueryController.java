@@ -0,0 +1,73 @@
+package com.genai.incident.manager.controller;
+
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.store.IncidentQuery;
+import com.genai.incident.manager.store.IncidentStore;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST Controller for querying stored incidents.
+ * Incidents are served from the IncidentStore's in-memory indexes, so time-range and service
+ * queries stay fast regardless of how many incidents are stored.
+ */
+@RestController
+@RequestMapping("/api")
+public class IncidentQueryController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final IncidentStore incidentStore;
+
+    public IncidentQueryController(IncidentStore incidentStore) {
+        this.incidentStore = incidentStore;
+    }
+
+    /**
+     * Handles GET requests to "/api/incidents", e.g. {@code /api/incidents?service=UserService&since=PT24H}.
+     *
+     * @param service Only incidents of this service.
+     * @param type Only incidents of this type.
+     * @param since Only incidents seen within this duration before now (ISO-8601, e.g. PT24H). Ignored if 'from' is given.
+     * @param from Only incidents seen at or after this instant.
+     * @param to Only incidents seen at or before this instant.
+     * @param limit Maximum number of incidents to return, newest first.
+     * @return The matching incident reports.
+     */
+    @GetMapping("/incidents")
+    public ResponseEntity<List<IncidentReport>> queryIncidents(
+            @RequestParam(required = false) String service,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Duration since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit) {
+        Instant effectiveFrom = from != null ? from : since != null ? Instant.now().minus(since) : null;
+        IncidentQuery query = new IncidentQuery(service, type, effectiveFrom, to, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(incidentStore.query(query));
+    }
+
+    /**
+     * Handles GET requests to "/api/incidents/{id}".
+     *
+     * @param id The incident ID.
+     * @return The latest stored version of the incident.
+     */
+    @GetMapping("/incidents/{id}")
+    public ResponseEntity<IncidentReport> getIncident(@PathVariable String id) {
+        return incidentStore.findById(id)
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown incident " + id));
+    }
+}
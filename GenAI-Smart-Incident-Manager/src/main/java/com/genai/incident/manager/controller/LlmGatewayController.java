@@ -0,0 +1,33 @@
+package com.genai.incident.manager.controller;
+
+import com.genai.incident.manager.llm.LlmGateway;
+import com.genai.incident.manager.llm.LlmGatewayStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller exposing LLM gateway counters: cache hits, coalesced requests, model calls,
+ * fallbacks to the rule-based analysis and token usage.
+ */
+@RestController
+@RequestMapping("/api")
+public class LlmGatewayController {
+
+    private final LlmGateway llmGateway;
+
+    public LlmGatewayController(LlmGateway llmGateway) {
+        this.llmGateway = llmGateway;
+    }
+
+    /**
+     * Handles GET requests to "/api/llm/stats".
+     *
+     * @return The gateway's counters since startup.
+     */
+    @GetMapping("/llm/stats")
+    public ResponseEntity<LlmGatewayStats> getStats() {
+        return ResponseEntity.ok(llmGateway.getStats());
+    }
+}
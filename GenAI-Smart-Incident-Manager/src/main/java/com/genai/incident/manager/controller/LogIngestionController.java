@@ -1,55 +1,156 @@
 package com.genai.incident.manager.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.genai.incident.manager.model.IncidentReport;
-import com.genai.incident.manager.model.LogEntry;
-import com.genai.incident.manager.service.GenAIService;
+import com.genai.incident.manager.model.IngestionSummary;
+import com.genai.incident.manager.pipeline.IngestionBatch;
+import com.genai.incident.manager.pipeline.PipelineSaturatedException;
+import com.genai.incident.manager.service.LogBatchIngestionService;
+import com.genai.incident.manager.wire.LogFrames;
+import com.genai.incident.manager.wire.WireFormatException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for ingesting application log entries.
  * This controller acts as the entry point for logs/metrics that need to be
  * analyzed by the GenAI service.
+ * Entries are handed to the ingestion pipeline and analyzed off the request thread; responses are
+ * completed asynchronously. When the pipeline is saturated, producers get 429 with a Retry-After header.
  */
 @RestController
 @RequestMapping("/api") // Base path for all endpoints in this controller
 public class LogIngestionController {
 
-    private final GenAIService genAIService;
+    private static final Logger log = LoggerFactory.getLogger(LogIngestionController.class);
+
+    private final LogBatchIngestionService batchIngestionService;
 
     /**
-     * Constructor for dependency injection of GenAIService.
-     * Spring automatically injects the GenAIService bean.
-     * @param genAIService The service responsible for GenAI analysis.
+     * Constructor for dependency injection of the ingestion service.
+     * Spring automatically injects the service bean.
+     * @param batchIngestionService The service feeding request bodies into the ingestion pipeline.
      */
-    public LogIngestionController(GenAIService genAIService) {
-        this.genAIService = genAIService;
+    public LogIngestionController(LogBatchIngestionService batchIngestionService) {
+        this.batchIngestionService = batchIngestionService;
     }
 
     /**
      * Handles POST requests to "/api/logs" for ingesting new log entries.
-     * The incoming JSON request body is automatically mapped to a LogEntry object.
+     * The incoming JSON request body is parsed into a LogEntry by the pipeline's parse stage.
      *
-     * @param logEntry The log entry received from the client.
-     * @return A ResponseEntity containing the IncidentReport generated by the GenAI service.
+     * @param body The log entry received from the client, as JSON.
+     * @return A future of a ResponseEntity containing the IncidentReport generated by the GenAI service;
+     *         429 if the entry was shed under load.
      */
-    @PostMapping("/logs")
-    public ResponseEntity<IncidentReport> ingestLog(@RequestBody LogEntry logEntry) {
-        // Log the received entry for debugging purposes (in a real app, use a proper logger)
-        System.out.println("Received log: " + logEntry.toString());
+    @PostMapping(value = "/logs", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<IncidentReport>> ingestLog(@RequestBody String body) {
+        return batchIngestionService.ingestOne(body).completion().thenApply(batch -> {
+            checkFailure(batch, "Malformed log entry: ");
+            if (batch.getShed() > 0) {
+                throw new PipelineSaturatedException("Log entry shed under load", batchIngestionService.getRetryAfter(), 0);
+            }
+            IncidentReport incidentReport = batch.getLastReport();
+            log.debug("Analyzed log -> {}", incidentReport);
+
+            // Return the incident report with an OK status
+            // The IncidentReport will be automatically converted to JSON by Spring.
+            return new ResponseEntity<>(incidentReport, HttpStatus.OK);
+        });
+    }
 
-        // Call the GenAI service to analyze the log entry
-        IncidentReport incidentReport = genAIService.analyzeLog(logEntry);
+    /**
+     * Handles POST requests to "/api/logs/batch" carrying a JSON array of log entries.
+     * Entries are parsed incrementally and analyzed in parallel; only incidents are returned.
+     *
+     * @param body The raw request body.
+     * @return A future of a ResponseEntity containing an IngestionSummary.
+     * @throws IOException If the request body cannot be read.
+     */
+    @PostMapping(value = "/logs/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<IngestionSummary>> ingestBatch(InputStream body) throws IOException {
+        try {
+            return summarize(batchIngestionService.ingestJsonArray(body), "Malformed log batch: ");
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed log batch: " + e.getOriginalMessage(), e);
+        }
+    }
 
-        // Log the generated report
-        System.out.println("Generated incident report: " + incidentReport.toString());
+    /**
+     * Handles POST requests to "/api/logs/stream" carrying newline-delimited JSON (one log entry per line).
+     * Entries are parsed as they arrive and analyzed in parallel; only incidents are returned.
+     *
+     * @param body The raw request body.
+     * @return A future of a ResponseEntity containing an IngestionSummary.
+     * @throws IOException If the request body cannot be read.
+     */
+    @PostMapping(value = "/logs/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public CompletableFuture<ResponseEntity<IngestionSummary>> ingestStream(InputStream body) throws IOException {
+        return summarize(batchIngestionService.ingestNdjson(body), "Malformed log stream: ");
+    }
+
+    /**
+     * Handles POST requests to "/api/logs/binary" carrying a binary log frame stream (see LogFrames).
+     * A compact alternative to NDJSON: service names and levels are sent once per stream and timestamps as epoch nanoseconds.
+     *
+     * @param body The raw request body.
+     * @return A future of a ResponseEntity containing an IngestionSummary.
+     * @throws IOException If the request body cannot be read.
+     */
+    @PostMapping(value = "/logs/binary", consumes = LogFrames.MEDIA_TYPE)
+    public CompletableFuture<ResponseEntity<IngestionSummary>> ingestFrames(InputStream body) throws IOException {
+        try {
+            return summarize(batchIngestionService.ingestFrames(body), "Malformed log frames: ");
+        } catch (WireFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed log frames: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Maps a saturated pipeline to 429 Too Many Requests with a Retry-After header.
+     * The body reports how many entries of the request were accepted, so a streaming producer can resume after them.
+     */
+    @ExceptionHandler(PipelineSaturatedException.class)
+    public ResponseEntity<Map<String, Object>> handleSaturated(PipelineSaturatedException e) {
+        long retryAfterSeconds = Math.max(1, e.getRetryAfter().toSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .body(Map.of("error", e.getMessage(), "accepted", e.getAccepted(), "retryAfterSeconds", retryAfterSeconds));
+    }
+
+    private CompletableFuture<ResponseEntity<IngestionSummary>> summarize(IngestionBatch batch, String malformedMessage) {
+        return batch.completion().thenApply(completed -> {
+            checkFailure(completed, malformedMessage);
+            IngestionSummary summary = completed.toSummary();
+            log.info("Ingested {} log entries in {} ms, {} incident entries in {} distinct incidents, {} shed",
+                     summary.getReceived(), summary.getProcessingTimeMillis(), summary.getIncidentCount(),
+                     summary.getIncidents().size(), summary.getShed());
+            return ResponseEntity.ok(summary);
+        });
+    }
 
-        // Return the incident report with an OK status
-        // The IncidentReport will be automatically converted to JSON by Spring.
-        return new ResponseEntity<>(incidentReport, HttpStatus.OK);
+    private static void checkFailure(IngestionBatch batch, String malformedMessage) {
+        Throwable failure = batch.getFailure();
+        if (failure instanceof JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, malformedMessage + e.getOriginalMessage(), e);
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Log analysis failed", failure);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.genai.incident.manager.controller;
+
+import com.genai.incident.manager.templates.LogTemplateMiner;
+import com.genai.incident.manager.templates.LogTemplateSummary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing the log templates mined from ingested entries.
+ * Useful for spotting new error families and looking up template IDs referenced by incidents.
+ */
+@RestController
+@RequestMapping("/api")
+public class LogTemplateController {
+
+    private final LogTemplateMiner logTemplateMiner;
+
+    public LogTemplateController(LogTemplateMiner logTemplateMiner) {
+        this.logTemplateMiner = logTemplateMiner;
+    }
+
+    /**
+     * Handles GET requests to "/api/templates".
+     *
+     * @param limit Maximum number of templates to return, most frequent first.
+     * @return The mined templates with their occurrence counts.
+     */
+    @GetMapping("/templates")
+    public ResponseEntity<List<LogTemplateSummary>> getTemplates(@RequestParam(defaultValue = "100") int limit) {
+        List<LogTemplateSummary> templates = logTemplateMiner.getTemplates();
+        return ResponseEntity.ok(templates.subList(0, Math.min(Math.max(limit, 0), templates.size())));
+    }
+}
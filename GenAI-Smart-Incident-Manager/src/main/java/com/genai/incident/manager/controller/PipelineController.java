@@ -0,0 +1,33 @@
+package com.genai.incident.manager.controller;
+
+import com.genai.incident.manager.pipeline.IngestionPipeline;
+import com.genai.incident.manager.pipeline.PipelineStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller exposing the ingestion pipeline's queue depths and shed/rejected counters,
+ * for spotting the stage that limits throughput.
+ */
+@RestController
+@RequestMapping("/api")
+public class PipelineController {
+
+    private final IngestionPipeline ingestionPipeline;
+
+    public PipelineController(IngestionPipeline ingestionPipeline) {
+        this.ingestionPipeline = ingestionPipeline;
+    }
+
+    /**
+     * Handles GET requests to "/api/pipeline/stats".
+     *
+     * @return The current state of each stage, in processing order.
+     */
+    @GetMapping("/pipeline/stats")
+    public ResponseEntity<PipelineStats> getStats() {
+        return ResponseEntity.ok(ingestionPipeline.getStats());
+    }
+}
@@ -0,0 +1,38 @@
+package com.genai.incident.manager.controller;
+
+import com.genai.incident.manager.anomaly.ServiceRateMonitor;
+import com.genai.incident.manager.anomaly.ServiceRates;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST Controller exposing the per-service log rates the anomaly detector works from.
+ */
+@RestController
+@RequestMapping("/api")
+public class ServiceRateController {
+
+    private final ServiceRateMonitor serviceRateMonitor;
+
+    public ServiceRateController(ServiceRateMonitor serviceRateMonitor) {
+        this.serviceRateMonitor = serviceRateMonitor;
+    }
+
+    /**
+     * Handles GET requests to "/api/services/{serviceName}/rates".
+     *
+     * @param serviceName The service name.
+     * @return The service's recent counts by level, or 404 if the service is not tracked.
+     */
+    @GetMapping("/services/{serviceName}/rates")
+    public ResponseEntity<ServiceRates> getRates(@PathVariable String serviceName) {
+        return serviceRateMonitor.getRates(serviceName)
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown service " + serviceName));
+    }
+}
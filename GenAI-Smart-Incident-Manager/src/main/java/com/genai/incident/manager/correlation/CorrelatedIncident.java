@@ -0,0 +1,14 @@
+package com.genai.incident.manager.correlation;
+
+import com.genai.incident.manager.model.IncidentReport;
+
+/**
+ * Result of correlating one incident log entry.
+ *
+ * @param report A snapshot of the group's incident report, carrying the group's stable ID,
+ *               occurrence count and first/last seen times.
+ * @param isNew True if the entry opened a new incident; false if it updated an existing one.
+ * @param key The correlation key of the incident's group.
+ */
+public record CorrelatedIncident(IncidentReport report, boolean isNew, CorrelationKey key) {
+}
@@ -0,0 +1,11 @@
+package com.genai.incident.manager.correlation;
+
+/**
+ * Identifies a group of log entries that describe the same incident.
+ *
+ * @param serviceName The service that produced the entries.
+ * @param incidentType The incident type assigned by classification.
+ * @param shape The mined log template ID, or the masked message fingerprint (see MessageFingerprinter).
+ */
+public record CorrelationKey(String serviceName, String incidentType, String shape) {
+}
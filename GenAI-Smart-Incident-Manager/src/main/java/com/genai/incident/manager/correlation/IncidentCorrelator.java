@@ -0,0 +1,184 @@
+package com.genai.incident.manager.correlation;
+
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Groups incident log entries into incidents.
+ * Entries with the same service name, incident type and message shape (the mined log template ID when
+ * available, otherwise the masked message fingerprint) belong to the same
+ * incident as long as they arrive within a sliding window of the group's last occurrence, so an
+ * error storm becomes one incident with a growing occurrence count instead of thousands of reports.
+ *
+ * Groups live in a bounded ConcurrentHashMap. When it grows past its limit, groups whose window has
+ * closed are dropped first, then the least recently seen ones.
+ *
+ * Entry timestamps come from clients, so they are capped at the server time plus an allowed clock skew:
+ * a single entry stamped far in the future would otherwise move the watermark and close every open incident.
+ */
+@Service
+public class IncidentCorrelator {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentCorrelator.class);
+
+    // Mutable state of one open incident. Counters are atomic; the template report is never modified,
+    // an LLM analysis replaces its explanation and resolution steps as a whole.
+    private static final class IncidentGroup {
+        final IncidentReport template;
+        final long firstSeenMillis;
+        final AtomicLong lastSeenMillis;
+        final AtomicLong occurrences = new AtomicLong(1);
+        volatile Analysis analysis;
+
+        IncidentGroup(IncidentReport template, long seenMillis) {
+            this.template = template;
+            this.firstSeenMillis = seenMillis;
+            this.lastSeenMillis = new AtomicLong(seenMillis);
+        }
+
+        IncidentReport snapshot() {
+            Analysis current = analysis;
+            IncidentReport report = new IncidentReport(template.getId(), template.getTimestamp(), true, template.getType(),
+                template.getDescription(),
+                current != null ? current.explanation() : template.getExplanation(),
+                current != null ? current.resolutionSteps() : template.getResolutionSteps());
+            report.setAnalysisSource(current != null ? IncidentReport.SOURCE_LLM : template.getAnalysisSource());
+            report.setServiceName(template.getServiceName());
+            report.setFingerprint(template.getFingerprint());
+            report.setTemplateId(template.getTemplateId());
+            report.setLogTemplate(template.getLogTemplate());
+            report.setExceptionClass(template.getExceptionClass());
+            report.setStackFrames(template.getStackFrames());
+            report.setOccurrences(occurrences.get());
+            report.setFirstSeen(Instant.ofEpochMilli(firstSeenMillis));
+            report.setLastSeen(Instant.ofEpochMilli(lastSeenMillis.get()));
+            return report;
+        }
+    }
+
+    private record Analysis(String explanation, String resolutionSteps) {
+    }
+
+    private record EvictionCandidate(CorrelationKey key, IncidentGroup group, long lastSeenMillis) {
+    }
+
+    private final Map<CorrelationKey, IncidentGroup> groups = new ConcurrentHashMap<>();
+    private final AtomicLong watermarkMillis = new AtomicLong(); // Latest entry time seen, drives expiry
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final long windowMillis;
+    private final int maxGroups;
+    private final long maxClockSkewMillis;
+
+    public IncidentCorrelator(@Value("${incident.correlation.window:PT5M}") Duration window,
+                              @Value("${incident.correlation.max-groups:10000}") int maxGroups,
+                              @Value("${incident.correlation.max-clock-skew:PT1M}") Duration maxClockSkew) {
+        this.windowMillis = window.toMillis();
+        this.maxGroups = maxGroups;
+        this.maxClockSkewMillis = maxClockSkew.toMillis();
+    }
+
+    /**
+     * Correlates an entry that classification flagged as an incident.
+     *
+     * @param logEntry The log entry.
+     * @param report The report produced for the entry by classification.
+     * @return The incident the entry belongs to, and whether it was newly opened.
+     */
+    public CorrelatedIncident correlate(LogEntry logEntry, IncidentReport report) {
+        long nowMillis = System.currentTimeMillis();
+        long seenMillis = logEntry.getTimestamp() != null
+            ? Math.min(logEntry.getTimestamp().toEpochMilli(), nowMillis + maxClockSkewMillis)
+            : nowMillis;
+        watermarkMillis.accumulateAndGet(seenMillis, Math::max);
+        String fingerprint = MessageFingerprinter.fingerprint(logEntry.getMessage());
+        String shape = report.getTemplateId() != null ? report.getTemplateId() : fingerprint;
+        CorrelationKey key = new CorrelationKey(report.getServiceName(), report.getType(), shape);
+
+        boolean[] opened = new boolean[1];
+        IncidentGroup group = groups.compute(key, (k, existing) -> {
+            if (existing == null || seenMillis - existing.lastSeenMillis.get() > windowMillis) {
+                report.setFingerprint(fingerprint);
+                opened[0] = true;
+                return new IncidentGroup(report, seenMillis);
+            }
+            existing.occurrences.incrementAndGet();
+            existing.lastSeenMillis.accumulateAndGet(seenMillis, Math::max);
+            return existing;
+        });
+
+        if (opened[0] && groups.size() > maxGroups) {
+            evict();
+        }
+        return new CorrelatedIncident(group.snapshot(), opened[0], key);
+    }
+
+    /**
+     * Replaces the rule-based explanation of an open incident with an LLM analysis.
+     * Later occurrences of the incident carry the new analysis.
+     *
+     * @param key The incident's correlation key.
+     * @param incidentId The incident ID, so an analysis for a closed and reopened group is not misapplied.
+     * @param explanation The new root-cause explanation.
+     * @param resolutionSteps The new resolution steps, or null to keep the rule-based ones.
+     * @return The updated incident report, or empty if the incident is no longer tracked.
+     */
+    public Optional<IncidentReport> applyAnalysis(CorrelationKey key, String incidentId, String explanation, String resolutionSteps) {
+        IncidentGroup group = groups.get(key);
+        if (group == null || !group.template.getId().equals(incidentId)) {
+            return Optional.empty();
+        }
+        group.analysis = new Analysis(explanation,
+            resolutionSteps != null ? resolutionSteps : group.template.getResolutionSteps());
+        return Optional.of(group.snapshot());
+    }
+
+    /**
+     * @return The number of incident groups currently tracked.
+     */
+    public int size() {
+        return groups.size();
+    }
+
+    // Drops closed groups, then the least recently seen ones, until the map is back under its limit.
+    // Only one thread evicts at a time; others carry on and let the map overshoot briefly.
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long cutoff = watermarkMillis.get() - windowMillis;
+            groups.values().removeIf(group -> group.lastSeenMillis.get() < cutoff);
+
+            int excess = groups.size() - maxGroups;
+            if (excess > 0) {
+                // Snapshot last-seen times first; they keep moving while we sort.
+                List<EvictionCandidate> oldest = new ArrayList<>(groups.size());
+                groups.forEach((key, group) -> oldest.add(new EvictionCandidate(key, group, group.lastSeenMillis.get())));
+                oldest.sort(Comparator.comparingLong(EvictionCandidate::lastSeenMillis));
+                // Evict a little more than needed so eviction is not triggered on every new group
+                int toRemove = Math.min(oldest.size(), excess + maxGroups / 10);
+                for (int i = 0; i < toRemove; i++) {
+                    groups.remove(oldest.get(i).key(), oldest.get(i).group());
+                }
+            }
+            log.debug("Incident correlation eviction finished, {} groups tracked", groups.size());
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.genai.incident.manager.correlation;
+
+/**
+ * Reduces a log message to its "shape" so repeated occurrences of the same problem correlate.
+ * Every token (a run of letters and digits) that contains a digit is replaced with a placeholder,
+ * which masks numbers, durations, ports, hex addresses, request IDs and UUIDs in one pass.
+ * Fingerprints are truncated to a fixed length to bound the memory used by correlation keys.
+ */
+public final class MessageFingerprinter {
+
+    public static final String PLACEHOLDER = "<*>";
+    private static final int MAX_FINGERPRINT_LENGTH = 256;
+
+    private MessageFingerprinter() {
+    }
+
+    /**
+     * @param message The raw log message, possibly null.
+     * @return The masked, truncated message.
+     */
+    public static String fingerprint(String message) {
+        if (message == null) {
+            return "";
+        }
+        StringBuilder fingerprint = new StringBuilder(Math.min(message.length(), MAX_FINGERPRINT_LENGTH));
+        int length = message.length();
+        int i = 0;
+        while (i < length && fingerprint.length() < MAX_FINGERPRINT_LENGTH) {
+            char c = message.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                fingerprint.append(c);
+                i++;
+                continue;
+            }
+            int tokenStart = i;
+            boolean hasDigit = false;
+            while (i < length && Character.isLetterOrDigit(message.charAt(i))) {
+                hasDigit |= Character.isDigit(message.charAt(i));
+                i++;
+            }
+            if (hasDigit) {
+                fingerprint.append(PLACEHOLDER);
+            } else {
+                fingerprint.append(message, tokenStart, i);
+            }
+        }
+        if (fingerprint.length() > MAX_FINGERPRINT_LENGTH) {
+            fingerprint.setLength(MAX_FINGERPRINT_LENGTH);
+        }
+        return fingerprint.toString();
+    }
+}
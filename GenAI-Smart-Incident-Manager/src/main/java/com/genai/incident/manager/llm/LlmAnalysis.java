@@ -0,0 +1,10 @@
+package com.genai.incident.manager.llm;
+
+/**
+ * The part of an incident report the LLM contributes.
+ *
+ * @param explanation Explanation of the likely root cause.
+ * @param resolutionSteps Suggested resolution steps.
+ */
+public record LlmAnalysis(String explanation, String resolutionSteps) {
+}
@@ -0,0 +1,19 @@
+package com.genai.incident.manager.llm;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Contract for calling a chat-completion LLM.
+ * Implementations must not block the caller; the returned future completes when the model answers.
+ */
+public interface LlmClient {
+
+    /**
+     * Sends a single-turn chat completion request.
+     *
+     * @param systemPrompt Instructions for the model.
+     * @param userPrompt The prompt describing the incident.
+     * @return A future completing with the model's response, or exceptionally on failure.
+     */
+    CompletableFuture<LlmResponse> complete(String systemPrompt, String userPrompt);
+}
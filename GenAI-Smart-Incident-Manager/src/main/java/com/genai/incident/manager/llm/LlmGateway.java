@@ -0,0 +1,234 @@
+package com.genai.incident.manager.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.incident.manager.correlation.CorrelatedIncident;
+import com.genai.incident.manager.correlation.MessageFingerprinter;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gateway in front of the LLM that keeps model calls rare, bounded and never on the ingest path.
+ *
+ * Only newly opened incidents are sent to the model; repeat occurrences reuse the incident's analysis.
+ * Prompts are built from the normalized message shape (log template or masked fingerprint) rather than
+ * the raw message, and responses are cached by the prompt's SHA-256 hash with a TTL, so the same error
+ * family in another service or a later window costs nothing. Concurrent identical prompts are coalesced
+ * into one call. Calls are limited by a concurrency cap and a tokens-per-minute budget; when either is
+ * exhausted the request is dropped and the incident keeps its rule-based report.
+ */
+@Service
+public class LlmGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmGateway.class);
+
+    private static final String SYSTEM_PROMPT =
+        "You are an SRE assistant analyzing Java application incidents. Given an incident type and a log message "
+        + "pattern (variables are shown as <*>), reply with a JSON object with two string fields: "
+        + "\"explanation\" (the likely root cause) and \"resolutionSteps\" (numbered, newline-separated steps).";
+
+    // A cached analysis and when it stops being valid.
+    private record CachedAnalysis(LlmAnalysis analysis, long expiresAtNanos) {
+    }
+
+    private final LlmClient llmClient;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long cacheTtlNanos;
+    private final int maxOutputTokens;
+    private final Duration timeout;
+    private final Semaphore concurrency;
+    private final TokenBudget tokenBudget;
+    private final Map<String, CachedAnalysis> cache; // Guarded by itself
+    private final Map<String, CompletableFuture<Optional<LlmAnalysis>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder modelCalls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder tokensUsed = new LongAdder();
+
+    public LlmGateway(LlmClient llmClient,
+                      ObjectMapper objectMapper,
+                      @Value("${incident.llm.enabled:false}") boolean enabled,
+                      @Value("${incident.llm.max-concurrent-requests:4}") int maxConcurrentRequests,
+                      @Value("${incident.llm.tokens-per-minute:20000}") long tokensPerMinute,
+                      @Value("${incident.llm.max-output-tokens:400}") int maxOutputTokens,
+                      @Value("${incident.llm.timeout:PT20S}") Duration timeout,
+                      @Value("${incident.llm.cache-ttl:PT6H}") Duration cacheTtl,
+                      @Value("${incident.llm.cache-max-entries:10000}") int cacheMaxEntries) {
+        this.llmClient = llmClient;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.concurrency = new Semaphore(Math.max(1, maxConcurrentRequests));
+        this.tokenBudget = new TokenBudget(tokensPerMinute);
+        this.maxOutputTokens = maxOutputTokens;
+        this.timeout = timeout;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAnalysis> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
+        log.info("LLM gateway {}: maxConcurrentRequests={}, tokensPerMinute={}, cacheTtl={}",
+                 enabled ? "enabled" : "disabled", maxConcurrentRequests, tokensPerMinute, cacheTtl);
+    }
+
+    /**
+     * Requests an LLM analysis for a correlated incident.
+     * Never blocks: the returned future is already complete for cache hits, updates and fallbacks.
+     *
+     * @param incident The correlated incident.
+     * @param logEntry The log entry that opened it.
+     * @return A future completing with the analysis, or with empty if the rule-based report should stand.
+     */
+    public CompletableFuture<Optional<LlmAnalysis>> analyze(CorrelatedIncident incident, LogEntry logEntry) {
+        if (!enabled || !incident.isNew()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        requests.increment();
+        String userPrompt = buildPrompt(incident.report(), logEntry);
+        String key = hash(userPrompt);
+
+        LlmAnalysis cached = getCached(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(Optional.of(cached));
+        }
+
+        boolean[] started = new boolean[1];
+        CompletableFuture<Optional<LlmAnalysis>> future = inFlight.computeIfAbsent(key, k -> {
+            started[0] = true;
+            return call(k, userPrompt);
+        });
+        if (!started[0]) {
+            coalesced.increment();
+        }
+        return future;
+    }
+
+    /**
+     * @return A snapshot of the gateway's counters.
+     */
+    public LlmGatewayStats getStats() {
+        return new LlmGatewayStats(requests.sum(), cacheHits.sum(), coalesced.sum(), modelCalls.sum(),
+                                   failures.sum(), fallbacks.sum(), tokensUsed.sum(), tokenBudget.available());
+    }
+
+    // Starts a model call if the concurrency cap and token budget allow it; otherwise falls back.
+    private CompletableFuture<Optional<LlmAnalysis>> call(String key, String userPrompt) {
+        long estimate = (SYSTEM_PROMPT.length() + userPrompt.length()) / 4 + maxOutputTokens;
+        if (!concurrency.tryAcquire()) {
+            return fallback(key);
+        }
+        if (!tokenBudget.tryReserve(estimate)) {
+            concurrency.release();
+            return fallback(key);
+        }
+
+        modelCalls.increment();
+        CompletableFuture<Optional<LlmAnalysis>> future = llmClient.complete(SYSTEM_PROMPT, userPrompt)
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .handle((response, error) -> {
+                concurrency.release();
+                if (error != null) {
+                    tokenBudget.settle(estimate, estimate);
+                    failures.increment();
+                    log.warn("LLM call failed, keeping rule-based analysis: {}", error.toString());
+                    return Optional.empty();
+                }
+                long used = response.totalTokens() > 0 ? response.totalTokens() : estimate;
+                tokenBudget.settle(estimate, used);
+                tokensUsed.add(used);
+                LlmAnalysis analysis = parse(response.content());
+                putCached(key, analysis);
+                return Optional.of(analysis);
+            });
+        // Removal must not run inside computeIfAbsent, even if the call already completed.
+        future.whenCompleteAsync((result, error) -> inFlight.remove(key), ForkJoinPool.commonPool());
+        return future;
+    }
+
+    private CompletableFuture<Optional<LlmAnalysis>> fallback(String key) {
+        fallbacks.increment();
+        CompletableFuture<Optional<LlmAnalysis>> future = new CompletableFuture<>();
+        future.whenCompleteAsync((result, error) -> inFlight.remove(key), ForkJoinPool.commonPool());
+        future.complete(Optional.empty());
+        return future;
+    }
+
+    // The prompt only contains normalized, ID-free fields so that it is stable across occurrences and services.
+    private static String buildPrompt(IncidentReport report, LogEntry logEntry) {
+        String pattern = report.getLogTemplate() != null ? report.getLogTemplate()
+            : MessageFingerprinter.fingerprint(logEntry.getMessage());
+        return "Incident type: " + report.getType() + "\n"
+            + "Log level: " + (logEntry.getLevel() != null ? logEntry.getLevel().toUpperCase() : "UNKNOWN") + "\n"
+            + "Log message pattern: " + pattern.strip().replaceAll("\\s+", " ");
+    }
+
+    private LlmAnalysis parse(String content) {
+        try {
+            JsonNode json = objectMapper.readTree(content);
+            String explanation = json.path("explanation").asText(null);
+            String resolutionSteps = json.path("resolutionSteps").asText(null);
+            if (explanation != null) {
+                return new LlmAnalysis(explanation, resolutionSteps);
+            }
+        } catch (IOException e) {
+            // Not JSON; fall through and use the raw answer as the explanation
+        }
+        return new LlmAnalysis(content, null);
+    }
+
+    private LlmAnalysis getCached(String key) {
+        synchronized (cache) {
+            CachedAnalysis cached = cache.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (System.nanoTime() - cached.expiresAtNanos() >= 0) {
+                cache.remove(key);
+                return null;
+            }
+            return cached.analysis();
+        }
+    }
+
+    private void putCached(String key, LlmAnalysis analysis) {
+        synchronized (cache) {
+            cache.put(key, new CachedAnalysis(analysis, System.nanoTime() + cacheTtlNanos));
+        }
+    }
+
+    private static String hash(String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(prompt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.genai.incident.manager.llm;
+
+/**
+ * Counters describing how the LLM gateway handled enrichment requests.
+ *
+ * @param requests Enrichment requests for new incidents.
+ * @param cacheHits Requests answered from the response cache.
+ * @param coalesced Requests that joined an identical call already in flight.
+ * @param modelCalls Calls actually sent to the model.
+ * @param failures Model calls that failed or timed out.
+ * @param fallbacks Requests left with the rule-based report because the gateway was saturated.
+ * @param tokensUsed Tokens reported by the model across all calls.
+ * @param tokensAvailable Tokens currently left in the per-minute budget.
+ */
+public record LlmGatewayStats(long requests, long cacheHits, long coalesced, long modelCalls,
+                              long failures, long fallbacks, long tokensUsed, long tokensAvailable) {
+}
@@ -0,0 +1,10 @@
+package com.genai.incident.manager.llm;
+
+/**
+ * A completion returned by the LLM.
+ *
+ * @param content The assistant message content.
+ * @param totalTokens Tokens billed for the call (prompt plus completion), or 0 if not reported.
+ */
+public record LlmResponse(String content, long totalTokens) {
+}
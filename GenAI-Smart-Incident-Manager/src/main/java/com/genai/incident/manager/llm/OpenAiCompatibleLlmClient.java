@@ -0,0 +1,89 @@
+package com.genai.incident.manager.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LlmClient for any OpenAI-compatible /v1/chat/completions endpoint, using the JDK's asynchronous HttpClient.
+ * Point incident.llm.base-url at the stub server (see StubLlmServer) for local development and tests.
+ */
+@Component
+public class OpenAiCompatibleLlmClient implements LlmClient {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final String apiKey;
+    private final String model;
+    private final int maxOutputTokens;
+    private final Duration timeout;
+
+    public OpenAiCompatibleLlmClient(ObjectMapper objectMapper,
+                                     @Value("${incident.llm.base-url:http://localhost:18090}") String baseUrl,
+                                     @Value("${incident.llm.api-key:}") String apiKey,
+                                     @Value("${incident.llm.model:gpt-4o-mini}") String model,
+                                     @Value("${incident.llm.max-output-tokens:400}") int maxOutputTokens,
+                                     @Value("${incident.llm.timeout:PT20S}") Duration timeout,
+                                     @Value("${incident.llm.max-concurrent-requests:4}") int maxConcurrentRequests) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(baseUrl.replaceAll("/+$", "") + "/v1/chat/completions");
+        this.apiKey = apiKey;
+        this.model = model;
+        this.maxOutputTokens = maxOutputTokens;
+        this.timeout = timeout;
+        // Response handling runs on a small dedicated pool, never on the caller's thread.
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentRequests), runnable -> {
+            Thread thread = new Thread(runnable, "llm-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).executor(executor).build();
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> complete(String systemPrompt, String userPrompt) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", model);
+        body.put("temperature", 0);
+        body.put("max_tokens", maxOutputTokens);
+        body.putArray("messages")
+            .add(objectMapper.createObjectNode().put("role", "system").put("content", systemPrompt))
+            .add(objectMapper.createObjectNode().put("role", "user").put("content", userPrompt));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (!apiKey.isBlank()) {
+            request.header("Authorization", "Bearer " + apiKey);
+        }
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> {
+                if (response.statusCode() / 100 != 2) {
+                    throw new IllegalStateException("LLM endpoint returned HTTP " + response.statusCode());
+                }
+                try {
+                    JsonNode json = objectMapper.readTree(response.body());
+                    return new LlmResponse(json.path("choices").path(0).path("message").path("content").asText(""),
+                                           json.path("usage").path("total_tokens").asLong(0));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+}
@@ -0,0 +1,108 @@
+package com.genai.incident.manager.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for an OpenAI-compatible chat completion endpoint, for development and tests.
+ * It answers every request on /v1/chat/completions with a canned JSON analysis after a configurable
+ * delay, so the gateway's caching, coalescing and limits can be exercised without an API key.
+ * Enabled with incident.llm.stub.enabled=true; point incident.llm.base-url at http://localhost:&lt;port&gt;.
+ */
+@Component
+@ConditionalOnProperty(name = "incident.llm.stub.enabled", havingValue = "true")
+public class StubLlmServer {
+
+    private static final Logger log = LoggerFactory.getLogger(StubLlmServer.class);
+
+    private final ObjectMapper objectMapper;
+    private final int port;
+    private final Duration latency;
+    private final AtomicLong requestCount = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubLlmServer(ObjectMapper objectMapper,
+                         @Value("${incident.llm.stub.port:18090}") int port,
+                         @Value("${incident.llm.stub.latency:PT0.5S}") Duration latency) {
+        this.objectMapper = objectMapper;
+        this.port = port;
+        this.latency = latency;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        executor = Executors.newFixedThreadPool(8);
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("Stub LLM server listening on http://localhost:{} with {} ms latency", port, latency.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return The port the server listens on; the one picked by the system if configured with port 0.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return The number of completion requests served.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            JsonNode request = objectMapper.readTree(body);
+            requestCount.incrementAndGet();
+            Thread.sleep(latency.toMillis());
+
+            String prompt = request.path("messages").path(1).path("content").asText("");
+            ObjectNode analysis = objectMapper.createObjectNode()
+                .put("explanation", "Stub analysis of the incident described by: " + prompt.replace('\n', ' '))
+                .put("resolutionSteps", "1. Inspect the affected service.\n2. Roll back the most recent change if the errors started after it.");
+            ObjectNode response = objectMapper.createObjectNode();
+            response.putArray("choices").addObject().putObject("message")
+                .put("role", "assistant")
+                .put("content", analysis.toString());
+            response.putObject("usage").put("total_tokens", prompt.length() / 4 + 60);
+
+            byte[] bytes = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.genai.incident.manager.llm;
+
+/**
+ * Tokens-per-minute budget for LLM calls, as a token bucket refilled continuously at the per-minute rate.
+ * Callers reserve an estimate before a call and settle the difference once the actual usage is known.
+ */
+final class TokenBudget {
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    private final long tokensPerMinute;
+    private double available;
+    private long lastRefillNanos;
+
+    TokenBudget(long tokensPerMinute) {
+        this.tokensPerMinute = tokensPerMinute;
+        this.available = tokensPerMinute;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Reserves tokens if the budget allows it.
+     * @return true if the tokens were reserved.
+     */
+    synchronized boolean tryReserve(long tokens) {
+        refill();
+        if (available < tokens) {
+            return false;
+        }
+        available -= tokens;
+        return true;
+    }
+
+    /**
+     * Adjusts the budget once the actual token usage of a reserved call is known.
+     */
+    synchronized void settle(long reserved, long actual) {
+        available = Math.min(tokensPerMinute, available + reserved - actual);
+    }
+
+    synchronized long available() {
+        refill();
+        return (long) available;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(tokensPerMinute, available + (double) (now - lastRefillNanos) * tokensPerMinute / NANOS_PER_MINUTE);
+        lastRefillNanos = now;
+    }
+}
@@ -1,12 +1,16 @@
 package com.genai.incident.manager.model;
 
 import java.time.Instant; // Using Instant for timestamp consistency
+import java.util.List;
 
 /**
  * Represents a detailed report generated by the GenAI service,
  * indicating whether an incident was detected and providing its details.
  */
 public class IncidentReport {
+    public static final String SOURCE_RULES = "RULES"; // Analysis from the built-in classification rules
+    public static final String SOURCE_LLM = "LLM";     // Analysis from the LLM gateway
+
     private String id;              // Unique identifier for the incident report
     private Instant timestamp;      // When the incident was detected/reported
     private boolean isIncident;     // True if an incident was detected, false otherwise
@@ -14,6 +18,16 @@ public class IncidentReport {
     private String description;     // A brief, high-level description of the incident
     private String explanation;     // Detailed explanation of the root cause or contributing factors
     private String resolutionSteps; // Suggested steps to resolve the incident
+    private String serviceName;     // The service the incident was reported for
+    private String fingerprint;     // Masked message shape used to correlate repeated occurrences
+    private String templateId;      // ID of the mined log template the message belongs to, if any
+    private String logTemplate;     // Text of the mined log template, with variables shown as <*>
+    private long occurrences;       // Number of log entries correlated into this incident
+    private Instant firstSeen;      // Timestamp of the first correlated log entry
+    private Instant lastSeen;       // Timestamp of the most recent correlated log entry
+    private String exceptionClass;  // Outermost exception class of the log entry's stack trace, if any
+    private List<String> stackFrames; // Top frames of the log entry's stack trace, if any
+    private String analysisSource;  // Where explanation and resolution steps came from: "RULES" or "LLM"
 
     // Default constructor for JSON serialization/deserialization
     public IncidentReport() {
@@ -86,6 +100,86 @@ public class IncidentReport {
         this.resolutionSteps = resolutionSteps;
     }
 
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public String getLogTemplate() {
+        return logTemplate;
+    }
+
+    public void setLogTemplate(String logTemplate) {
+        this.logTemplate = logTemplate;
+    }
+
+    public long getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(long occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public Instant getFirstSeen() {
+        return firstSeen;
+    }
+
+    public void setFirstSeen(Instant firstSeen) {
+        this.firstSeen = firstSeen;
+    }
+
+    public Instant getLastSeen() {
+        return lastSeen;
+    }
+
+    public void setLastSeen(Instant lastSeen) {
+        this.lastSeen = lastSeen;
+    }
+
+    public String getExceptionClass() {
+        return exceptionClass;
+    }
+
+    public void setExceptionClass(String exceptionClass) {
+        this.exceptionClass = exceptionClass;
+    }
+
+    public List<String> getStackFrames() {
+        return stackFrames;
+    }
+
+    public void setStackFrames(List<String> stackFrames) {
+        this.stackFrames = stackFrames;
+    }
+
+    public String getAnalysisSource() {
+        return analysisSource;
+    }
+
+    public void setAnalysisSource(String analysisSource) {
+        this.analysisSource = analysisSource;
+    }
+
     @Override
     public String toString() {
         return "IncidentReport{" +
@@ -96,6 +190,15 @@ public class IncidentReport {
                ", description='" + description + '\'' +
                ", explanation='" + explanation + '\'' +
                ", resolutionSteps='" + resolutionSteps + '\'' +
+               ", serviceName='" + serviceName + '\'' +
+               ", fingerprint='" + fingerprint + '\'' +
+               ", templateId='" + templateId + '\'' +
+               ", logTemplate='" + logTemplate + '\'' +
+               ", occurrences=" + occurrences +
+               ", firstSeen=" + firstSeen +
+               ", lastSeen=" + lastSeen +
+               ", exceptionClass='" + exceptionClass + '\'' +
+               ", analysisSource='" + analysisSource + '\'' +
                '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.genai.incident.manager.model;
+
+import java.util.List;
+
+/**
+ * Summarizes the result of a batch or streaming ingestion request.
+ * Only the entries that turned out to be incidents are reported individually;
+ * routine entries are just counted, which keeps the response small for large batches.
+ */
+public class IngestionSummary {
+    private long received;                 // Number of log entries parsed from the request
+    private long incidentCount;            // Number of entries that were classified as incidents
+    private long shed;                     // Number of low-priority entries dropped because the pipeline was under load
+    private long merged;                   // Number of continuation lines merged into multi-line events such as stack traces
+    private long processingTimeMillis;     // Wall-clock time from receiving the request to analyzing its last entry
+    private List<IncidentReport> incidents; // One report per distinct (correlated) incident, in no particular order
+
+    // Default constructor for JSON serialization/deserialization
+    public IngestionSummary() {
+    }
+
+    public IngestionSummary(long received, long incidentCount, long processingTimeMillis, List<IncidentReport> incidents) {
+        this.received = received;
+        this.incidentCount = incidentCount;
+        this.processingTimeMillis = processingTimeMillis;
+        this.incidents = incidents;
+    }
+
+    // --- Getters and Setters ---
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getIncidentCount() {
+        return incidentCount;
+    }
+
+    public void setIncidentCount(long incidentCount) {
+        this.incidentCount = incidentCount;
+    }
+
+    public long getShed() {
+        return shed;
+    }
+
+    public void setShed(long shed) {
+        this.shed = shed;
+    }
+
+    public long getMerged() {
+        return merged;
+    }
+
+    public void setMerged(long merged) {
+        this.merged = merged;
+    }
+
+    public long getProcessingTimeMillis() {
+        return processingTimeMillis;
+    }
+
+    public void setProcessingTimeMillis(long processingTimeMillis) {
+        this.processingTimeMillis = processingTimeMillis;
+    }
+
+    public List<IncidentReport> getIncidents() {
+        return incidents;
+    }
+
+    public void setIncidents(List<IncidentReport> incidents) {
+        this.incidents = incidents;
+    }
+
+    @Override
+    public String toString() {
+        return "IngestionSummary{" +
+               "received=" + received +
+               ", incidentCount=" + incidentCount +
+               ", shed=" + shed +
+               ", merged=" + merged +
+               ", processingTimeMillis=" + processingTimeMillis +
+               '}';
+    }
+}
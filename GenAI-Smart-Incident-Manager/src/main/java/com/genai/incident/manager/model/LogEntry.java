@@ -1,6 +1,7 @@
 package com.genai.incident.manager.model;
 
 import java.time.Instant; // Using Instant for precise, machine-readable timestamps
+import java.util.List;
 
 /**
  * Represents a single log entry from an application.
@@ -12,6 +13,8 @@ public class LogEntry {
     private String serviceName; // The name of the service/application that generated the log
     private String level;       // The log level (e.g., INFO, WARN, ERROR, DEBUG)
     private String message;     // The actual log message content
+    private String exceptionClass;     // Outermost exception class named in the message, if any
+    private List<String> stackFrames;  // Top stack frames of a reassembled stack trace, if any
 
     // Default constructor is required for JSON deserialization by Spring/Jackson
     public LogEntry() {
@@ -57,6 +60,22 @@ public class LogEntry {
         this.message = message;
     }
 
+    public String getExceptionClass() {
+        return exceptionClass;
+    }
+
+    public void setExceptionClass(String exceptionClass) {
+        this.exceptionClass = exceptionClass;
+    }
+
+    public List<String> getStackFrames() {
+        return stackFrames;
+    }
+
+    public void setStackFrames(List<String> stackFrames) {
+        this.stackFrames = stackFrames;
+    }
+
     @Override
     public String toString() {
         return "LogEntry{" +
@@ -64,6 +83,7 @@ public class LogEntry {
                ", serviceName='" + serviceName + '\'' +
                ", level='" + level + '\'' +
                ", message='" + message + '\'' +
+               ", exceptionClass='" + exceptionClass + '\'' +
                '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.genai.incident.manager.pipeline;
+
+import com.genai.incident.manager.assembly.MultilineAssembler;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.IngestionSummary;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the entries of one ingestion request as they pass through the pipeline.
+ * The batch completes once the producer has sealed it and every accepted entry was analyzed, merged into
+ * a multi-line event, shed or failed.
+ * Only incidents are kept, one snapshot per incident ID, so a batch's memory does not grow with its size.
+ * A long-lived stream is split into consecutive batches (see IngestionPipeline#rollOver), so the incidents
+ * kept for it stay bounded too.
+ */
+public final class IngestionBatch {
+
+    private final long startNanos = System.nanoTime();
+    private final int partition;
+    private final MultilineAssembler assembler; // Null if the batch's entries are complete events
+    private final AtomicLong pending = new AtomicLong();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder incidentEntries = new LongAdder();
+    private final Map<String, IncidentReport> incidents = new ConcurrentHashMap<>(); // Latest snapshot per incident ID
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final CompletableFuture<IngestionBatch> completion = new CompletableFuture<>();
+    private volatile IncidentReport lastReport;
+    private volatile boolean sealed;
+    private volatile IngestionBatch successor; // The batch continuing the stream after a rollover
+
+    IngestionBatch(int partition, MultilineAssembler assembler) {
+        this.partition = partition;
+        this.assembler = assembler;
+    }
+
+    // Marks the end of the request's entries; the batch completes once the accepted ones are done.
+    void seal() {
+        sealed = true;
+        if (pending.get() == 0) {
+            completion.complete(this);
+        }
+    }
+
+    /**
+     * @return A future completing with this batch once it is sealed and all its entries are done.
+     */
+    public CompletableFuture<IngestionBatch> completion() {
+        return completion;
+    }
+
+    /**
+     * @return The number of entries accepted into the pipeline.
+     */
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /**
+     * @return The number of entries dropped because the pipeline was under load.
+     */
+    public long getShed() {
+        return shed.sum();
+    }
+
+    /**
+     * @return The first error raised while processing an entry, or null.
+     */
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    /**
+     * @return The report of the most recently analyzed entry; for single-entry requests, its report.
+     */
+    public IncidentReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return A summary of the batch, listing each incident once with its latest occurrence count.
+     */
+    public IngestionSummary toSummary() {
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        IngestionSummary summary = new IngestionSummary(received.sum(), incidentEntries.sum(), elapsedMillis,
+                                                        new ArrayList<>(incidents.values()));
+        summary.setShed(shed.sum());
+        summary.setMerged(merged.sum());
+        return summary;
+    }
+
+    int partition() {
+        return partition;
+    }
+
+    MultilineAssembler assembler() {
+        return assembler;
+    }
+
+    // Hands the events still held by the shared assembler on to the batch continuing the stream, then seals
+    // this batch. Each held event is one accepted entry still pending; it is counted by the batch that finishes it.
+    void handOver(IngestionBatch next, int heldEvents) {
+        next.received.add(heldEvents);
+        next.pending.addAndGet(heldEvents);
+        successor = next;
+        received.add(-heldEvents);
+        pending.addAndGet(-heldEvents);
+        seal();
+    }
+
+    // The batch that currently owns this batch's assembler: this one, or the latest batch of its stream.
+    IngestionBatch current() {
+        IngestionBatch batch = this;
+        while (batch.successor != null) {
+            batch = batch.successor;
+        }
+        return batch;
+    }
+
+    void accepted() {
+        received.increment();
+        pending.incrementAndGet();
+    }
+
+    // An accepted entry could not be queued after all, e.g. because the producer timed out.
+    void withdrawn() {
+        received.decrement();
+        done();
+    }
+
+    void shed() {
+        shed.increment();
+        done();
+    }
+
+    // A line was appended to another entry's event.
+    void merged() {
+        merged.increment();
+        done();
+    }
+
+    void completed(IncidentReport report) {
+        lastReport = report;
+        if (report.getIsIncident()) {
+            incidentEntries.increment();
+            incidents.merge(report.getId(), report,
+                (current, update) -> update.getOccurrences() > current.getOccurrences() ? update : current);
+        }
+        done();
+    }
+
+    void failed(Throwable error) {
+        failure.compareAndSet(null, error);
+        done();
+    }
+
+    private void done() {
+        if (pending.decrementAndGet() == 0 && sealed) {
+            completion.complete(this);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.genai.incident.manager.pipeline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.incident.manager.anomaly.ServiceRateMonitor;
+import com.genai.incident.manager.assembly.MultilineAssembler;
+import com.genai.incident.manager.model.LogEntry;
+import com.genai.incident.manager.service.IncidentAnalysisService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Staged, backpressured ingestion pipeline: parse, classify, correlate and persist, each with its own
+ * bounded queue and worker threads, so request threads only enqueue and analysis throughput scales with
+ * the classify and parse pools.
+ *
+ * Memory is bounded by the queue capacities. When the pipeline falls behind, queues fill from the back:
+ * DEBUG/TRACE/INFO entries are shed once the classify queue passes one threshold, WARN entries once it
+ * passes a higher one, and ERROR entries are never shed but wait for space. Producers that cannot enqueue
+ * within the admission timeout get a PipelineSaturatedException carrying a retry hint.
+ *
+ * Batch and stream requests first pass through a MultilineAssembler that stitches stack traces split
+ * across lines back into one event. The parse stage is partitioned by batch so a request's lines reach
+ * the assembler in order; an end-of-batch marker behind the last line releases whatever is still held.
+ */
+@Service
+public class IngestionPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    private final ObjectMapper objectMapper;
+    private final IncidentAnalysisService analysisService;
+    private final ServiceRateMonitor rateMonitor;
+    private final PipelineStage parseStage;
+    private final PipelineStage classifyStage;
+    private final PipelineStage correlateStage;
+    private final PipelineStage persistStage;
+    private final List<PipelineStage> stages;
+    private final int lowPriorityLimit;
+    private final int warnLimit;
+    private final long admissionTimeoutNanos;
+    private final Duration retryAfter;
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger nextPartition = new AtomicInteger();
+    private final Set<IngestionBatch> assemblingBatches = ConcurrentHashMap.newKeySet(); // Open batches with an assembler
+    private final int multilineMaxLines;
+    private final int multilineMaxFrames;
+    private final long multilineFlushTimeoutNanos;
+    private final int multilineMaxStreams;
+
+    public IngestionPipeline(ObjectMapper objectMapper,
+                             IncidentAnalysisService analysisService,
+                             ServiceRateMonitor rateMonitor,
+                             @Value("${incident.pipeline.queue-capacity:8192}") int queueCapacity,
+                             @Value("${incident.pipeline.parse-threads:0}") int parseThreads,
+                             @Value("${incident.pipeline.classify-threads:0}") int classifyThreads,
+                             @Value("${incident.pipeline.correlate-threads:2}") int correlateThreads,
+                             @Value("${incident.pipeline.persist-threads:2}") int persistThreads,
+                             @Value("${incident.pipeline.shed-low-priority-at:0.5}") double shedLowPriorityAt,
+                             @Value("${incident.pipeline.shed-warn-at:0.8}") double shedWarnAt,
+                             @Value("${incident.pipeline.admission-timeout:PT0.2S}") Duration admissionTimeout,
+                             @Value("${incident.pipeline.retry-after:PT1S}") Duration retryAfter,
+                             @Value("${incident.pipeline.multiline.max-lines:200}") int multilineMaxLines,
+                             @Value("${incident.pipeline.multiline.max-frames:5}") int multilineMaxFrames,
+                             @Value("${incident.pipeline.multiline.flush-timeout:PT2S}") Duration multilineFlushTimeout,
+                             @Value("${incident.pipeline.multiline.max-streams:1024}") int multilineMaxStreams) {
+        this.objectMapper = objectMapper;
+        this.analysisService = analysisService;
+        this.rateMonitor = rateMonitor;
+        int capacity = Math.max(1, queueCapacity);
+        this.parseStage = new PipelineStage("parse", capacity, threads(parseThreads), true, this::parse);
+        this.classifyStage = new PipelineStage("classify", capacity, threads(classifyThreads), false, this::classify);
+        this.correlateStage = new PipelineStage("correlate", capacity, threads(correlateThreads), false, this::correlate);
+        this.persistStage = new PipelineStage("persist", capacity, threads(persistThreads), false, this::persist);
+        this.stages = List.of(parseStage, classifyStage, correlateStage, persistStage);
+        this.lowPriorityLimit = (int) (capacity * shedLowPriorityAt);
+        this.warnLimit = (int) (capacity * shedWarnAt);
+        this.admissionTimeoutNanos = admissionTimeout.toNanos();
+        this.retryAfter = retryAfter;
+        this.multilineMaxLines = multilineMaxLines;
+        this.multilineMaxFrames = multilineMaxFrames;
+        this.multilineFlushTimeoutNanos = multilineFlushTimeout.toNanos();
+        this.multilineMaxStreams = multilineMaxStreams;
+        stages.forEach(PipelineStage::start);
+        log.info("Ingestion pipeline started: queueCapacity={}, threads parse={} classify={} correlate={} persist={}",
+                 capacity, threads(parseThreads), threads(classifyThreads), threads(correlateThreads), threads(persistThreads));
+    }
+
+    @PreDestroy
+    public void stop() {
+        stages.forEach(PipelineStage::stop);
+    }
+
+    /**
+     * Creates a batch for one request's entries.
+     *
+     * @param multiline True if the entries may be single lines of multi-line events that need reassembly.
+     * @return A new batch; it must be passed to {@link #seal} once all entries are submitted.
+     */
+    public IngestionBatch newBatch(boolean multiline) {
+        int partition = nextPartition.getAndIncrement() & Integer.MAX_VALUE;
+        if (!multiline) {
+            return new IngestionBatch(partition, null);
+        }
+        IngestionBatch batch = new IngestionBatch(partition, new MultilineAssembler(
+            multilineMaxLines, multilineMaxFrames, multilineFlushTimeoutNanos, multilineMaxStreams));
+        assemblingBatches.add(batch);
+        return batch;
+    }
+
+    /**
+     * Marks the end of a batch's entries. For assembling batches, the end travels through the batch's
+     * parse partition behind its last line, so events still held are released in order.
+     *
+     * @param batch The batch.
+     */
+    public void seal(IngestionBatch batch) throws InterruptedException {
+        if (batch.assembler() == null) {
+            batch.seal();
+        } else {
+            parseStage.put(PipelineItem.endOf(batch));
+        }
+    }
+
+    /**
+     * Seals a batch of a long-lived stream and returns a new batch that continues the stream, so that
+     * no batch, and none of the incidents it keeps for its summary, grows with the lifetime of the stream.
+     * Multi-line events still held by the batch's assembler carry over, with the assembler, to the new batch.
+     * Must be called by the stream's producer, between two entries.
+     *
+     * @param batch The batch to seal.
+     * @return The batch for the stream's next entries.
+     */
+    public IngestionBatch rollOver(IngestionBatch batch) {
+        MultilineAssembler assembler = batch.assembler();
+        if (assembler == null) {
+            batch.seal();
+            return newBatch(false);
+        }
+        IngestionBatch next = new IngestionBatch(batch.partition(), assembler);
+        assemblingBatches.add(next);
+        // Under the assembler's lock, so events are released either before the hand-over, to the old batch,
+        // or after it, to the new one
+        synchronized (assembler) {
+            batch.handOver(next, assembler.heldEvents());
+        }
+        assemblingBatches.remove(batch);
+        return next;
+    }
+
+    /**
+     * Submits an unparsed JSON log entry, which enters at the parse stage.
+     *
+     * @param batch The request's batch.
+     * @param json The log entry as JSON.
+     * @throws PipelineSaturatedException If the parse queue stayed full for the admission timeout.
+     */
+    public void submit(IngestionBatch batch, String json) throws InterruptedException {
+        PipelineItem item = new PipelineItem(batch, json, null);
+        batch.accepted();
+        if (!parseStage.offer(item, admissionTimeoutNanos)) {
+            reject(batch);
+        }
+    }
+
+    /**
+     * Submits an already parsed log entry, which enters at the classify stage and may be shed by level.
+     *
+     * @param batch The request's batch.
+     * @param logEntry The log entry.
+     * @throws PipelineSaturatedException If the entry may not be shed and the classify queue stayed full for the admission timeout.
+     */
+    public void submit(IngestionBatch batch, LogEntry logEntry) throws InterruptedException {
+        batch.accepted();
+        assembleAndAdmit(batch, logEntry, true);
+    }
+
+    /**
+     * Submits an already parsed log entry like {@link #submit(IngestionBatch, LogEntry)}, but waits for
+     * queue space however long it takes. For producers without a way to signal a retry, such as raw TCP
+     * connections, where blocking the reader pushes back on the sender through TCP flow control.
+     *
+     * @param batch The request's batch.
+     * @param logEntry The log entry.
+     */
+    public void submitWaiting(IngestionBatch batch, LogEntry logEntry) throws InterruptedException {
+        batch.accepted();
+        assembleAndAdmit(batch, logEntry, false);
+    }
+
+    /**
+     * @return How long producers should wait before resending refused or shed entries.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @return The current state of the pipeline's stages and its shed and rejected counters.
+     */
+    public PipelineStats getStats() {
+        return new PipelineStats(stages.stream().map(PipelineStage::stats).toList(), shed.sum(), rejected.sum());
+    }
+
+    /**
+     * Releases multi-line events that have waited for further lines longer than the flush timeout,
+     * so a slow stream does not hold back its last stack trace.
+     *
+     * Runs on the shared scheduler thread, so it never waits for queue space: it only drops a flush marker
+     * into each batch's parse partition, and the parse worker releases the events in order with the batch's
+     * lines. A partition that is full is skipped; its lines release held events anyway, and the next run retries.
+     */
+    @Scheduled(fixedDelayString = "${incident.pipeline.multiline.flush-timeout:PT2S}")
+    public void flushIdleEvents() throws InterruptedException {
+        for (IngestionBatch batch : assemblingBatches) {
+            parseStage.offer(PipelineItem.flushOf(batch), 0);
+        }
+    }
+
+    private void parse(PipelineItem item) throws InterruptedException {
+        if (item.endOfBatch) {
+            endBatch(item.batch);
+            return;
+        }
+        if (item.flushIdle) {
+            List<LogEntry> ready = new ArrayList<>();
+            IngestionBatch owner;
+            synchronized (item.batch.assembler()) {
+                item.batch.assembler().flushExpired(ready);
+                owner = item.batch.current(); // The stream may have rolled over since the marker was queued
+            }
+            for (LogEntry event : ready) {
+                admit(new PipelineItem(owner, null, event), false);
+            }
+            return;
+        }
+        try {
+            item.logEntry = objectMapper.readValue(item.raw, LogEntry.class);
+        } catch (IOException e) {
+            item.batch.failed(e);
+            return;
+        }
+        item.raw = null;
+        assembleAndAdmit(item.batch, item.logEntry, false);
+    }
+
+    private void endBatch(IngestionBatch batch) throws InterruptedException {
+        try {
+            List<LogEntry> ready = new ArrayList<>();
+            batch.assembler().flushAll(ready);
+            for (LogEntry event : ready) {
+                admit(new PipelineItem(batch, null, event), false);
+            }
+        } finally {
+            assemblingBatches.remove(batch);
+            batch.seal();
+        }
+    }
+
+    // Passes a line through the batch's assembler, if any, and admits the events it releases.
+    private void assembleAndAdmit(IngestionBatch batch, LogEntry logEntry, boolean producer) throws InterruptedException {
+        MultilineAssembler assembler = batch.assembler();
+        if (assembler == null) {
+            admit(new PipelineItem(batch, null, logEntry), producer);
+            return;
+        }
+        List<LogEntry> ready = new ArrayList<>(2);
+        if (assembler.add(logEntry, ready)) {
+            batch.merged();
+        }
+        for (int i = 0; i < ready.size(); i++) {
+            try {
+                admit(new PipelineItem(batch, null, ready.get(i)), producer);
+            } catch (PipelineSaturatedException e) {
+                // The producer sends the refused line again, so the add must not have taken effect: if nothing
+                // was handed on, the assembler holds the released events again and forgets the line. A line
+                // releases at most the stream's held event ahead of itself, so after a partial hand-off only the
+                // line itself, passing straight through, was refused.
+                if (i == 0) {
+                    assembler.undoAdd(logEntry);
+                }
+                throw e;
+            }
+        }
+    }
+
+    // Hands an event to the classify stage unless it is shed. Producers wait up to the admission timeout,
+    // pipeline threads as long as it takes. The rate monitor counts the event only once it is queued or shed:
+    // a refused event comes back with the producer's retry and would otherwise be counted twice.
+    private void admit(PipelineItem item, boolean producer) throws InterruptedException {
+        if (shouldShed(item.logEntry)) {
+            shed(item);
+        } else if (!producer) {
+            classifyStage.put(item);
+        } else if (!classifyStage.offer(item, admissionTimeoutNanos)) {
+            reject(item.batch);
+        }
+        rateMonitor.record(item.logEntry);
+    }
+
+    private void classify(PipelineItem item) throws InterruptedException {
+        item.report = analysisService.classify(item.logEntry);
+        if (item.report.getIsIncident()) {
+            correlateStage.put(item);
+        } else {
+            item.batch.completed(item.report);
+        }
+    }
+
+    private void correlate(PipelineItem item) throws InterruptedException {
+        item.incident = analysisService.correlate(item.logEntry, item.report);
+        persistStage.put(item);
+    }
+
+    private void persist(PipelineItem item) {
+        analysisService.persist(item.logEntry, item.incident);
+        item.batch.completed(item.incident.report());
+    }
+
+    // Routine entries give way to errors as the classify queue fills.
+    private boolean shouldShed(LogEntry logEntry) {
+        String level = logEntry.getLevel();
+        if (level == null) {
+            return false;
+        }
+        int queued = classifyStage.size();
+        return switch (level.toUpperCase()) {
+            case "TRACE", "DEBUG", "INFO" -> queued >= lowPriorityLimit;
+            case "WARN", "WARNING" -> queued >= warnLimit;
+            default -> false;
+        };
+    }
+
+    private void shed(PipelineItem item) {
+        shed.increment();
+        item.batch.shed();
+    }
+
+    private void reject(IngestionBatch batch) {
+        rejected.increment();
+        batch.withdrawn();
+        throw new PipelineSaturatedException("Ingestion pipeline is saturated", retryAfter, batch.getReceived());
+    }
+
+    private static int threads(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,47 @@
+package com.genai.incident.manager.pipeline;
+
+import com.genai.incident.manager.correlation.CorrelatedIncident;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+
+/**
+ * One log entry travelling through the pipeline. Each stage fills in its result and hands the item on;
+ * the stage queues provide the happens-before ordering, so the fields need no synchronization.
+ */
+final class PipelineItem {
+
+    final IngestionBatch batch;
+    final boolean endOfBatch;     // Marks the end of the batch's entries rather than carrying one
+    final boolean flushIdle;      // Asks the parse stage to release the batch's idle multi-line events
+    String raw;                   // Unparsed JSON, for entries entering at the parse stage
+    LogEntry logEntry;
+    IncidentReport report;
+    CorrelatedIncident incident;
+
+    PipelineItem(IngestionBatch batch, String raw, LogEntry logEntry) {
+        this.batch = batch;
+        this.endOfBatch = false;
+        this.flushIdle = false;
+        this.raw = raw;
+        this.logEntry = logEntry;
+    }
+
+    private PipelineItem(IngestionBatch batch, boolean endOfBatch, boolean flushIdle) {
+        this.batch = batch;
+        this.endOfBatch = endOfBatch;
+        this.flushIdle = flushIdle;
+    }
+
+    static PipelineItem endOf(IngestionBatch batch) {
+        return new PipelineItem(batch, true, false);
+    }
+
+    static PipelineItem flushOf(IngestionBatch batch) {
+        return new PipelineItem(batch, false, true);
+    }
+
+    // Markers stand for no entry of the batch.
+    boolean isMarker() {
+        return endOfBatch || flushIdle;
+    }
+}
@@ -0,0 +1,33 @@
+package com.genai.incident.manager.pipeline;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the ingestion pipeline cannot accept more entries. Producers should retry after the given delay.
+ */
+public class PipelineSaturatedException extends RuntimeException {
+
+    private final Duration retryAfter;
+    private final long accepted;
+
+    public PipelineSaturatedException(String message, Duration retryAfter, long accepted) {
+        super(message);
+        this.retryAfter = retryAfter;
+        this.accepted = accepted;
+    }
+
+    /**
+     * @return How long the producer should wait before retrying.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @return The number of entries of the request accepted before the pipeline filled up;
+     *         a streaming producer can resume after them.
+     */
+    public long getAccepted() {
+        return accepted;
+    }
+}
@@ -0,0 +1,131 @@
+package com.genai.incident.manager.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One stage of the ingestion pipeline: a bounded queue drained by a fixed set of worker threads.
+ * Producers outside the pipeline offer with a timeout and are turned away when the queue stays full;
+ * upstream stages block on put, so a slow stage backs up into the ones before it instead of buffering without limit.
+ *
+ * A partitioned stage gives each worker its own queue and routes every batch to one of them, so the
+ * entries of a batch are processed in order; the capacity is split between the partitions.
+ */
+final class PipelineStage {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineStage.class);
+
+    // Processes one item. May block handing the item to the next stage.
+    @FunctionalInterface
+    interface Handler {
+        void handle(PipelineItem item) throws InterruptedException;
+    }
+
+    private final String name;
+    private final List<BlockingQueue<PipelineItem>> queues; // One shared queue, or one per worker if partitioned
+    private final int capacity;
+    private final Handler handler;
+    private final List<Thread> workers;
+    private final LongAdder processed = new LongAdder();
+    private volatile boolean running = true;
+
+    PipelineStage(String name, int capacity, int threads, boolean partitioned, Handler handler) {
+        this.name = name;
+        this.capacity = capacity;
+        this.handler = handler;
+        this.queues = new ArrayList<>();
+        if (partitioned) {
+            for (int i = 0; i < threads; i++) {
+                queues.add(new ArrayBlockingQueue<>(Math.max(1, capacity / threads)));
+            }
+        } else {
+            queues.add(new ArrayBlockingQueue<>(capacity));
+        }
+        this.workers = new ArrayList<>(threads);
+        for (int i = 1; i <= threads; i++) {
+            BlockingQueue<PipelineItem> queue = queues.get(partitioned ? i - 1 : 0);
+            Thread worker = new Thread(() -> work(queue), "pipeline-" + name + "-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+    }
+
+    void start() {
+        workers.forEach(Thread::start);
+    }
+
+    void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Enqueues an item, waiting up to the given time for space.
+     * @return false if the queue stayed full.
+     */
+    boolean offer(PipelineItem item, long timeoutNanos) throws InterruptedException {
+        return queueFor(item).offer(item, timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Enqueues an item, waiting as long as it takes. Used for hand-offs between stages.
+     */
+    void put(PipelineItem item) throws InterruptedException {
+        queueFor(item).put(item);
+    }
+
+    int size() {
+        int size = 0;
+        for (BlockingQueue<PipelineItem> queue : queues) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    StageStats stats() {
+        return new StageStats(name, workers.size(), size(), capacity, processed.sum());
+    }
+
+    private BlockingQueue<PipelineItem> queueFor(PipelineItem item) {
+        return queues.size() == 1 ? queues.get(0) : queues.get(item.batch.partition() % queues.size());
+    }
+
+    private void work(BlockingQueue<PipelineItem> queue) {
+        while (running) {
+            PipelineItem item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                handler.handle(item);
+            } catch (InterruptedException e) {
+                fail(item, e);
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Pipeline stage {} failed to process a log entry", name, e);
+                fail(item, e);
+            }
+            processed.increment();
+        }
+    }
+
+    // A marker stands for no entry, so it must not count down the batch's pending entries.
+    private static void fail(PipelineItem item, Throwable error) {
+        if (!item.isMarker()) {
+            item.batch.failed(error);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.genai.incident.manager.pipeline;
+
+import java.util.List;
+
+/**
+ * Point-in-time state of the ingestion pipeline.
+ *
+ * @param stages The stages, in processing order.
+ * @param shed Low-priority entries dropped under load since startup.
+ * @param rejected Entries refused with a retry hint since startup.
+ */
+public record PipelineStats(List<StageStats> stages, long shed, long rejected) {
+}
@@ -0,0 +1,13 @@
+package com.genai.incident.manager.pipeline;
+
+/**
+ * Point-in-time state of one pipeline stage.
+ *
+ * @param name The stage name.
+ * @param threads Number of worker threads.
+ * @param queued Entries waiting in the stage's queue.
+ * @param capacity Capacity of the stage's queue.
+ * @param processed Entries processed since startup.
+ */
+public record StageStats(String name, int threads, int queued, int capacity, long processed) {
+}
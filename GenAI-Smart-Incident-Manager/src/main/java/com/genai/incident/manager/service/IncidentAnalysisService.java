@@ -0,0 +1,78 @@
+package com.genai.incident.manager.service;
+
+import com.genai.incident.manager.correlation.CorrelatedIncident;
+import com.genai.incident.manager.correlation.IncidentCorrelator;
+import com.genai.incident.manager.llm.LlmGateway;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import com.genai.incident.manager.store.IncidentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * The analysis steps a log entry goes through: classification, correlation, and storage with,
+ * for newly opened incidents, an asynchronous LLM analysis. Each step runs as its own stage of the
+ * ingestion pipeline (see IngestionPipeline).
+ * The rule-based report is stored immediately; when the LLM answers, the incident's explanation
+ * and resolution steps are replaced in the correlator and the store.
+ */
+@Service
+public class IncidentAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentAnalysisService.class);
+
+    private final GenAIService genAIService;
+    private final IncidentCorrelator incidentCorrelator;
+    private final IncidentStore incidentStore;
+    private final LlmGateway llmGateway;
+
+    public IncidentAnalysisService(GenAIService genAIService, IncidentCorrelator incidentCorrelator,
+                                   IncidentStore incidentStore, LlmGateway llmGateway) {
+        this.genAIService = genAIService;
+        this.incidentCorrelator = incidentCorrelator;
+        this.incidentStore = incidentStore;
+        this.llmGateway = llmGateway;
+    }
+
+    /**
+     * Classifies a log entry.
+     *
+     * @param logEntry The log entry.
+     * @return The rule-based report for the entry.
+     */
+    public IncidentReport classify(LogEntry logEntry) {
+        return genAIService.analyzeLog(logEntry);
+    }
+
+    /**
+     * Correlates an entry that was classified as an incident.
+     * Repeated occurrences of the same incident are reported under the same ID with an updated count.
+     *
+     * @param logEntry The log entry.
+     * @param report The entry's report from classification.
+     * @return The incident the entry belongs to.
+     */
+    public CorrelatedIncident correlate(LogEntry logEntry, IncidentReport report) {
+        return incidentCorrelator.correlate(logEntry, report);
+    }
+
+    /**
+     * Stores a correlated incident and, if it was newly opened, requests an LLM analysis for it.
+     *
+     * @param logEntry The log entry.
+     * @param incident The correlated incident.
+     */
+    public void persist(LogEntry logEntry, CorrelatedIncident incident) {
+        incidentStore.record(incident);
+        if (incident.isNew()) {
+            llmGateway.analyze(incident, logEntry).thenAccept(analysis -> analysis.ifPresent(result ->
+                incidentCorrelator.applyAnalysis(incident.key(), incident.report().getId(),
+                                                 result.explanation(), result.resolutionSteps())
+                    .ifPresent(updated -> {
+                        incidentStore.update(updated);
+                        log.debug("Applied LLM analysis to incident {}", updated.getId());
+                    })));
+        }
+    }
+}
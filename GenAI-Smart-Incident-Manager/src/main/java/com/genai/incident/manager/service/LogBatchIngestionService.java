@@ -0,0 +1,198 @@
+package com.genai.incident.manager.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.incident.manager.model.LogEntry;
+import com.genai.incident.manager.pipeline.IngestionBatch;
+import com.genai.incident.manager.pipeline.IngestionPipeline;
+import com.genai.incident.manager.wire.BufferPool;
+import com.genai.incident.manager.wire.LogFrameDecoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Feeds the log entries of a single HTTP request into the ingestion pipeline.
+ * A request body is read incrementally and never materialized as a whole: JSON arrays are split with
+ * Jackson's streaming parser and enter the pipeline already parsed, NDJSON bodies are split into lines
+ * that the pipeline's parse stage decodes, and binary log frame streams are decoded straight from a
+ * pooled buffer. Entries of a batch or stream may be single lines of a
+ * stack trace and are reassembled by the pipeline; a single posted entry is taken as a complete event. Submission blocks briefly while the pipeline is busy, which
+ * slows the client down through TCP flow control, and fails with a retry hint once it stays full.
+ */
+@Service
+public class LogBatchIngestionService {
+
+    // Submits the request's entries to the batch.
+    @FunctionalInterface
+    private interface Producer {
+        void produce(IngestionBatch batch) throws IOException, InterruptedException;
+    }
+
+    private final IngestionPipeline pipeline;
+    private final ObjectMapper objectMapper;
+    private final BufferPool bufferPool;
+
+    public LogBatchIngestionService(IngestionPipeline pipeline, ObjectMapper objectMapper, BufferPool bufferPool) {
+        this.pipeline = pipeline;
+        this.objectMapper = objectMapper;
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Ingests a JSON array of log entries, e.g. {@code [{...}, {...}]}.
+     *
+     * @param body The request body.
+     * @return The sealed batch; its completion future completes once all entries are processed.
+     * @throws IOException If the body cannot be read or is not a JSON array of log entries.
+     */
+    public IngestionBatch ingestJsonArray(InputStream body) throws IOException {
+        return ingest(true, batch -> {
+            try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "Expected a JSON array of log entries");
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new JsonParseException(parser, "Expected a log entry object but found " + token);
+                    }
+                    pipeline.submit(batch, objectMapper.readValue(parser, LogEntry.class));
+                }
+            }
+        });
+    }
+
+    /**
+     * Ingests newline-delimited JSON (NDJSON), one log entry object per line.
+     * Malformed lines are reported through the batch's failure once it completes.
+     *
+     * @param body The request body.
+     * @return The sealed batch; its completion future completes once all entries are processed.
+     * @throws IOException If the body cannot be read.
+     */
+    public IngestionBatch ingestNdjson(InputStream body) throws IOException {
+        return ingest(true, batch -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    pipeline.submit(batch, line);
+                }
+            }
+        });
+    }
+
+    /**
+     * Ingests a binary log frame stream (see LogFrames).
+     *
+     * @param body The request body.
+     * @return The sealed batch; its completion future completes once all entries are processed.
+     * @throws IOException If the stream cannot be read or is malformed (WireFormatException).
+     */
+    public IngestionBatch ingestFrames(InputStream body) throws IOException {
+        LogFrameDecoder decoder = new LogFrameDecoder(bufferPool);
+        return ingest(true, batch -> decoder.decode(body, entry -> pipeline.submit(batch, entry)));
+    }
+
+    /**
+     * Ingests a long-lived binary log frame stream, such as a log shipper's TCP connection, waiting for
+     * pipeline capacity instead of failing. The stream is split into consecutive batches, each sealed after
+     * a number of entries or once it is old enough, so a batch's summary and the incidents it keeps stay
+     * bounded however long the stream lives. Multi-line events being assembled carry over to the next batch.
+     *
+     * @param in The stream.
+     * @param maxEntries The number of entries after which a batch is sealed.
+     * @param maxAge The age after which a batch is sealed with its next entry.
+     * @param sealed Receives each batch once it is sealed, the last one when the stream ends or fails.
+     * @throws IOException If the stream cannot be read or is malformed (WireFormatException).
+     */
+    public void ingestFrameStream(InputStream in, long maxEntries, Duration maxAge, Consumer<IngestionBatch> sealed) throws IOException {
+        LogFrameDecoder decoder = new LogFrameDecoder(bufferPool);
+        RollingBatch batches = new RollingBatch(maxEntries, maxAge.toNanos(), sealed);
+        try {
+            try {
+                decoder.decode(in, batches::submit);
+            } finally {
+                pipeline.seal(batches.current);
+                sealed.accept(batches.current);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while submitting log entries");
+        }
+    }
+
+    /**
+     * Ingests a single JSON log entry.
+     *
+     * @param json The log entry as JSON.
+     * @return The sealed batch; its completion future completes once the entry is processed.
+     */
+    public IngestionBatch ingestOne(String json) {
+        try {
+            return ingest(false, batch -> pipeline.submit(batch, json));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected I/O error submitting a log entry", e);
+        }
+    }
+
+    /**
+     * @return How long producers should wait before resending entries the pipeline refused or shed.
+     */
+    public Duration getRetryAfter() {
+        return pipeline.getRetryAfter();
+    }
+
+    // The batch a long-lived stream currently feeds, rolled over by entry count and age.
+    private final class RollingBatch {
+        private final long maxEntries;
+        private final long maxAgeNanos;
+        private final Consumer<IngestionBatch> sealed;
+        private IngestionBatch current = pipeline.newBatch(true);
+        private long entries;
+        private long startNanos = System.nanoTime();
+
+        RollingBatch(long maxEntries, long maxAgeNanos, Consumer<IngestionBatch> sealed) {
+            this.maxEntries = maxEntries;
+            this.maxAgeNanos = maxAgeNanos;
+            this.sealed = sealed;
+        }
+
+        void submit(LogEntry entry) throws InterruptedException {
+            pipeline.submitWaiting(current, entry);
+            if (++entries >= maxEntries || System.nanoTime() - startNanos >= maxAgeNanos) {
+                IngestionBatch full = current;
+                current = pipeline.rollOver(full);
+                entries = 0;
+                startNanos = System.nanoTime();
+                sealed.accept(full);
+            }
+        }
+    }
+
+    // Runs the producer and always seals the batch, so entries accepted before a failure still complete.
+    private IngestionBatch ingest(boolean multiline, Producer producer) throws IOException {
+        IngestionBatch batch = pipeline.newBatch(multiline);
+        try {
+            try {
+                producer.produce(batch);
+            } finally {
+                pipeline.seal(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while submitting log entries");
+        }
+        return batch;
+    }
+}
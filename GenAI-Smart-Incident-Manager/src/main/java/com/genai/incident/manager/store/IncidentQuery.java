@@ -0,0 +1,15 @@
+package com.genai.incident.manager.store;
+
+import java.time.Instant;
+
+/**
+ * Criteria for querying the incident store. Null fields are not filtered on.
+ *
+ * @param serviceName Only incidents of this service.
+ * @param type Only incidents of this type.
+ * @param from Inclusive lower bound on incident time.
+ * @param to Inclusive upper bound on incident time.
+ * @param limit Maximum number of incidents returned, newest first.
+ */
+public record IncidentQuery(String serviceName, String type, Instant from, Instant to, int limit) {
+}
@@ -0,0 +1,434 @@
+package com.genai.incident.manager.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.incident.manager.correlation.CorrelatedIncident;
+import com.genai.incident.manager.model.IncidentReport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded, persistent store for incident reports.
+ *
+ * Reports are appended as JSON records to segment files on disk (see Segment); nothing is ever
+ * rewritten in place. In memory the store keeps only small index entries: a primary index by incident ID
+ * pointing at the latest persisted version, and time buckets that index entries by service and by type.
+ * A query such as "last 24 h for service X" therefore touches 24 hourly buckets and that service's
+ * entries in each, then reads just the matching records from disk.
+ *
+ * Correlated updates of an open incident are written when the occurrence count reaches a power of two,
+ * and otherwise at most once per update interval, so an error storm does not turn into a write storm.
+ * A periodic compaction drops incidents older than the retention period, prunes superseded index
+ * entries, deletes segments without live records and rewrites mostly-dead segments.
+ */
+@Service
+public class IncidentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentStore.class);
+
+    // Sealed segments whose live data falls below this share of their size are rewritten by compaction.
+    private static final double MIN_LIVE_RATIO = 0.5;
+    // Reads that race with compaction follow the record to its new location at most this many times.
+    private static final int READ_ATTEMPTS = 4;
+
+    // Index entries of one time bucket, by service and by type.
+    private static final class TimeBucket {
+        final Queue<IndexEntry> all = new ConcurrentLinkedQueue<>();
+        final Map<String, Queue<IndexEntry>> byService = new ConcurrentHashMap<>();
+        final Map<String, Queue<IndexEntry>> byType = new ConcurrentHashMap<>();
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long retentionMillis;
+    private final long bucketMillis;
+    private final long segmentBytes;
+    private final long updateIntervalMillis;
+
+    private final Object writeLock = new Object();
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private volatile Segment active;
+
+    private final Map<String, IndexEntry> byId = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, TimeBucket> buckets = new ConcurrentSkipListMap<>();
+    private final Map<String, IncidentReport> pendingUpdates = new ConcurrentHashMap<>(); // Deferred incident updates
+
+    public IncidentStore(ObjectMapper objectMapper,
+                         @Value("${incident.store.directory:./data/incidents}") String directory,
+                         @Value("${incident.store.retention:P30D}") Duration retention,
+                         @Value("${incident.store.bucket:PT1H}") Duration bucket,
+                         @Value("${incident.store.segment-size-bytes:67108864}") long segmentBytes,
+                         @Value("${incident.store.update-interval:PT10S}") Duration updateInterval) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+        this.retentionMillis = retention.toMillis();
+        this.bucketMillis = bucket.toMillis();
+        this.segmentBytes = segmentBytes;
+        this.updateIntervalMillis = updateInterval.toMillis();
+    }
+
+    /**
+     * Opens the segment files and rebuilds the in-memory indexes from them.
+     * A torn record at the end of the newest segment (e.g. after a crash) is truncated away.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> Segment.parseId(file) >= 0)
+                .sorted(Comparator.comparingLong(Segment::parseId))
+                .toList();
+        }
+        long start = System.nanoTime();
+        for (Path file : files) {
+            Segment segment = Segment.open(directory, Segment.parseId(file));
+            segments.put(segment.id, segment);
+            recover(segment, file.equals(files.get(files.size() - 1)));
+        }
+        active = segments.isEmpty() ? newSegment(1) : segments.lastEntry().getValue();
+        log.info("Incident store opened at {}: {} segments, {} incidents indexed in {} ms",
+                 directory.toAbsolutePath(), segments.size(), byId.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        flushPendingUpdates();
+        synchronized (writeLock) {
+            for (Segment segment : segments.values()) {
+                segment.channel.force(true);
+                segment.close();
+            }
+        }
+    }
+
+    /**
+     * Records a correlated incident. New incidents are written immediately; updates are written
+     * at power-of-two occurrence counts and otherwise deferred to the next periodic flush.
+     *
+     * @param incident The incident produced by correlation.
+     */
+    public void record(CorrelatedIncident incident) {
+        IncidentReport report = incident.report();
+        IndexEntry current = byId.get(report.getId());
+        if (!incident.isNew() && current != null) {
+            long occurrences = report.getOccurrences();
+            if (occurrences <= current.occurrences) {
+                return;
+            }
+            boolean milestone = (occurrences & (occurrences - 1)) == 0;
+            if (!milestone && System.currentTimeMillis() - current.persistedAtMillis < updateIntervalMillis) {
+                pendingUpdates.merge(report.getId(), report,
+                    (pending, update) -> update.getOccurrences() > pending.getOccurrences() ? update : pending);
+                return;
+            }
+        }
+        pendingUpdates.remove(report.getId());
+        append(report);
+    }
+
+    /**
+     * Writes a changed incident report right away, e.g. after its analysis was replaced.
+     * Any deferred update for the incident is superseded.
+     *
+     * @param report The updated incident report.
+     */
+    public void update(IncidentReport report) {
+        pendingUpdates.remove(report.getId());
+        append(report);
+    }
+
+    /**
+     * Writes deferred incident updates, so the stored occurrence counts never lag by more than the update interval.
+     */
+    @Scheduled(fixedDelayString = "${incident.store.update-interval:PT10S}")
+    public void flushPendingUpdates() {
+        for (String id : new ArrayList<>(pendingUpdates.keySet())) {
+            IncidentReport report = pendingUpdates.remove(id);
+            if (report != null) {
+                append(report);
+            }
+        }
+    }
+
+    /**
+     * Finds incidents matching a query, newest first.
+     *
+     * @param query The query criteria.
+     * @return The matching incident reports, at most query.limit() of them.
+     */
+    public List<IncidentReport> query(IncidentQuery query) {
+        long from = query.from() != null ? query.from().toEpochMilli() : Long.MIN_VALUE;
+        long to = query.to() != null ? query.to().toEpochMilli() : Long.MAX_VALUE;
+        int limit = Math.max(0, query.limit());
+
+        NavigableMap<Long, TimeBucket> range = buckets;
+        if (query.from() != null) {
+            range = range.tailMap(bucketStart(from), true);
+        }
+        if (query.to() != null) {
+            range = range.headMap(bucketStart(to), true);
+        }
+
+        List<IndexEntry> matches = new ArrayList<>();
+        for (TimeBucket bucket : range.descendingMap().values()) {
+            Queue<IndexEntry> candidates = query.serviceName() != null ? bucket.byService.get(query.serviceName())
+                : query.type() != null ? bucket.byType.get(query.type())
+                : bucket.all;
+            if (candidates == null) {
+                continue;
+            }
+            for (IndexEntry entry : candidates) {
+                if (byId.get(entry.id) == entry
+                    && entry.timeMillis >= from && entry.timeMillis <= to
+                    && (query.serviceName() == null || query.serviceName().equals(entry.serviceName))
+                    && (query.type() == null || query.type().equals(entry.type))) {
+                    matches.add(entry);
+                }
+            }
+            // Buckets are visited newest first, so older buckets cannot displace what we already have.
+            if (matches.size() >= limit) {
+                break;
+            }
+        }
+
+        matches.sort(Comparator.comparingLong((IndexEntry entry) -> entry.timeMillis).reversed());
+        List<IncidentReport> reports = new ArrayList<>(Math.min(limit, matches.size()));
+        for (IndexEntry entry : matches.subList(0, Math.min(limit, matches.size()))) {
+            read(entry).ifPresent(reports::add);
+        }
+        return reports;
+    }
+
+    /**
+     * @param id An incident ID.
+     * @return The latest persisted version of the incident, if it is stored.
+     */
+    public Optional<IncidentReport> findById(String id) {
+        IndexEntry entry = byId.get(id);
+        return entry == null ? Optional.empty() : read(entry);
+    }
+
+    /**
+     * @return The number of incidents currently stored.
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Applies retention and reclaims space. Expired incidents and superseded index entries are dropped,
+     * segments without live records are deleted, and sealed segments that are mostly dead are rewritten
+     * by copying their live records to the active segment.
+     */
+    @Scheduled(fixedDelayString = "${incident.store.compaction-interval:PT10M}",
+               initialDelayString = "${incident.store.compaction-interval:PT10M}")
+    public void compact() {
+        long start = System.nanoTime();
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+
+        // 1. Retention and index pruning.
+        byId.entrySet().removeIf(entry -> entry.getValue().timeMillis < cutoff);
+        buckets.headMap(bucketStart(cutoff)).clear();
+        for (TimeBucket bucket : buckets.values()) {
+            bucket.all.removeIf(entry -> byId.get(entry.id) != entry);
+            bucket.byService.values().forEach(entries -> entries.removeIf(entry -> byId.get(entry.id) != entry));
+            bucket.byType.values().forEach(entries -> entries.removeIf(entry -> byId.get(entry.id) != entry));
+            bucket.byService.values().removeIf(Queue::isEmpty);
+            bucket.byType.values().removeIf(Queue::isEmpty);
+        }
+
+        // 2. Segment reclamation. Only segments sealed before the live records are collected are considered:
+        // appends may roll the active segment meanwhile, and records written after the snapshot would be missed.
+        long sealedBelow = active.id;
+        Map<Segment, List<IndexEntry>> liveBySegment = new HashMap<>();
+        byId.values().forEach(entry -> liveBySegment.computeIfAbsent(entry.location.segment(), s -> new ArrayList<>()).add(entry));
+        int deleted = 0;
+        int rewritten = 0;
+        for (Segment segment : new ArrayList<>(segments.headMap(sealedBelow).values())) {
+            List<IndexEntry> live = liveBySegment.getOrDefault(segment, List.of());
+            long liveBytes = live.stream().mapToLong(entry -> Segment.HEADER_BYTES + entry.length).sum();
+            try {
+                if (live.isEmpty()) {
+                    deleteSegment(segment);
+                    deleted++;
+                } else if (liveBytes < segment.size.get() * MIN_LIVE_RATIO) {
+                    for (IndexEntry entry : live) {
+                        relocate(entry, segment);
+                    }
+                    deleteSegment(segment);
+                    rewritten++;
+                }
+            } catch (IOException e) {
+                log.warn("Compaction of segment {} failed: {}", segment.path, e.getMessage());
+            }
+        }
+        log.info("Incident store compaction finished in {} ms: {} incidents live, {} segments deleted, {} rewritten",
+                 (System.nanoTime() - start) / 1_000_000, byId.size(), deleted, rewritten);
+    }
+
+    private void append(IncidentReport report) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize incident " + report.getId(), e);
+        }
+        int crc = crc(payload);
+        long timeMillis = timeOf(report);
+
+        synchronized (writeLock) {
+            IndexEntry current = byId.get(report.getId());
+            if (current != null && current.occurrences > report.getOccurrences()) {
+                return; // A newer version was written concurrently
+            }
+            try {
+                if (active.size.get() >= segmentBytes) {
+                    active = newSegment(active.id + 1);
+                }
+                long offset = active.append(payload, crc);
+                index(new IndexEntry(report.getId(), report.getServiceName(), report.getType(), timeMillis,
+                    report.getOccurrences(), System.currentTimeMillis(), active, offset, payload.length));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append incident " + report.getId() + " to " + active.path, e);
+            }
+        }
+    }
+
+    // Copies a live record into the active segment and repoints its index entry.
+    private void relocate(IndexEntry entry, Segment from) throws IOException {
+        synchronized (writeLock) {
+            IndexEntry.Location location = entry.location;
+            if (byId.get(entry.id) != entry || location.segment() != from) {
+                return; // Superseded since compaction started
+            }
+            byte[] payload = from.read(location.offset(), entry.length);
+            if (active.size.get() >= segmentBytes) {
+                active = newSegment(active.id + 1);
+            }
+            long offset = active.append(payload, crc(payload));
+            entry.location = new IndexEntry.Location(active, offset);
+        }
+    }
+
+    private void index(IndexEntry entry) {
+        byId.put(entry.id, entry);
+        TimeBucket bucket = buckets.computeIfAbsent(bucketStart(entry.timeMillis), start -> new TimeBucket());
+        bucket.all.add(entry);
+        if (entry.serviceName != null) {
+            bucket.byService.computeIfAbsent(entry.serviceName, service -> new ConcurrentLinkedQueue<>()).add(entry);
+        }
+        if (entry.type != null) {
+            bucket.byType.computeIfAbsent(entry.type, type -> new ConcurrentLinkedQueue<>()).add(entry);
+        }
+    }
+
+    private Optional<IncidentReport> read(IndexEntry entry) {
+        // Between resolving the entry and reading the data, compaction may move the record, or a newer version
+        // may supersede it, and the old segment be deleted. Retry at the incident's current location.
+        IndexEntry current = entry;
+        for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+            IndexEntry.Location location = current.location;
+            try {
+                return Optional.of(objectMapper.readValue(location.segment().read(location.offset(), current.length), IncidentReport.class));
+            } catch (IOException e) {
+                IndexEntry latest = byId.get(entry.id);
+                if (latest == null || (latest == current && latest.location == location) || attempt == READ_ATTEMPTS - 1) {
+                    log.warn("Could not read incident {}: {}", entry.id, e.getMessage());
+                    return Optional.empty();
+                }
+                current = latest;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void recover(Segment segment, boolean newest) throws IOException {
+        long position = 0;
+        long size = segment.size.get();
+        ByteBuffer header = ByteBuffer.allocate(Segment.HEADER_BYTES);
+        while (position + Segment.HEADER_BYTES <= size) {
+            header.clear();
+            segment.channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length <= 0 || position + Segment.HEADER_BYTES + length > size) {
+                break;
+            }
+            byte[] payload = segment.read(position, length);
+            if (crc(payload) != crc) {
+                break;
+            }
+            IncidentReport report = objectMapper.readValue(payload, IncidentReport.class);
+            IndexEntry current = byId.get(report.getId());
+            if (current == null || current.occurrences <= report.getOccurrences()) {
+                index(new IndexEntry(report.getId(), report.getServiceName(), report.getType(), timeOf(report),
+                    report.getOccurrences(), System.currentTimeMillis(), segment, position, length));
+            }
+            position += Segment.HEADER_BYTES + length;
+        }
+        if (position < size) {
+            if (newest) {
+                log.warn("Truncating torn tail of {} at offset {} (was {} bytes)", segment.path, position, size);
+                segment.truncate(position);
+            } else {
+                log.warn("Ignoring corrupt data in {} after offset {}", segment.path, position);
+            }
+        }
+    }
+
+    private Segment newSegment(long id) throws IOException {
+        Segment segment = Segment.open(directory, id);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void deleteSegment(Segment segment) throws IOException {
+        synchronized (writeLock) {
+            segments.remove(segment.id);
+            segment.delete();
+        }
+    }
+
+    private long bucketStart(long timeMillis) {
+        return Math.floorDiv(timeMillis, bucketMillis) * bucketMillis;
+    }
+
+    private static long timeOf(IncidentReport report) {
+        Instant time = report.getLastSeen() != null ? report.getLastSeen() : report.getTimestamp();
+        return time != null ? time.toEpochMilli() : System.currentTimeMillis();
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+}
@@ -0,0 +1,36 @@
+package com.genai.incident.manager.store;
+
+/**
+ * In-memory index entry for one persisted version of an incident.
+ * Only the latest version of an incident is live: indexes may still reference older entries,
+ * which queries skip by checking identity against the store's primary index.
+ * The location moves when compaction copies the record to another segment; segment and offset are
+ * published together as one immutable Location, so readers never pair a segment with another segment's offset.
+ */
+final class IndexEntry {
+
+    final String id;
+    final String serviceName;
+    final String type;
+    final long timeMillis;        // Incident time used for time-range queries (last seen, or report time)
+    final long occurrences;       // Occurrence count of this version; older versions never replace newer ones
+    final long persistedAtMillis; // Wall-clock time this version was written
+
+    final int length;
+    volatile Location location;
+
+    record Location(Segment segment, long offset) {
+    }
+
+    IndexEntry(String id, String serviceName, String type, long timeMillis, long occurrences, long persistedAtMillis,
+               Segment segment, long offset, int length) {
+        this.id = id;
+        this.serviceName = serviceName;
+        this.type = type;
+        this.timeMillis = timeMillis;
+        this.occurrences = occurrences;
+        this.persistedAtMillis = persistedAtMillis;
+        this.length = length;
+        this.location = new Location(segment, offset);
+    }
+}
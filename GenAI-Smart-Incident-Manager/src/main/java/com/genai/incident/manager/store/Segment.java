@@ -0,0 +1,100 @@
+package com.genai.incident.manager.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One append-only segment file of the incident store.
+ * Records are framed as [int length][int crc32][length bytes of JSON]. Appends are serialized by the
+ * store; reads use positional I/O and may run concurrently with appends and with each other.
+ */
+final class Segment {
+
+    static final int HEADER_BYTES = 8;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    final long id;
+    final Path path;
+    final FileChannel channel;
+    final AtomicLong size;
+
+    private Segment(long id, Path path, FileChannel channel) throws IOException {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.size = new AtomicLong(channel.size());
+    }
+
+    static Segment open(Path directory, long id) throws IOException {
+        Path path = directory.resolve(String.format("%s%012d%s", PREFIX, id, SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, path, channel);
+    }
+
+    /**
+     * @return The segment ID encoded in a file name, or -1 if the file is not a segment.
+     */
+    static long parseId(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Appends a framed record. Callers must serialize appends.
+     * @return The offset of the record's header.
+     */
+    long append(byte[] payload, int crc) throws IOException {
+        long offset = size.get();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putInt(crc).put(payload).flip();
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        size.set(position);
+        return offset;
+    }
+
+    /**
+     * Reads the payload of the record at the given offset.
+     */
+    byte[] read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long position = offset + HEADER_BYTES;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of segment " + path);
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    void truncate(long newSize) throws IOException {
+        channel.truncate(newSize);
+        size.set(newSize);
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,15 @@
+package com.genai.incident.manager.templates;
+
+import java.util.List;
+
+/**
+ * Result of mining one log message.
+ *
+ * @param templateId Compact, stable ID of the template (cluster) the message belongs to, e.g. "T42".
+ *                   The ID does not change when the template is generalized by later messages.
+ * @param template The template text, with variable positions shown as "&lt;*&gt;".
+ * @param parameters The message tokens found at the template's variable positions.
+ * @param isNew True if the message opened a new template.
+ */
+public record LogTemplate(String templateId, String template, List<String> parameters, boolean isNew) {
+}
@@ -0,0 +1,278 @@
+package com.genai.incident.manager.templates;
+
+import com.genai.incident.manager.correlation.MessageFingerprinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Online log template miner in the style of Drain (He et al., "Drain: An Online Log Parsing
+ * Approach with Fixed Depth Tree").
+ *
+ * Messages are tokenized on whitespace and routed through a fixed-depth parse tree: first by token
+ * count, then by their leading tokens (tokens containing digits are routed as wildcards). The leaf
+ * holds candidate clusters; the message joins the most similar one if the share of identical tokens
+ * reaches the similarity threshold, generalizing differing positions to "&lt;*&gt;", otherwise it
+ * opens a new cluster. Tokens containing digits start out as "&lt;*&gt;" in a new template.
+ * Each cluster keeps a stable ID that can be used to correlate on.
+ *
+ * Memory is bounded: messages are truncated to a maximum token count, every tree node has a limited
+ * number of children (extra tokens share a wildcard child), and the number of clusters is capped with
+ * least-recently-matched eviction. Evicting a cluster also prunes the tree nodes left without clusters
+ * or children, so the tree only holds the paths of live clusters. The tree below the token-count level is split into lock stripes
+ * keyed by (token count, first token), so concurrent ingest only contends on messages of the same shape.
+ */
+@Component
+public class LogTemplateMiner {
+
+    public static final String WILDCARD = MessageFingerprinter.PLACEHOLDER;
+    private static final int MAX_TOKENS = 64;
+
+    // An inner node of the parse tree; leaves use 'clusters' instead of 'children'.
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        final List<LogCluster> clusters = new ArrayList<>();
+        final Map<String, Node> siblings; // The map holding this node: its parent's children, or a first-level map
+        final String key;                 // This node's key in 'siblings'
+        final Node parent;                // Null for first-level nodes
+
+        Node(Map<String, Node> siblings, String key, Node parent) {
+            this.siblings = siblings;
+            this.key = key;
+            this.parent = parent;
+        }
+    }
+
+    // A group of messages sharing a template. Mutated only under its stripe's lock.
+    private static final class LogCluster {
+        final long id;
+        final String[] tokens;
+        final Node leaf;
+        final AtomicLong occurrences = new AtomicLong(1);
+        volatile String template;
+
+        LogCluster(long id, String[] tokens, Node leaf) {
+            this.id = id;
+            this.tokens = tokens;
+            this.leaf = leaf;
+            this.template = String.join(" ", tokens);
+        }
+    }
+
+    // A lock stripe: the subtrees routed to it and its clusters in least-recently-matched order.
+    private static final class Stripe {
+        final LinkedHashMap<Long, LogCluster> clusters = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private final Map<Integer, Map<String, Node>> firstLevel = new ConcurrentHashMap<>();
+    private final Stripe[] stripes;
+    private final AtomicLong nextClusterId = new AtomicLong();
+    private final int prefixDepth;
+    private final double similarityThreshold;
+    private final int maxChildren;
+    private final int maxClustersPerStripe;
+
+    public LogTemplateMiner(@Value("${incident.templates.depth:4}") int depth,
+                            @Value("${incident.templates.similarity-threshold:0.5}") double similarityThreshold,
+                            @Value("${incident.templates.max-children:100}") int maxChildren,
+                            @Value("${incident.templates.max-clusters:50000}") int maxClusters,
+                            @Value("${incident.templates.lock-stripes:64}") int lockStripes) {
+        // Depth counts the root and the token-count level, as in the Drain paper.
+        this.prefixDepth = Math.max(1, depth - 2);
+        this.similarityThreshold = similarityThreshold;
+        this.maxChildren = Math.max(1, maxChildren);
+        int stripeCount = Integer.highestOneBit(Math.max(1, lockStripes));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxClustersPerStripe = Math.max(1, maxClusters / stripeCount);
+    }
+
+    /**
+     * Assigns a message to a template, creating or generalizing templates as needed.
+     *
+     * @param message The raw log message.
+     * @return The template the message belongs to.
+     */
+    public LogTemplate mine(String message) {
+        String[] tokens = tokenize(message);
+        Map<String, Node> byFirstToken = firstLevel.computeIfAbsent(tokens.length, length -> new ConcurrentHashMap<>());
+        String firstKey = tokens.length == 0 ? WILDCARD : routingKey(tokens[0]);
+        if (!byFirstToken.containsKey(firstKey) && byFirstToken.size() >= maxChildren) {
+            firstKey = WILDCARD;
+        }
+        Stripe stripe = stripes[(31 * tokens.length + firstKey.hashCode()) & (stripes.length - 1)];
+
+        synchronized (stripe) {
+            Node node = byFirstToken.computeIfAbsent(firstKey, key -> new Node(byFirstToken, key, null));
+            for (int i = 1; i < Math.min(prefixDepth, tokens.length); i++) {
+                node = child(node, routingKey(tokens[i]));
+            }
+
+            LogCluster best = bestMatch(node.clusters, tokens);
+            boolean isNew = best == null;
+            if (isNew) {
+                String[] templateTokens = new String[tokens.length];
+                for (int i = 0; i < tokens.length; i++) {
+                    templateTokens[i] = routingKey(tokens[i]);
+                }
+                best = new LogCluster(nextClusterId.incrementAndGet(), templateTokens, node);
+                node.clusters.add(best);
+                stripe.clusters.put(best.id, best);
+                if (stripe.clusters.size() > maxClustersPerStripe) {
+                    evictEldest(stripe);
+                }
+            } else {
+                generalize(best, tokens);
+                best.occurrences.incrementAndGet();
+                stripe.clusters.get(best.id); // Refresh LRU position
+            }
+            return new LogTemplate("T" + best.id, best.template, parameters(best.tokens, tokens), isNew);
+        }
+    }
+
+    /**
+     * @return A snapshot of all templates currently tracked, most frequent first.
+     */
+    public List<LogTemplateSummary> getTemplates() {
+        List<LogTemplateSummary> templates = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (LogCluster cluster : stripe.clusters.values()) {
+                    templates.add(new LogTemplateSummary("T" + cluster.id, cluster.template, cluster.occurrences.get()));
+                }
+            }
+        }
+        templates.sort((a, b) -> Long.compare(b.occurrences(), a.occurrences()));
+        return templates;
+    }
+
+    /**
+     * Counts the parse tree nodes below the token-count level. Only exact while no message is being mined.
+     * @return The number of parse tree nodes.
+     */
+    int nodeCount() {
+        int count = 0;
+        for (Map<String, Node> byFirstToken : firstLevel.values()) {
+            for (Node node : byFirstToken.values()) {
+                count += subtreeSize(node);
+            }
+        }
+        return count;
+    }
+
+    private static int subtreeSize(Node node) {
+        int size = 1;
+        for (Node child : node.children.values()) {
+            size += subtreeSize(child);
+        }
+        return size;
+    }
+
+    private Node child(Node node, String key) {
+        Node next = node.children.get(key);
+        if (next == null) {
+            if (node.children.size() >= maxChildren) {
+                key = WILDCARD;
+                next = node.children.get(key);
+            }
+            if (next == null) {
+                next = new Node(node.children, key, node);
+                node.children.put(key, next);
+            }
+        }
+        return next;
+    }
+
+    // Picks the most similar cluster at or above the threshold, preferring more wildcards on ties.
+    private LogCluster bestMatch(List<LogCluster> candidates, String[] tokens) {
+        LogCluster best = null;
+        double bestSimilarity = -1;
+        int bestWildcards = -1;
+        for (LogCluster cluster : candidates) {
+            int same = 0;
+            int wildcards = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                if (cluster.tokens[i].equals(WILDCARD)) {
+                    wildcards++;
+                } else if (cluster.tokens[i].equals(tokens[i])) {
+                    same++;
+                }
+            }
+            double similarity = tokens.length == 0 ? 1.0 : (double) same / tokens.length;
+            if (similarity > bestSimilarity || (similarity == bestSimilarity && wildcards > bestWildcards)) {
+                best = cluster;
+                bestSimilarity = similarity;
+                bestWildcards = wildcards;
+            }
+        }
+        return bestSimilarity >= similarityThreshold ? best : null;
+    }
+
+    private static void generalize(LogCluster cluster, String[] tokens) {
+        boolean changed = false;
+        for (int i = 0; i < tokens.length; i++) {
+            if (!cluster.tokens[i].equals(tokens[i]) && !cluster.tokens[i].equals(WILDCARD)) {
+                cluster.tokens[i] = WILDCARD;
+                changed = true;
+            }
+        }
+        if (changed) {
+            cluster.template = String.join(" ", cluster.tokens);
+        }
+    }
+
+    // Evicts the least recently matched cluster and prunes the nodes it leaves empty, up to the first level.
+    // A subtree is only reached through its stripe, so this is safe under the stripe's lock.
+    private static void evictEldest(Stripe stripe) {
+        Map.Entry<Long, LogCluster> eldest = stripe.clusters.entrySet().iterator().next();
+        stripe.clusters.remove(eldest.getKey());
+        Node node = eldest.getValue().leaf;
+        node.clusters.remove(eldest.getValue());
+        while (node != null && node.clusters.isEmpty() && node.children.isEmpty()) {
+            node.siblings.remove(node.key, node);
+            node = node.parent;
+        }
+    }
+
+    private static List<String> parameters(String[] template, String[] tokens) {
+        List<String> parameters = new ArrayList<>();
+        for (int i = 0; i < tokens.length; i++) {
+            if (template[i].equals(WILDCARD)) {
+                parameters.add(tokens[i]);
+            }
+        }
+        return parameters;
+    }
+
+    // Tokens containing digits are almost always variables, so they are routed as wildcards.
+    private static String routingKey(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return WILDCARD;
+            }
+        }
+        return token;
+    }
+
+    private static String[] tokenize(String message) {
+        if (message == null || message.isBlank()) {
+            return new String[0];
+        }
+        String[] tokens = message.trim().split("\\s+", MAX_TOKENS + 1);
+        if (tokens.length > MAX_TOKENS) {
+            String[] truncated = new String[MAX_TOKENS];
+            System.arraycopy(tokens, 0, truncated, 0, MAX_TOKENS);
+            return truncated;
+        }
+        return tokens;
+    }
+}
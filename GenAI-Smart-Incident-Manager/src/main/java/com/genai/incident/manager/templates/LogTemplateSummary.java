@@ -0,0 +1,11 @@
+package com.genai.incident.manager.templates;
+
+/**
+ * A point-in-time view of one mined template, as exposed by the templates API.
+ *
+ * @param templateId The template's ID.
+ * @param template The current template text.
+ * @param occurrences How many messages have matched the template.
+ */
+public record LogTemplateSummary(String templateId, String template, long occurrences) {
+}
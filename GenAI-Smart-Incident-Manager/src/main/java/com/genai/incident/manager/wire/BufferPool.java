@@ -0,0 +1,52 @@
+package com.genai.incident.manager.wire;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of fixed-size heap buffers for decoding log frame streams, so a busy ingestion endpoint does not
+ * allocate a new read buffer per request or connection. The buffer size is also the maximum frame size.
+ * When the pool is empty a fresh buffer is allocated; at most max-pooled buffers are kept for reuse.
+ */
+@Component
+public class BufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    public BufferPool(@Value("${incident.wire.buffer-size:65536}") int bufferSize,
+                      @Value("${incident.wire.max-pooled-buffers:64}") int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(Math.max(1, maxPooledBuffers));
+    }
+
+    /**
+     * @return An empty buffer in read mode (no remaining bytes).
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(bufferSize);
+        }
+        buffer.clear().flip();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used afterwards.
+     */
+    public void release(ByteBuffer buffer) {
+        buffers.offer(buffer);
+    }
+
+    /**
+     * @return The size of pooled buffers.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
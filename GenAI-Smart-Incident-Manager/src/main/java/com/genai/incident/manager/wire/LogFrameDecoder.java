@@ -0,0 +1,177 @@
+package com.genai.incident.manager.wire;
+
+import com.genai.incident.manager.model.LogEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Decodes one log frame stream (see LogFrames) into LogEntry objects.
+ * Frames are decoded in place from a pooled buffer: only the message string is allocated per entry,
+ * service names and levels resolve to the stream's dictionary strings, and timestamps are plain longs.
+ * An instance holds the stream's dictionaries and must not be shared between streams.
+ */
+public final class LogFrameDecoder {
+
+    /** Receives decoded entries. */
+    @FunctionalInterface
+    public interface EntrySink {
+        void accept(LogEntry entry) throws IOException, InterruptedException;
+    }
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final BufferPool bufferPool;
+    private String[] services = new String[16];
+    private String[] levels = new String[8];
+
+    public LogFrameDecoder(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Decodes the stream until it ends.
+     *
+     * @param in The stream, positioned at the magic number.
+     * @param sink Receives each decoded entry.
+     * @return The number of entries decoded.
+     * @throws WireFormatException If the stream is malformed or truncated.
+     * @throws IOException If the stream cannot be read.
+     */
+    public long decode(InputStream in, EntrySink sink) throws IOException, InterruptedException {
+        ByteBuffer buffer = bufferPool.acquire();
+        long entries = 0;
+        try {
+            if (!fill(in, buffer, 4) || buffer.getInt() != LogFrames.MAGIC) {
+                throw new WireFormatException("Not a log frame stream");
+            }
+            int maxFrameLength = buffer.capacity() - 4;
+            while (fill(in, buffer, 4)) {
+                int length = buffer.getInt(buffer.position());
+                if (length < 1 || length > maxFrameLength) {
+                    throw new WireFormatException("Invalid frame length " + length + " (maximum " + maxFrameLength + ")");
+                }
+                if (!fill(in, buffer, 4 + length)) {
+                    throw new WireFormatException("Stream ends inside a frame");
+                }
+                int end = buffer.position() + 4 + length;
+                buffer.position(buffer.position() + 4);
+                byte type = buffer.get();
+                if (type == LogFrames.TYPE_ENTRY) {
+                    sink.accept(decodeEntry(buffer, end));
+                    entries++;
+                } else if (type == LogFrames.TYPE_DEFINE) {
+                    decodeDefinition(buffer, end);
+                } else {
+                    throw new WireFormatException("Unknown frame type " + type);
+                }
+                if (buffer.position() != end) {
+                    throw new WireFormatException("Frame length does not match its content");
+                }
+            }
+            if (buffer.hasRemaining()) {
+                throw new WireFormatException("Stream ends inside a frame header");
+            }
+            return entries;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private LogEntry decodeEntry(ByteBuffer buffer, int end) throws WireFormatException {
+        checkAvailable(buffer, end, 8);
+        long nanos = buffer.getLong();
+        String service = lookup(services, readVarint(buffer, end), "service");
+        String level = lookup(levels, readVarint(buffer, end), "level");
+        int messageLength = readVarint(buffer, end);
+        String message = null;
+        if (messageLength > 0) {
+            message = readString(buffer, end, messageLength - 1);
+        }
+        Instant timestamp = nanos == LogFrames.NO_TIMESTAMP ? null
+            : Instant.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND));
+        return new LogEntry(timestamp, service, level, message);
+    }
+
+    private void decodeDefinition(ByteBuffer buffer, int end) throws WireFormatException {
+        checkAvailable(buffer, end, 1);
+        byte dictionary = buffer.get();
+        int id = readVarint(buffer, end);
+        String value = readString(buffer, end, readVarint(buffer, end));
+        if (id < 1 || id > LogFrames.MAX_DICTIONARY_SIZE) {
+            throw new WireFormatException("Dictionary id out of range: " + id);
+        }
+        if (dictionary == LogFrames.DICTIONARY_SERVICE) {
+            services = define(services, id, value);
+        } else if (dictionary == LogFrames.DICTIONARY_LEVEL) {
+            levels = define(levels, id, value);
+        } else {
+            throw new WireFormatException("Unknown dictionary " + dictionary);
+        }
+    }
+
+    private static String[] define(String[] dictionary, int id, String value) {
+        String[] target = id < dictionary.length ? dictionary : Arrays.copyOf(dictionary, Math.max(id + 1, dictionary.length * 2));
+        target[id] = value;
+        return target;
+    }
+
+    private static String lookup(String[] dictionary, int id, String kind) throws WireFormatException {
+        if (id == 0) {
+            return null;
+        }
+        if (id >= dictionary.length || dictionary[id] == null) {
+            throw new WireFormatException("Undefined " + kind + " id " + id);
+        }
+        return dictionary[id];
+    }
+
+    private static String readString(ByteBuffer buffer, int end, int length) throws WireFormatException {
+        checkAvailable(buffer, end, length);
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int readVarint(ByteBuffer buffer, int end) throws WireFormatException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            checkAvailable(buffer, end, 1);
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    throw new WireFormatException("Varint out of range");
+                }
+                return value;
+            }
+        }
+        throw new WireFormatException("Varint too long");
+    }
+
+    private static void checkAvailable(ByteBuffer buffer, int end, int bytes) throws WireFormatException {
+        if (bytes < 0 || end - buffer.position() < bytes) {
+            throw new WireFormatException("Frame content exceeds frame length");
+        }
+    }
+
+    // Reads until the buffer holds at least the given number of bytes; false if the stream ended first.
+    private static boolean fill(InputStream in, ByteBuffer buffer, int bytes) throws IOException {
+        while (buffer.remaining() < bytes) {
+            buffer.compact();
+            int read = in.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            if (read > 0) {
+                buffer.position(buffer.position() + read);
+            }
+            buffer.flip();
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.genai.incident.manager.wire;
+
+import com.genai.incident.manager.model.LogEntry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes LogEntry objects into a log frame stream (see LogFrames), for shippers, tools and benchmarks.
+ * Service names and levels are defined in the stream the first time they are used.
+ * An instance writes one stream and is not thread-safe.
+ */
+public final class LogFrameEncoder {
+
+    private final OutputStream out;
+    private final ByteBuffer frame;
+    private final Map<String, Integer> services = new HashMap<>();
+    private final Map<String, Integer> levels = new HashMap<>();
+    private boolean started;
+
+    /**
+     * @param out The stream to write to; frames are written whole, so it need not be buffered.
+     * @param maxFrameSize The receiver's maximum frame size (its buffer size); longer messages are truncated.
+     */
+    public LogFrameEncoder(OutputStream out, int maxFrameSize) {
+        this.out = out;
+        this.frame = ByteBuffer.allocate(maxFrameSize);
+    }
+
+    /**
+     * Writes one entry, preceded by definitions of its service name and level if they are new to the stream.
+     */
+    public void write(LogEntry entry) throws IOException {
+        if (!started) {
+            frame.clear();
+            frame.putInt(LogFrames.MAGIC);
+            flushFrame();
+            started = true;
+        }
+        int serviceId = idOf(services, LogFrames.DICTIONARY_SERVICE, entry.getServiceName());
+        int levelId = idOf(levels, LogFrames.DICTIONARY_LEVEL, entry.getLevel());
+
+        Instant timestamp = entry.getTimestamp();
+        byte[] message = entry.getMessage() != null ? entry.getMessage().getBytes(StandardCharsets.UTF_8) : null;
+        // Header, type, timestamp and three varints take at most 4 + 1 + 8 + 3 * 5 bytes
+        int messageLength = message == null ? 0 : Math.min(message.length, frame.capacity() - 28);
+
+        frame.clear();
+        frame.putInt(0); // Length, patched below
+        frame.put(LogFrames.TYPE_ENTRY);
+        frame.putLong(timestamp == null ? LogFrames.NO_TIMESTAMP
+            : Math.addExact(Math.multiplyExact(timestamp.getEpochSecond(), 1_000_000_000L), timestamp.getNano()));
+        putVarint(serviceId);
+        putVarint(levelId);
+        if (message == null) {
+            putVarint(0);
+        } else {
+            putVarint(messageLength + 1);
+            frame.put(message, 0, messageLength);
+        }
+        frame.putInt(0, frame.position() - 4);
+        flushFrame();
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private int idOf(Map<String, Integer> dictionary, byte kind, String value) throws IOException {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = dictionary.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (dictionary.size() >= LogFrames.MAX_DICTIONARY_SIZE) {
+            throw new WireFormatException("Too many distinct values for one stream");
+        }
+        int newId = dictionary.size() + 1;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        frame.clear();
+        frame.putInt(0);
+        frame.put(LogFrames.TYPE_DEFINE);
+        frame.put(kind);
+        putVarint(newId);
+        putVarint(bytes.length);
+        frame.put(bytes);
+        frame.putInt(0, frame.position() - 4);
+        flushFrame();
+        dictionary.put(value, newId);
+        return newId;
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            frame.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        frame.put((byte) value);
+    }
+
+    private void flushFrame() throws IOException {
+        out.write(frame.array(), 0, frame.position());
+    }
+}
@@ -0,0 +1,37 @@
+package com.genai.incident.manager.wire;
+
+/**
+ * Constants of the binary log frame format, a compact alternative to JSON for high-volume shippers.
+ *
+ * A stream starts with the 4-byte magic "LGF1" and continues with frames, each a big-endian u32 length
+ * followed by that many bytes: a u8 frame type and its payload.
+ * - DEFINE (1): u8 dictionary (0 = service names, 1 = levels), varint id (from 1), varint byte length, UTF-8 bytes.
+ *   Binds an id to a string for the rest of the stream.
+ * - ENTRY (2): i64 timestamp in epoch nanoseconds (Long.MIN_VALUE = none), varint service id, varint level id
+ *   (0 = none), varint message byte length + 1 (0 = none), UTF-8 message bytes.
+ * Varints are unsigned LEB128. Service names and levels are therefore sent once per stream instead of
+ * once per entry, and timestamps need no text parsing.
+ */
+public final class LogFrames {
+
+    /** Media type of a log frame stream posted over HTTP. */
+    public static final String MEDIA_TYPE = "application/x-log-frames";
+
+    /** "LGF1" */
+    public static final int MAGIC = 0x4C474631;
+
+    public static final byte TYPE_DEFINE = 1;
+    public static final byte TYPE_ENTRY = 2;
+
+    public static final byte DICTIONARY_SERVICE = 0;
+    public static final byte DICTIONARY_LEVEL = 1;
+
+    /** Timestamp value meaning "no timestamp". */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /** Maximum number of ids per dictionary and stream. */
+    public static final int MAX_DICTIONARY_SIZE = 65_536;
+
+    private LogFrames() {
+    }
+}
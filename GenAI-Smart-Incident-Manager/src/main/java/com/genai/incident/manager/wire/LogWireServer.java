@@ -0,0 +1,113 @@
+package com.genai.incident.manager.wire;
+
+import com.genai.incident.manager.service.LogBatchIngestionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts binary log frame streams (see LogFrames) over plain TCP, one stream per connection.
+ * Each connection is read by its own thread and fed into the ingestion pipeline; when the pipeline is full
+ * the reader waits, which pushes back on the sender through TCP flow control. A connection's entries are
+ * split into batches of a bounded size and age, and each batch's summary is logged once it is processed,
+ * so a shipper that stays connected for days neither accumulates state nor goes unreported.
+ * Connections beyond the configured maximum are closed right away.
+ * Enabled with incident.wire.tcp.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "incident.wire.tcp.enabled", havingValue = "true")
+public class LogWireServer {
+
+    private static final Logger log = LoggerFactory.getLogger(LogWireServer.class);
+
+    private final LogBatchIngestionService ingestionService;
+    private final int port;
+    private final long batchEntries;
+    private final Duration batchInterval;
+    private final ThreadPoolExecutor connectionExecutor;
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+
+    public LogWireServer(LogBatchIngestionService ingestionService,
+                         @Value("${incident.wire.tcp.port:9514}") int port,
+                         @Value("${incident.wire.tcp.max-connections:64}") int maxConnections,
+                         @Value("${incident.wire.tcp.batch-entries:10000}") long batchEntries,
+                         @Value("${incident.wire.tcp.batch-interval:PT1M}") Duration batchInterval) {
+        this.ingestionService = ingestionService;
+        this.port = port;
+        this.batchEntries = batchEntries;
+        this.batchInterval = batchInterval;
+        AtomicInteger counter = new AtomicInteger();
+        this.connectionExecutor = new ThreadPoolExecutor(0, maxConnections, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "log-wire-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(port));
+        acceptor = new Thread(this::acceptConnections, "log-wire-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Log frame TCP listener on port {}", port);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        serverSocket.close();
+        connectionExecutor.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                try {
+                    connectionExecutor.execute(() -> handle(socket));
+                } catch (RejectedExecutionException e) {
+                    log.warn("Refusing log frame connection from {}: too many connections", socket.getRemoteSocketAddress());
+                    socket.close();
+                }
+            } catch (SocketException e) {
+                break; // Closed by stop()
+            } catch (IOException e) {
+                log.warn("Failed to accept a log frame connection", e);
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        SocketAddress remote = socket.getRemoteSocketAddress();
+        try (socket; InputStream in = socket.getInputStream()) {
+            ingestionService.ingestFrameStream(in, batchEntries, batchInterval, batch -> batch.completion().thenAccept(
+                completed -> log.info("Log frames from {}: {}", remote, completed.toSummary())));
+            log.info("Log frame connection from {} closed", remote);
+        } catch (WireFormatException e) {
+            log.warn("Closing log frame connection from {}: {}", remote, e.getMessage());
+        } catch (IOException e) {
+            log.warn("Log frame connection from {} failed", remote, e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.genai.incident.manager.wire;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a log frame stream is malformed.
+ */
+public class WireFormatException extends IOException {
+
+    public WireFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,127 @@
+package com.genai.incident.manager.anomaly;
+
+import com.genai.incident.manager.classifier.IncidentRules;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import com.genai.incident.manager.service.IncidentAnalysisService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ServiceRateMonitorTest {
+
+    private static final int BUCKETS = 6; // Four baseline buckets ahead of the closed one
+
+    private final IncidentAnalysisService analysisService = mock(IncidentAnalysisService.class);
+    private final ServiceRateMonitor monitor = new ServiceRateMonitor(analysisService, true, Duration.ofSeconds(10),
+        BUCKETS, 2, 3, 4.0, 10, 3.0, 50, 3.0);
+
+    private void log(String serviceName, String level, int count) {
+        for (int i = 0; i < count; i++) {
+            monitor.record(new LogEntry(Instant.now(), serviceName, level, "message " + i));
+        }
+    }
+
+    private void steadyBaseline() {
+        for (int i = 0; i < BUCKETS - 2; i++) {
+            log("orders", "INFO", 100);
+            log("orders", "ERROR", 1);
+            monitor.rotate();
+        }
+        verify(analysisService, never()).correlate(any(), any());
+    }
+
+    private List<IncidentReport> raisedReports(int expected) {
+        ArgumentCaptor<IncidentReport> reports = ArgumentCaptor.forClass(IncidentReport.class);
+        verify(analysisService, times(expected)).correlate(any(), reports.capture());
+        return reports.getAllValues();
+    }
+
+    @Test
+    void errorRatioJumpRaisesAnIncident() {
+        steadyBaseline();
+
+        log("orders", "INFO", 100);
+        log("orders", "ERROR", 40);
+        monitor.rotate();
+
+        IncidentReport report = raisedReports(1).get(0);
+        assertEquals(IncidentRules.ERROR_RATE_ANOMALY.type(), report.getType());
+        assertEquals("orders", report.getServiceName());
+    }
+
+    @Test
+    void volumeSpikeRaisesAnIncident() {
+        steadyBaseline();
+
+        log("orders", "INFO", 1000);
+        log("orders", "ERROR", 1);
+        monitor.rotate();
+
+        IncidentReport report = raisedReports(1).get(0);
+        assertEquals(IncidentRules.VOLUME_ANOMALY.type(), report.getType());
+        assertTrue(report.getDescription().contains("surged"), report.getDescription());
+    }
+
+    @Test
+    void steadyTrafficRaisesNothing() {
+        steadyBaseline();
+        for (int i = 0; i < 2 * BUCKETS; i++) {
+            log("orders", "INFO", 95 + i % 10);
+            log("orders", "ERROR", i % 3);
+            monitor.rotate();
+        }
+
+        verify(analysisService, never()).correlate(any(), any());
+    }
+
+    @Test
+    void rotationMovesCountsThroughTheWindowAndClearsTheOldest() {
+        log("orders", "WARN", 5);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 5}, monitor.getRates("orders").orElseThrow().countsByLevel().get("WARN"));
+
+        monitor.rotate();
+        log("orders", "WARN", 2);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 5, 2}, monitor.getRates("orders").orElseThrow().countsByLevel().get("WARN"));
+
+        for (int i = 0; i < BUCKETS - 2; i++) {
+            monitor.rotate();
+        }
+        assertArrayEquals(new int[]{5, 2, 0, 0, 0, 0}, monitor.getRates("orders").orElseThrow().countsByLevel().get("WARN"));
+
+        // The writers' next bucket is the oldest one, cleared first
+        monitor.rotate();
+        assertArrayEquals(new int[]{2, 0, 0, 0, 0, 0}, monitor.getRates("orders").orElseThrow().countsByLevel().get("WARN"));
+    }
+
+    @Test
+    void slotsOfSilentServicesAreRecycled() {
+        log("orders", "INFO", 1);
+        log("billing", "INFO", 1);
+        log("shipping", "INFO", 1); // Both slots are taken
+        assertTrue(monitor.getRates("shipping").isEmpty());
+
+        // orders stays silent for a whole window while billing keeps logging
+        for (int i = 0; i < BUCKETS; i++) {
+            monitor.rotate();
+            log("billing", "INFO", 1);
+        }
+        assertTrue(monitor.getRates("orders").isEmpty());
+        assertTrue(monitor.getRates("billing").isPresent());
+
+        log("shipping", "INFO", 3);
+        assertEquals(3, monitor.getRates("shipping").orElseThrow().countsByLevel().get("INFO")[BUCKETS - 1]);
+    }
+}
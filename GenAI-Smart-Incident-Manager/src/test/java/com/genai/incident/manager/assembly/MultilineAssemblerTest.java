@@ -0,0 +1,129 @@
+package com.genai.incident.manager.assembly;
+
+import com.genai.incident.manager.model.LogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultilineAssemblerTest {
+
+    private final MultilineAssembler assembler = new MultilineAssembler(200, 2, 1_000_000_000L, 16);
+
+    private static LogEntry line(String service, String level, String message) {
+        return new LogEntry(Instant.now(), service, level, message);
+    }
+
+    private static List<String> messages(List<LogEntry> entries) {
+        return entries.stream().map(LogEntry::getMessage).toList();
+    }
+
+    @Test
+    void stitchesAStackTraceAndReleasesItOnTheNextRegularLine() {
+        List<LogEntry> ready = new ArrayList<>();
+        assertFalse(assembler.add(line("orders", "ERROR", "Request failed: java.lang.IllegalStateException: boom"), ready));
+        assertTrue(assembler.add(line("orders", null, "\tat com.shop.Orders.place(Orders.java:42)"), ready));
+        assertTrue(assembler.add(line("orders", null, "\tat com.shop.Api.post(Api.java:7)"), ready));
+        assertTrue(assembler.add(line("orders", null, "\tat java.lang.Thread.run(Thread.java:833)"), ready));
+        assertTrue(ready.isEmpty());
+
+        assembler.add(line("orders", "INFO", "Request served"), ready);
+
+        assertEquals(2, ready.size());
+        LogEntry event = ready.get(0);
+        assertEquals(4, event.getMessage().lines().count());
+        assertEquals("java.lang.IllegalStateException", event.getExceptionClass());
+        assertEquals(List.of("com.shop.Orders.place(Orders.java:42)", "com.shop.Api.post(Api.java:7)"), event.getStackFrames());
+        assertEquals("Request served", ready.get(1).getMessage());
+    }
+
+    @Test
+    void keepsServicesApart() {
+        List<LogEntry> ready = new ArrayList<>();
+        assembler.add(line("orders", "ERROR", "orders failed"), ready);
+        assembler.add(line("billing", "ERROR", "billing failed"), ready);
+        assembler.add(line("orders", null, "\tat com.shop.Orders.place(Orders.java:42)"), ready);
+        assembler.flushAll(ready);
+
+        assertEquals(List.of("orders failed\n\tat com.shop.Orders.place(Orders.java:42)", "billing failed"), messages(ready));
+    }
+
+    @Test
+    void truncatesEventsBeyondTheLineLimit() {
+        MultilineAssembler small = new MultilineAssembler(3, 2, 1_000_000_000L, 16);
+        List<LogEntry> ready = new ArrayList<>();
+        small.add(line("orders", "ERROR", "failed"), ready);
+        for (int i = 0; i < 5; i++) {
+            small.add(line("orders", null, "\tat com.shop.Frame" + i + ".run(Frame.java:1)"), ready);
+        }
+        small.flushAll(ready);
+
+        assertEquals(1, ready.size());
+        assertEquals(4, ready.get(0).getMessage().lines().count());
+        assertTrue(ready.get(0).getMessage().endsWith("(truncated)"));
+    }
+
+    @Test
+    void releasesIdleEventsAfterTheFlushTimeout() throws InterruptedException {
+        MultilineAssembler quick = new MultilineAssembler(200, 2, 10_000_000L, 16);
+        List<LogEntry> ready = new ArrayList<>();
+        quick.add(line("orders", "ERROR", "failed"), ready);
+        Thread.sleep(20);
+        quick.flushExpired(ready);
+
+        assertEquals(List.of("failed"), messages(ready));
+        ready.clear();
+        quick.flushAll(ready);
+        assertTrue(ready.isEmpty());
+    }
+
+    @Test
+    void releasesTheOldestEventBeyondTheStreamLimit() {
+        MultilineAssembler narrow = new MultilineAssembler(200, 2, 1_000_000_000L, 2);
+        List<LogEntry> ready = new ArrayList<>();
+        narrow.add(line("a", "ERROR", "a failed"), ready);
+        narrow.add(line("b", "ERROR", "b failed"), ready);
+        narrow.add(line("c", "ERROR", "c failed"), ready);
+
+        assertEquals(List.of("a failed"), messages(ready));
+    }
+
+    @Test
+    void undoneAddLeavesTheAssemblerAsBefore() {
+        List<LogEntry> ready = new ArrayList<>();
+        MultilineAssembler small = new MultilineAssembler(2, 2, 1_000_000_000L, 16);
+        small.add(line("orders", "ERROR", "first"), ready);
+        small.add(line("orders", null, "\tat com.shop.A.run(A.java:1)"), ready);
+        small.add(line("orders", null, "\tat com.shop.B.run(B.java:1)"), ready); // Truncated
+
+        LogEntry second = line("orders", "ERROR", "second");
+        small.add(second, ready);
+        assertEquals(1, ready.size());
+        small.undoAdd(second);
+
+        // The producer sends the line again after it was refused
+        ready.clear();
+        small.add(line("orders", "ERROR", "second"), ready);
+        small.flushAll(ready);
+        assertEquals(List.of("first\n\tat com.shop.A.run(A.java:1)\n\t... (truncated)", "second"), messages(ready));
+    }
+
+    @Test
+    void undoneAddRestoresAnEventEvictedForTheStreamLimit() {
+        MultilineAssembler narrow = new MultilineAssembler(200, 2, 1_000_000_000L, 1);
+        List<LogEntry> ready = new ArrayList<>();
+        narrow.add(line("a", "ERROR", "a failed"), ready);
+        LogEntry other = line("b", "ERROR", "b failed");
+        narrow.add(other, ready);
+        narrow.undoAdd(other);
+
+        ready.clear();
+        narrow.flushAll(ready);
+        assertEquals(List.of("a failed"), messages(ready));
+    }
+}
@@ -0,0 +1,113 @@
+package com.genai.incident.manager.classifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeywordMatcherTest {
+
+    @Test
+    void reportsEveryGroupWhoseKeywordOccurs() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of(
+                List.of("outofmemoryerror"),
+                List.of("timeout", "timed out"),
+                List.of("connection refused")));
+
+        assertEquals(0b011, matcher.scan("Request TIMED OUT after OutOfMemoryError", -1L, 0L));
+        assertEquals(0b100, matcher.scan("connect: Connection Refused", -1L, 0L));
+        assertEquals(0L, matcher.scan("all good", -1L, 0L));
+    }
+
+    @Test
+    void findsKeywordsThatOverlapOrNest() {
+        // "he" ends inside "she", and "hers" starts inside "she": only failure links find them all
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of(List.of("he"), List.of("she"), List.of("his"), List.of("hers")));
+
+        assertEquals(0b1011, matcher.scan("ushers", -1L, 0L));
+    }
+
+    @Test
+    void restrictsResultsToTheGroupMask() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of(List.of("error"), List.of("fatal")));
+
+        assertEquals(0b10, matcher.scan("fatal error", 0b10, 0L));
+    }
+
+    @Test
+    void stopsAtTheFirstGroupInTheStopMask() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of(List.of("first"), List.of("second")));
+
+        // The scan stops at "first", so the later "second" is never seen
+        assertEquals(0b01, matcher.scan("first then second", -1L, 0b01));
+        assertEquals(0b11, matcher.scan("second then first", -1L, 0b01));
+    }
+
+    @Test
+    void nonAsciiCharactersBreakMatches() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of(List.of("null")));
+
+        assertEquals(0L, matcher.scan("nu\u00e9ll", -1L, 0L));
+        assertEquals(1L, matcher.scan("\u00e9null\u00e9", -1L, 0L));
+        // Non-ASCII characters that fold to ASCII take part in the match (KELVIN SIGN -> 'k')
+        assertEquals(1L, KeywordMatcher.compile(List.of(List.of("ok"))).scan("O\u212A", -1L, 0L));
+    }
+
+    @Test
+    void rejectsInvalidKeywordTables() {
+        assertThrows(IllegalArgumentException.class, () -> KeywordMatcher.compile(List.of(List.of(""))));
+        assertThrows(IllegalArgumentException.class, () -> KeywordMatcher.compile(List.of(List.of("caf\u00e9"))));
+        List<List<String>> tooMany = new ArrayList<>();
+        for (int i = 0; i <= KeywordMatcher.MAX_GROUPS; i++) {
+            tooMany.add(List.of("k" + i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> KeywordMatcher.compile(tooMany));
+    }
+
+    @Test
+    void agreesWithNaiveSearchOnRandomInput() {
+        Random random = new Random(29);
+        String alphabet = "abcAB ";
+        for (int round = 0; round < 200; round++) {
+            List<List<String>> groups = new ArrayList<>();
+            for (int group = 0, count = 1 + random.nextInt(10); group < count; group++) {
+                List<String> keywords = new ArrayList<>();
+                for (int k = 0, n = 1 + random.nextInt(3); k < n; k++) {
+                    keywords.add(randomText(random, alphabet, 1 + random.nextInt(4)));
+                }
+                groups.add(keywords);
+            }
+            KeywordMatcher matcher = KeywordMatcher.compile(groups);
+            for (int text = 0; text < 50; text++) {
+                String message = randomText(random, alphabet, random.nextInt(40));
+                assertEquals(naiveScan(groups, message), matcher.scan(message, -1L, 0L), () -> groups + " in '" + message + "'");
+            }
+        }
+    }
+
+    private static long naiveScan(List<List<String>> groups, String message) {
+        String folded = message.toLowerCase(Locale.ROOT);
+        long found = 0L;
+        for (int group = 0; group < groups.size(); group++) {
+            for (String keyword : groups.get(group)) {
+                if (folded.contains(keyword.toLowerCase(Locale.ROOT))) {
+                    found |= 1L << group;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
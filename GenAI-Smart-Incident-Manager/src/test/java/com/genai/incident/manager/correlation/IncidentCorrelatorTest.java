@@ -0,0 +1,55 @@
+package com.genai.incident.manager.correlation;
+
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncidentCorrelatorTest {
+
+    private final IncidentCorrelator correlator = new IncidentCorrelator(Duration.ofMinutes(5), 3, Duration.ofMinutes(1));
+
+    private CorrelatedIncident correlate(String service, Instant timestamp) {
+        IncidentReport report = new IncidentReport(UUID.randomUUID().toString(), timestamp, true, "Database Connection Failure",
+            "Connection refused", "The database is unreachable.", "Check the database.");
+        report.setServiceName(service);
+        return correlator.correlate(new LogEntry(timestamp, service, "ERROR", "Connection refused to db-1"), report);
+    }
+
+    @Test
+    void repeatedEntriesWithinTheWindowFormOneIncident() {
+        Instant now = Instant.now();
+        CorrelatedIncident first = correlate("orders", now);
+        CorrelatedIncident second = correlate("orders", now.plusSeconds(30));
+
+        assertTrue(first.isNew());
+        assertFalse(second.isNew());
+        assertEquals(first.report().getId(), second.report().getId());
+        assertEquals(2, second.report().getOccurrences());
+    }
+
+    @Test
+    void farFutureTimestampDoesNotCloseOpenIncidents() {
+        Instant now = Instant.now();
+        correlate("orders", now.minusSeconds(3));
+        correlate("billing", now.minusSeconds(2));
+        correlate("shipping", now.minusSeconds(1));
+
+        // Opens a fourth group, so eviction runs with the watermark this entry set
+        CorrelatedIncident future = correlate("search", now.plus(365, ChronoUnit.DAYS));
+
+        assertTrue(future.report().getLastSeen().isBefore(now.plus(Duration.ofMinutes(2))));
+        // Only the least recently seen group made room; the others are still open
+        assertEquals(3, correlator.size());
+        assertFalse(correlate("billing", now).isNew());
+        assertFalse(correlate("shipping", now).isNew());
+    }
+}
@@ -0,0 +1,128 @@
+package com.genai.incident.manager.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.incident.manager.correlation.CorrelatedIncident;
+import com.genai.incident.manager.correlation.CorrelationKey;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the LlmGateway against the StubLlmServer through the real HTTP client.
+ */
+class LlmGatewayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubLlmServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private LlmGateway gateway(Duration latency, long tokensPerMinute, Duration cacheTtl) throws Exception {
+        server = new StubLlmServer(objectMapper, 0, latency);
+        server.start();
+        LlmClient client = new OpenAiCompatibleLlmClient(objectMapper, "http://localhost:" + server.getPort(), "",
+            "stub", 400, Duration.ofSeconds(5), 4);
+        return new LlmGateway(client, objectMapper, true, 4, tokensPerMinute, 400, Duration.ofSeconds(5), cacheTtl, 100);
+    }
+
+    private static CorrelatedIncident newIncident(String id) {
+        IncidentReport report = new IncidentReport(id, Instant.now(), true, "Database Connection Failure",
+            "Connection refused", "The database is unreachable.", "Check the database.");
+        report.setServiceName("orders");
+        report.setLogTemplate("Connection to <*> refused");
+        return new CorrelatedIncident(report, true,
+            new CorrelationKey("orders", "Database Connection Failure", "Connection to <*> refused"));
+    }
+
+    private static LogEntry logEntry() {
+        return new LogEntry(Instant.now(), "orders", "ERROR", "Connection to db-1:5432 refused");
+    }
+
+    @Test
+    void concurrentIdenticalPromptsAreCoalescedIntoOneCall() throws Exception {
+        LlmGateway gateway = gateway(Duration.ofMillis(300), 100_000, Duration.ofHours(1));
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<Optional<LlmAnalysis>>>> submitted = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            String id = "incident-" + i; // Different incidents, same error family: the prompts are identical
+            submitted.add(executor.submit(() -> {
+                start.await();
+                return gateway.analyze(newIncident(id), logEntry());
+            }));
+        }
+        start.countDown();
+
+        List<LlmAnalysis> analyses = new ArrayList<>();
+        for (Future<CompletableFuture<Optional<LlmAnalysis>>> future : submitted) {
+            analyses.add(future.get().join().orElseThrow());
+        }
+        executor.shutdown();
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, gateway.getStats().modelCalls());
+        assertEquals(callers - 1, gateway.getStats().coalesced());
+        assertTrue(analyses.stream().allMatch(analyses.get(0)::equals));
+        assertTrue(analyses.get(0).explanation().startsWith("Stub analysis"));
+    }
+
+    @Test
+    void cachedAnalysisIsReusedUntilItExpires() throws Exception {
+        LlmGateway gateway = gateway(Duration.ZERO, 100_000, Duration.ofMillis(500));
+
+        LlmAnalysis first = gateway.analyze(newIncident("a"), logEntry()).join().orElseThrow();
+        CompletableFuture<Optional<LlmAnalysis>> hit = gateway.analyze(newIncident("b"), logEntry());
+        assertTrue(hit.isDone(), "a cache hit completes immediately");
+        assertEquals(first, hit.join().orElseThrow());
+        assertEquals(1, gateway.getStats().cacheHits());
+        assertEquals(1, server.getRequestCount());
+
+        Thread.sleep(600);
+        assertTrue(gateway.analyze(newIncident("c"), logEntry()).join().isPresent());
+        assertEquals(1, gateway.getStats().cacheHits());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void callsBeyondTheTokenBudgetFallBackWithoutReachingTheModel() throws Exception {
+        // The estimate of a single call (prompt plus 400 output tokens) exceeds the whole budget
+        LlmGateway gateway = gateway(Duration.ZERO, 300, Duration.ofHours(1));
+
+        assertEquals(Optional.empty(), gateway.analyze(newIncident("a"), logEntry()).join());
+        assertEquals(1, gateway.getStats().fallbacks());
+        assertEquals(0, gateway.getStats().modelCalls());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    void tokenBudgetRejectsReservationsItCannotCoverAndRefundsUnusedTokens() {
+        TokenBudget budget = new TokenBudget(1000);
+
+        assertTrue(budget.tryReserve(800));
+        assertFalse(budget.tryReserve(800));
+        budget.settle(800, 100); // The call used fewer tokens than reserved
+        assertTrue(budget.tryReserve(800));
+    }
+}
@@ -0,0 +1,163 @@
+package com.genai.incident.manager.pipeline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.incident.manager.anomaly.ServiceRateMonitor;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import com.genai.incident.manager.service.IncidentAnalysisService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the pipeline with a classify stage held up by a latch, to exercise it while saturated.
+ */
+class IngestionPipelineTest {
+
+    private final IncidentAnalysisService analysisService = mock(IncidentAnalysisService.class);
+    private final CountDownLatch classifyBlocked = new CountDownLatch(1);
+    private ServiceRateMonitor rateMonitor;
+    private IngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        when(analysisService.classify(any())).thenAnswer(invocation -> {
+            classifyBlocked.await();
+            LogEntry entry = invocation.getArgument(0);
+            return new IncidentReport(null, entry.getTimestamp(), false, "None", entry.getMessage(), null, null);
+        });
+        rateMonitor = new ServiceRateMonitor(analysisService, true, Duration.ofSeconds(10), 30,
+            100, 12, 4.0, 10, 3.0, 50, 3.0);
+        pipeline = new IngestionPipeline(new ObjectMapper(), analysisService, rateMonitor, 2, 1, 1, 1, 1, 0.5, 0.8,
+            Duration.ofMillis(50), Duration.ofSeconds(1), 200, 5, Duration.ofMillis(20), 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        classifyBlocked.countDown();
+        pipeline.stop();
+    }
+
+    private static LogEntry error(String message) {
+        return new LogEntry(Instant.now(), "orders", "ERROR", message);
+    }
+
+    // Fills the classify queue until producers are turned away.
+    private IngestionBatch saturate() {
+        IngestionBatch filler = pipeline.newBatch(false);
+        assertThrows(PipelineSaturatedException.class, () -> {
+            for (int i = 0; i < 10; i++) {
+                pipeline.submit(filler, error("filler " + i));
+            }
+        });
+        return filler;
+    }
+
+    private int countedErrors() {
+        int[] errors = rateMonitor.getRates("orders").orElseThrow().countsByLevel().get("ERROR");
+        return errors[errors.length - 1];
+    }
+
+    @Test
+    void flushingIdleEventsDoesNotWaitForQueueSpace() throws Exception {
+        IngestionBatch batch = pipeline.newBatch(true);
+        pipeline.submit(batch, error("java.lang.IllegalStateException: boom"));
+        saturate();
+        Thread.sleep(50); // Past the flush timeout
+
+        // The scheduler thread must return even though the classify queue is full
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> pipeline.flushIdleEvents());
+
+        classifyBlocked.countDown();
+        pipeline.seal(batch);
+        batch.completion().get(5, TimeUnit.SECONDS);
+        verify(analysisService, times(1)).classify(argThat(entry -> entry.getMessage().endsWith("boom")));
+    }
+
+    @Test
+    void refusedLineIsNeitherDuplicatedNorLosesTheEventItReleased() throws Exception {
+        IngestionBatch batch = pipeline.newBatch(true);
+        pipeline.submit(batch, error("first"));
+        saturate();
+
+        // The second line releases the first event, which cannot be queued: the producer is told to retry
+        assertThrows(PipelineSaturatedException.class, () -> pipeline.submit(batch, error("second")));
+
+        classifyBlocked.countDown();
+        while (pipeline.getStats().stages().get(1).queued() > 0) {
+            Thread.sleep(10);
+        }
+        pipeline.submit(batch, error("second"));
+        pipeline.seal(batch);
+        batch.completion().get(5, TimeUnit.SECONDS);
+
+        verify(analysisService, times(1)).classify(argThat(entry -> entry.getMessage().equals("first")));
+        verify(analysisService, times(1)).classify(argThat(entry -> entry.getMessage().equals("second")));
+        assertEquals(2, batch.getReceived());
+    }
+
+    @Test
+    void refusedEntriesAreNotCountedByTheRateMonitor() throws Exception {
+        IngestionBatch filler = saturate();
+        assertEquals(filler.getReceived(), countedErrors());
+
+        assertThrows(PipelineSaturatedException.class, () -> pipeline.submit(filler, error("refused")));
+        assertEquals(filler.getReceived(), countedErrors());
+
+        classifyBlocked.countDown();
+        while (pipeline.getStats().stages().get(1).queued() > 0) {
+            Thread.sleep(10);
+        }
+        pipeline.submit(filler, error("refused"));
+        assertEquals(filler.getReceived(), countedErrors());
+    }
+
+    @Test
+    void rollingOverCarriesHeldEventsToTheNextBatch() throws Exception {
+        classifyBlocked.countDown();
+        IngestionBatch first = pipeline.newBatch(true);
+        pipeline.submit(first, error("java.lang.IllegalStateException: boom"));
+
+        IngestionBatch second = pipeline.rollOver(first);
+
+        first.completion().get(5, TimeUnit.SECONDS);
+        assertEquals(0, first.getReceived());
+        pipeline.submit(second, new LogEntry(Instant.now(), "orders", null, "\tat com.example.Orders.place(Orders.java:42)"));
+        pipeline.seal(second);
+        second.completion().get(5, TimeUnit.SECONDS);
+        assertEquals(2, second.getReceived());
+        assertEquals(1, second.toSummary().getMerged());
+        verify(analysisService, times(1)).classify(argThat(entry -> entry.getMessage().endsWith("(Orders.java:42)")));
+    }
+
+    @Test
+    void idleEventsOfARolledOverStreamAreReleasedToItsLatestBatch() throws Exception {
+        classifyBlocked.countDown();
+        IngestionBatch first = pipeline.newBatch(true);
+        pipeline.submit(first, error("java.lang.IllegalStateException: boom"));
+        IngestionBatch second = pipeline.rollOver(first);
+        Thread.sleep(50); // Past the flush timeout
+
+        pipeline.flushIdleEvents();
+        pipeline.seal(second);
+
+        second.completion().get(5, TimeUnit.SECONDS);
+        assertEquals(1, second.getReceived());
+        verify(analysisService, times(1)).classify(argThat(entry -> entry.getMessage().endsWith("boom")));
+    }
+}
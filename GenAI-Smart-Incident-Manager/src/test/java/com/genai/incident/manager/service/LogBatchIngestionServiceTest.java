@@ -0,0 +1,87 @@
+package com.genai.incident.manager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.incident.manager.anomaly.ServiceRateMonitor;
+import com.genai.incident.manager.model.IncidentReport;
+import com.genai.incident.manager.model.LogEntry;
+import com.genai.incident.manager.pipeline.IngestionBatch;
+import com.genai.incident.manager.pipeline.IngestionPipeline;
+import com.genai.incident.manager.wire.BufferPool;
+import com.genai.incident.manager.wire.LogFrameEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LogBatchIngestionServiceTest {
+
+    private final IncidentAnalysisService analysisService = mock(IncidentAnalysisService.class);
+    private final BufferPool bufferPool = new BufferPool(1024, 2);
+    private final IngestionPipeline pipeline = new IngestionPipeline(new ObjectMapper(), analysisService,
+        new ServiceRateMonitor(analysisService, false, Duration.ofSeconds(10), 30, 100, 12, 4.0, 10, 3.0, 50, 3.0),
+        64, 1, 1, 1, 1, 0.5, 0.8, Duration.ofMillis(200), Duration.ofSeconds(1), 200, 5, Duration.ofSeconds(2), 16);
+    private final LogBatchIngestionService service = new LogBatchIngestionService(pipeline, new ObjectMapper(), bufferPool);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void longLivedStreamIsSplitIntoBatchesWithoutBreakingEvents() throws Exception {
+        when(analysisService.classify(any())).thenAnswer(invocation -> {
+            LogEntry entry = invocation.getArgument(0);
+            return new IncidentReport(null, entry.getTimestamp(), false, "None", entry.getMessage(), null, null);
+        });
+        byte[] stream = encode(List.of(
+            entry("INFO", "started"),
+            entry("INFO", "order placed"),
+            entry("ERROR", "java.lang.IllegalStateException: boom"),
+            entry(null, "\tat com.example.Orders.place(Orders.java:42)"), // Continues the event across the rollover
+            entry("INFO", "order shipped"),
+            entry("INFO", "order delivered"),
+            entry("INFO", "stopped")));
+        List<IngestionBatch> sealed = new ArrayList<>();
+
+        service.ingestFrameStream(new ByteArrayInputStream(stream), 3, Duration.ofHours(1), sealed::add);
+
+        assertEquals(3, sealed.size());
+        for (IngestionBatch batch : sealed) {
+            batch.completion().get(5, TimeUnit.SECONDS);
+        }
+        // The held error event is counted by the batch that finished it
+        assertEquals(List.of(2L, 4L, 1L), sealed.stream().map(IngestionBatch::getReceived).toList());
+        verify(analysisService, times(6)).classify(any());
+        verify(analysisService, times(1)).classify(argThat(entry ->
+            entry.getMessage().equals("java.lang.IllegalStateException: boom\n\tat com.example.Orders.place(Orders.java:42)")));
+    }
+
+    private static LogEntry entry(String level, String message) {
+        return new LogEntry(Instant.now(), "orders", level, message);
+    }
+
+    private byte[] encode(List<LogEntry> entries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LogFrameEncoder encoder = new LogFrameEncoder(out, bufferPool.getBufferSize());
+        for (LogEntry entry : entries) {
+            encoder.write(entry);
+        }
+        encoder.flush();
+        return out.toByteArray();
+    }
+}
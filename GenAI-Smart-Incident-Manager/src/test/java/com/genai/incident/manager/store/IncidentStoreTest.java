@@ -0,0 +1,133 @@
+package com.genai.incident.manager.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genai.incident.manager.model.IncidentReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncidentStoreTest {
+
+    private static final int INCIDENTS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    private IncidentStore openStore(long segmentBytes) throws Exception {
+        IncidentStore store = new IncidentStore(objectMapper, directory.toString(), Duration.ofDays(30), Duration.ofHours(1),
+            segmentBytes, Duration.ZERO);
+        store.open();
+        return store;
+    }
+
+    private static IncidentReport report(String id, String service, long occurrences) {
+        IncidentReport report = new IncidentReport(id, Instant.now(), true, "Database Connection Failure",
+            "Connection refused", "The database is unreachable.", "Check the database.");
+        report.setServiceName(service);
+        report.setOccurrences(occurrences);
+        report.setLastSeen(Instant.now());
+        return report;
+    }
+
+    @Test
+    void findsAndQueriesStoredIncidents() throws Exception {
+        IncidentStore store = openStore(1 << 20);
+        store.update(report("a", "orders", 1));
+        store.update(report("b", "billing", 1));
+        store.update(report("a", "orders", 2));
+
+        assertEquals(2, store.findById("a").orElseThrow().getOccurrences());
+        assertEquals(List.of("a"), store.query(new IncidentQuery("orders", null, null, null, 10)).stream()
+            .map(IncidentReport::getId).toList());
+        store.close();
+
+        IncidentStore reopened = openStore(1 << 20);
+        assertEquals(2, reopened.size());
+        assertEquals(2, reopened.findById("a").orElseThrow().getOccurrences());
+        reopened.close();
+    }
+
+    @Test
+    void compactionRunningAlongsideSegmentRollingAppendsLosesNothing() throws Exception {
+        // Tiny segments, so appends keep rolling the active segment while compaction runs
+        IncidentStore store = openStore(2048);
+        Map<String, AtomicLong> written = new ConcurrentHashMap<>();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger unreadable = new AtomicInteger();
+
+        Thread[] writers = new Thread[2];
+        for (int w = 0; w < writers.length; w++) {
+            int writer = w;
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    // Each writer owns half of the incidents, so versions of one incident are written in order
+                    String id = "incident-" + (writer + 2 * ThreadLocalRandom.current().nextInt(INCIDENTS / 2));
+                    long occurrences = written.computeIfAbsent(id, key -> new AtomicLong()).get() + 1;
+                    store.update(report(id, "service-" + writer, occurrences));
+                    written.get(id).set(occurrences);
+                }
+            });
+        }
+        Thread compactor = new Thread(() -> {
+            while (!done.get()) {
+                store.compact();
+            }
+        });
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                for (Map.Entry<String, AtomicLong> incident : written.entrySet()) {
+                    // Incidents whose first update has not returned yet are not expected to be readable
+                    if (incident.getValue().get() > 0 && store.findById(incident.getKey()).isEmpty()) {
+                        unreadable.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        compactor.start();
+        reader.start();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        done.set(true);
+        compactor.join();
+        reader.join();
+        store.compact();
+
+        assertEquals(0, unreadable.get(), "incidents unreadable during compaction");
+        assertAllReadable(store, written);
+        store.close();
+
+        IncidentStore reopened = openStore(2048);
+        assertAllReadable(reopened, written);
+        reopened.close();
+    }
+
+    private static void assertAllReadable(IncidentStore store, Map<String, AtomicLong> written) {
+        assertEquals(written.size(), store.size());
+        written.forEach((id, occurrences) -> {
+            Optional<IncidentReport> report = store.findById(id);
+            assertTrue(report.isPresent(), id + " is lost");
+            assertEquals(occurrences.get(), report.get().getOccurrences(), id);
+        });
+    }
+}
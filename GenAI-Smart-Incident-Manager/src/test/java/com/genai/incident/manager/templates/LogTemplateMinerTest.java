@@ -0,0 +1,83 @@
+package com.genai.incident.manager.templates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogTemplateMinerTest {
+
+    @Test
+    void similarMessagesShareOneGeneralizedTemplate() {
+        LogTemplateMiner miner = new LogTemplateMiner(4, 0.5, 100, 1000, 4);
+
+        LogTemplate first = miner.mine("Failed to write block blk_17 to replica dn-3");
+        LogTemplate second = miner.mine("Failed to write block blk_42 to replica dn-7");
+        LogTemplate third = miner.mine("Failed to write block meta to replica backup");
+
+        assertTrue(first.isNew());
+        assertFalse(second.isNew());
+        assertEquals(first.templateId(), third.templateId());
+        assertEquals("Failed to write block <*> to replica <*>", third.template());
+        assertEquals(List.of("meta", "backup"), third.parameters());
+    }
+
+    @Test
+    void dissimilarMessagesGetDistinctTemplates() {
+        LogTemplateMiner miner = new LogTemplateMiner(4, 0.5, 100, 1000, 4);
+
+        LogTemplate write = miner.mine("Connection refused by host alpha");
+        LogTemplate read = miner.mine("Connection reset while reading body");
+
+        assertNotEquals(write.templateId(), read.templateId());
+        assertEquals(2, miner.getTemplates().size());
+    }
+
+    @Test
+    void evictionBoundsTemplatesAndPrunesTheTree() {
+        LogTemplateMiner miner = new LogTemplateMiner(4, 0.5, 100, 4, 1);
+        Random random = new Random(31);
+
+        // Every message takes a token path never seen before
+        for (int i = 0; i < 5000; i++) {
+            miner.mine(word(random) + " " + word(random) + " " + word(random) + " failed");
+        }
+
+        assertEquals(4, miner.getTemplates().size());
+        // Each live template needs at most one node per routed prefix token (2 with depth 4)
+        assertTrue(miner.nodeCount() <= 4 * 2, () -> miner.nodeCount() + " nodes");
+    }
+
+    @Test
+    void pruningKeepsNodesSharedWithLiveTemplates() {
+        LogTemplateMiner miner = new LogTemplateMiner(4, 0.9, 100, 2, 1);
+
+        // Routed by their first two tokens: disk -> full, disk -> quota, disk -> gone
+        LogTemplate full = miner.mine("disk full on volume data");
+        miner.mine("disk full in cache tmp");
+        miner.mine("disk full on volume data");
+        miner.mine("disk quota for user root"); // Evicts "disk full in ...", whose leaf still holds "disk full on ..."
+        assertEquals(3, miner.nodeCount());
+
+        miner.mine("disk full on volume data");
+        miner.mine("disk gone from mount home"); // Evicts "disk quota ...": its leaf goes, "disk" stays
+        assertEquals(3, miner.nodeCount());
+
+        LogTemplate again = miner.mine("disk full on volume data");
+        assertFalse(again.isNew());
+        assertEquals(full.templateId(), again.templateId());
+    }
+
+    private static String word(Random random) {
+        char[] letters = new char[6];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,113 @@
+package com.genai.incident.manager.wire;
+
+import com.genai.incident.manager.model.LogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogFrameCodecTest {
+
+    private final BufferPool bufferPool = new BufferPool(1024, 2);
+
+    private byte[] encode(List<LogEntry> entries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LogFrameEncoder encoder = new LogFrameEncoder(out, bufferPool.getBufferSize());
+        for (LogEntry entry : entries) {
+            encoder.write(entry);
+        }
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private List<LogEntry> decode(InputStream in) throws IOException, InterruptedException {
+        List<LogEntry> entries = new ArrayList<>();
+        new LogFrameDecoder(bufferPool).decode(in, entries::add);
+        return entries;
+    }
+
+    private static void assertSameEntry(LogEntry expected, LogEntry actual) {
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getServiceName(), actual.getServiceName());
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    // Delivers the stream one byte per read, so frames and headers arrive split
+    private static InputStream trickle(byte[] bytes) {
+        return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(1, length));
+            }
+        };
+    }
+
+    private static List<LogEntry> sampleEntries() {
+        return List.of(
+            new LogEntry(Instant.parse("2024-03-01T12:00:00.123456789Z"), "orders", "ERROR", "Connection refused"),
+            new LogEntry(Instant.parse("1969-12-31T23:59:59.5Z"), "orders", "INFO", "multi\nline \u00e9\u4e2d\ud83d\ude00"),
+            new LogEntry(null, null, null, null),
+            new LogEntry(Instant.EPOCH, "billing", "WARN", ""),
+            new LogEntry(Instant.parse("2024-03-01T12:00:01Z"), "billing", "ERROR", "Timeout"));
+    }
+
+    @Test
+    void roundTripsEntries() throws Exception {
+        List<LogEntry> entries = sampleEntries();
+
+        List<LogEntry> decoded = decode(new ByteArrayInputStream(encode(entries)));
+
+        assertEquals(entries.size(), decoded.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertSameEntry(entries.get(i), decoded.get(i));
+        }
+        // Dictionary strings are shared rather than allocated per entry
+        assertSame(decoded.get(0).getServiceName(), decoded.get(1).getServiceName());
+    }
+
+    @Test
+    void decodesStreamsDeliveredInSmallReads() throws Exception {
+        List<LogEntry> entries = sampleEntries();
+
+        List<LogEntry> decoded = decode(trickle(encode(entries)));
+
+        assertEquals(entries.size(), decoded.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertSameEntry(entries.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    void truncatesMessagesLongerThanAFrame() throws Exception {
+        LogEntry entry = new LogEntry(Instant.EPOCH, "orders", "ERROR", "x".repeat(5000));
+
+        LogEntry decoded = decode(new ByteArrayInputStream(encode(List.of(entry)))).get(0);
+
+        assertEquals(bufferPool.getBufferSize() - 28, decoded.getMessage().length());
+    }
+
+    @Test
+    void rejectsMalformedStreams() throws Exception {
+        byte[] stream = encode(sampleEntries());
+
+        assertThrows(WireFormatException.class, () -> decode(new ByteArrayInputStream("{\"level\":\"ERROR\"}".getBytes())));
+        assertThrows(WireFormatException.class, () -> decode(new ByteArrayInputStream(Arrays.copyOf(stream, stream.length - 3))));
+
+        // An entry frame referring to a service that was never defined
+        ByteArrayOutputStream undefined = new ByteArrayOutputStream();
+        undefined.write(new byte[] {0x4C, 0x47, 0x46, 0x31, 0, 0, 0, 12, LogFrames.TYPE_ENTRY, 0, 0, 0, 0, 0, 0, 0, 0, 7, 0, 0});
+        assertThrows(WireFormatException.class, () -> decode(new ByteArrayInputStream(undefined.toByteArray())));
+    }
+}